@@ -0,0 +1,106 @@
+package com.apargo.services.message_report.config;
+
+import com.apargo.services.message_report.dto.response.CursorPageResponse;
+import com.apargo.services.message_report.dto.response.InboxItemResponse;
+import com.apargo.services.message_report.dto.response.TickStatus;
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.enums.MessageDirection;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes one inbox page with each response encoding, using the same
+ * mappers as the message converters (BinaryEncodingConfig for Smile / CBOR).
+ *
+ *   mvn -Pbench test-compile exec:exec -Djmh.args="EncodingBenchmark -prof gc"
+ *
+ * The score is the time to encode a page. Payload sizes are printed once per
+ * fork ("# payload: …") because JMH has no per-op size counter; gc.alloc.rate.norm
+ * covers the encoder's own garbage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    String encoding;
+
+    @Param({"50"})
+    int rows;
+
+    private ObjectMapper                          mapper;
+    private CursorPageResponse<InboxItemResponse> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = switch (encoding) {
+            case "json"  -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> BinaryEncodingConfig.binary(Jackson2ObjectMapperBuilder.smile());
+            case "cbor"  -> BinaryEncodingConfig.binary(Jackson2ObjectMapperBuilder.cbor());
+            default      -> throw new IllegalArgumentException(encoding);
+        };
+        page = page(rows);
+        System.out.printf("# payload: %s %d rows = %d bytes%n", encoding, rows, encode().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private static CursorPageResponse<InboxItemResponse> page(int rows) {
+        Instant now = Instant.parse("2026-03-01T10:00:00Z");
+        List<InboxItemResponse> data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(InboxItemResponse.builder()
+                    .conversationId(100_000L + i)
+                    .contactId(50_000L + i)
+                    .wabaAccountId(101L)
+                    .status(ConversationStatus.OPEN)
+                    .contactName("Contact " + i)
+                    .contactPhone("+55119" + (10_000_000 + i))
+                    .lastMessagePreview("Your order #" + (4_000 + i) + " has shipped and will arrive tomorrow")
+                    .lastMessageAt(now.minusSeconds(i * 37L))
+                    .lastMessageDirection(i % 3 == 0 ? MessageDirection.OUTBOUND : MessageDirection.INBOUND)
+                    .tickStatus(TickStatus.builder().isSent(true).isDelivered(i % 2 == 0).build())
+                    .unreadCount(i % 4)
+                    .conversationOpenUntil(now.plusSeconds(3_600L - i))
+                    .isSessionActive(true)
+                    .sessionRemainingMs(3_600_000L - i)
+                    .assignedType(AssignedType.USER)
+                    .assignedId(7L)
+                    .build());
+        }
+        return CursorPageResponse.<InboxItemResponse>builder()
+                .data(data)
+                .pageSize(rows)
+                .totalCount(1_234L)
+                .nextCursor("eyJ0IjoxNzQwODIzMjAwMDAwLCJpZCI6MTAwMDQ5fQ")
+                .hasMore(true)
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package com.apargo.services.message_report.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Template enrichment lookups for one chat page: build the (name, language)
+ * map from the loaded templates, then look every row up in it.
+ *
+ *   stringKey   — the old "name|language" concatenated key
+ *   templateKey — TemplateKey
+ *
+ * Run with -prof gc and compare gc.alloc.rate.norm (bytes per page):
+ *   mvn -Pbench test-compile exec:exec -Djmh.args="TemplateKeyBenchmark -prof gc"
+ *
+ * Row strings are distinct instances, as they are when read from JDBC, so
+ * equals() does the real character compare.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateKeyBenchmark {
+
+    @Param({"50"})
+    int rows;
+
+    @Param({"5"})
+    int templates;
+
+    private String[] templateNames;
+    private String[] templateLanguages;
+    private String[] rowNames;
+    private String[] rowLanguages;
+
+    @Setup
+    public void setUp() {
+        templateNames     = new String[templates];
+        templateLanguages = new String[templates];
+        for (int t = 0; t < templates; t++) {
+            templateNames[t]     = "order_update_" + t;
+            templateLanguages[t] = t % 2 == 0 ? "en_US" : "pt_BR";
+        }
+        rowNames     = new String[rows];
+        rowLanguages = new String[rows];
+        for (int r = 0; r < rows; r++) {
+            int t = r % templates;
+            rowNames[r]     = new String(templateNames[t].toCharArray());
+            rowLanguages[r] = new String(templateLanguages[t].toCharArray());
+        }
+    }
+
+    @Benchmark
+    public void stringKey(Blackhole bh) {
+        Map<String, Integer> map = new HashMap<>(templates * 2);
+        for (int t = 0; t < templates; t++) {
+            map.putIfAbsent(templateNames[t] + "|" + templateLanguages[t], t);
+        }
+        for (int r = 0; r < rows; r++) {
+            bh.consume(map.get(rowNames[r] + "|" + rowLanguages[r]));
+        }
+    }
+
+    @Benchmark
+    public void templateKey(Blackhole bh) {
+        Map<TemplateKey, Integer> map = new HashMap<>(templates * 2);
+        for (int t = 0; t < templates; t++) {
+            map.putIfAbsent(TemplateKey.of(templateNames[t], templateLanguages[t]), t);
+        }
+        for (int r = 0; r < rows; r++) {
+            bh.consume(map.get(TemplateKey.of(rowNames[r], rowLanguages[r])));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.apargo.services.message_report.config;
+
+import com.apargo.services.message_report.service.admission.AdmissionControl;
+import com.apargo.services.message_report.service.admission.AdmissionInterceptor;
+import com.apargo.services.message_report.service.query.QueryGuard;
+import com.apargo.services.message_report.service.query.QueryGuardInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Interceptors in front of the database-backed read endpoints:
+ *   1. admission control (message-report.admission.enabled), so a rejected
+ *      request never starts anything;
+ *   2. the query guard's per-request cancellation scope.
+ * Ingest, analytics and admin endpoints go through neither.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private static final String[] READ_PATHS = {"/api/chats/**", "/api/v1/**", "/api/contacts/**"};
+
+    private final ObjectProvider<AdmissionControl> admission;
+    private final QueryGuard                       queryGuard;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        AdmissionControl control = admission.getIfAvailable();
+        if (control != null) {
+            registry.addInterceptor(new AdmissionInterceptor(control))
+                    .addPathPatterns(READ_PATHS)
+                    .order(0);
+        }
+        registry.addInterceptor(new QueryGuardInterceptor(queryGuard))
+                .addPathPatterns(READ_PATHS)
+                .order(1);
+    }
+}
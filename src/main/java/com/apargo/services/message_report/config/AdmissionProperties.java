@@ -0,0 +1,53 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Admission control in front of the connection pool (service.admission).
+ *
+ *   enabled              – admit /api/chats, /api/v1 and /api/contacts requests through the bulkheads
+ *   organization-share   – most of a bulkhead's limit one organization may hold at once
+ *   cheap / expensive    – one bulkhead each:
+ *     initial-limit      – starting concurrency
+ *     min-limit/max-limit– bounds of the adaptive limit (keep the sum of max-limits under the pool size)
+ *     target-latency     – above this the limit is cut (× backoff), below it grows by 1/limit per request
+ *     backoff            – multiplicative decrease factor
+ *     max-queue-wait     – how long a request may wait for a free slot before a 429
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.admission")
+public class AdmissionProperties {
+
+    private boolean enabled           = false;
+    private double  organizationShare = 0.5;
+    private Limits  cheap             = new Limits(10, 2, 14, Duration.ofMillis(250), Duration.ofMillis(100));
+    private Limits  expensive         = new Limits(3, 1, 5, Duration.ofSeconds(2), Duration.ofMillis(250));
+
+    @Getter
+    @Setter
+    public static class Limits {
+        private int      initialLimit;
+        private int      minLimit;
+        private int      maxLimit;
+        private Duration targetLatency;
+        private double   backoff      = 0.9;
+        private Duration maxQueueWait;
+
+        public Limits() {}
+
+        Limits(int initialLimit, int minLimit, int maxLimit, Duration targetLatency, Duration maxQueueWait) {
+            this.initialLimit  = initialLimit;
+            this.minLimit      = minLimit;
+            this.maxLimit      = maxLimit;
+            this.targetLatency = targetLatency;
+            this.maxQueueWait  = maxQueueWait;
+        }
+    }
+}
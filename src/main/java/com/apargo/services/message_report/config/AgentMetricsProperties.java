@@ -0,0 +1,32 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Agent productivity metrics (service.analytics.AgentMetricsEngine).
+ *
+ *   interval      – how often today (and any unfinished past day) is recomputed
+ *   chunk-size    – conversations per parallel walk
+ *   parallelism   – concurrent conversation chunks
+ *   lookback      – history read before the day so an inbound from late the previous
+ *                   day is still "pending" when the reply comes after midnight
+ *   initial-days  – days computed on the first run
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.agent-metrics")
+public class AgentMetricsProperties {
+
+    private boolean  enabled      = false;
+    private Duration interval     = Duration.ofMinutes(15);
+    private int      chunkSize    = 500;
+    private int      parallelism  = 4;
+    private Duration lookback     = Duration.ofHours(24);
+    private int      initialDays  = 7;
+}
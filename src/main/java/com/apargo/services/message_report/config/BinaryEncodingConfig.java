@@ -0,0 +1,100 @@
+package com.apargo.services.message_report.config;
+
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compact binary encodings for the REST responses, selected by the Accept header:
+ *
+ *   Accept: application/x-jackson-smile  → Smile (repeated field names sent once, then back-referenced)
+ *   Accept: application/cbor             → CBOR (RFC 8949)
+ *   anything else                        → JSON, unchanged
+ *
+ * Binary mappers write Instants as epoch-millis numbers and enums as ordinals,
+ * so clients must decode enums against the declaration order in the enums package.
+ * Spring registers plain Smile / CBOR converters by default; these replace
+ * them in place, so the JSON converter stays first and existing clients see
+ * no change. Body writes are timed as message_report_serialization_seconds{encoding}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class BinaryEncodingConfig implements WebMvcConfigurer {
+
+    private final ReadPathMetrics metrics;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        Timer smile = metrics.serialization("smile");
+        Timer cbor  = metrics.serialization("cbor");
+
+        HttpMessageConverter<?> smileConverter = new MappingJackson2SmileHttpMessageConverter(binary(Jackson2ObjectMapperBuilder.smile())) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long start = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    smile.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+        HttpMessageConverter<?> cborConverter = new MappingJackson2CborHttpMessageConverter(binary(Jackson2ObjectMapperBuilder.cbor())) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long start = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    cbor.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+
+        replace(converters, MappingJackson2SmileHttpMessageConverter.class, smileConverter);
+        replace(converters, MappingJackson2CborHttpMessageConverter.class, cborConverter);
+    }
+
+    /** Swaps the first converter of {@code type} for {@code replacement} and drops any others; appends if none. */
+    private static void replace(List<HttpMessageConverter<?>> converters, Class<?> type,
+                                HttpMessageConverter<?> replacement) {
+        boolean replaced = false;
+        for (ListIterator<HttpMessageConverter<?>> it = converters.listIterator(); it.hasNext(); ) {
+            if (!type.isInstance(it.next())) continue;
+            if (replaced) {
+                it.remove();
+            } else {
+                it.set(replacement);
+                replaced = true;
+            }
+        }
+        if (!replaced) converters.add(replacement);
+    }
+
+    static ObjectMapper binary(Jackson2ObjectMapperBuilder builder) {
+        return builder
+                .featuresToEnable(
+                        SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+    }
+}
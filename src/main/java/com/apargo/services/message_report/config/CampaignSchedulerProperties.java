@@ -0,0 +1,37 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Scheduled-broadcast starter (service.scheduler).
+ *
+ *   tick              – timing wheel resolution; campaigns start within one tick
+ *                       of scheduled_at
+ *   horizon           – how far ahead SCHEDULED campaigns are loaded into the wheel
+ *   refresh-interval  – how often the horizon is re-read (new / moved / cancelled
+ *                       campaigns) and the lease renewed
+ *   lease-ttl         – a node that stops renewing loses the lease after this long;
+ *                       must be comfortably larger than refresh-interval
+ *   max-lateness      – a campaign this far past scheduled_at is marked FAILED
+ *                       instead of started
+ *   node-id           – lease owner name; defaults to host:pid
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.campaign-scheduler")
+public class CampaignSchedulerProperties {
+
+    private boolean  enabled          = false;
+    private Duration tick             = Duration.ofMillis(100);
+    private Duration horizon          = Duration.ofHours(24);
+    private Duration refreshInterval  = Duration.ofSeconds(10);
+    private Duration leaseTtl         = Duration.ofSeconds(30);
+    private Duration maxLateness      = Duration.ofHours(1);
+    private String   nodeId;
+}
@@ -0,0 +1,39 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * message_daily_stats rollups (service.rollup).
+ *
+ *   interval              – how often messages inserted since the last pass are added
+ *   max-ids-per-pass      – id range applied per transaction while catching up
+ *   status-lag            – status events younger than this are left for the next pass
+ *                           (their transactions may not have committed yet)
+ *   status-max-window     – message_status_events time range handled per transaction;
+ *                           the days of messages with status changes (SENT → READ …)
+ *                           are rebuilt, however old
+ *   settle-days           – today and this many previous days are rebuilt exactly every
+ *                           settle-interval, picking up rows committed after the id
+ *                           watermark passed them
+ *   backfill-parallelism  – concurrent (project, day) rebuilds during a backfill
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.daily-stats")
+public class DailyStatsProperties {
+
+    private boolean  enabled              = false;
+    private Duration interval             = Duration.ofMinutes(1);
+    private int      maxIdsPerPass        = 50_000;
+    private Duration statusLag            = Duration.ofMinutes(1);
+    private Duration statusMaxWindow      = Duration.ofHours(1);
+    private int      settleDays           = 2;
+    private Duration settleInterval       = Duration.ofHours(1);
+    private int      backfillParallelism  = 4;
+}
@@ -0,0 +1,30 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Delivery-latency analytics (service.analytics).
+ *
+ *   interval          – how often new status events are folded into the histograms
+ *   max-window        – most event time consumed in one transaction (catch-up / backfill)
+ *   lag               – events newer than now - lag are left for the next pass, so rows
+ *                       committed slightly out of created_at order aren't skipped
+ *   initial-lookback  – where the first pass starts when there is no watermark yet
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.delivery-latency")
+public class DeliveryLatencyProperties {
+
+    private boolean  enabled          = false;
+    private Duration interval         = Duration.ofMinutes(1);
+    private Duration maxWindow        = Duration.ofHours(1);
+    private Duration lag              = Duration.ofSeconds(30);
+    private Duration initialLookback  = Duration.ofDays(7);
+}
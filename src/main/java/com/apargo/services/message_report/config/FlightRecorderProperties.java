@@ -0,0 +1,37 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Always-on JFR recording (service.metrics.ReadPathRecording).
+ *
+ *   enabled          – start the recording with the application
+ *   settings         – JDK settings the recording starts from ("default" ≈ 1% overhead, or "profile")
+ *   stage-threshold  – read-path stage events (message_report.*) shorter than this are not recorded
+ *   max-age          – how far back the on-disk ring buffer reaches
+ *   max-size         – cap on the on-disk ring buffer
+ *   dump-endpoint    – also serve the dump at GET /api/admin/jfr (off: 404)
+ *
+ * Dump from a shell on the host — the intended path:
+ *   jcmd <pid> JFR.dump name=message-report filename=/tmp/message-report.jfr
+ * Only enable dump-endpoint where /api/admin is not reachable from outside.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.jfr")
+public class FlightRecorderProperties {
+
+    private boolean  enabled        = false;
+    private String   settings       = "default";
+    private Duration stageThreshold = Duration.ofMillis(10);
+    private Duration maxAge         = Duration.ofMinutes(30);
+    private DataSize maxSize        = DataSize.ofMegabytes(256);
+    private boolean  dumpEndpoint   = false;
+}
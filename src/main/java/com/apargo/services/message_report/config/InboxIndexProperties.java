@@ -0,0 +1,34 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * In-memory columnar inbox index (service.inbox).
+ *
+ *   refresh-interval  – how often loaded projects read conversations.updated_at changes
+ *   overlap           – how far back each change read starts before the last seen updated_at,
+ *                       so rows committed out of updated_at order are not missed
+ *   rebuild-interval  – full reload of a project (picks up deletes and unstamped updates)
+ *   max-projects      – projects held at once; others are served from MySQL
+ *   idle-evict        – projects not queried for this long are dropped
+ *   facets            – also keep roaring bitmaps per status / assignee / unread for counts
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.inbox-index")
+public class InboxIndexProperties {
+
+    private boolean  enabled         = false;
+    private Duration refreshInterval = Duration.ofSeconds(2);
+    private Duration overlap         = Duration.ofSeconds(10);
+    private Duration rebuildInterval = Duration.ofMinutes(15);
+    private int      maxProjects     = 50;
+    private Duration idleEvict       = Duration.ofMinutes(30);
+    private boolean  facets          = true;
+}
@@ -0,0 +1,30 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Inbound message ingestion pipeline (service.ingest).
+ *
+ *   enabled         – registers POST /api/ingest/messages and the shard workers
+ *   shards          – worker/queue count; 0 = one per available processor
+ *   queue-capacity  – per-shard bound; submit() rejects beyond it (back-pressure)
+ *   max-batch       – messages per INSERT / transaction
+ *   coalesce-window – how long a shard keeps collecting after the first message
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.ingest")
+public class IngestProperties {
+
+    private boolean  enabled        = false;
+    private int      shards         = 0;
+    private int      queueCapacity  = 10_000;
+    private int      maxBatch       = 500;
+    private Duration coalesceWindow = Duration.ofMillis(20);
+}
@@ -0,0 +1,22 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Multi-project / multi-WABA inbox (GET /api/chats/inbox/merged).
+ *
+ *   message-report.merged-inbox.parallelism     partition queries run at once (per instance)
+ *   message-report.merged-inbox.max-partitions  projectIds × wabaAccountIds accepted per request
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.merged-inbox")
+public class MergedInboxProperties {
+
+    private int parallelism   = 4;
+    private int maxPartitions = 32;
+}
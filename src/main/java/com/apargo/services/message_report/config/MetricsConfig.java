@@ -0,0 +1,104 @@
+package com.apargo.services.message_report.config;
+
+import com.apargo.services.message_report.dto.response.AdmissionStatusResponse;
+import com.apargo.services.message_report.enums.QueryClass;
+import com.apargo.services.message_report.service.admission.AdmissionControl;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics;
+import com.apargo.services.message_report.service.query.QueryGuard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Metrics wiring on top of Spring Boot Actuator (GET /actuator/prometheus):
+ *
+ *   - the JSON message converter, replaced by one that times every body it writes
+ *     (Smile / CBOR are timed in BinaryEncodingConfig);
+ *   - query-guard counters: message_report_query_guard_*_total;
+ *   - admission bulkheads: message_report_admission_{limit,in_flight}{class},
+ *     message_report_admission_{admitted,rejected}_total{class} and the
+ *     message_report_admission_queue_wait_seconds{class} histogram,
+ *     when message-report.admission.enabled.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, ReadPathMetrics metrics) {
+        Timer timer = metrics.serialization("json");
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long start = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder queryGuardMetrics(QueryGuard guard) {
+        return registry -> {
+            FunctionCounter.builder("message_report.query_guard.timeouts", guard, QueryGuard::timeouts)
+                    .description("Statements that hit their timeout and failed the request")
+                    .register(registry);
+            FunctionCounter.builder("message_report.query_guard.capped_counts", guard, QueryGuard::cappedCounts)
+                    .description("Exact counts that timed out and were replaced by a capped count")
+                    .register(registry);
+            FunctionCounter.builder("message_report.query_guard.cancels", guard, QueryGuard::deadlineCancels)
+                    .tag("reason", "deadline")
+                    .register(registry);
+            FunctionCounter.builder("message_report.query_guard.cancels", guard, QueryGuard::abortCancels)
+                    .tag("reason", "client-abort")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder admissionMetrics(ObjectProvider<AdmissionControl> admission) {
+        return registry -> {
+            AdmissionControl control = admission.getIfAvailable();
+            if (control == null) return;
+
+            for (QueryClass c : QueryClass.values()) {
+                String tag = c.name().toLowerCase();
+                Gauge.builder("message_report.admission.limit", control, stat(c, AdmissionStatusResponse.BulkheadStats::getLimit))
+                        .tag("class", tag).register(registry);
+                Gauge.builder("message_report.admission.in_flight", control, stat(c, s -> s.getInFlight()))
+                        .tag("class", tag).register(registry);
+                FunctionCounter.builder("message_report.admission.admitted", control, stat(c, s -> s.getAdmitted()))
+                        .tag("class", tag).register(registry);
+                FunctionCounter.builder("message_report.admission.rejected", control, stat(c, s -> s.getRejected()))
+                        .tag("class", tag).register(registry);
+                control.bindQueueWait(c, Timer.builder("message_report.admission.queue_wait")
+                        .description("Time a request waited for a bulkhead slot, admitted or timed out")
+                        .tag("class", tag)
+                        .publishPercentileHistogram()
+                        .register(registry));
+            }
+        };
+    }
+
+    private static ToDoubleFunction<AdmissionControl> stat(
+            QueryClass c, ToDoubleFunction<AdmissionStatusResponse.BulkheadStats> field) {
+        return control -> field.applyAsDouble(control.stats(c));
+    }
+}
@@ -0,0 +1,38 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * providerMessageId → messages.id resolver (service.resolver).
+ *
+ *   window            – how far back ids are kept in memory
+ *   buckets           – the window is split into this many time buckets; a whole
+ *                       bucket is dropped once it falls out of the window
+ *   refresh-interval  – how often new messages are pulled in via idx_project_time
+ *   refresh-overlap   – re-read this much history each refresh, to pick up
+ *                       rows committed late or ids set shortly after insert
+ *   expected-entries  – Bloom filter sizing (ids inside one window)
+ *   trust-bloom       – true: once warm, a Bloom miss is reported unknown without a
+ *                       DB query; false: every miss falls back to the DB (for callers
+ *                       that see ids set long after the row was created)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.provider-resolver")
+public class ProviderResolverProperties {
+
+    private boolean  enabled           = false;
+    private Duration window            = Duration.ofHours(72);
+    private int      buckets           = 3;
+    private Duration refreshInterval   = Duration.ofSeconds(5);
+    private Duration refreshOverlap    = Duration.ofMinutes(2);
+    private long     expectedEntries   = 2_000_000;
+    private double   bloomFpp          = 0.01;
+    private boolean  trustBloom        = true;
+}
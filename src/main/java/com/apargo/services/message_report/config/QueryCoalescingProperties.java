@@ -0,0 +1,25 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Single-flight for identical concurrent inbox queries (service.inbox.QueryCoalescer).
+ *
+ *   enabled        – identical in-flight page / count queries share one DB call
+ *   reuse-window   – a finished result is still handed out for this long after it
+ *                    completes (0 = only while the query is running)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.query-coalescing")
+public class QueryCoalescingProperties {
+
+    private boolean  enabled     = true;
+    private Duration reuseWindow = Duration.ofMillis(100);
+}
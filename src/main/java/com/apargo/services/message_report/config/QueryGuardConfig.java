@@ -0,0 +1,108 @@
+package com.apargo.services.message_report.config;
+
+import com.apargo.services.message_report.service.query.QueryGuard;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+/**
+ * Puts JPA statements under the query guard, not just the JdbcTemplate ones:
+ *
+ *   - the application DataSource is wrapped in a datasource-proxy whose
+ *     method listener hands every statement a Connection creates to
+ *     {@link QueryGuard#guard} (per-class timeout, request cancellation);
+ *   - every Spring Data repository gets {@link QueryGuard#repositoryAdvice},
+ *     so statements created inside an @GuardedQuery method know their class.
+ *
+ * A statement refused because its request was cancelled already fails with
+ * Spring's QueryTimeoutException, like a statement that timed out.
+ */
+@Configuration
+public class QueryGuardConfig {
+
+    @Bean
+    public static BeanPostProcessor queryGuardDataSourceProxy(ObjectProvider<QueryGuard> guard) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) return bean;
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .methodListener(new StatementGuardListener(guard))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor queryGuardRepositoryAdvice() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factory) {
+                    factory.addRepositoryFactoryCustomizer(repositories -> repositories.addRepositoryProxyPostProcessor(
+                            (proxy, info) -> proxy.addAdvice(QueryGuard.repositoryAdvice())));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /** Resolves the guard on first use — it needs the (proxied) DataSource itself. */
+    private static final class StatementGuardListener implements MethodExecutionListener {
+
+        private final ObjectProvider<QueryGuard> provider;
+        private volatile QueryGuard              guard;
+
+        StatementGuardListener(ObjectProvider<QueryGuard> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public void beforeMethod(MethodExecutionContext ctx) {
+        }
+
+        @Override
+        public void afterMethod(MethodExecutionContext ctx) {
+            if (!(ctx.getTarget() instanceof Connection) || !(ctx.getResult() instanceof Statement stmt)) return;
+            if (!QueryGuard.applies()) return;
+
+            QueryGuard g = guard;
+            if (g == null) {
+                g = provider.getIfAvailable();
+                if (g == null) return;
+                guard = g;
+            }
+            try {
+                g.guard(stmt);
+            } catch (SQLTimeoutException e) {
+                close(stmt);
+                throw new QueryTimeoutException(e.getMessage(), e);
+            } catch (SQLException e) {
+                close(stmt);
+                throw new DataAccessResourceFailureException("Could not apply query guard settings", e);
+            }
+        }
+
+        private static void close(Statement stmt) {
+            try {
+                stmt.close();
+            } catch (SQLException ignored) {
+                // the statement never ran; nothing to release beyond what close tried
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Statement timeouts and cancellation for the read path (service.query).
+ *
+ *   cheap-timeout       – statement timeout for keyset page reads
+ *   expensive-timeout   – statement timeout for searches, counts, facets, history
+ *   count-timeout       – an exact count running longer than this is cancelled and
+ *                         replaced by a capped count (count-cap+)
+ *   count-cap           – the capped count stops at this many rows ("10,000+")
+ *   request-deadline    – every statement still running this long after the request
+ *                         started is cancelled
+ *
+ * JDBC timeouts have whole-second resolution. cheap-timeout / expensive-timeout
+ * also apply to Spring Data methods marked @GuardedQuery(CHEAP | EXPENSIVE).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.query-guard")
+public class QueryGuardProperties {
+
+    private Duration cheapTimeout     = Duration.ofSeconds(5);
+    private Duration expensiveTimeout = Duration.ofSeconds(20);
+    private Duration countTimeout     = Duration.ofSeconds(3);
+    private int      countCap         = 10_000;
+    private Duration requestDeadline  = Duration.ofSeconds(30);
+}
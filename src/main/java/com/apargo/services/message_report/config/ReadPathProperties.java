@@ -0,0 +1,27 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Selects how page rows are read.
+ *
+ *   message-report.read-path.jdbc: false  → Spring Data interface projections (default)
+ *   message-report.read-path.jdbc: true   → JdbcTemplate + RowMapper into plain row objects
+ *
+ * Counts, updates and template loading stay on JPA either way.
+ *
+ * The JDBC path is experimental: it has not been benchmarked against the
+ * projection path, so keep it off unless you are comparing the two.
+ * ReadPathRegressionTests only checks its query plans.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.read-path")
+public class ReadPathProperties {
+
+    private boolean jdbc = false;
+}
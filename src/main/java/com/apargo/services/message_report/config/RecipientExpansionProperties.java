@@ -0,0 +1,30 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * phone_numbers → broadcast_recipients expansion (service.broadcast).
+ *
+ *   chunk-size            – numbers per transaction: one contacts IN query, one
+ *                           contacts insert, one recipients insert, one checkpoint
+ *   default-country-code  – prefixed to numbers written without '+' / '00' that are
+ *                           too short to carry a country code; empty = reject them
+ *   stale-after           – a RUNNING expansion not checkpointed for this long may be
+ *                           taken over (its node died)
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.recipient-expansion")
+public class RecipientExpansionProperties {
+
+    private boolean  enabled             = false;
+    private int      chunkSize           = 1000;
+    private String   defaultCountryCode  = "";
+    private Duration staleAfter          = Duration.ofMinutes(5);
+}
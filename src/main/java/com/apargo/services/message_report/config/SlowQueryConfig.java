@@ -0,0 +1,66 @@
+package com.apargo.services.message_report.config;
+
+import com.apargo.services.message_report.service.query.SlowQuerySampler;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * With message-report.slow-queries.enabled, the application DataSource is
+ * wrapped in a datasource-proxy that reports every executed statement —
+ * JPA and JdbcTemplate alike, with its bound parameters — to
+ * {@link SlowQuerySampler}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "message-report.slow-queries", name = "enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourceProxy(ObjectProvider<SlowQuerySampler> sampler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) return bean;
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new SamplerListener(sampler))
+                        .build();
+            }
+        };
+    }
+
+    /** Resolves the sampler on first use — it needs the (proxied) DataSource itself. */
+    private static final class SamplerListener implements QueryExecutionListener {
+
+        private final ObjectProvider<SlowQuerySampler> provider;
+        private volatile SlowQuerySampler              sampler;
+
+        SamplerListener(ObjectProvider<SlowQuerySampler> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SlowQuerySampler s = sampler;
+            if (s == null) {
+                s = provider.getIfAvailable();
+                if (s == null) return;
+                sampler = s;
+            }
+            s.afterQuery(execInfo, queryInfoList);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Slow-query sampler (service.query.SlowQuerySampler).
+ *
+ *   enabled            – wrap the DataSource and sample statements (adds per-statement bookkeeping)
+ *   threshold          – statements running at least this long are sampled
+ *   max-shapes         – distinct (stage, filter shape, SQL) groups kept; new ones are dropped beyond it
+ *   samples-per-shape  – slowest executions kept per group, with their bound parameters
+ *   explain            – capture EXPLAIN FORMAT=JSON for a group's slowest execution on a side connection
+ *   re-explain-after   – a group's plan is captured again after this long, so plan flips show up
+ *
+ * Bound parameters may contain customer data (search terms, phone numbers);
+ * the report is only served under /api/admin.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.slow-queries")
+public class SlowQueryProperties {
+
+    private boolean  enabled         = false;
+    private Duration threshold       = Duration.ofMillis(500);
+    private int      maxShapes       = 200;
+    private int      samplesPerShape = 3;
+    private boolean  explain         = true;
+    private Duration reExplainAfter  = Duration.ofMinutes(10);
+}
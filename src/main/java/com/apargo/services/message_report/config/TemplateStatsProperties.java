@@ -0,0 +1,29 @@
+package com.apargo.services.message_report.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Template performance counters (service.analytics.TemplateStatsAggregator).
+ *
+ *   interval              – how often new status events are applied
+ *   max-window            – most event time applied in one transaction
+ *   lag                   – events newer than now - lag wait for the next pass
+ *   backfill-parallelism  – concurrent (project, day) rebuilds during a backfill
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "message-report.template-stats")
+public class TemplateStatsProperties {
+
+    private boolean  enabled              = false;
+    private Duration interval             = Duration.ofMinutes(1);
+    private Duration maxWindow            = Duration.ofHours(1);
+    private Duration lag                  = Duration.ofSeconds(30);
+    private int      backfillParallelism  = 2;
+}
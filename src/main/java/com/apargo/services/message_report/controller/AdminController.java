@@ -0,0 +1,102 @@
+package com.apargo.services.message_report.controller;
+
+import com.apargo.services.message_report.config.FlightRecorderProperties;
+import com.apargo.services.message_report.dto.response.AdmissionStatusResponse;
+import com.apargo.services.message_report.dto.response.QueryGuardStatusResponse;
+import com.apargo.services.message_report.dto.response.SlowQueryReportResponse;
+import com.apargo.services.message_report.service.admission.AdmissionControl;
+import com.apargo.services.message_report.service.metrics.ReadPathRecording;
+import com.apargo.services.message_report.service.query.QueryGuard;
+import com.apargo.services.message_report.service.query.SlowQuerySampler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Operational endpoints
+ *
+ * ┌────────────────────────────────────────────────────────────────────────┐
+ * │  GET /api/admin/admission                                              │
+ * │       Admission-control bulkheads: adaptive limit, in-flight,          │
+ * │       admitted / rejected counts, mean queue time, smoothed latency.   │
+ * │       404 when message-report.admission.enabled is false.              │
+ * │                                                                        │
+ * │  GET /api/admin/query-guard                                            │
+ * │       Statement timeouts, counts degraded to the cap, and statements   │
+ * │       cancelled by the request deadline or a client abort.             │
+ * │                                                                        │
+ * │  GET /api/admin/jfr                                                    │
+ * │       Dump of the always-on JFR recording (.jfr, open in JMC).         │
+ * │       404 unless message-report.jfr.enabled and .dump-endpoint are     │
+ * │       both true; jcmd <pid> JFR.dump name=message-report otherwise.    │
+ * │                                                                        │
+ * │  GET /api/admin/slow-queries?limit=20                                  │
+ * │       Statements over the slow-query threshold grouped by stage,       │
+ * │       filter shape and SQL, worst total time first, with bound         │
+ * │       parameters and the captured EXPLAIN FORMAT=JSON plan.            │
+ * │       404 when message-report.slow-queries.enabled is false.           │
+ * └────────────────────────────────────────────────────────────────────────┘
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final ObjectProvider<AdmissionControl>  admission;
+    private final QueryGuard                        queryGuard;
+    private final ObjectProvider<ReadPathRecording> recording;
+    private final FlightRecorderProperties          jfrProps;
+    private final ObjectProvider<SlowQuerySampler>  slowQueries;
+
+    @GetMapping("/admission")
+    public ResponseEntity<AdmissionStatusResponse> admission() {
+        AdmissionControl control = admission.getIfAvailable();
+        if (control == null) throw new IllegalArgumentException("Admission control is disabled");
+        return ResponseEntity.ok(control.status());
+    }
+
+    @GetMapping("/query-guard")
+    public ResponseEntity<QueryGuardStatusResponse> queryGuard() {
+        return ResponseEntity.ok(queryGuard.status());
+    }
+
+    @GetMapping("/slow-queries")
+    public ResponseEntity<SlowQueryReportResponse> slowQueries(@RequestParam(defaultValue = "20") int limit) {
+        SlowQuerySampler sampler = slowQueries.getIfAvailable();
+        if (sampler == null) throw new IllegalArgumentException("Slow-query sampler is disabled");
+        return ResponseEntity.ok(sampler.report(Math.max(1, limit)));
+    }
+
+    @GetMapping("/jfr")
+    public ResponseEntity<StreamingResponseBody> jfr() throws IOException {
+        ReadPathRecording jfr = recording.getIfAvailable();
+        if (jfr == null) throw new IllegalArgumentException("JFR recording is disabled");
+        if (!jfrProps.isDumpEndpoint()) throw new IllegalArgumentException("JFR dump endpoint is disabled; use jcmd");
+
+        Path file = jfr.dump();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(out -> {
+                    try {
+                        Files.copy(file, out);
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                });
+    }
+}
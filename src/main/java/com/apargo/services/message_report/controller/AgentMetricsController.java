@@ -0,0 +1,43 @@
+package com.apargo.services.message_report.controller;
+
+import com.apargo.services.message_report.dto.response.AgentMetricsResponse;
+import com.apargo.services.message_report.service.analytics.AgentMetricsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Agent Productivity
+ *
+ * ┌────────────────────────────────────────────────────────────────────────┐
+ * │  GET /api/analytics/agents                                             │
+ * │       Per agent over [from, to] (UTC days): conversations replied in,  │
+ * │       messages sent, assignments closed, and response / first-        │
+ * │       response / handle time percentiles. Optionally one agent,        │
+ * │       optionally one row per day.                                      │
+ * │       Enabled with message-report.agent-metrics.enabled=true.          │
+ * └────────────────────────────────────────────────────────────────────────┘
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.agent-metrics", name = "enabled", havingValue = "true")
+public class AgentMetricsController {
+
+    private final AgentMetricsService agentMetricsService;
+
+    @GetMapping("/agents")
+    public ResponseEntity<AgentMetricsResponse> agents(
+            @RequestParam                                                Long      projectId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false)                              Long      agentId,
+            @RequestParam(defaultValue = "false")                        boolean   groupByDay
+    ) {
+        return ResponseEntity.ok(agentMetricsService.report(projectId, from, to, agentId, groupByDay));
+    }
+}
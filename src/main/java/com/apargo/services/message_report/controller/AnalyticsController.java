@@ -0,0 +1,47 @@
+package com.apargo.services.message_report.controller;
+
+import com.apargo.services.message_report.dto.response.LatencyDistributionResponse;
+import com.apargo.services.message_report.enums.LatencyGroupBy;
+import com.apargo.services.message_report.enums.LatencyMetric;
+import com.apargo.services.message_report.service.analytics.DeliveryLatencyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+
+/**
+ * Delivery Analytics
+ *
+ * ┌────────────────────────────────────────────────────────────────────────┐
+ * │  GET /api/analytics/delivery-latency                                   │
+ * │       p50 / p90 / p95 / p99 / max send → DELIVERED (or READ) latency   │
+ * │       for a project, optionally one template / campaign, over          │
+ * │       [from, to) (default: last 24h), grouped by NONE / HOUR /         │
+ * │       TEMPLATE / CAMPAIGN.                                             │
+ * │       Enabled with message-report.delivery-latency.enabled=true.       │
+ * └────────────────────────────────────────────────────────────────────────┘
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.delivery-latency", name = "enabled", havingValue = "true")
+public class AnalyticsController {
+
+    private final DeliveryLatencyService latencyService;
+
+    @GetMapping("/delivery-latency")
+    public ResponseEntity<LatencyDistributionResponse> deliveryLatency(
+            @RequestParam                             Long           projectId,
+            @RequestParam(defaultValue = "DELIVERED") LatencyMetric  metric,
+            @RequestParam(required = false)           Instant        from,
+            @RequestParam(required = false)           Instant        to,
+            @RequestParam(required = false)           String         templateName,
+            @RequestParam(required = false)           Long           campaignId,
+            @RequestParam(defaultValue = "NONE")      LatencyGroupBy groupBy
+    ) {
+        return ResponseEntity.ok(latencyService.query(
+                projectId, metric, from, to, templateName, campaignId, groupBy));
+    }
+}
@@ -0,0 +1,43 @@
+package com.apargo.services.message_report.controller;
+
+import com.apargo.services.message_report.dto.response.ExpansionProgressResponse;
+import com.apargo.services.message_report.service.broadcast.RecipientExpansionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Broadcast Recipient Expansion
+ *
+ * ┌────────────────────────────────────────────────────────────────────────┐
+ * │  POST /api/broadcasts/{campaignId}/expand                              │
+ * │       Queue (or resume) phone_numbers → broadcast_recipients           │
+ * │       expansion. Returns 202 with the progress at submit time.         │
+ * │                                                                        │
+ * │  GET  /api/broadcasts/{campaignId}/expansion                           │
+ * │       Committed progress: numbers read, recipients created, invalid /  │
+ * │       duplicate numbers, state.                                        │
+ * │                                                                        │
+ * │  Enabled with message-report.recipient-expansion.enabled=true.         │
+ * └────────────────────────────────────────────────────────────────────────┘
+ */
+@RestController
+@RequestMapping("/api/broadcasts")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.recipient-expansion", name = "enabled", havingValue = "true")
+public class BroadcastController {
+
+    private final RecipientExpansionService expansionService;
+
+    @PostMapping("/{campaignId}/expand")
+    public ResponseEntity<ExpansionProgressResponse> expand(@PathVariable Long campaignId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(expansionService.submit(campaignId));
+    }
+
+    @GetMapping("/{campaignId}/expansion")
+    public ResponseEntity<ExpansionProgressResponse> progress(@PathVariable Long campaignId) {
+        return ResponseEntity.ok(expansionService.progress(campaignId));
+    }
+}
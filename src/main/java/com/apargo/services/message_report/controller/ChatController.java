@@ -2,6 +2,7 @@ package com.apargo.services.message_report.controller;
 
 import com.apargo.services.message_report.dto.response.ConversationDetailResponse;
 import com.apargo.services.message_report.dto.response.MarkReadResponse;
+import com.apargo.services.message_report.enums.TemplateEmbedMode;
 import com.apargo.services.message_report.service.ChatService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -30,8 +31,11 @@ public class ChatController {
     //  GET CONVERSATION MESSAGES
     //
     //  Query params:
-    //   cursor   – omit for first page; pass nextCursor from previous response
-    //   size     – page size (default 20, max 50)
+    //   cursor    – omit for first page; pass nextCursor from previous response
+    //   size      – page size (default 20, max 50)
+    //   templates – INLINE (default): full templateDetail on each message
+    //               REFERENCE: each template once in "templates", messages
+    //               carry "templateRef" + "renderedTexts" (smaller pages)
     //
     //  Response (ConversationDetailResponse):
     //   {
@@ -66,11 +70,12 @@ public class ChatController {
 
     @GetMapping("/{conversationId}/messages")
     public ResponseEntity<ConversationDetailResponse> getMessages(
-            @PathVariable                      Long   conversationId,
-            @RequestParam(required = false)    String cursor,
-            @RequestParam(defaultValue = "20") int    size
+            @PathVariable                          Long              conversationId,
+            @RequestParam(required = false)        String            cursor,
+            @RequestParam(defaultValue = "20")     int               size,
+            @RequestParam(defaultValue = "INLINE") TemplateEmbedMode templates
     ) {
-        return ResponseEntity.ok(chatService.getMessages(conversationId, cursor, size));
+        return ResponseEntity.ok(chatService.getMessages(conversationId, cursor, size, templates));
     }
 
     // ══════════════════════════════════════════════════════════════════════
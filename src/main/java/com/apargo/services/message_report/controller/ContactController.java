@@ -0,0 +1,39 @@
+package com.apargo.services.message_report.controller;
+
+import com.apargo.services.message_report.dto.response.CursorPageResponse;
+import com.apargo.services.message_report.dto.response.TimelineItemResponse;
+import com.apargo.services.message_report.service.ContactTimelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Contact Timeline
+ *
+ * ┌────────────────────────────────────────────────────────────────────────┐
+ * │  GET /api/contacts/timeline                                            │
+ * │       Every message with a contact across conversations, projects and  │
+ * │       WABA accounts, newest first (cursor-paginated, max 50).          │
+ * │       Identify the person by contactId or phone; all contacts of the   │
+ * │       organization with the same number are merged.                    │
+ * │       Headers: X-Organization-Id (required)                            │
+ * └────────────────────────────────────────────────────────────────────────┘
+ */
+@RestController
+@RequestMapping("/api/contacts")
+@RequiredArgsConstructor
+public class ContactController {
+
+    private final ContactTimelineService timelineService;
+
+    @GetMapping("/timeline")
+    public ResponseEntity<CursorPageResponse<TimelineItemResponse>> timeline(
+            @RequestHeader("X-Organization-Id")  Long   organizationId,
+            @RequestParam(required = false)      Long   contactId,
+            @RequestParam(required = false)      String phone,
+            @RequestParam(required = false)      String cursor,
+            @RequestParam(defaultValue = "20")   int    size
+    ) {
+        return ResponseEntity.ok(timelineService.getTimeline(organizationId, contactId, phone, cursor, size));
+    }
+}
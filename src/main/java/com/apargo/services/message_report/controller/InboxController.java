@@ -3,23 +3,30 @@ package com.apargo.services.message_report.controller;
 import com.apargo.services.message_report.dto.request.InboxFilterRequest;
 import com.apargo.services.message_report.dto.response.ConversationCountResponse;
 import com.apargo.services.message_report.dto.response.CursorPageResponse;
+import com.apargo.services.message_report.dto.response.InboxFacetsResponse;
 import com.apargo.services.message_report.dto.response.InboxItemResponse;
 import com.apargo.services.message_report.enums.AssignedType;
 import com.apargo.services.message_report.enums.ConversationStatus;
 import com.apargo.services.message_report.service.InboxService;
+import com.apargo.services.message_report.service.MergedInboxService;
+import com.apargo.services.message_report.service.query.QueryCancellation;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 public class InboxController {
 
-    private final InboxService inboxService;
+    private final InboxService       inboxService;
+    private final MergedInboxService mergedInboxService;
 
     // ══════════════════════════════════════════════════════════════════════
     //  INBOX — data + count
@@ -80,6 +87,43 @@ public class InboxController {
         )));
     }
 
+    // ══════════════════════════════════════════════════════════════════════
+    //  INBOX — data + count, streamed
+    //  GET /api/chats/inbox/stream
+    //  Same JSON as /api/chats/inbox, written row by row as it is read
+    //  from the database (totalCount / nextCursor come after "data").
+    //  The JDBC connection stays checked out until the last row is written,
+    //  so a slow client holds a pool connection for the whole response.
+    //  A failure after the first row truncates the body (invalid JSON).
+    // ══════════════════════════════════════════════════════════════════════
+
+    @GetMapping("/api/chats/inbox/stream")
+    public ResponseEntity<StreamingResponseBody> streamInbox(
+            @RequestHeader("X-Organization-Id")                    Long               organizationId,
+            @RequestHeader(value = "X-User-Id", required = false)  Long               userId,
+            @RequestParam                                          Long               projectId,
+            @RequestParam(required = false)                        String             cursor,
+            @RequestParam(defaultValue = "20")                     int                size,
+            @RequestParam(required = false)                        AssignedType       assignedType,
+            @RequestParam(required = false)                        Long               assignedId,
+            @RequestParam(required = false)                        Boolean            unreadOnly,
+            @RequestParam(required = false)                        Boolean            activeSession,
+            @RequestParam(required = false)                        String             search,
+            @RequestParam(required = false)                        String             fromDate,
+            @RequestParam(required = false)                        String             toDate
+    ) {
+        InboxFilterRequest req = buildRequest(
+                organizationId, userId,
+                projectId, cursor, size, null,
+                assignedType, assignedId,
+                unreadOnly, activeSession, search,
+                parseFromDate(fromDate), parseToDate(toDate)
+        );
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(inScope(out -> inboxService.streamInbox(req, out)));
+    }
+
     // ══════════════════════════════════════════════════════════════════════
     //  INBOX — count only
     //  GET /api/chats/inbox/count
@@ -107,6 +151,68 @@ public class InboxController {
         )));
     }
 
+    // ══════════════════════════════════════════════════════════════════════
+    //  INBOX — header bucket counts
+    //  GET /api/chats/inbox/facets
+    //  Open / Mine / Unassigned / Team / Unread / Active session + unread
+    //  badge in one call (one SQL statement, or the in-memory index).
+    //  "mine" needs X-User-Id.
+    // ══════════════════════════════════════════════════════════════════════
+
+    @GetMapping("/api/chats/inbox/facets")
+    public ResponseEntity<InboxFacetsResponse> getInboxFacets(
+            @RequestHeader("X-Organization-Id")                    Long               organizationId,
+            @RequestHeader(value = "X-User-Id", required = false)  Long               userId,
+            @RequestParam                                          Long               projectId,
+            @RequestParam(required = false)                        String             search,
+            @RequestParam(required = false)                        String             fromDate,
+            @RequestParam(required = false)                        String             toDate
+    ) {
+        return ResponseEntity.ok(inboxService.getInboxFacets(buildRequest(
+                organizationId, userId,
+                projectId, null, 20, ConversationStatus.OPEN,
+                null, null,
+                null, null, search,
+                parseFromDate(fromDate), parseToDate(toDate)
+        )));
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  INBOX — several projects / WABA accounts merged, data + count
+    //  GET /api/chats/inbox/merged?projectIds=1,2&wabaAccountIds=7,8
+    //  One index seek per (project, account) pair, merged newest first.
+    //  nextCursor is composite — pass it back with the same projectIds /
+    //  wabaAccountIds. items carry projectId.
+    // ══════════════════════════════════════════════════════════════════════
+
+    @GetMapping("/api/chats/inbox/merged")
+    public ResponseEntity<CursorPageResponse<InboxItemResponse>> getMergedInbox(
+            @RequestHeader("X-Organization-Id")                    Long               organizationId,
+            @RequestHeader(value = "X-User-Id", required = false)  Long               userId,
+            @RequestParam                                          List<Long>         projectIds,
+            @RequestParam(required = false)                        List<Long>         wabaAccountIds,
+            @RequestParam(required = false)                        String             cursor,
+            @RequestParam(defaultValue = "20")                     int                size,
+            @RequestParam(required = false)                        AssignedType       assignedType,
+            @RequestParam(required = false)                        Long               assignedId,
+            @RequestParam(required = false)                        Boolean            unreadOnly,
+            @RequestParam(required = false)                        Boolean            activeSession,
+            @RequestParam(required = false)                        String             search,
+            @RequestParam(required = false)                        String             fromDate,
+            @RequestParam(required = false)                        String             toDate
+    ) {
+        InboxFilterRequest req = buildRequest(
+                organizationId, userId,
+                null, cursor, size, null,
+                assignedType, assignedId,
+                unreadOnly, activeSession, search,
+                parseFromDate(fromDate), parseToDate(toDate)
+        );
+        req.setProjectIds(projectIds);
+        req.setWabaAccountIds(wabaAccountIds);
+        return ResponseEntity.ok(mergedInboxService.getMergedInbox(req));
+    }
+
     // ══════════════════════════════════════════════════════════════════════
     //  MESSAGE HISTORY — data + count
     //  GET /api/v1/get-messages-history
@@ -167,6 +273,41 @@ public class InboxController {
         )));
     }
 
+    // ══════════════════════════════════════════════════════════════════════
+    //  MESSAGE HISTORY — data + count, streamed
+    //  GET /api/v1/get-messages-history/stream
+    //  Same caveats as /api/chats/inbox/stream: holds a JDBC connection for
+    //  the whole write, and a mid-stream failure truncates the body.
+    // ══════════════════════════════════════════════════════════════════════
+
+    @GetMapping("/api/v1/get-messages-history/stream")
+    public ResponseEntity<StreamingResponseBody> streamMessageHistory(
+            @RequestHeader("X-Organization-Id")                    Long               organizationId,
+            @RequestHeader(value = "X-User-Id", required = false)  Long               userId,
+            @RequestParam                                          Long               projectId,
+            @RequestParam(required = false)                        String             cursor,
+            @RequestParam(defaultValue = "20")                     int                size,
+            @RequestParam(required = false)                        ConversationStatus status,
+            @RequestParam(required = false)                        AssignedType       assignedType,
+            @RequestParam(required = false)                        Long               assignedId,
+            @RequestParam(required = false)                        Boolean            unreadOnly,
+            @RequestParam(required = false)                        Boolean            activeSession,
+            @RequestParam(required = false)                        String             search,
+            @RequestParam(required = false)                        String             fromDate,
+            @RequestParam(required = false)                        String             toDate
+    ) {
+        InboxFilterRequest req = buildRequest(
+                organizationId, userId,
+                projectId, cursor, size, status,
+                assignedType, assignedId,
+                unreadOnly, activeSession, search,
+                parseFromDate(fromDate), parseToDate(toDate)
+        );
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(inScope(out -> inboxService.streamMessageHistory(req, out)));
+    }
+
     // ══════════════════════════════════════════════════════════════════════
     //  MESSAGE HISTORY — count only
     //  GET /api/v1/get-messages-history/count
@@ -240,4 +381,11 @@ public class InboxController {
         req.setToDate(toDate);
         return req;
     }
-}
\ No newline at end of file
+
+    /** The body is written on an async thread — carry the request's cancellation scope over to it. */
+    private static StreamingResponseBody inScope(StreamingResponseBody body) {
+        QueryCancellation scope = QueryCancellation.current();
+        if (scope == null) return body;
+        return out -> scope.runBound(() -> body.writeTo(out));
+    }
+}
@@ -0,0 +1,40 @@
+package com.apargo.services.message_report.controller;
+
+import com.apargo.services.message_report.dto.request.InboundMessageRequest;
+import com.apargo.services.message_report.dto.response.IngestResponse;
+import com.apargo.services.message_report.service.ingest.MessageIngestService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Inbound Message Ingestion
+ *
+ * ┌────────────────────────────────────────────────────────────────────────┐
+ * │  POST /api/ingest/messages                                             │
+ * │       Queue inbound messages for batched insert. Returns 202 with     │
+ * │       accepted / rejected counts; 503 if nothing could be queued.     │
+ * │       Enabled with message-report.ingest.enabled=true.                │
+ * └────────────────────────────────────────────────────────────────────────┘
+ */
+@RestController
+@RequestMapping("/api/ingest")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.ingest", name = "enabled", havingValue = "true")
+public class IngestController {
+
+    private final MessageIngestService ingestService;
+
+    @PostMapping("/messages")
+    public ResponseEntity<IngestResponse> ingest(@RequestBody List<InboundMessageRequest> messages) {
+        IngestResponse res = ingestService.submit(messages);
+        HttpStatus status  = res.getAccepted() == 0 && res.getRejected() > 0
+                ? HttpStatus.SERVICE_UNAVAILABLE
+                : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(res);
+    }
+}
@@ -0,0 +1,69 @@
+package com.apargo.services.message_report.controller;
+
+import com.apargo.services.message_report.dto.response.BackfillStatusResponse;
+import com.apargo.services.message_report.dto.response.MessageVolumeResponse;
+import com.apargo.services.message_report.enums.VolumeDimension;
+import com.apargo.services.message_report.service.rollup.DailyStatsBackfill;
+import com.apargo.services.message_report.service.rollup.MessageVolumeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Message Volume Reports
+ *
+ * ┌────────────────────────────────────────────────────────────────────────┐
+ * │  GET  /api/reports/message-volume                                      │
+ * │       Message counts for a project over [from, to] (UTC days),         │
+ * │       grouped by any of DAY, DIRECTION, MESSAGE_TYPE, STATUS,          │
+ * │       CREATED_BY_TYPE. Answered from message_daily_stats.              │
+ * │                                                                        │
+ * │  POST /api/reports/message-volume/backfill                             │
+ * │       Rebuild the rollups for [from, to] (one project or all), in      │
+ * │       parallel day slices. 202 + status.                               │
+ * │                                                                        │
+ * │  GET  /api/reports/message-volume/backfill                             │
+ * │       Progress of the last backfill started on this node.              │
+ * │                                                                        │
+ * │  Enabled with message-report.daily-stats.enabled=true.                 │
+ * └────────────────────────────────────────────────────────────────────────┘
+ */
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.daily-stats", name = "enabled", havingValue = "true")
+public class ReportController {
+
+    private final MessageVolumeService volumeService;
+    private final DailyStatsBackfill   backfill;
+
+    @GetMapping("/message-volume")
+    public ResponseEntity<MessageVolumeResponse> messageVolume(
+            @RequestParam                                                     Long                  projectId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)      LocalDate             from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)      LocalDate             to,
+            @RequestParam(defaultValue = "DAY")                               List<VolumeDimension> groupBy
+    ) {
+        return ResponseEntity.ok(volumeService.report(projectId, from, to, groupBy));
+    }
+
+    @PostMapping("/message-volume/backfill")
+    public ResponseEntity<BackfillStatusResponse> startBackfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)      LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)      LocalDate to,
+            @RequestParam(required = false)                                   Long      projectId
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfill.start(from, to, projectId));
+    }
+
+    @GetMapping("/message-volume/backfill")
+    public ResponseEntity<BackfillStatusResponse> backfillStatus() {
+        return ResponseEntity.ok(backfill.status());
+    }
+}
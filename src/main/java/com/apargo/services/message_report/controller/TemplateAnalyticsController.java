@@ -0,0 +1,67 @@
+package com.apargo.services.message_report.controller;
+
+import com.apargo.services.message_report.dto.response.BackfillStatusResponse;
+import com.apargo.services.message_report.dto.response.TemplatePerformanceResponse;
+import com.apargo.services.message_report.service.analytics.TemplateStatsBackfill;
+import com.apargo.services.message_report.service.analytics.TemplateStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Template Performance
+ *
+ * ┌────────────────────────────────────────────────────────────────────────┐
+ * │  GET  /api/analytics/templates                                         │
+ * │       Sent / delivered / read / failed per template + language over    │
+ * │       [from, to] (UTC days), with rates and the top failure codes.     │
+ * │       Optionally one template, optionally one row per day.             │
+ * │                                                                        │
+ * │  POST /api/analytics/templates/backfill                                │
+ * │       Rebuild the counters for [from, to] (one project or all).        │
+ * │                                                                        │
+ * │  GET  /api/analytics/templates/backfill                                │
+ * │       Progress of the last backfill started on this node.              │
+ * │                                                                        │
+ * │  Enabled with message-report.template-stats.enabled=true.              │
+ * └────────────────────────────────────────────────────────────────────────┘
+ */
+@RestController
+@RequestMapping("/api/analytics/templates")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.template-stats", name = "enabled", havingValue = "true")
+public class TemplateAnalyticsController {
+
+    private final TemplateStatsService  templateStatsService;
+    private final TemplateStatsBackfill backfill;
+
+    @GetMapping
+    public ResponseEntity<TemplatePerformanceResponse> templates(
+            @RequestParam                                                Long      projectId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false)                              String    templateName,
+            @RequestParam(defaultValue = "false")                        boolean   groupByDay
+    ) {
+        return ResponseEntity.ok(templateStatsService.report(projectId, from, to, templateName, groupByDay));
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<BackfillStatusResponse> startBackfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false)                              Long      projectId
+    ) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(backfill.start(from, to, projectId));
+    }
+
+    @GetMapping("/backfill")
+    public ResponseEntity<BackfillStatusResponse> backfillStatus() {
+        return ResponseEntity.ok(backfill.status());
+    }
+}
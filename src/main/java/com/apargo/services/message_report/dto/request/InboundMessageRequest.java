@@ -0,0 +1,34 @@
+package com.apargo.services.message_report.dto.request;
+
+import com.apargo.services.message_report.enums.MessageType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * One inbound (contact → business) message for POST /api/ingest/messages.
+ * Organization, project, WABA account and contact are taken from the conversation row.
+ */
+@Getter
+@Setter
+public class InboundMessageRequest {
+
+    // ── Required ──────────────────────────────────────────────────────────
+    private Long        conversationId;
+
+    // ── Content ───────────────────────────────────────────────────────────
+    private MessageType messageType = MessageType.TEXT;
+    private String      bodyText;
+    private Long        mediaAssetId;
+    /** Raw provider payload (JSON) — stored as-is in messages.payload. */
+    private String      payload;
+
+    // ── Provider ──────────────────────────────────────────────────────────
+    private String      providerMessageId;   // "wamid.…"
+    /** Provider timestamp of the message; defaults to receive time. */
+    private Instant     createdAt;
+
+    // ── Set by the pipeline, not the client ───────────────────────────────
+    private String      uuid;
+}
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.time.Instant;
+import java.util.List;
 
 @Getter
 @Setter
@@ -18,6 +19,10 @@ public class InboxFilterRequest {
     // ── Required query param ──────────────────────────────────────────────
     private Long   projectId;
 
+    // ── Merged inbox (instead of projectId) ───────────────────────────────
+    private List<Long> projectIds;
+    private List<Long> wabaAccountIds;   // optional; null/empty = every account
+
     // ── Pagination ────────────────────────────────────────────────────────
     private String cursor;
     private int    size = 20;
@@ -0,0 +1,36 @@
+package com.apargo.services.message_report.dto.response;
+
+import com.apargo.services.message_report.enums.QueryClass;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Response for GET /api/admin/admission — one entry per bulkhead.
+ *
+ *   limit          - current adaptive concurrency limit
+ *   inFlight       - requests holding a slot now
+ *   admitted       - requests admitted since start
+ *   rejected       - 429s since start (queue timeout or organization share)
+ *   avgQueueMs     - mean wait for a slot over admitted requests
+ *   latencyMs      - smoothed request latency driving the limit
+ */
+@Getter
+@Builder
+public class AdmissionStatusResponse {
+
+    private final List<BulkheadStats> bulkheads;
+
+    @Getter
+    @Builder
+    public static class BulkheadStats {
+        private final QueryClass queryClass;
+        private final double     limit;
+        private final int        inFlight;
+        private final long       admitted;
+        private final long       rejected;
+        private final double     avgQueueMs;
+        private final double     latencyMs;
+    }
+}
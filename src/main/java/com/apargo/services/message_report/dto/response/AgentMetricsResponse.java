@@ -0,0 +1,46 @@
+package com.apargo.services.message_report.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response for GET /api/analytics/agents.
+ * Days are UTC; timings are milliseconds (±1%). With groupByDay=false,
+ * "conversations" is summed over days (a conversation replied to on two days
+ * counts twice).
+ */
+@Getter
+@Builder
+public class AgentMetricsResponse {
+    private final Long             projectId;
+    private final LocalDate        from;
+    private final LocalDate        to;              // inclusive
+    private final List<AgentStats> agents;
+
+    @Getter
+    @Builder
+    public static class AgentStats {
+        private final Long        agentId;
+        private final LocalDate   day;              // null unless groupByDay
+        private final long        conversations;
+        private final long        messagesSent;
+        private final long        assignmentsClosed;
+        private final TimingStats responseTime;
+        private final TimingStats firstResponseTime;
+        private final TimingStats handleTime;
+    }
+
+    @Getter
+    @Builder
+    public static class TimingStats {
+        private final long count;
+        private final long meanMs;
+        private final long p50Ms;
+        private final long p90Ms;
+        private final long p95Ms;
+        private final long maxMs;
+    }
+}
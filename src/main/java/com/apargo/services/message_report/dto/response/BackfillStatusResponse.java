@@ -0,0 +1,25 @@
+package com.apargo.services.message_report.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Response for the rollup backfill endpoints (POST to start, GET for progress).
+ * One task = one (project, day) rebuild.
+ */
+@Getter
+@Builder
+public class BackfillStatusResponse {
+    private final String    state;        // IDLE | RUNNING | DONE | FAILED
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int       tasksTotal;
+    private final int       tasksDone;
+    private final int       tasksFailed;
+    private final long      messagesCounted;
+    private final Instant   startedAt;
+    private final Instant   finishedAt;
+}
@@ -10,6 +10,7 @@ import lombok.Builder;
 import lombok.Getter;
 
 import java.time.Instant;
+import java.util.Map;
 
 @Getter
 @Builder
@@ -34,6 +35,12 @@ public class ChatMessageResponse {
     // ── Template detail (only for TEMPLATE-type messages) ─────────────────
     private final TemplateDetailResponse templateDetail;
 
+    // ── Template reference (REFERENCE mode — instead of templateDetail) ───
+    /** Key into ConversationDetailResponse.templates (the templateId). */
+    private final Long                   templateRef;
+    /** componentType → text with this message's variables substituted, e.g. {"BODY": "Hi Raj, …"}. */
+    private final Map<String, String>    renderedTexts;
+
     // ── Provider ──────────────────────────────────────────────────────────
     private final String           providerMessageId;
 
@@ -53,6 +60,31 @@ public class ChatMessageResponse {
     // ── Factory ───────────────────────────────────────────────────────────
 
     public static ChatMessageResponse from(MessageProjection p) {
+        return from(p, null);
+    }
+
+    /**
+     * Builds the DTO in one shot, with templateDetail already resolved
+     * (null for non-template messages) — no second copy per enriched row.
+     */
+    public static ChatMessageResponse from(MessageProjection p, TemplateDetailResponse templateDetail) {
+        return base(p).templateDetail(templateDetail).build();
+    }
+
+    /**
+     * REFERENCE mode: the template structure is sent once per page in
+     * ConversationDetailResponse.templates; the message only carries its id
+     * plus the per-message rendered texts.
+     */
+    public static ChatMessageResponse fromTemplateRef(
+            MessageProjection   p,
+            Long                templateRef,
+            Map<String, String> renderedTexts
+    ) {
+        return base(p).templateRef(templateRef).renderedTexts(renderedTexts).build();
+    }
+
+    private static ChatMessageResponseBuilder base(MessageProjection p) {
         return ChatMessageResponse.builder()
                 .messageId(p.getMessageId())
                 .uuid(p.getUuid())
@@ -75,31 +107,6 @@ public class ChatMessageResponse {
                         .isDelivered(Boolean.TRUE.equals(p.getIsDelivered()))
                         .isRead(Boolean.TRUE.equals(p.getIsRead()))
                         .isFailed(Boolean.TRUE.equals(p.getIsFailed()))
-                        .build())
-                .build();
-    }
-
-    /** Returns a copy with templateDetail attached (called by ChatService after enrichment). */
-    public ChatMessageResponse withTemplateDetail(TemplateDetailResponse detail) {
-        return ChatMessageResponse.builder()
-                .messageId(messageId)
-                .uuid(uuid)
-                .direction(direction)
-                .messageType(messageType)
-                .status(status)
-                .bodyText(bodyText)
-                .templateName(templateName)
-                .templateLanguage(templateLanguage)
-                .mediaAssetId(mediaAssetId)
-                .templateDetail(detail)
-                .providerMessageId(providerMessageId)
-                .createdByType(createdByType)
-                .createdById(createdById)
-                .createdAt(createdAt)
-                .sentAt(sentAt)
-                .deliveredAt(deliveredAt)
-                .readAt(readAt)
-                .ticks(ticks)
-                .build();
+                        .build());
     }
-}
\ No newline at end of file
+}
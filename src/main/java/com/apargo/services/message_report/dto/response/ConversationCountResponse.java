@@ -11,6 +11,8 @@ import lombok.Getter;
  *
  * Fields:
  *   totalCount   - total conversations matching the filters
+ *   totalCapped  - true when the exact count timed out and totalCount is
+ *                  the cap (show "10,000+"); omitted otherwise
  *   unreadTotal  - sum of unread_count across matching conversations
  *                  (only populated for inbox/OPEN queries, null for history)
  */
@@ -22,6 +24,9 @@ public class ConversationCountResponse {
     /** Total conversations matching the current filter (status, assigned, search, etc.) */
     private final Long totalCount;
 
+    /** True when totalCount is a lower bound (count-cap), not the exact count. */
+    private final Boolean totalCapped;
+
     /**
      * Total unread messages across all matching OPEN conversations.
      * Null for message history queries (non-OPEN status).
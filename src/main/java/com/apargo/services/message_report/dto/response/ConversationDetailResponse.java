@@ -7,6 +7,7 @@ import lombok.Builder;
 import lombok.Getter;
 
 import java.time.Instant;
+import java.util.Map;
 
 /**
  * Top-level response for GET /api/chats/conversation/{id}/messages
@@ -31,4 +32,10 @@ public class ConversationDetailResponse {
 
     // ── Messages page ─────────────────────────────────────────────────────
     private final CursorPageResponse<ChatMessageResponse> messages;
+
+    /**
+     * REFERENCE mode only: templateId → template structure (no renderedText),
+     * sent once per page and referenced by ChatMessageResponse.templateRef.
+     */
+    private final Map<Long, TemplateDetailResponse>       templates;
 }
\ No newline at end of file
@@ -25,6 +25,9 @@ public class CursorPageResponse<T> {
      */
     private final Long     totalCount;
 
+    /** True when the exact count timed out and totalCount is the cap ("10,000+"). */
+    private final Boolean  totalCountCapped;
+
     private final String   nextCursor;   // null = no more pages
     private final boolean  hasMore;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.apargo.services.message_report.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Response for GET /api/broadcasts/{campaignId}/expansion.
+ * Counts reflect committed chunks only.
+ */
+@Getter
+@Builder
+public class ExpansionProgressResponse {
+    private final Long    campaignId;
+    private final String  state;               // NOT_STARTED | RUNNING | DONE | FAILED
+    private final long    numbersRead;         // position in the phone_numbers array
+    private final long    recipientsCreated;
+    private final long    invalidNumbers;
+    private final long    duplicateNumbers;
+    private final String  error;
+    private final Instant startedAt;
+    private final Instant updatedAt;
+}
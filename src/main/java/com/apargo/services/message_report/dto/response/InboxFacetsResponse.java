@@ -0,0 +1,31 @@
+package com.apargo.services.message_report.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Response for GET /api/chats/inbox/facets — every inbox header bucket at once.
+ *
+ * Fields (all over OPEN conversations matching the date range / search):
+ *   open           - all of them
+ *   mine           - assigned to the calling user (null without X-User-Id)
+ *   unassigned     - assignedType UNASSIGNED
+ *   team           - assignedType TEAM
+ *   unread         - unreadCount > 0
+ *   activeSession  - 24h session window still open
+ *   unreadTotal    - sum of unreadCount (the unread badge)
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InboxFacetsResponse {
+
+    private final long open;
+    private final Long mine;
+    private final long unassigned;
+    private final long team;
+    private final long unread;
+    private final long activeSession;
+    private final long unreadTotal;
+}
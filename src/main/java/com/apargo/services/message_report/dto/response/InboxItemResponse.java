@@ -4,6 +4,7 @@ import com.apargo.services.message_report.enums.AssignedType;
 import com.apargo.services.message_report.enums.ConversationStatus;
 import com.apargo.services.message_report.enums.MessageDirection;
 import com.apargo.services.message_report.projection.InboxProjection;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -19,6 +20,9 @@ public class InboxItemResponse {
     private final Long            wabaAccountId;
     private final ConversationStatus status;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private final Long            projectId;             // merged inbox only
+
     // ── Contact info ───────────────────────────────────────────────────────
     private final String          contactName;
     private final String          contactPhone;
@@ -44,6 +48,11 @@ public class InboxItemResponse {
     // ── Factory ───────────────────────────────────────────────────────────
 
     public static InboxItemResponse from(InboxProjection p) {
+        return from(p, null);
+    }
+
+    /** Merged inbox: rows come from several projects, so each item says which. */
+    public static InboxItemResponse from(InboxProjection p, Long projectId) {
         Instant now   = Instant.now();
         Instant until = p.getConversationOpenUntil();
 
@@ -55,6 +64,7 @@ public class InboxItemResponse {
                 .contactId(p.getContactId())
                 .wabaAccountId(p.getWabaAccountId())
                 .status(p.getStatus())
+                .projectId(projectId)
                 .contactName(p.getContactName())
                 .contactPhone(p.getContactPhone())
                 .lastMessagePreview(p.getLastMessagePreview())
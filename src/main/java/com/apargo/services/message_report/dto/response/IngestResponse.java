@@ -0,0 +1,15 @@
+package com.apargo.services.message_report.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Response for POST /api/ingest/messages.
+ * Messages are written asynchronously; "accepted" means queued, not yet committed.
+ */
+@Getter
+@Builder
+public class IngestResponse {
+    private final int accepted;
+    private final int rejected;   // missing conversationId, or shard queue full (back-pressure)
+}
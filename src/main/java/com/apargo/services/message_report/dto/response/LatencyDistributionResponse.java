@@ -0,0 +1,39 @@
+package com.apargo.services.message_report.dto.response;
+
+import com.apargo.services.message_report.enums.LatencyGroupBy;
+import com.apargo.services.message_report.enums.LatencyMetric;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response for GET /api/analytics/delivery-latency.
+ * Percentiles are milliseconds from send to the first DELIVERED / READ status,
+ * accurate to ~1% (HdrHistogram, 2 significant digits).
+ */
+@Getter
+@Builder
+public class LatencyDistributionResponse {
+    private final Long               projectId;
+    private final LatencyMetric      metric;
+    private final Instant            from;        // truncated to the hour
+    private final Instant            to;
+    private final LatencyGroupBy     groupBy;
+    private final boolean            complete;    // false → range reaches past the aggregator's watermark
+    private final List<LatencyStats> groups;
+
+    @Getter
+    @Builder
+    public static class LatencyStats {
+        private final String key;                 // "all", hour, template name or campaign id
+        private final long   count;
+        private final long   meanMs;
+        private final long   p50Ms;
+        private final long   p90Ms;
+        private final long   p95Ms;
+        private final long   p99Ms;
+        private final long   maxMs;
+    }
+}
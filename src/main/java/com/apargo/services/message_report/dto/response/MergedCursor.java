@@ -0,0 +1,75 @@
+package com.apargo.services.message_report.dto.response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Composite keyset cursor of the merged inbox: one position per partition.
+ *
+ *   raw = "projectId:wabaAccountId:state,…"   (wabaAccountId 0 = every account)
+ *   state = "s"            partition not read yet — start from the top
+ *         | "x"            partition exhausted — not queried again
+ *         | "millis:id"    last row returned from this partition
+ *
+ * Keeping each partition's own position (instead of one global position) lets
+ * exhausted partitions be skipped and lets each partition resume exactly
+ * where its own index range stopped.
+ */
+public final class MergedCursor {
+
+    /** Position of one partition; {@code START} and {@code DONE} are the two markers. */
+    public record Position(long epochMillis, long id) {
+        public static final Position START = new Position(Long.MAX_VALUE, Long.MAX_VALUE);
+        public static final Position DONE  = new Position(Long.MIN_VALUE, Long.MIN_VALUE);
+
+        public boolean isStart() { return this == START; }
+        public boolean isDone()  { return this == DONE; }
+    }
+
+    /** Partition key: (projectId, wabaAccountId), wabaAccountId null = every account. */
+    public record Partition(long projectId, Long wabaAccountId) {}
+
+    private MergedCursor() {}
+
+    public static String encode(Map<Partition, Position> positions) {
+        StringBuilder raw = new StringBuilder(positions.size() * 32);
+        positions.forEach((p, pos) -> {
+            if (!raw.isEmpty()) raw.append(',');
+            raw.append(p.projectId()).append(':')
+               .append(p.wabaAccountId() != null ? p.wabaAccountId() : 0L).append(':');
+            if      (pos.isStart()) raw.append('s');
+            else if (pos.isDone())  raw.append('x');
+            else                    raw.append(pos.epochMillis()).append(':').append(pos.id());
+        });
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Partitions in cursor order; throws IllegalArgumentException on anything malformed. */
+    public static Map<Partition, Position> decode(String cursor) {
+        Map<Partition, Position> positions = new LinkedHashMap<>();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String entry : raw.split(",")) {
+                String[] f    = entry.split(":");
+                long     waba = Long.parseLong(f[1]);
+                Partition p   = new Partition(Long.parseLong(f[0]), waba == 0 ? null : waba);
+                Position pos  = switch (f.length) {
+                    case 3 -> switch (f[2]) {
+                        case "s" -> Position.START;
+                        case "x" -> Position.DONE;
+                        default  -> throw new IllegalArgumentException();
+                    };
+                    case 4 -> new Position(Long.parseLong(f[2]), Long.parseLong(f[3]));
+                    default -> throw new IllegalArgumentException();
+                };
+                positions.put(p, pos);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return positions;
+    }
+}
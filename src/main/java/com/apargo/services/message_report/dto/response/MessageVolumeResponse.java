@@ -0,0 +1,34 @@
+package com.apargo.services.message_report.dto.response;
+
+import com.apargo.services.message_report.enums.VolumeDimension;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response for GET /api/reports/message-volume.
+ * Days are UTC. Dimensions not in groupBy are null on every row.
+ */
+@Getter
+@Builder
+public class MessageVolumeResponse {
+    private final Long                  projectId;
+    private final LocalDate             from;
+    private final LocalDate             to;          // inclusive
+    private final List<VolumeDimension> groupBy;
+    private final long                  total;
+    private final List<VolumeRow>       rows;
+
+    @Getter
+    @Builder
+    public static class VolumeRow {
+        private final LocalDate day;
+        private final String    direction;
+        private final String    messageType;
+        private final String    status;
+        private final String    createdByType;
+        private final long      count;
+    }
+}
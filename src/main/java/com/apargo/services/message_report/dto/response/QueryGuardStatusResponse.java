@@ -0,0 +1,22 @@
+package com.apargo.services.message_report.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Response for GET /api/admin/query-guard — counters since start.
+ *
+ *   statementTimeouts   - read-path statements stopped by their statement timeout
+ *   cappedCounts        - exact counts that ran out of time and were answered "cap+"
+ *   deadlineCancels     - statements cancelled at the request deadline
+ *   clientAbortCancels  - statements cancelled because the client went away
+ */
+@Getter
+@Builder
+public class QueryGuardStatusResponse {
+
+    private final long statementTimeouts;
+    private final long cappedCounts;
+    private final long deadlineCancels;
+    private final long clientAbortCancels;
+}
@@ -0,0 +1,59 @@
+package com.apargo.services.message_report.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Response for GET /api/admin/slow-queries — sampled statements grouped by
+ * (stage, filter shape, SQL), worst total time first.
+ *
+ *   stage        - read-path stage the statement ran in (e.g. inbox_first_page), "unstaged" outside one
+ *   filterShape  - optional predicates in use (e.g. inbox+unread+search), null for unshaped stages
+ *   count        - executions over the threshold since start
+ *   totalMs / avgMs / maxMs
+ *   indexes      - keys chosen in the last captured plan
+ *   filesort     - the last captured plan sorts (no usable index for ORDER BY)
+ *   plannedAt    - when the plan was captured
+ *   plan         - EXPLAIN FORMAT=JSON output, embedded as JSON
+ *   samples      - slowest executions, with bound parameters in placeholder order
+ */
+@Getter
+@Builder
+public class SlowQueryReportResponse {
+
+    private final int               thresholdMs;
+    private final long              droppedShapes;
+    private final List<ShapeReport> shapes;
+
+    @Getter
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ShapeReport {
+        private final String       stage;
+        private final String       filterShape;
+        private final String       sql;
+        private final long         count;
+        private final long         totalMs;
+        private final long         avgMs;
+        private final long         maxMs;
+        private final List<String> indexes;
+        private final Boolean      filesort;
+        private final Instant      plannedAt;
+        @JsonRawValue
+        private final String       plan;
+        private final List<Sample> samples;
+    }
+
+    @Getter
+    @Builder
+    public static class Sample {
+        private final long         elapsedMs;
+        private final Instant      at;
+        private final List<String> params;
+    }
+}
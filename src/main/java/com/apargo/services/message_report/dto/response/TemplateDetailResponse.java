@@ -12,6 +12,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,6 +29,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TemplateDetailResponse {
 
+    /** ObjectMapper is thread-safe once configured — one instance for every templateVars parse. */
+    private static final ObjectMapper VARS_MAPPER = new ObjectMapper();
+
     private final Long   templateId;
     private final String name;
     private final String language;
@@ -65,6 +69,29 @@ public class TemplateDetailResponse {
                 .build();
     }
 
+    /**
+     * Only the variable-substituted texts of a template, keyed by componentType
+     * (HEADER / BODY). Used in REFERENCE mode, where the template structure
+     * itself is sent once per page via {@code from(template, null)}.
+     *
+     * @return null if no component has variables to substitute
+     */
+    public static Map<String, String> renderTexts(WhatsappTemplate template, String templateVars) {
+        Map<String, Object> vars = parseVars(templateVars);
+        if (vars.isEmpty()) return null;
+
+        Map<String, String> rendered = null;
+        for (WhatsappTemplateComponent c : template.getComponents()) {
+            if (c.getComponentType() == null) continue;
+            String text = applyVars(c.getText(), c.getComponentType().name().toLowerCase(), vars);
+            if (text != null) {
+                if (rendered == null) rendered = new LinkedHashMap<>(4);
+                rendered.put(c.getComponentType().name(), text);
+            }
+        }
+        return rendered;
+    }
+
     // ── Private helpers ───────────────────────────────────────────────────
 
     private static TemplateComponentResponse mapComponent(
@@ -198,7 +225,7 @@ public class TemplateDetailResponse {
     private static Map<String, Object> parseVars(String templateVars) {
         if (templateVars == null || templateVars.isBlank()) return Collections.emptyMap();
         try {
-            return new ObjectMapper().readValue(templateVars, new TypeReference<>() {});
+            return VARS_MAPPER.readValue(templateVars, new TypeReference<>() {});
         } catch (Exception e) {
             log.debug("Could not parse templateVars JSON: {}", e.getMessage());
             return Collections.emptyMap();
@@ -0,0 +1,44 @@
+package com.apargo.services.message_report.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Response for GET /api/analytics/templates.
+ * Days are the UTC day the message was created; each message counts once per
+ * status it reached. Rates are relative to sent (0 when nothing was sent).
+ */
+@Getter
+@Builder
+public class TemplatePerformanceResponse {
+    private final Long                projectId;
+    private final LocalDate           from;
+    private final LocalDate           to;           // inclusive
+    private final List<TemplateStats> templates;    // most sent first (per day when grouped)
+
+    @Getter
+    @Builder
+    public static class TemplateStats {
+        private final String             templateName;
+        private final String             language;
+        private final LocalDate          day;          // null unless groupByDay
+        private final long               sent;
+        private final long               delivered;
+        private final long               read;
+        private final long               failed;
+        private final double             deliveryRate;
+        private final double             readRate;
+        private final double             failureRate;
+        private final List<FailureCount> topFailures;
+    }
+
+    @Getter
+    @Builder
+    public static class FailureCount {
+        private final String errorCode;              // "" = provider sent none
+        private final long   count;
+    }
+}
@@ -0,0 +1,19 @@
+package com.apargo.services.message_report.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * One entry of GET /api/contacts/timeline: a message (same shape as in the
+ * conversation view, template structure embedded) plus the conversation,
+ * project and WABA account it belongs to.
+ */
+@Getter
+@Builder
+public class TimelineItemResponse {
+    private final Long                conversationId;
+    private final Long                projectId;
+    private final Long                wabaAccountId;
+    private final Long                contactId;
+    private final ChatMessageResponse message;
+}
@@ -13,9 +13,10 @@ import org.hibernate.annotations.UpdateTimestamp;
 @Data
 @Entity
 @Table(name = "conversations", indexes = {
-        @Index(name = "idx_inbox",    columnList = "project_id,waba_account_id,last_message_at"),
-        @Index(name = "idx_assigned", columnList = "project_id,assigned_type,assigned_id,last_message_at"),
-        @Index(name = "idx_contact",  columnList = "contact_id")
+        @Index(name = "idx_inbox",         columnList = "project_id,waba_account_id,last_message_at"),
+        @Index(name = "idx_project_inbox", columnList = "project_id,last_message_at"),
+        @Index(name = "idx_assigned",      columnList = "project_id,assigned_type,assigned_id,last_message_at"),
+        @Index(name = "idx_contact",       columnList = "contact_id")
 })
 public class Conversation {
 
@@ -0,0 +1,8 @@
+package com.apargo.services.message_report.enums;
+
+public enum LatencyGroupBy {
+    NONE,
+    HOUR,
+    TEMPLATE,
+    CAMPAIGN
+}
@@ -0,0 +1,7 @@
+package com.apargo.services.message_report.enums;
+
+/** Send → provider status latency tracked by the delivery-latency analytics. */
+public enum LatencyMetric {
+    DELIVERED,
+    READ
+}
@@ -0,0 +1,7 @@
+package com.apargo.services.message_report.enums;
+
+/** Admission-control bulkhead a request is counted against. */
+public enum QueryClass {
+    CHEAP,       // keyset page reads (inbox page, conversation messages)
+    EXPENSIVE    // counts, facets, search, history, merged inbox, timelines
+}
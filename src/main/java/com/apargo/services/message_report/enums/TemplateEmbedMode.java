@@ -0,0 +1,14 @@
+package com.apargo.services.message_report.enums;
+
+/**
+ * How template structures are attached to TEMPLATE-type messages.
+ *
+ *  INLINE    – full templateDetail on every message (default).
+ *  REFERENCE – each distinct template sent once per page in
+ *              ConversationDetailResponse.templates; messages carry
+ *              templateRef + renderedTexts only.
+ */
+public enum TemplateEmbedMode {
+    INLINE,
+    REFERENCE
+}
@@ -0,0 +1,20 @@
+package com.apargo.services.message_report.enums;
+
+/** Group-by dimensions of the message volume report (columns of message_daily_stats). */
+public enum VolumeDimension {
+    DAY("day"),
+    DIRECTION("direction"),
+    MESSAGE_TYPE("message_type"),
+    STATUS("status"),
+    CREATED_BY_TYPE("created_by_type");
+
+    private final String column;
+
+    VolumeDimension(String column) {
+        this.column = column;
+    }
+
+    public String column() {
+        return column;
+    }
+}
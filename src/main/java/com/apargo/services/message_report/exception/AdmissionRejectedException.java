@@ -0,0 +1,18 @@
+package com.apargo.services.message_report.exception;
+
+import com.apargo.services.message_report.enums.QueryClass;
+import lombok.Getter;
+
+/** Request turned away by admission control; answered with 429 + Retry-After. */
+@Getter
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final QueryClass queryClass;
+    private final long       retryAfterSeconds;
+
+    public AdmissionRejectedException(QueryClass queryClass, String reason, long retryAfterSeconds) {
+        super(reason);
+        this.queryClass        = queryClass;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.apargo.services.message_report.projection;
+
+/**
+ * A conversation count that may have been cut short: {@code capped} means the
+ * exact count ran out of time and {@code total} is the cap — show "10,000+".
+ */
+public record CountResult(long total, boolean capped) {
+
+    public static CountResult exact(long total) {
+        return new CountResult(total, false);
+    }
+}
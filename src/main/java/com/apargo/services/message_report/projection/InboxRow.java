@@ -0,0 +1,46 @@
+package com.apargo.services.message_report.projection;
+
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.enums.MessageDirection;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Plain-field implementation of {@link InboxProjection}, filled straight from
+ * a JDBC ResultSet by ConversationJdbcRepository.
+ *
+ * Getter calls are plain field reads — no Spring Data proxy / TupleBackedMap
+ * lookup per call — while InboxService and InboxItemResponse.from stay unchanged.
+ */
+@Getter
+@Builder
+public class InboxRow implements InboxProjection {
+
+    // ── Conversation ──────────────────────────────────────────────────────
+    private final Long               conversationId;
+    private final Long               contactId;
+    private final Long               wabaAccountId;
+    private final ConversationStatus status;
+    private final AssignedType       assignedType;
+    private final Long               assignedId;
+    private final Instant            lastMessageAt;
+    private final MessageDirection   lastMessageDirection;
+    private final String             lastMessagePreview;
+    private final Integer            unreadCount;
+    private final Instant            conversationOpenUntil;
+    private final Instant            lastInboundAt;
+    private final Long               lastMessageId;
+
+    // ── Contact ───────────────────────────────────────────────────────────
+    private final String             contactName;
+    private final String             contactPhone;
+
+    // ── Last message delivery ticks ───────────────────────────────────────
+    private final Boolean            isSent;
+    private final Boolean            isDelivered;
+    private final Boolean            isRead;
+    private final Boolean            isFailed;
+}
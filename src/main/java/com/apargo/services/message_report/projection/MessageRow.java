@@ -0,0 +1,55 @@
+package com.apargo.services.message_report.projection;
+
+import com.apargo.services.message_report.enums.CreatedByType;
+import com.apargo.services.message_report.enums.MessageDirection;
+import com.apargo.services.message_report.enums.MessageStatus;
+import com.apargo.services.message_report.enums.MessageType;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Plain-field implementation of {@link MessageProjection}, filled straight from
+ * a JDBC ResultSet by MessageJdbcRepository.
+ *
+ * Getter calls are plain field reads — no Spring Data proxy / TupleBackedMap
+ * lookup per call — while ChatService and ChatMessageResponse.from stay unchanged.
+ */
+@Getter
+@Builder
+public class MessageRow implements MessageProjection {
+
+    // ── Message identity ──────────────────────────────────────────────────
+    private final Long             messageId;
+    private final String           uuid;
+    private final MessageDirection direction;
+    private final MessageType      messageType;
+    private final MessageStatus    status;
+
+    // ── Content ───────────────────────────────────────────────────────────
+    private final String           bodyText;
+    private final String           templateName;
+    private final String           templateLanguage;
+    private final String           templateVars;
+    private final Long             mediaAssetId;
+
+    // ── Provider ──────────────────────────────────────────────────────────
+    private final String           providerMessageId;
+
+    // ── Authorship ────────────────────────────────────────────────────────
+    private final CreatedByType    createdByType;
+    private final Long             createdById;
+
+    // ── Timestamps ────────────────────────────────────────────────────────
+    private final Instant          createdAt;
+    private final Instant          sentAt;
+    private final Instant          deliveredAt;
+    private final Instant          readAt;
+
+    // ── Delivery ticks (from message_status_rollup) ───────────────────────
+    private final Boolean          isSent;
+    private final Boolean          isDelivered;
+    private final Boolean          isRead;
+    private final Boolean          isFailed;
+}
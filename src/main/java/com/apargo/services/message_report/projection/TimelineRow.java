@@ -0,0 +1,18 @@
+package com.apargo.services.message_report.projection;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * One message of a contact timeline: the usual message columns plus where it
+ * happened — timelines span conversations, projects and WABA accounts.
+ */
+@Getter
+@Builder
+public class TimelineRow {
+    private final Long              conversationId;
+    private final Long              projectId;
+    private final Long              wabaAccountId;
+    private final Long              contactId;
+    private final MessageProjection message;
+}
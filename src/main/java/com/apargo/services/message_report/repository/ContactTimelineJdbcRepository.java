@@ -0,0 +1,112 @@
+package com.apargo.services.message_report.repository;
+
+import com.apargo.services.message_report.projection.TimelineRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.apargo.services.message_report.repository.JdbcColumns.toTimestamp;
+
+/**
+ * Contact timeline reads.
+ *
+ * One page of one contact's messages across all conversations, newest first,
+ * keyset on (created_at DESC, id DESC) — a backward range scan of
+ * idx_contact_time(contact_id, created_at) with the rollup ticks joined in.
+ * organization_id is a residual filter so a contact id from another tenant
+ * returns nothing.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ContactTimelineJdbcRepository {
+
+    private static final String SELECT_PAGE = """
+        SELECT
+            m.id, m.uuid, m.direction, m.message_type, m.status,
+            m.body_text, m.template_name, m.template_language, m.template_vars,
+            m.media_asset_id, m.provider_message_id,
+            m.created_by_type, m.created_by_id,
+            m.created_at, m.sent_at, m.delivered_at, m.read_at,
+            msr.is_sent, msr.is_delivered, msr.is_read, msr.is_failed,
+            m.conversation_id, m.project_id, m.waba_account_id, m.contact_id
+        FROM messages m
+        LEFT JOIN message_status_rollup msr ON msr.message_id = m.id
+        WHERE m.contact_id = :contactId
+          AND m.organization_id = :organizationId
+        """;
+
+    private static final String KEYSET = """
+          AND (m.created_at < :cursorTime
+               OR (m.created_at = :cursorTime AND m.id < :cursorId))
+        """;
+
+    private static final String ORDER_LIMIT = """
+        ORDER BY m.created_at DESC, m.id DESC
+        LIMIT :limit
+        """;
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /** Contacts of the organization sharing {@code contactId}'s phone number (including itself). */
+    public List<Long> findSameNumberContacts(Long organizationId, Long contactId, int limit) {
+        return jdbc.queryForList("""
+                SELECT c2.id
+                FROM contacts c1
+                JOIN contacts c2
+                  ON c2.organization_id = c1.organization_id
+                 AND (c2.wa_phone_e164 = c1.wa_phone_e164 OR c2.id = c1.id)
+                WHERE c1.id = :contactId
+                  AND c1.organization_id = :organizationId
+                ORDER BY c2.id
+                LIMIT :limit
+                """,
+                new MapSqlParameterSource()
+                        .addValue("contactId", contactId)
+                        .addValue("organizationId", organizationId)
+                        .addValue("limit", limit),
+                Long.class);
+    }
+
+    /** Contacts of the organization with this number, as wa_phone_e164 ("+9198…") or wa_id ("9198…"). */
+    public List<Long> findByPhone(Long organizationId, String e164, String waId, int limit) {
+        return jdbc.queryForList("""
+                SELECT id
+                FROM contacts
+                WHERE organization_id = :organizationId
+                  AND (wa_phone_e164 = :e164 OR wa_id = :waId)
+                ORDER BY id
+                LIMIT :limit
+                """,
+                new MapSqlParameterSource()
+                        .addValue("organizationId", organizationId)
+                        .addValue("e164", e164)
+                        .addValue("waId", waId)
+                        .addValue("limit", limit),
+                Long.class);
+    }
+
+    /** cursorTime null = first page. */
+    public List<TimelineRow> findPage(Long organizationId, Long contactId,
+                                      Instant cursorTime, Long cursorId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("contactId", contactId)
+                .addValue("organizationId", organizationId)
+                .addValue("limit", limit);
+        String sql = SELECT_PAGE + ORDER_LIMIT;
+        if (cursorTime != null) {
+            params.addValue("cursorTime", toTimestamp(cursorTime)).addValue("cursorId", cursorId);
+            sql = SELECT_PAGE + KEYSET + ORDER_LIMIT;
+        }
+        return jdbc.query(sql, params, (rs, i) -> TimelineRow.builder()
+                .message(MessageJdbcRepository.ROW_MAPPER.mapRow(rs, i))
+                .conversationId(rs.getLong("conversation_id"))
+                .projectId(rs.getLong("project_id"))
+                .wabaAccountId(rs.getLong("waba_account_id"))
+                .contactId(rs.getLong("contact_id"))
+                .build());
+    }
+}
@@ -0,0 +1,429 @@
+package com.apargo.services.message_report.repository;
+
+import com.apargo.services.message_report.dto.response.InboxFacetsResponse;
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.enums.MessageDirection;
+import com.apargo.services.message_report.enums.QueryClass;
+import com.apargo.services.message_report.projection.CountResult;
+import com.apargo.services.message_report.projection.InboxProjection;
+import com.apargo.services.message_report.projection.InboxRow;
+import com.apargo.services.message_report.service.query.QueryGuard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.apargo.services.message_report.repository.JdbcColumns.*;
+
+/**
+ * JdbcTemplate read path for the inbox / message-history pages.
+ *
+ * Mirrors ConversationRepository.findFirstPage / findNextPage in one method, with two differences:
+ *  - rows are mapped column-by-column into {@link InboxRow} (no projection proxies);
+ *  - only the filters actually present are added to the WHERE clause, instead of
+ *    the generic "(:x IS NULL OR …)" form, so MySQL plans each filter shape on
+ *    its own merits.
+ *
+ * Enabled with message-report.read-path.jdbc=true.
+ *
+ * Statements run through {@link QueryGuard}: searches, counts and non-inbox
+ * (history) pages get the EXPENSIVE statement timeout, inbox pages the CHEAP
+ * one, and all of them join the request's cancellation scope.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ConversationJdbcRepository {
+
+    private static final String SELECT_PAGE = """
+        SELECT
+            conv.id, conv.contact_id, conv.waba_account_id, conv.status,
+            conv.assigned_type, conv.assigned_id,
+            conv.last_message_at, conv.last_message_direction, conv.last_message_preview,
+            conv.unread_count, conv.conversation_open_until, conv.last_inbound_at,
+            conv.last_message_id,
+            c.display_name, c.wa_phone_e164,
+            msr.is_sent, msr.is_delivered, msr.is_read, msr.is_failed
+        FROM conversations conv
+        JOIN contacts c ON c.id = conv.contact_id
+        LEFT JOIN message_status_rollup msr ON msr.message_id = conv.last_message_id
+        """;
+
+    public static final RowMapper<InboxProjection> ROW_MAPPER = (rs, i) -> InboxRow.builder()
+            .conversationId(rs.getLong("id"))
+            .contactId(getLong(rs, "contact_id"))
+            .wabaAccountId(getLong(rs, "waba_account_id"))
+            .status(getEnum(rs, "status", ConversationStatus.class))
+            .assignedType(getEnum(rs, "assigned_type", AssignedType.class))
+            .assignedId(getLong(rs, "assigned_id"))
+            .lastMessageAt(getInstant(rs, "last_message_at"))
+            .lastMessageDirection(getEnum(rs, "last_message_direction", MessageDirection.class))
+            .lastMessagePreview(rs.getString("last_message_preview"))
+            .unreadCount(getInt(rs, "unread_count"))
+            .conversationOpenUntil(getInstant(rs, "conversation_open_until"))
+            .lastInboundAt(getInstant(rs, "last_inbound_at"))
+            .lastMessageId(getLong(rs, "last_message_id"))
+            .contactName(rs.getString("display_name"))
+            .contactPhone(rs.getString("wa_phone_e164"))
+            .isSent(getBoolean(rs, "is_sent"))
+            .isDelivered(getBoolean(rs, "is_delivered"))
+            .isRead(getBoolean(rs, "is_read"))
+            .isFailed(getBoolean(rs, "is_failed"))
+            .build();
+
+    private final QueryGuard guard;
+
+    // ── FIRST / NEXT PAGES (cursorTime == null → first page) ──────────────
+    public List<InboxProjection> findPage(
+            Long               projectId,
+            Long               organizationId,
+            ConversationStatus status,
+            Long               userId,
+            AssignedType       assignedType,
+            Long               assignedId,
+            boolean            unreadOnly,
+            boolean            activeSession,
+            Instant            fromDate,
+            Instant            toDate,
+            String             search,
+            Instant            cursorTime,
+            Long               cursorId,
+            int                limit
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = pageSql(params, projectId, null, organizationId, status, userId, assignedType,
+                assignedId, unreadOnly, activeSession, fromDate, toDate, search,
+                cursorTime, cursorId, limit);
+
+        return guard.jdbc(classOf(status, search)).query(sql, params, ROW_MAPPER);
+    }
+
+    // ── STREAMING PAGE ────────────────────────────────────────────────────
+    /**
+     * Same query as {@link #findPage}, but each row is handed to {@code sink}
+     * as soon as it is read from the ResultSet — no List is built.
+     */
+    public void streamPage(
+            Long                      projectId,
+            Long                      organizationId,
+            ConversationStatus        status,
+            Long                      userId,
+            AssignedType              assignedType,
+            Long                      assignedId,
+            boolean                   unreadOnly,
+            boolean                   activeSession,
+            Instant                   fromDate,
+            Instant                   toDate,
+            String                    search,
+            Instant                   cursorTime,
+            Long                      cursorId,
+            int                       limit,
+            Consumer<InboxProjection> sink
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = pageSql(params, projectId, null, organizationId, status, userId, assignedType,
+                assignedId, unreadOnly, activeSession, fromDate, toDate, search,
+                cursorTime, cursorId, limit);
+
+        guard.jdbc(classOf(status, search))
+                .query(sql, params, (RowCallbackHandler) rs -> sink.accept(ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    // ── BY IDS (in-memory inbox index) ────────────────────────────────────
+    /**
+     * Page rows for conversation ids chosen by the in-memory inbox index —
+     * a primary-key lookup per id. Rows come back in no particular order.
+     */
+    public List<InboxProjection> findByIds(Long organizationId, List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        return guard.jdbc(QueryClass.CHEAP).query(SELECT_PAGE + """
+                WHERE conv.id IN (:ids)
+                  AND conv.organization_id = :organizationId
+                """,
+                new MapSqlParameterSource()
+                        .addValue("ids", ids)
+                        .addValue("organizationId", organizationId),
+                ROW_MAPPER);
+    }
+
+    // ── FACET COUNTS ──────────────────────────────────────────────────────
+    /**
+     * All inbox header buckets in one statement: the OPEN range of the project
+     * is read once (idx_inbox / idx_assigned prefix) and each bucket is a
+     * conditional SUM over the same rows, instead of one countFiltered per bucket.
+     */
+    public InboxFacetsResponse countFacets(
+            Long    projectId,
+            Long    organizationId,
+            Long    userId,
+            Instant fromDate,
+            Instant toDate,
+            String  search
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("me", userId);
+        StringBuilder sql = new StringBuilder(1024).append("""
+            SELECT
+                COUNT(*)                                                                     AS open_count,
+                COALESCE(SUM(conv.assigned_type = 'USER' AND conv.assigned_id = :me), 0)    AS mine,
+                COALESCE(SUM(conv.assigned_type = 'UNASSIGNED'), 0)                          AS unassigned,
+                COALESCE(SUM(conv.assigned_type = 'TEAM'), 0)                                AS team,
+                COALESCE(SUM(conv.unread_count > 0), 0)                                      AS unread,
+                COALESCE(SUM(conv.conversation_open_until > CURRENT_TIMESTAMP), 0)           AS active_session,
+                COALESCE(SUM(conv.unread_count), 0)                                          AS unread_total
+            FROM conversations conv
+            """);
+        if (search != null) sql.append("JOIN contacts c ON c.id = conv.contact_id\n");
+        appendFilters(sql, params, projectId, null, organizationId, ConversationStatus.OPEN, null, null,
+                null, false, false, fromDate, toDate, search);
+
+        return guard.jdbc(QueryClass.EXPENSIVE).queryForObject(sql.toString(), params, (rs, i) -> InboxFacetsResponse.builder()
+                .open(rs.getLong("open_count"))
+                .mine(userId != null ? rs.getLong("mine") : null)
+                .unassigned(rs.getLong("unassigned"))
+                .team(rs.getLong("team"))
+                .unread(rs.getLong("unread"))
+                .activeSession(rs.getLong("active_session"))
+                .unreadTotal(rs.getLong("unread_total"))
+                .build());
+    }
+
+    // ── MERGED INBOX PARTITION ────────────────────────────────────────────
+    /**
+     * One partition of the merged inbox: {@link #findPage} narrowed to one
+     * WABA account when {@code wabaAccountId} is set, so the equality prefix
+     * (project_id, waba_account_id) of idx_inbox is used and last_message_at
+     * is read in index order without a filesort.
+     */
+    public List<InboxProjection> findPartitionPage(
+            Long               projectId,
+            Long               wabaAccountId,
+            Long               organizationId,
+            ConversationStatus status,
+            Long               userId,
+            AssignedType       assignedType,
+            Long               assignedId,
+            boolean            unreadOnly,
+            boolean            activeSession,
+            Instant            fromDate,
+            Instant            toDate,
+            String             search,
+            Instant            cursorTime,
+            Long               cursorId,
+            int                limit
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = pageSql(params, projectId, wabaAccountId, organizationId, status, userId, assignedType,
+                assignedId, unreadOnly, activeSession, fromDate, toDate, search,
+                cursorTime, cursorId, limit);
+
+        return guard.jdbc(classOf(status, search)).query(sql, params, ROW_MAPPER);
+    }
+
+    /** Count for one merged-inbox partition; same filters as {@link #findPartitionPage}. */
+    public long countPartition(
+            Long               projectId,
+            Long               wabaAccountId,
+            Long               organizationId,
+            ConversationStatus status,
+            Long               userId,
+            AssignedType       assignedType,
+            Long               assignedId,
+            boolean            unreadOnly,
+            boolean            activeSession,
+            Instant            fromDate,
+            Instant            toDate,
+            String             search
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*)\n" + FROM_FILTERED + filters(params, projectId, wabaAccountId, organizationId,
+                status, userId, assignedType, assignedId, unreadOnly, activeSession, fromDate, toDate, search);
+
+        Long count = guard.jdbc(QueryClass.EXPENSIVE).queryForObject(sql, params, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    // ── COUNT (exact, degrading to capped) ────────────────────────────────
+    /**
+     * Same count as ConversationRepository.countFiltered. The exact COUNT runs
+     * with count-timeout; if it is cut off, a LIMIT-bounded subquery counts
+     * at most count-cap + 1 rows instead and the result says "cap+".
+     */
+    public CountResult countFiltered(
+            Long               projectId,
+            Long               organizationId,
+            ConversationStatus status,
+            Long               userId,
+            AssignedType       assignedType,
+            Long               assignedId,
+            boolean            unreadOnly,
+            boolean            activeSession,
+            Instant            fromDate,
+            Instant            toDate,
+            String             search
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = filters(params, projectId, null, organizationId, status, userId, assignedType,
+                assignedId, unreadOnly, activeSession, fromDate, toDate, search);
+
+        try {
+            Long exact = guard.countJdbc().queryForObject("SELECT COUNT(*)\n" + FROM_FILTERED + where, params, Long.class);
+            return CountResult.exact(exact != null ? exact : 0L);
+        } catch (QueryTimeoutException e) {
+            log.info("Exact count for project {} timed out, falling back to capped count", projectId);
+        }
+
+        int cap = guard.countCap();
+        params.addValue("capPlusOne", cap + 1);
+        Long bounded = guard.jdbc(QueryClass.EXPENSIVE).queryForObject(
+                "SELECT COUNT(*) FROM (\nSELECT 1\n" + FROM_FILTERED + where + "LIMIT :capPlusOne\n) bounded",
+                params, Long.class);
+        guard.recordCappedCount();
+        long n = bounded != null ? bounded : 0L;
+        return n > cap ? new CountResult(cap, true) : CountResult.exact(n);
+    }
+
+    private static final String FROM_FILTERED = """
+        FROM conversations conv
+        JOIN contacts c ON c.id = conv.contact_id
+        """;
+
+    private static String filters(
+            MapSqlParameterSource params,
+            Long                  projectId,
+            Long                  wabaAccountId,
+            Long                  organizationId,
+            ConversationStatus    status,
+            Long                  userId,
+            AssignedType          assignedType,
+            Long                  assignedId,
+            boolean               unreadOnly,
+            boolean               activeSession,
+            Instant               fromDate,
+            Instant               toDate,
+            String                search
+    ) {
+        StringBuilder where = new StringBuilder(512);
+        appendFilters(where, params, projectId, wabaAccountId, organizationId, status, userId, assignedType,
+                assignedId, unreadOnly, activeSession, fromDate, toDate, search);
+        return where.toString();
+    }
+
+    /** Inbox pages without search are cheap keyset reads; search and history are not. */
+    private static QueryClass classOf(ConversationStatus status, String search) {
+        return search == null && status == ConversationStatus.OPEN ? QueryClass.CHEAP : QueryClass.EXPENSIVE;
+    }
+
+    private static String pageSql(
+            MapSqlParameterSource params,
+            Long                  projectId,
+            Long                  wabaAccountId,
+            Long                  organizationId,
+            ConversationStatus    status,
+            Long                  userId,
+            AssignedType          assignedType,
+            Long                  assignedId,
+            boolean               unreadOnly,
+            boolean               activeSession,
+            Instant               fromDate,
+            Instant               toDate,
+            String                search,
+            Instant               cursorTime,
+            Long                  cursorId,
+            int                   limit
+    ) {
+        StringBuilder sql = new StringBuilder(1024).append(SELECT_PAGE);
+
+        appendFilters(sql, params, projectId, wabaAccountId, organizationId, status, userId, assignedType,
+                assignedId, unreadOnly, activeSession, fromDate, toDate, search);
+
+        if (cursorTime != null) {
+            sql.append("""
+                  AND (conv.last_message_at < :cursorTime
+                       OR (conv.last_message_at = :cursorTime AND conv.id < :cursorId))
+                """);
+            params.addValue("cursorTime", toTimestamp(cursorTime));
+            params.addValue("cursorId", cursorId);
+        }
+
+        sql.append("ORDER BY conv.last_message_at DESC, conv.id DESC\nLIMIT :limit");
+        params.addValue("limit", limit);
+
+        return sql.toString();
+    }
+
+    /**
+     * Appends the WHERE clause for the given filters. Only non-empty filters are
+     * emitted; semantics match the JPQL in ConversationRepository exactly.
+     * {@code wabaAccountId} (merged inbox only) has no JPQL counterpart.
+     */
+    static void appendFilters(
+            StringBuilder         sql,
+            MapSqlParameterSource params,
+            Long                  projectId,
+            Long                  wabaAccountId,
+            Long                  organizationId,
+            ConversationStatus    status,
+            Long                  userId,
+            AssignedType          assignedType,
+            Long                  assignedId,
+            boolean               unreadOnly,
+            boolean               activeSession,
+            Instant               fromDate,
+            Instant               toDate,
+            String                search
+    ) {
+        sql.append("WHERE conv.project_id = :projectId\n  AND conv.organization_id = :organizationId\n");
+        params.addValue("projectId", projectId);
+        params.addValue("organizationId", organizationId);
+
+        if (wabaAccountId != null) {
+            sql.append("  AND conv.waba_account_id = :wabaAccountId\n");
+            params.addValue("wabaAccountId", wabaAccountId);
+        }
+        if (status != null) {
+            sql.append("  AND conv.status = :status\n");
+            params.addValue("status", status.name());
+        }
+        if (userId != null) {
+            sql.append("  AND conv.assigned_type = 'USER' AND conv.assigned_id = :userId\n");
+            params.addValue("userId", userId);
+        }
+        if (assignedType != null) {
+            sql.append("  AND conv.assigned_type = :assignedType\n");
+            params.addValue("assignedType", assignedType.name());
+        }
+        if (assignedId != null) {
+            sql.append("  AND conv.assigned_id = :assignedId\n");
+            params.addValue("assignedId", assignedId);
+        }
+        if (unreadOnly) {
+            sql.append("  AND conv.unread_count > 0\n");
+        }
+        if (activeSession) {
+            sql.append("  AND conv.conversation_open_until > CURRENT_TIMESTAMP\n");
+        }
+        if (fromDate != null) {
+            sql.append("  AND conv.last_message_at >= :fromDate\n");
+            params.addValue("fromDate", toTimestamp(fromDate));
+        }
+        if (toDate != null) {
+            sql.append("  AND conv.last_message_at <= :toDate\n");
+            params.addValue("toDate", toTimestamp(toDate));
+        }
+        if (search != null) {
+            sql.append("""
+                  AND (LOWER(c.display_name) LIKE LOWER(CONCAT('%', :search, '%'))
+                       OR c.wa_phone_e164     LIKE CONCAT('%', :search, '%'))
+                """);
+            params.addValue("search", search);
+        }
+    }
+}
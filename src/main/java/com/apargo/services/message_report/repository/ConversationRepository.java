@@ -3,7 +3,9 @@ package com.apargo.services.message_report.repository;
 import com.apargo.services.message_report.entity.Conversation;
 import com.apargo.services.message_report.enums.AssignedType;
 import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.enums.QueryClass;
 import com.apargo.services.message_report.projection.InboxProjection;
+import com.apargo.services.message_report.service.query.GuardedQuery;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -16,7 +18,11 @@ import java.util.List;
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, Long> {
 
+    // Pages serve the inbox and the searchable history alike, so they get the
+    // expensive timeout; the JDBC read path picks the class per filter.
+
     // ── FIRST PAGE ────────────────────────────────────────────────────────
+    @GuardedQuery(QueryClass.EXPENSIVE)
     @Query("""
         SELECT
             conv.id                    AS conversationId,
@@ -76,6 +82,7 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     );
 
     // ── NEXT PAGES ────────────────────────────────────────────────────────
+    @GuardedQuery(QueryClass.EXPENSIVE)
     @Query("""
         SELECT
             conv.id                    AS conversationId,
@@ -139,6 +146,7 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     );
 
     // ── COUNT ─────────────────────────────────────────────────────────────
+    @GuardedQuery(QueryClass.EXPENSIVE)
     @Query("""
         SELECT COUNT(conv.id)
         FROM Conversation conv
@@ -176,6 +184,7 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     );
 
     // ── UNREAD BADGE ──────────────────────────────────────────────────────
+    @GuardedQuery(QueryClass.EXPENSIVE)
     @Query("""
         SELECT COALESCE(SUM(conv.unreadCount), 0)
         FROM Conversation conv
@@ -0,0 +1,47 @@
+package com.apargo.services.message_report.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Null-safe column readers shared by the JdbcTemplate row mappers.
+ *
+ * JDBC primitives return 0 / false for SQL NULL, so every nullable column
+ * is read through wasNull() to keep the boxed-null semantics the
+ * interface projections had.
+ */
+public final class JdbcColumns {
+
+    private JdbcColumns() {}
+
+    public static Long getLong(ResultSet rs, String column) throws SQLException {
+        long v = rs.getLong(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    public static Integer getInt(ResultSet rs, String column) throws SQLException {
+        int v = rs.getInt(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    public static Boolean getBoolean(ResultSet rs, String column) throws SQLException {
+        boolean v = rs.getBoolean(column);
+        return rs.wasNull() ? null : v;
+    }
+
+    public static Instant getInstant(ResultSet rs, String column) throws SQLException {
+        Timestamp ts = rs.getTimestamp(column);
+        return ts != null ? ts.toInstant() : null;
+    }
+
+    public static <E extends Enum<E>> E getEnum(ResultSet rs, String column, Class<E> type) throws SQLException {
+        String v = rs.getString(column);
+        return v != null ? Enum.valueOf(type, v) : null;
+    }
+
+    public static Timestamp toTimestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
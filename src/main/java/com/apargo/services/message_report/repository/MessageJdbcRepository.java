@@ -0,0 +1,103 @@
+package com.apargo.services.message_report.repository;
+
+import com.apargo.services.message_report.enums.CreatedByType;
+import com.apargo.services.message_report.enums.MessageDirection;
+import com.apargo.services.message_report.enums.MessageStatus;
+import com.apargo.services.message_report.enums.MessageType;
+import com.apargo.services.message_report.projection.MessageProjection;
+import com.apargo.services.message_report.projection.MessageRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import static com.apargo.services.message_report.repository.JdbcColumns.*;
+
+/**
+ * JdbcTemplate read path for the conversation message list.
+ *
+ * Same SQL shape as MessageRepository.findFirstPage / findNextPage
+ * (messages LEFT JOIN message_status_rollup, keyset on created_at DESC, id DESC,
+ * hits idx_conversation_time), but rows are mapped column-by-column into
+ * {@link MessageRow} instead of going through Spring Data's projection proxies.
+ *
+ * Enabled with message-report.read-path.jdbc=true.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MessageJdbcRepository {
+
+    private static final String SELECT_PAGE = """
+        SELECT
+            m.id, m.uuid, m.direction, m.message_type, m.status,
+            m.body_text, m.template_name, m.template_language, m.template_vars,
+            m.media_asset_id, m.provider_message_id,
+            m.created_by_type, m.created_by_id,
+            m.created_at, m.sent_at, m.delivered_at, m.read_at,
+            msr.is_sent, msr.is_delivered, msr.is_read, msr.is_failed
+        FROM messages m
+        LEFT JOIN message_status_rollup msr ON msr.message_id = m.id
+        WHERE m.conversation_id = :conversationId
+        """;
+
+    private static final String KEYSET = """
+          AND (m.created_at < :cursorTime
+               OR (m.created_at = :cursorTime AND m.id < :cursorId))
+        """;
+
+    private static final String ORDER_LIMIT = """
+        ORDER BY m.created_at DESC, m.id DESC
+        LIMIT :limit
+        """;
+
+    private static final String FIRST_PAGE_SQL = SELECT_PAGE + ORDER_LIMIT;
+    private static final String NEXT_PAGE_SQL  = SELECT_PAGE + KEYSET + ORDER_LIMIT;
+
+    public static final RowMapper<MessageProjection> ROW_MAPPER = (rs, i) -> MessageRow.builder()
+            .messageId(rs.getLong("id"))
+            .uuid(rs.getString("uuid"))
+            .direction(getEnum(rs, "direction", MessageDirection.class))
+            .messageType(getEnum(rs, "message_type", MessageType.class))
+            .status(getEnum(rs, "status", MessageStatus.class))
+            .bodyText(rs.getString("body_text"))
+            .templateName(rs.getString("template_name"))
+            .templateLanguage(rs.getString("template_language"))
+            .templateVars(rs.getString("template_vars"))
+            .mediaAssetId(getLong(rs, "media_asset_id"))
+            .providerMessageId(rs.getString("provider_message_id"))
+            .createdByType(getEnum(rs, "created_by_type", CreatedByType.class))
+            .createdById(getLong(rs, "created_by_id"))
+            .createdAt(getInstant(rs, "created_at"))
+            .sentAt(getInstant(rs, "sent_at"))
+            .deliveredAt(getInstant(rs, "delivered_at"))
+            .readAt(getInstant(rs, "read_at"))
+            .isSent(getBoolean(rs, "is_sent"))
+            .isDelivered(getBoolean(rs, "is_delivered"))
+            .isRead(getBoolean(rs, "is_read"))
+            .isFailed(getBoolean(rs, "is_failed"))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /** FIRST PAGE — no cursor. */
+    public List<MessageProjection> findFirstPage(Long conversationId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("conversationId", conversationId)
+                .addValue("limit", limit);
+        return jdbc.query(FIRST_PAGE_SQL, params, ROW_MAPPER);
+    }
+
+    /** NEXT PAGES — keyset cursor. */
+    public List<MessageProjection> findNextPage(Long conversationId, Instant cursorTime, long cursorId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("conversationId", conversationId)
+                .addValue("cursorTime", toTimestamp(cursorTime))
+                .addValue("cursorId", cursorId)
+                .addValue("limit", limit);
+        return jdbc.query(NEXT_PAGE_SQL, params, ROW_MAPPER);
+    }
+}
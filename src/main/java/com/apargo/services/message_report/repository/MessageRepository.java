@@ -1,7 +1,9 @@
 package com.apargo.services.message_report.repository;
 
 import com.apargo.services.message_report.entity.Message;
+import com.apargo.services.message_report.enums.QueryClass;
 import com.apargo.services.message_report.projection.MessageProjection;
+import com.apargo.services.message_report.service.query.GuardedQuery;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -25,6 +27,7 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     // ══════════════════════════════════════════════════════════════════════
 
     /** FIRST PAGE — no cursor. */
+    @GuardedQuery(QueryClass.CHEAP)
     @Query("""
         SELECT
             m.id                AS messageId,
@@ -59,6 +62,7 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     );
 
     /** NEXT PAGES — keyset cursor. O(1) regardless of depth. */
+    @GuardedQuery(QueryClass.CHEAP)
     @Query("""
         SELECT
             m.id                AS messageId,
@@ -97,6 +101,7 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     );
 
     /** Total message count — used for first-page badge only. */
+    @GuardedQuery(QueryClass.EXPENSIVE)
     @Query("SELECT COUNT(m.id) FROM Message m WHERE m.conversation.id = :conversationId")
     long countByConversationId(@Param("conversationId") Long conversationId);
 
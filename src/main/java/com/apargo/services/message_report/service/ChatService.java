@@ -1,13 +1,20 @@
 package com.apargo.services.message_report.service;
 
+import com.apargo.services.message_report.config.ReadPathProperties;
 import com.apargo.services.message_report.dto.response.*;
 import com.apargo.services.message_report.entity.Contact;
 import com.apargo.services.message_report.entity.Conversation;
 import com.apargo.services.message_report.entity.WhatsappTemplate;
 import com.apargo.services.message_report.enums.MessageType;
+import com.apargo.services.message_report.enums.TemplateEmbedMode;
 import com.apargo.services.message_report.projection.MessageProjection;
 import com.apargo.services.message_report.repository.ConversationRepository;
+import com.apargo.services.message_report.repository.MessageJdbcRepository;
 import com.apargo.services.message_report.repository.MessageRepository;
+import com.apargo.services.message_report.service.metrics.ReadPathEvents.StageEvent;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics.Dto;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics.Query;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -16,11 +23,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -33,6 +40,9 @@ public class ChatService {
     private final ConversationRepository conversationRepo;
     private final TemplateLoaderService  templateLoaderService;  // ← replaces direct templateRepo
     private final EntityManager          em;
+    private final MessageJdbcRepository  messageJdbcRepo;
+    private final ReadPathProperties     readPath;
+    private final ReadPathMetrics        metrics;
 
     // ══════════════════════════════════════════════════════════════════════
     //  GET CONVERSATION MESSAGES
@@ -45,25 +55,30 @@ public class ChatService {
     //   3. One batch query to apargo_wa_template schema for all templates
     //      (executed in an independent REQUIRES_NEW transaction so any
     //      failure does NOT poison the outer read transaction).
-    //   4. Enrich message DTOs with template details in-memory.
+    //   4. Map rows → DTOs in one pass, attaching template details in-memory.
     // ══════════════════════════════════════════════════════════════════════
 
     @Transactional(readOnly = true)
     public ConversationDetailResponse getMessages(
-            Long   conversationId,
-            String cursor,
-            int    size
+            Long              conversationId,
+            String            cursor,
+            int               size,
+            TemplateEmbedMode templateMode
     ) {
         // ── 1. Load conversation (also validates it exists) ───────────────
-        Conversation conv = conversationRepo.findById(conversationId)
+        StageEvent   stage = metrics.begin(Query.CONVERSATION_BY_ID, null);
+        Conversation conv  = conversationRepo.findById(conversationId)
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Conversation not found: " + conversationId));
+        metrics.end(stage, 1);
 
         // ── 2. Resolve contact name + phone ───────────────────────────────
         String contactName  = null;
         String contactPhone = null;
         try {
+            stage = metrics.begin(Query.CONTACT_BY_ID, conv.getProjectId());
             Contact contact = em.find(Contact.class, conv.getContactId());
+            metrics.end(stage, contact != null ? 1 : 0);
             if (contact != null) {
                 contactName  = contact.getDisplayName();
                 contactPhone = contact.getWaPhoneE164();
@@ -76,7 +91,7 @@ public class ChatService {
         int effectiveSize = Math.min(size, MAX_PAGE_SIZE);
 
         // ── 3. Fetch messages (size+1 probe for hasMore) ──────────────────
-        List<MessageProjection> rows = fetchPage(conversationId, cursor, effectiveSize + 1);
+        List<MessageProjection> rows = fetchPage(conversationId, conv.getProjectId(), cursor, effectiveSize + 1);
 
         boolean hasMore = rows.size() > effectiveSize;
         if (hasMore) rows = rows.subList(0, effectiveSize);
@@ -91,20 +106,20 @@ public class ChatService {
         // ── 5. totalCount only on first page ──────────────────────────────
         Long totalCount = null;
         if (cursor == null) {
+            stage      = metrics.begin(Query.MESSAGE_COUNT, conv.getProjectId());
             totalCount = messageRepo.countByConversationId(conversationId);
+            metrics.end(stage, 1);
         }
 
-        // ── 6. Map projections → base DTOs ────────────────────────────────
-        List<ChatMessageResponse> data = rows.stream()
-                .map(ChatMessageResponse::from)
-                .collect(Collectors.toList());
-
-        // ── 7. Enrich TEMPLATE-type messages with template details ─────────
+        // ── 6. Map projections → DTOs, enriching TEMPLATE-type messages ────
         //      Uses TemplateLoaderService (REQUIRES_NEW) so a template-fetch
         //      failure never rolls back the outer read transaction.
-        data = enrichWithTemplateDetails(data, rows, conv.getProjectId());
+        //      In REFERENCE mode each template structure goes into `templates` once.
+        Map<Long, TemplateDetailResponse> templates =
+                templateMode == TemplateEmbedMode.REFERENCE ? new LinkedHashMap<>() : null;
+        List<ChatMessageResponse> data = mapWithTemplateDetails(rows, conv.getProjectId(), templates);
 
-        // ── 8. Build messages page ────────────────────────────────────────
+        // ── 7. Build messages page ────────────────────────────────────────
         CursorPageResponse<ChatMessageResponse> messagePage = CursorPageResponse
                 .<ChatMessageResponse>builder()
                 .data(data)
@@ -114,7 +129,7 @@ public class ChatService {
                 .hasMore(hasMore)
                 .build();
 
-        // ── 9. Session window ─────────────────────────────────────────────
+        // ── 8. Session window ─────────────────────────────────────────────
         Instant now   = Instant.now();
         Instant until = conv.getConversationOpenUntil();
         boolean active = until != null && until.isAfter(now);
@@ -131,6 +146,7 @@ public class ChatService {
                 .isSessionActive(active)
                 .sessionRemainingMs(active ? until.toEpochMilli() - now.toEpochMilli() : null)
                 .messages(messagePage)
+                .templates(templates == null || templates.isEmpty() ? null : templates)
                 .build();
     }
 
@@ -159,88 +175,108 @@ public class ChatService {
 
     // ── Private helpers ───────────────────────────────────────────────────
 
-    private List<MessageProjection> fetchPage(Long conversationId, String cursor, int limit) {
-        PageRequest pageable = PageRequest.of(0, limit);
+    private List<MessageProjection> fetchPage(Long conversationId, Long projectId, String cursor, int limit) {
+        List<MessageProjection> rows;
 
         if (cursor == null) {
-            return messageRepo.findFirstPage(conversationId, pageable);
+            StageEvent stage = metrics.begin(Query.MESSAGE_FIRST_PAGE, projectId);
+            rows = readPath.isJdbc()
+                    ? messageJdbcRepo.findFirstPage(conversationId, limit)
+                    : messageRepo.findFirstPage(conversationId, PageRequest.of(0, limit));
+            metrics.end(stage, rows.size());
+            return rows;
         }
 
         long[]  parts      = CursorUtil.decode(cursor);
         Instant cursorTime = Instant.ofEpochMilli(parts[0]);
         long    cursorId   = parts[1];
 
-        return messageRepo.findNextPage(conversationId, cursorTime, cursorId, pageable);
+        StageEvent stage = metrics.begin(Query.MESSAGE_NEXT_PAGE, projectId);
+        rows = readPath.isJdbc()
+                ? messageJdbcRepo.findNextPage(conversationId, cursorTime, cursorId, limit)
+                : messageRepo.findNextPage(conversationId, cursorTime, cursorId, PageRequest.of(0, limit));
+        metrics.end(stage, rows.size());
+        return rows;
     }
 
     /**
-     * Batch-enrich TEMPLATE-type message DTOs with their full template structure.
+     * Map message rows to DTOs, attaching the full template structure to
+     * TEMPLATE-type messages.
      *
      * Strategy:
      *  1. Collect distinct templateName values from TEMPLATE rows.
      *  2. Delegate to TemplateLoaderService (runs in REQUIRES_NEW transaction)
      *     so any failure there does NOT mark the outer transaction as rollback-only.
-     *  3. Build a lookup map (name|language → template entity).
-     *  4. Attach TemplateDetailResponse to each TEMPLATE message DTO.
+     *  3. Single pass over the rows: look up (name, language) and build each DTO
+     *     once, with its templateDetail already set. The projection row is at hand,
+     *     so templateVars needs no side map by messageId.
+     *  4. REFERENCE mode (templates != null): put each template's structure into
+     *     {@code templates} once, and give the message only templateRef + renderedTexts.
      *
-     * Non-template messages are returned untouched.
      * If template loading fails, messages are returned without templateDetail (graceful degradation).
+     * Also used by ContactTimelineService, once per project on a timeline page.
      */
-    private List<ChatMessageResponse> enrichWithTemplateDetails(
-            List<ChatMessageResponse> dtos,
-            List<MessageProjection>   projections,
-            Long                      projectId
+    public List<ChatMessageResponse> mapWithTemplateDetails(
+            List<MessageProjection>           rows,
+            Long                              projectId,
+            Map<Long, TemplateDetailResponse> templates
     ) {
-        // Collect names of templates referenced on this page
-        Set<String> templateNames = projections.stream()
-                .filter(p -> MessageType.TEMPLATE.equals(p.getMessageType()))
-                .filter(p -> p.getTemplateName() != null)
-                .map(MessageProjection::getTemplateName)
-                .collect(Collectors.toSet());
-
-        if (templateNames.isEmpty()) {
-            return dtos; // no templates on this page — nothing to do
+        // Collect names of templates referenced on this page.
+        // A page holds ≤ MAX_PAGE_SIZE rows and only a handful of distinct
+        // templates, so a linear contains() beats hashing into a HashSet.
+        List<String> templateNames = new ArrayList<>();
+        for (MessageProjection p : rows) {
+            String name = p.getTemplateName();
+            if (name != null
+                    && MessageType.TEMPLATE.equals(p.getMessageType())
+                    && !templateNames.contains(name)) {
+                templateNames.add(name);
+            }
         }
 
         // Delegate to isolated REQUIRES_NEW transaction — failure won't poison outer tx
-        Map<String, WhatsappTemplate> templateMap = templateLoaderService.loadBatch(
-                projectId, List.copyOf(templateNames)
-        );
+        Map<TemplateKey, WhatsappTemplate> templateMap = templateNames.isEmpty()
+                ? Collections.emptyMap()
+                : templateLoaderService.loadBatch(projectId, templateNames);
+
+        StageEvent                render = metrics.begin(Dto.CHAT_MESSAGE, projectId, ReadPathMetrics.NO_SHAPE);
+        List<ChatMessageResponse> data   = new ArrayList<>(rows.size());
+        for (MessageProjection p : rows) {
+            WhatsappTemplate tmpl = templateFor(p, templateMap, projectId);
+            if (tmpl == null) {
+                data.add(ChatMessageResponse.from(p));
+            } else if (templates == null) {
+                data.add(ChatMessageResponse.from(p, TemplateDetailResponse.from(tmpl, p.getTemplateVars())));
+            } else {
+                templates.computeIfAbsent(tmpl.getId(), id -> TemplateDetailResponse.from(tmpl, null));
+                data.add(ChatMessageResponse.fromTemplateRef(
+                        p, tmpl.getId(), TemplateDetailResponse.renderTexts(tmpl, p.getTemplateVars())));
+            }
+        }
+        metrics.end(render, data.size());
+        return data;
+    }
 
+    private WhatsappTemplate templateFor(
+            MessageProjection                  p,
+            Map<TemplateKey, WhatsappTemplate> templateMap,
+            Long                               projectId
+    ) {
+        if (!MessageType.TEMPLATE.equals(p.getMessageType())) return null;
+        if (p.getTemplateName() == null) return null;
         if (templateMap.isEmpty()) {
-            // Template load failed or returned nothing — return messages without detail
-            return dtos;
+            metrics.templateLookup(false);
+            return null;
         }
 
-        // Build a fast projection lookup by messageId so we can get templateVars
-        Map<Long, MessageProjection> projByMessageId = projections.stream()
-                .collect(Collectors.toMap(
-                        MessageProjection::getMessageId,
-                        Function.identity()
-                ));
-
-        // Enrich each TEMPLATE message with its detail
-        return dtos.stream()
-                .map(dto -> {
-                    if (!MessageType.TEMPLATE.equals(dto.getMessageType())) return dto;
-                    if (dto.getTemplateName() == null) return dto;
-
-                    String key = dto.getTemplateName() + "|" + dto.getTemplateLanguage();
-                    WhatsappTemplate tmpl = templateMap.get(key);
-
-                    if (tmpl == null) {
-                        // Template may have been deleted or not yet approved — skip silently
-                        log.debug("Template not found for key '{}' in project {}", key, projectId);
-                        return dto;
-                    }
-
-                    // Get templateVars JSON from the original projection for variable substitution
-                    MessageProjection proj = projByMessageId.get(dto.getMessageId());
-                    String templateVars = proj != null ? proj.getTemplateVars() : null;
-
-                    TemplateDetailResponse detail = TemplateDetailResponse.from(tmpl, templateVars);
-                    return dto.withTemplateDetail(detail);
-                })
-                .collect(Collectors.toList());
+        TemplateKey      key  = TemplateKey.of(p.getTemplateName(), p.getTemplateLanguage());
+        WhatsappTemplate tmpl = templateMap.get(key);
+        metrics.templateLookup(tmpl != null);
+
+        if (tmpl == null) {
+            // Template may have been deleted or not yet approved — skip silently
+            log.debug("Template not found for key '{}' in project {}", key, projectId);
+        }
+        return tmpl;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,164 @@
+package com.apargo.services.message_report.service;
+
+import com.apargo.services.message_report.dto.response.ChatMessageResponse;
+import com.apargo.services.message_report.dto.response.CursorPageResponse;
+import com.apargo.services.message_report.dto.response.CursorUtil;
+import com.apargo.services.message_report.dto.response.TimelineItemResponse;
+import com.apargo.services.message_report.projection.MessageProjection;
+import com.apargo.services.message_report.projection.TimelineRow;
+import com.apargo.services.message_report.repository.ContactTimelineJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContactTimelineService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_CONTACTS  = 20;
+
+    /** Newest first; id breaks ties exactly like the SQL ORDER BY. */
+    private static final Comparator<TimelineRow> NEWEST_FIRST = Comparator
+            .comparing((TimelineRow r) -> r.getMessage().getCreatedAt(), Comparator.reverseOrder())
+            .thenComparing(r -> r.getMessage().getMessageId(), Comparator.reverseOrder());
+
+    private final ContactTimelineJdbcRepository timelineRepo;
+    private final ChatService                   chatService;
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  CONTACT TIMELINE
+    //  Every message with a person across conversations, projects and WABA
+    //  accounts, newest first, cursor-paginated.
+    //
+    //  Performance strategy:
+    //   1. Resolve the contact ids behind the number (one contacts query).
+    //   2. Per contact: one keyset page of size+1 through idx_contact_time,
+    //      rollup ticks joined in.
+    //   3. k-way merge of the per-contact pages with a heap, stop at size+1.
+    //      The (created_at, id) cursor is a position in ONE total order, so
+    //      the same cursor resumes every contact's stream.
+    //   4. Template details loaded in one batch per project on the page.
+    // ══════════════════════════════════════════════════════════════════════
+
+    public CursorPageResponse<TimelineItemResponse> getTimeline(
+            Long   organizationId,
+            Long   contactId,
+            String phone,
+            String cursor,
+            int    size
+    ) {
+        List<Long> contactIds = resolveContacts(organizationId, contactId, phone);
+        if (contactIds.isEmpty()) {
+            throw new IllegalArgumentException("Contact not found: " + (contactId != null ? contactId : phone));
+        }
+
+        int     effectiveSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        Instant cursorTime    = null;
+        Long    cursorId      = null;
+        if (cursor != null) {
+            long[] parts = CursorUtil.decode(cursor);
+            cursorTime = Instant.ofEpochMilli(parts[0]);
+            cursorId   = parts[1];
+        }
+
+        // ── 2. One page per contact ───────────────────────────────────────
+        List<List<TimelineRow>> streams = new ArrayList<>(contactIds.size());
+        for (Long id : contactIds) {
+            List<TimelineRow> page = timelineRepo.findPage(organizationId, id, cursorTime, cursorId, effectiveSize + 1);
+            if (!page.isEmpty()) streams.add(page);
+        }
+
+        // ── 3. k-way merge ────────────────────────────────────────────────
+        List<TimelineRow> rows = merge(streams, effectiveSize + 1);
+        boolean hasMore = rows.size() > effectiveSize;
+        if (hasMore) rows = rows.subList(0, effectiveSize);
+
+        String nextCursor = null;
+        if (hasMore) {
+            MessageProjection last = rows.get(rows.size() - 1).getMessage();
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getMessageId());
+        }
+
+        // ── 4. Enrich templates per project ───────────────────────────────
+        List<TimelineItemResponse> data = enrich(rows);
+
+        return CursorPageResponse.<TimelineItemResponse>builder()
+                .data(data)
+                .pageSize(data.size())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private List<Long> resolveContacts(Long organizationId, Long contactId, String phone) {
+        if (contactId != null) {
+            return timelineRepo.findSameNumberContacts(organizationId, contactId, MAX_CONTACTS);
+        }
+        if (phone == null || phone.isBlank()) {
+            throw new IllegalArgumentException("contactId or phone is required");
+        }
+        String digits = phone.replaceAll("[^0-9]", "");
+        if (digits.startsWith("00")) digits = digits.substring(2);
+        return timelineRepo.findByPhone(organizationId, "+" + digits, digits, MAX_CONTACTS);
+    }
+
+    /** Merge newest-first streams into one newest-first list of at most {@code limit} rows. */
+    static List<TimelineRow> merge(List<List<TimelineRow>> streams, int limit) {
+        if (streams.size() == 1) {
+            List<TimelineRow> only = streams.get(0);
+            return only.size() > limit ? only.subList(0, limit) : only;
+        }
+
+        // Heap entry = (stream index, position); ordered by the row at that position
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, streams.size()),
+                (a, b) -> NEWEST_FIRST.compare(streams.get(a[0]).get(a[1]), streams.get(b[0]).get(b[1])));
+        for (int s = 0; s < streams.size(); s++) {
+            if (!streams.get(s).isEmpty()) heap.add(new int[]{s, 0});
+        }
+
+        List<TimelineRow> out = new ArrayList<>(limit);
+        while (out.size() < limit && !heap.isEmpty()) {
+            int[] head = heap.poll();
+            List<TimelineRow> stream = streams.get(head[0]);
+            out.add(stream.get(head[1]));
+            if (++head[1] < stream.size()) heap.add(head);
+        }
+        return out;
+    }
+
+    private List<TimelineItemResponse> enrich(List<TimelineRow> rows) {
+        // Messages of one project share one template batch; keep page order
+        Map<Long, List<Integer>> byProject = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            byProject.computeIfAbsent(rows.get(i).getProjectId(), p -> new ArrayList<>()).add(i);
+        }
+
+        ChatMessageResponse[] messages = new ChatMessageResponse[rows.size()];
+        byProject.forEach((projectId, indexes) -> {
+            List<MessageProjection> projectRows = new ArrayList<>(indexes.size());
+            for (int i : indexes) projectRows.add(rows.get(i).getMessage());
+            List<ChatMessageResponse> mapped = chatService.mapWithTemplateDetails(projectRows, projectId, null);
+            for (int k = 0; k < indexes.size(); k++) messages[indexes.get(k)] = mapped.get(k);
+        });
+
+        List<TimelineItemResponse> data = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            TimelineRow r = rows.get(i);
+            data.add(TimelineItemResponse.builder()
+                    .conversationId(r.getConversationId())
+                    .projectId(r.getProjectId())
+                    .wabaAccountId(r.getWabaAccountId())
+                    .contactId(r.getContactId())
+                    .message(messages[i])
+                    .build());
+        }
+        return data;
+    }
+}
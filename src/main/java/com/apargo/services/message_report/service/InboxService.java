@@ -1,31 +1,64 @@
 package com.apargo.services.message_report.service;
 
+import com.apargo.services.message_report.config.ReadPathProperties;
 import com.apargo.services.message_report.dto.request.InboxFilterRequest;
 import com.apargo.services.message_report.dto.response.ConversationCountResponse;
 import com.apargo.services.message_report.dto.response.CursorPageResponse;
 import com.apargo.services.message_report.dto.response.CursorUtil;
+import com.apargo.services.message_report.dto.response.InboxFacetsResponse;
 import com.apargo.services.message_report.dto.response.InboxItemResponse;
 import com.apargo.services.message_report.enums.AssignedType;
 import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.projection.CountResult;
 import com.apargo.services.message_report.projection.InboxProjection;
+import com.apargo.services.message_report.repository.ConversationJdbcRepository;
 import com.apargo.services.message_report.repository.ConversationRepository;
+import com.apargo.services.message_report.service.inbox.InboxIndex;
+import com.apargo.services.message_report.service.inbox.InboxQueryKey;
+import com.apargo.services.message_report.service.inbox.QueryCoalescer;
+import com.apargo.services.message_report.service.metrics.FilterShape;
+import com.apargo.services.message_report.service.metrics.ReadPathEvents.StageEvent;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics.Dto;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics.Query;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Deliberately not {@code @Transactional}: the page, count and facet loads go
+ * through {@link QueryCoalescer}, which opens a read-only transaction for the
+ * leader only — a class-level transaction would pin a pooled connection for
+ * every follower while it waits. Streaming runs on JdbcTemplate, which holds
+ * its connection for the duration of the stream anyway.
+ */
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 public class InboxService {
 
     private static final int MAX_PAGE_SIZE = 50;
 
-    private final ConversationRepository conversationRepo;
+    private final ConversationRepository     conversationRepo;
+    private final ConversationJdbcRepository conversationJdbcRepo;
+    private final ReadPathProperties         readPath;
+    private final ObjectMapper               objectMapper;
+    private final ObjectProvider<InboxIndex> inboxIndex;   // present when message-report.inbox-index.enabled
+    private final QueryCoalescer             coalescer;
+    private final ReadPathMetrics            metrics;
 
     public CursorPageResponse<InboxItemResponse> getInbox(InboxFilterRequest req) {
         req.setStatus(ConversationStatus.OPEN);
@@ -40,31 +73,53 @@ public class InboxService {
     public ConversationCountResponse getInboxCount(InboxFilterRequest req) {
         req.setStatus(ConversationStatus.OPEN);
 
-        long total = conversationRepo.countFiltered(
-                req.getProjectId(),
-                req.getOrganizationId(),
-                req.getStatus(),
-                req.getUserId(),
-                req.getAssignedType(),
-                req.getAssignedId(),
-                bool(req.getUnreadOnly()),
-                bool(req.getActiveSession()),
-                req.getFromDate(),
-                req.getToDate(),
-                blankToNull(req.getSearch())
-        );
+        CountResult total = countFiltered(req);
 
-        long unreadTotal = conversationRepo.sumUnreadByProject(
-                req.getProjectId(),
-                req.getOrganizationId()
-        );
+        // Per project, not per user — shared by every agent of the project
+        long unreadTotal = coalescer.run(InboxQueryKey.ofProject("unread-total", req), () -> {
+            InboxIndex index   = inboxIndex.getIfAvailable();
+            Long       indexed = index != null ? index.sumOpenUnread(req) : null;
+            if (indexed != null) return indexed;
+
+            StageEvent stage = metrics.begin(Query.INBOX_UNREAD_SUM, req.getProjectId());
+            long       sum   = conversationRepo.sumUnreadByProject(
+                    req.getProjectId(),
+                    req.getOrganizationId()
+            );
+            metrics.end(stage, 1);
+            return sum;
+        });
 
         return ConversationCountResponse.builder()
-                .totalCount(total)
+                .totalCount(total.total())
+                .totalCapped(total.capped() ? Boolean.TRUE : null)
                 .unreadTotal(unreadTotal)
                 .build();
     }
 
+    /** All inbox header buckets (Open, Mine, Unassigned, Team, Unread, Active session) in one pass. */
+    public InboxFacetsResponse getInboxFacets(InboxFilterRequest req) {
+        req.setStatus(ConversationStatus.OPEN);
+
+        return coalescer.run(InboxQueryKey.of("facets", req, null, 0), () -> {
+            InboxIndex          index   = inboxIndex.getIfAvailable();
+            InboxFacetsResponse indexed = index != null ? index.facetCounts(req) : null;
+            if (indexed != null) return indexed;
+
+            StageEvent          stage  = metrics.begin(Query.INBOX_FACETS, req.getProjectId());
+            InboxFacetsResponse counts = conversationJdbcRepo.countFacets(
+                    req.getProjectId(),
+                    req.getOrganizationId(),
+                    req.getUserId(),
+                    req.getFromDate(),
+                    req.getToDate(),
+                    blankToNull(req.getSearch())
+            );
+            metrics.end(stage, 1);
+            return counts;
+        });
+    }
+
     public CursorPageResponse<InboxItemResponse> getMessageHistory(InboxFilterRequest req) {
         return fetchPage(req, true);
     }
@@ -74,27 +129,22 @@ public class InboxService {
     }
 
     public ConversationCountResponse getMessageHistoryCount(InboxFilterRequest req) {
-        long total = conversationRepo.countFiltered(
-                req.getProjectId(),
-                req.getOrganizationId(),
-                req.getStatus(),
-                req.getUserId(),
-                req.getAssignedType(),
-                req.getAssignedId(),
-                bool(req.getUnreadOnly()),
-                bool(req.getActiveSession()),
-                req.getFromDate(),
-                req.getToDate(),
-                blankToNull(req.getSearch())
-        );
+        CountResult total = countFiltered(req);
 
         return ConversationCountResponse.builder()
-                .totalCount(total)
+                .totalCount(total.total())
+                .totalCapped(total.capped() ? Boolean.TRUE : null)
                 .unreadTotal(null)
                 .build();
     }
 
+    /** Identical concurrent page requests (same filters, cursor and size) share one load. */
     private CursorPageResponse<InboxItemResponse> fetchPage(InboxFilterRequest req, boolean withCount) {
+        InboxQueryKey key = InboxQueryKey.of(withCount ? "page+count" : "page", req, req.getCursor(), req.getSize());
+        return coalescer.run(key, () -> loadPage(req, withCount));
+    }
+
+    private CursorPageResponse<InboxItemResponse> loadPage(InboxFilterRequest req, boolean withCount) {
         int      size          = Math.min(req.getSize(), MAX_PAGE_SIZE);
         Pageable limit         = PageRequest.of(0, size + 1);
         boolean  unreadOnly    = bool(req.getUnreadOnly());
@@ -103,7 +153,16 @@ public class InboxService {
 
         List<InboxProjection> rows;
 
-        if (req.getCursor() == null) {
+        int             shape   = FilterShape.of(req);
+        InboxIndex      index   = inboxIndex.getIfAvailable();
+        StageEvent      stage   = metrics.begin(Query.INBOX_FIRST_PAGE, req.getProjectId(), shape);   // re-labelled at end()
+        InboxIndex.Page indexed = index != null ? index.page(req, size + 1) : null;
+
+        if (indexed != null) {
+            rows = hydrate(req, indexed, size);
+        } else if (readPath.isJdbc()) {
+            rows = fetchRowsJdbc(req, size + 1, unreadOnly, activeSession, search);
+        } else if (req.getCursor() == null) {
             rows = conversationRepo.findFirstPage(
                     req.getProjectId(),
                     req.getOrganizationId(),
@@ -136,43 +195,240 @@ public class InboxService {
             );
         }
 
-        boolean hasMore = rows.size() > size;
-        if (hasMore) rows = rows.subList(0, size);
+        Query pageQuery = indexed != null ? Query.INBOX_INDEX_PAGE
+                : req.getCursor() == null ? Query.INBOX_FIRST_PAGE : Query.INBOX_NEXT_PAGE;
+        metrics.end(stage, pageQuery, rows.size());
 
-        String nextCursor = null;
-        if (hasMore) {
-            InboxProjection last = rows.get(rows.size() - 1);
-            nextCursor = CursorUtil.encode(last.getLastMessageAt(), last.getConversationId());
+        boolean hasMore;
+        String  nextCursor = null;
+        if (indexed != null) {
+            // Position from the index, not the re-read row: the page must resume where the index stopped
+            hasMore = indexed.size() > size;
+            if (hasMore) nextCursor = indexed.cursorAt(size - 1);
+        } else {
+            hasMore = rows.size() > size;
+            if (hasMore) rows = rows.subList(0, size);
+            if (hasMore) {
+                InboxProjection last = rows.get(rows.size() - 1);
+                nextCursor = CursorUtil.encode(last.getLastMessageAt(), last.getConversationId());
+            }
         }
 
-        Long totalCount = null;
+        CountResult totalCount = null;
         if (withCount && req.getCursor() == null) {
-            totalCount = conversationRepo.countFiltered(
-                    req.getProjectId(),
-                    req.getOrganizationId(),
-                    req.getStatus(),
-                    req.getUserId(),
-                    req.getAssignedType(),
-                    req.getAssignedId(),
-                    unreadOnly, activeSession,
-                    req.getFromDate(), req.getToDate(),
-                    search
-            );
+            totalCount = countFiltered(req);
         }
 
+        StageEvent render = metrics.begin(Dto.INBOX_ITEM, req.getProjectId(), shape);
         List<InboxItemResponse> data = rows.stream()
                 .map(InboxItemResponse::from)
                 .toList();
+        metrics.end(render, data.size());
 
         return CursorPageResponse.<InboxItemResponse>builder()
                 .data(data)
                 .pageSize(data.size())
-                .totalCount(totalCount)
+                .totalCount(totalCount != null ? totalCount.total() : null)
+                .totalCountCapped(totalCount != null && totalCount.capped() ? Boolean.TRUE : null)
                 .nextCursor(nextCursor)
                 .hasMore(hasMore)
                 .build();
     }
 
+    // ══════════════════════════════════════════════════════════════════════
+    //  STREAMING PAGE
+    //  Writes the same JSON shape as CursorPageResponse<InboxItemResponse>,
+    //  row by row, straight from the ResultSet to the response stream:
+    //   - no List<Projection> / List<DTO> is materialised;
+    //   - the size+1 probe row is read but never written (→ hasMore);
+    //   - nextCursor / totalCount go after "data", once all rows are out;
+    //     the count itself runs before the first byte is written.
+    //  A failure mid-stream leaves the JSON unterminated (no auto-close), so
+    //  the client sees a parse error instead of a short, valid-looking page.
+    //  Each row is still serialised through the shared ObjectMapper, so field
+    //  names and formats are identical to the buffered endpoints.
+    // ══════════════════════════════════════════════════════════════════════
+
+    public void streamInbox(InboxFilterRequest req, OutputStream out) throws IOException {
+        req.setStatus(ConversationStatus.OPEN);
+        streamPage(req, true, out);
+    }
+
+    public void streamMessageHistory(InboxFilterRequest req, OutputStream out) throws IOException {
+        streamPage(req, true, out);
+    }
+
+    private void streamPage(InboxFilterRequest req, boolean withCount, OutputStream out) throws IOException {
+        int     size          = Math.min(req.getSize(), MAX_PAGE_SIZE);
+        boolean unreadOnly    = bool(req.getUnreadOnly());
+        boolean activeSession = bool(req.getActiveSession());
+        String  search        = blankToNull(req.getSearch());
+
+        Instant cursorTime = null;
+        Long    cursorId   = null;
+        if (req.getCursor() != null) {
+            long[] parts = CursorUtil.decode(req.getCursor());
+            cursorTime   = Instant.ofEpochMilli(parts[0]);
+            cursorId     = parts[1];
+        }
+
+        // Before the first byte: a failed count must still be able to become an error response
+        CountResult total = withCount && req.getCursor() == null ? countFiltered(req) : null;
+
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("data");
+
+            StreamedPage page  = new StreamedPage(gen, size);
+            StageEvent   stage = metrics.begin(Query.INBOX_STREAM_PAGE, req.getProjectId(), FilterShape.of(req));
+            conversationJdbcRepo.streamPage(
+                    req.getProjectId(),
+                    req.getOrganizationId(),
+                    req.getStatus(),
+                    req.getUserId(),
+                    req.getAssignedType(),
+                    req.getAssignedId(),
+                    unreadOnly, activeSession,
+                    req.getFromDate(), req.getToDate(),
+                    search,
+                    cursorTime, cursorId,
+                    size + 1,
+                    page::accept
+            );
+            // Includes writing the rows: the stream interleaves fetch and serialization
+            metrics.end(stage, page.written);
+
+            gen.writeEndArray();
+            gen.writeNumberField("pageSize", page.written);
+
+            if (total != null) {
+                gen.writeNumberField("totalCount", total.total());
+                if (total.capped()) gen.writeBooleanField("totalCountCapped", true);
+            }
+            if (page.hasMore) {
+                gen.writeStringField("nextCursor",
+                        CursorUtil.encode(page.lastMessageAt, page.lastConversationId));
+            }
+            gen.writeBooleanField("hasMore", page.hasMore);
+            gen.writeEndObject();
+        }
+    }
+
+    /** Row sink for {@link #streamPage}: writes up to {@code size} rows, treats the next one as the hasMore probe. */
+    private final class StreamedPage {
+
+        private final JsonGenerator gen;
+        private final int           size;
+
+        private int     written;
+        private boolean hasMore;
+        private Instant lastMessageAt;
+        private Long    lastConversationId;
+
+        StreamedPage(JsonGenerator gen, int size) {
+            this.gen  = gen;
+            this.size = size;
+        }
+
+        void accept(InboxProjection row) {
+            if (written == size) {
+                hasMore = true;   // probe row — not part of the page
+                return;
+            }
+            try {
+                objectMapper.writeValue(gen, InboxItemResponse.from(row));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written++;
+            lastMessageAt      = row.getLastMessageAt();
+            lastConversationId = row.getConversationId();
+        }
+    }
+
+    private List<InboxProjection> fetchRowsJdbc(
+            InboxFilterRequest req,
+            int                limit,
+            boolean            unreadOnly,
+            boolean            activeSession,
+            String             search
+    ) {
+        Instant cursorTime = null;
+        Long    cursorId   = null;
+        if (req.getCursor() != null) {
+            long[] parts = CursorUtil.decode(req.getCursor());
+            cursorTime   = Instant.ofEpochMilli(parts[0]);
+            cursorId     = parts[1];
+        }
+
+        return conversationJdbcRepo.findPage(
+                req.getProjectId(),
+                req.getOrganizationId(),
+                req.getStatus(),
+                req.getUserId(),
+                req.getAssignedType(),
+                req.getAssignedId(),
+                unreadOnly, activeSession,
+                req.getFromDate(), req.getToDate(),
+                search,
+                cursorTime, cursorId,
+                limit
+        );
+    }
+
+    /**
+     * countFiltered for the request — from the in-memory index when it can answer, else MySQL,
+     * where a count that outlives count-timeout degrades to a capped one ("10,000+").
+     * Identical concurrent counts share one query.
+     */
+    private CountResult countFiltered(InboxFilterRequest req) {
+        return coalescer.run(InboxQueryKey.of("count", req, null, 0), () -> loadCount(req));
+    }
+
+    private CountResult loadCount(InboxFilterRequest req) {
+        InboxIndex index   = inboxIndex.getIfAvailable();
+        Long       indexed = index != null ? index.count(req) : null;
+        if (indexed != null) return CountResult.exact(indexed);
+
+        StageEvent  stage = metrics.begin(Query.INBOX_COUNT, req.getProjectId(), FilterShape.of(req));
+        CountResult count = conversationJdbcRepo.countFiltered(
+                req.getProjectId(),
+                req.getOrganizationId(),
+                req.getStatus(),
+                req.getUserId(),
+                req.getAssignedType(),
+                req.getAssignedId(),
+                bool(req.getUnreadOnly()),
+                bool(req.getActiveSession()),
+                req.getFromDate(),
+                req.getToDate(),
+                blankToNull(req.getSearch())
+        );
+        metrics.end(stage, 1);
+        return count;
+    }
+
+    /** Page rows for the first {@code size} ids the index chose, in index order. */
+    private List<InboxProjection> hydrate(InboxFilterRequest req, InboxIndex.Page page, int size) {
+        int        n   = Math.min(size, page.size());
+        List<Long> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) ids.add(page.ids()[i]);
+
+        Map<Long, InboxProjection> byId = new HashMap<>(n * 2);
+        for (InboxProjection row : conversationJdbcRepo.findByIds(req.getOrganizationId(), ids)) {
+            byId.put(row.getConversationId(), row);
+        }
+
+        List<InboxProjection> rows = new ArrayList<>(n);
+        for (Long id : ids) {
+            InboxProjection row = byId.get(id);
+            if (row != null) rows.add(row);   // deleted since the last refresh
+        }
+        return rows;
+    }
+
     private boolean bool(Boolean b)      { return Boolean.TRUE.equals(b); }
     private String blankToNull(String s) { return (s == null || s.isBlank()) ? null : s.trim(); }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package com.apargo.services.message_report.service;
+
+import com.apargo.services.message_report.config.MergedInboxProperties;
+import com.apargo.services.message_report.dto.request.InboxFilterRequest;
+import com.apargo.services.message_report.dto.response.CursorPageResponse;
+import com.apargo.services.message_report.dto.response.InboxItemResponse;
+import com.apargo.services.message_report.dto.response.MergedCursor;
+import com.apargo.services.message_report.dto.response.MergedCursor.Partition;
+import com.apargo.services.message_report.dto.response.MergedCursor.Position;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.projection.InboxProjection;
+import com.apargo.services.message_report.repository.ConversationJdbcRepository;
+import com.apargo.services.message_report.service.query.QueryCancellation;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+@Slf4j
+@Service
+public class MergedInboxService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final ConversationJdbcRepository conversationJdbcRepo;
+    private final MergedInboxProperties      props;
+    private final ExecutorService            seeks;
+
+    public MergedInboxService(ConversationJdbcRepository conversationJdbcRepo, MergedInboxProperties props) {
+        this.conversationJdbcRepo = conversationJdbcRepo;
+        this.props                = props;
+        this.seeks                = Executors.newFixedThreadPool(Math.max(1, props.getParallelism()), r -> {
+            Thread t = new Thread(r, "merged-inbox");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        seeks.shutdownNow();
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  MERGED INBOX
+    //  OPEN conversations of several projects / WABA accounts as one list,
+    //  newest first, cursor-paginated.
+    //
+    //  Performance strategy:
+    //   1. Partition = (project, WABA account) — or the whole project when no
+    //      accounts are given. Each partition is one idx_inbox seek with its
+    //      own keyset, size+1 rows, run in parallel.
+    //   2. Heap-based k-way merge on (lastMessageAt DESC, id DESC), stop at size.
+    //   3. The cursor records every partition's own position; partitions
+    //      that are used up are marked and never queried again.
+    //   4. First page: per-partition counts, also in parallel, summed.
+    // ══════════════════════════════════════════════════════════════════════
+
+    public CursorPageResponse<InboxItemResponse> getMergedInbox(InboxFilterRequest req) {
+        req.setStatus(ConversationStatus.OPEN);
+
+        int             size       = Math.min(Math.max(req.getSize(), 1), MAX_PAGE_SIZE);
+        List<Partition> partitions = partitions(req);
+
+        Map<Partition, Position> positions;
+        if (req.getCursor() == null) {
+            positions = new LinkedHashMap<>();
+            partitions.forEach(p -> positions.put(p, Position.START));
+        } else {
+            positions = MergedCursor.decode(req.getCursor());
+            if (!positions.keySet().equals(new HashSet<>(partitions))) {
+                throw new IllegalArgumentException("Cursor does not match projectIds / wabaAccountIds");
+            }
+        }
+
+        // ── 1. One seek per live partition ────────────────────────────────
+        List<Partition>                     live    = new ArrayList<>();
+        List<Future<List<InboxProjection>>> pending = new ArrayList<>();
+        positions.forEach((p, pos) -> {
+            if (pos.isDone()) return;
+            live.add(p);
+            pending.add(seeks.submit(QueryCancellation.inheriting(() -> fetch(req, p, pos, size + 1))));
+        });
+
+        Future<Long> count = req.getCursor() == null
+                ? seeks.submit(QueryCancellation.inheriting(() -> count(req, partitions)))
+                : null;
+
+        List<List<InboxProjection>> pages = new ArrayList<>(live.size());
+        for (Future<List<InboxProjection>> f : pending) pages.add(await(f));
+
+        // ── 2. k-way merge ────────────────────────────────────────────────
+        int[]                      consumed = new int[pages.size()];
+        List<InboxItemResponse>    data     = new ArrayList<>(size);
+        PriorityQueue<int[]>       heap     = new PriorityQueue<>(Math.max(1, pages.size()),
+                (a, b) -> newestFirst(pages.get(a[0]).get(a[1]), pages.get(b[0]).get(b[1])));
+        for (int i = 0; i < pages.size(); i++) {
+            if (!pages.get(i).isEmpty()) heap.add(new int[]{i, 0});
+        }
+        while (data.size() < size && !heap.isEmpty()) {
+            int[] head = heap.poll();
+            List<InboxProjection> page = pages.get(head[0]);
+            data.add(InboxItemResponse.from(page.get(head[1]), live.get(head[0]).projectId()));
+            consumed[head[0]] = ++head[1];
+            if (head[1] < page.size()) heap.add(head);
+        }
+
+        // ── 3. Advance each partition's position ──────────────────────────
+        boolean hasMore = false;
+        for (int i = 0; i < pages.size(); i++) {
+            List<InboxProjection> page = pages.get(i);
+            Position next;
+            if (consumed[i] == page.size() && page.size() <= size) {
+                next = Position.DONE;                     // read to the end of its range
+            } else if (consumed[i] > 0) {
+                InboxProjection last = page.get(consumed[i] - 1);
+                next = new Position(last.getLastMessageAt().toEpochMilli(), last.getConversationId());
+            } else {
+                next = positions.get(live.get(i));        // nothing taken from it this time
+            }
+            positions.put(live.get(i), next);
+            hasMore |= !next.isDone();
+        }
+
+        return CursorPageResponse.<InboxItemResponse>builder()
+                .data(data)
+                .pageSize(data.size())
+                .totalCount(count != null ? await(count) : null)
+                .nextCursor(hasMore ? MergedCursor.encode(positions) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    /** projectIds × wabaAccountIds, de-duplicated and in a stable order. */
+    private List<Partition> partitions(InboxFilterRequest req) {
+        SortedSet<Long> projects = new TreeSet<>(nonNull(req.getProjectIds()));
+        SortedSet<Long> accounts = new TreeSet<>(nonNull(req.getWabaAccountIds()));
+        if (projects.isEmpty()) {
+            throw new IllegalArgumentException("projectIds is required");
+        }
+        int total = projects.size() * Math.max(1, accounts.size());
+        if (total > props.getMaxPartitions()) {
+            throw new IllegalArgumentException("Too many project / WABA account combinations: " + total
+                    + " (max " + props.getMaxPartitions() + ")");
+        }
+
+        List<Partition> partitions = new ArrayList<>(total);
+        for (Long p : projects) {
+            if (accounts.isEmpty()) partitions.add(new Partition(p, null));
+            else for (Long w : accounts) partitions.add(new Partition(p, w));
+        }
+        return partitions;
+    }
+
+    private List<InboxProjection> fetch(InboxFilterRequest req, Partition p, Position pos, int limit) {
+        Instant cursorTime = pos.isStart() ? null : Instant.ofEpochMilli(pos.epochMillis());
+        Long    cursorId   = pos.isStart() ? null : pos.id();
+        return conversationJdbcRepo.findPartitionPage(
+                p.projectId(),
+                p.wabaAccountId(),
+                req.getOrganizationId(),
+                req.getStatus(),
+                req.getUserId(),
+                req.getAssignedType(),
+                req.getAssignedId(),
+                bool(req.getUnreadOnly()), bool(req.getActiveSession()),
+                req.getFromDate(), req.getToDate(),
+                blankToNull(req.getSearch()),
+                cursorTime, cursorId,
+                limit
+        );
+    }
+
+    private long count(InboxFilterRequest req, List<Partition> partitions) {
+        long total = 0;
+        for (Partition p : partitions) {
+            total += conversationJdbcRepo.countPartition(
+                    p.projectId(),
+                    p.wabaAccountId(),
+                    req.getOrganizationId(),
+                    req.getStatus(),
+                    req.getUserId(),
+                    req.getAssignedType(),
+                    req.getAssignedId(),
+                    bool(req.getUnreadOnly()), bool(req.getActiveSession()),
+                    req.getFromDate(), req.getToDate(),
+                    blankToNull(req.getSearch())
+            );
+        }
+        return total;
+    }
+
+    /** Same order as the SQL: lastMessageAt DESC, id DESC. */
+    private static int newestFirst(InboxProjection a, InboxProjection b) {
+        int c = b.getLastMessageAt().compareTo(a.getLastMessageAt());
+        return c != 0 ? c : Long.compare(b.getConversationId(), a.getConversationId());
+    }
+
+    private static <T> T await(Future<T> f) {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading merged inbox", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static <T> Collection<T> nonNull(Collection<T> c) {
+        return c == null ? List.of() : c.stream().filter(Objects::nonNull).toList();
+    }
+
+    private boolean bool(Boolean b)      { return Boolean.TRUE.equals(b); }
+    private String blankToNull(String s) { return (s == null || s.isBlank()) ? null : s.trim(); }
+}
@@ -0,0 +1,50 @@
+package com.apargo.services.message_report.service;
+
+import java.util.Objects;
+
+/**
+ * Lookup key for a loaded template: (name, language).
+ *
+ * Replaces the old "name|language" string key, which allocated a new
+ * concatenated String (plus its byte[]) for every map put AND every lookup.
+ * The hash is computed once at construction, so HashMap probes on the
+ * enrichment path cost one int compare + two String.equals at most.
+ */
+public final class TemplateKey {
+
+    private final String name;
+    private final String language;
+    private final int    hash;
+
+    private TemplateKey(String name, String language) {
+        this.name     = name;
+        this.language = language;
+        this.hash     = 31 * Objects.hashCode(name) + Objects.hashCode(language);
+    }
+
+    public static TemplateKey of(String name, String language) {
+        return new TemplateKey(name, language);
+    }
+
+    public String getName()     { return name; }
+    public String getLanguage() { return language; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TemplateKey k)) return false;
+        return hash == k.hash
+                && Objects.equals(name, k.name)
+                && Objects.equals(language, k.language);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return name + "|" + language;
+    }
+}
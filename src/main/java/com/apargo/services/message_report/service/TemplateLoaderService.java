@@ -2,6 +2,9 @@ package com.apargo.services.message_report.service;
 
 import com.apargo.services.message_report.entity.WhatsappTemplate;
 import com.apargo.services.message_report.repository.WhatsappTemplateRepository;
+import com.apargo.services.message_report.service.metrics.ReadPathEvents.StageEvent;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics.Query;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
@@ -10,10 +13,9 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -21,6 +23,7 @@ import java.util.stream.Collectors;
 public class TemplateLoaderService {
 
     private final WhatsappTemplateRepository templateRepo;
+    private final ReadPathMetrics            metrics;
 
     /**
      * Batch-load templates with all nested collections fully initialized.
@@ -36,17 +39,19 @@ public class TemplateLoaderService {
      *   batch SQL, not one SQL per row (no N+1).
      */
     @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
-    public Map<String, WhatsappTemplate> loadBatch(Long projectId, List<String> names) {
+    public Map<TemplateKey, WhatsappTemplate> loadBatch(Long projectId, List<String> names) {
         if (names == null || names.isEmpty()) {
             return Collections.emptyMap();
         }
 
+        StageEvent stage = metrics.begin(Query.TEMPLATE_BATCH, projectId);
         try {
             List<WhatsappTemplate> templates =
                     templateRepo.findBatchByProjectAndNames(projectId, names);
 
             if (templates.isEmpty()) {
                 log.debug("No templates found for project={} names={}", projectId, names);
+                metrics.end(stage, 0);
                 return Collections.emptyMap();
             }
 
@@ -67,14 +72,14 @@ public class TemplateLoaderService {
                 }
             }
 
-            Map<String, WhatsappTemplate> result = templates.stream()
-                    .collect(Collectors.toMap(
-                            t -> t.getName() + "|" + t.getLanguage(),
-                            Function.identity(),
-                            (a, b) -> a
-                    ));
+            // Keyed by (name, language) — first one wins on duplicates
+            Map<TemplateKey, WhatsappTemplate> result = new HashMap<>(templates.size() * 2);
+            for (WhatsappTemplate t : templates) {
+                result.putIfAbsent(TemplateKey.of(t.getName(), t.getLanguage()), t);
+            }
 
             log.debug("Loaded {} templates for project={}", result.size(), projectId);
+            metrics.end(stage, templates.size());
             return result;
 
         } catch (Exception e) {
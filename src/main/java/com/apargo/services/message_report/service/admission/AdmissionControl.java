@@ -0,0 +1,74 @@
+package com.apargo.services.message_report.service.admission;
+
+import com.apargo.services.message_report.config.AdmissionProperties;
+import com.apargo.services.message_report.dto.response.AdmissionStatusResponse;
+import com.apargo.services.message_report.enums.QueryClass;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entry point of admission control: one {@link Bulkhead} per {@link QueryClass}.
+ *
+ * {@link #admit} either returns a {@link Permit} (close it when the request
+ * is done — the latency feeds the adaptive limit) or throws
+ * AdmissionRejectedException, which GlobalExceptionHandler turns into
+ * 429 Too Many Requests with a Retry-After header.
+ */
+@Component
+@ConditionalOnProperty(prefix = "message-report.admission", name = "enabled", havingValue = "true")
+public class AdmissionControl {
+
+    /** A held slot. Closing twice is harmless. */
+    public static final class Permit implements AutoCloseable {
+        private final Bulkhead      bulkhead;
+        private final long          organizationId;
+        private final long          grantedAt;
+        private final AtomicBoolean open = new AtomicBoolean(true);
+
+        private Permit(Bulkhead bulkhead, long organizationId, long grantedAt) {
+            this.bulkhead       = bulkhead;
+            this.organizationId = organizationId;
+            this.grantedAt      = grantedAt;
+        }
+
+        @Override
+        public void close() {
+            if (open.compareAndSet(true, false)) bulkhead.release(organizationId, grantedAt);
+        }
+    }
+
+    private final Map<QueryClass, Bulkhead> bulkheads = new EnumMap<>(QueryClass.class);
+
+    public AdmissionControl(AdmissionProperties props) {
+        bulkheads.put(QueryClass.CHEAP,     new Bulkhead(QueryClass.CHEAP,     props.getCheap(),     props.getOrganizationShare()));
+        bulkheads.put(QueryClass.EXPENSIVE, new Bulkhead(QueryClass.EXPENSIVE, props.getExpensive(), props.getOrganizationShare()));
+    }
+
+    /** organizationId null (endpoints without the header) share one bucket. */
+    public Permit admit(QueryClass queryClass, Long organizationId) {
+        Bulkhead b   = bulkheads.get(queryClass);
+        long     org = organizationId != null ? organizationId : 0L;
+        return new Permit(b, org, b.acquire(org));
+    }
+
+    /** Timer the class's bulkhead records queue waits into (see MetricsConfig). */
+    public void bindQueueWait(QueryClass queryClass, Timer timer) {
+        bulkheads.get(queryClass).queueWait(timer);
+    }
+
+    public AdmissionStatusResponse.BulkheadStats stats(QueryClass queryClass) {
+        return bulkheads.get(queryClass).stats();
+    }
+
+    public AdmissionStatusResponse status() {
+        return AdmissionStatusResponse.builder()
+                .bulkheads(List.of(bulkheads.get(QueryClass.CHEAP).stats(), bulkheads.get(QueryClass.EXPENSIVE).stats()))
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package com.apargo.services.message_report.service.admission;
+
+import com.apargo.services.message_report.enums.QueryClass;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Takes an admission permit before the controller runs — and so before the
+ * transactional service borrows a pooled connection — and gives it back when
+ * the response is complete. Streamed responses keep the permit until the
+ * async write finishes, errors or times out.
+ *
+ * Classification:
+ *   EXPENSIVE – any request with a search term, counts / facets, message
+ *               history, the merged inbox and contact timelines
+ *   CHEAP     – everything else (inbox pages, conversation messages)
+ */
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControl admission;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) return true;   // async / error re-dispatch
+
+        request.setAttribute(PERMIT, admission.admit(classify(request), organizationId(request)));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AdmissionControl.Permit permit = (AdmissionControl.Permit) request.getAttribute(PERMIT);
+        if (permit == null || !request.isAsyncStarted()) return;
+
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override public void onComplete(AsyncEvent event)   { permit.close(); }
+            @Override public void onError(AsyncEvent event)      { permit.close(); }
+            @Override public void onTimeout(AsyncEvent event)    { permit.close(); }
+            @Override public void onStartAsync(AsyncEvent event) { }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        AdmissionControl.Permit permit = (AdmissionControl.Permit) request.getAttribute(PERMIT);
+        if (permit != null && !request.isAsyncStarted()) permit.close();
+    }
+
+    static QueryClass classify(HttpServletRequest request) {
+        String search = request.getParameter("search");
+        if (search != null && !search.isBlank()) return QueryClass.EXPENSIVE;
+
+        String path = request.getRequestURI();
+        if (path.endsWith("/count")
+                || path.endsWith("/facets")
+                || path.endsWith("/inbox/merged")
+                || path.contains("/get-messages-history")
+                || path.startsWith("/api/contacts/")) {
+            return QueryClass.EXPENSIVE;
+        }
+        return QueryClass.CHEAP;
+    }
+
+    private static Long organizationId(HttpServletRequest request) {
+        String header = request.getHeader("X-Organization-Id");
+        if (header == null) return null;
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null;   // the controller rejects it with 400
+        }
+    }
+}
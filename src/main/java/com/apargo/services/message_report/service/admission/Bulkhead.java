@@ -0,0 +1,160 @@
+package com.apargo.services.message_report.service.admission;
+
+import com.apargo.services.message_report.config.AdmissionProperties;
+import com.apargo.services.message_report.dto.response.AdmissionStatusResponse.BulkheadStats;
+import com.apargo.services.message_report.enums.QueryClass;
+import com.apargo.services.message_report.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one {@link QueryClass}, with a per-organization cap
+ * and an AIMD-adapted limit.
+ *
+ *  - A request takes a slot if fewer than {@code limit} are in flight, else
+ *    waits up to max-queue-wait for one to free up, else is rejected.
+ *  - An organization already holding its share (organization-share × limit)
+ *    is rejected at once — it never queues in front of other tenants.
+ *  - On release: latency ≤ target → limit += 1/limit (≈ +1 per limit
+ *    requests); latency > target → limit × backoff, at most once per
+ *    target-latency so one slow burst does not collapse it.
+ *
+ * Time spent queued — by requests that got a slot and by those that gave up
+ * after max-queue-wait — goes to the queue-wait timer once one is bound
+ * (MetricsConfig.admissionMetrics).
+ */
+final class Bulkhead {
+
+    private final QueryClass                queryClass;
+    private final AdmissionProperties.Limits cfg;
+    private final double                    organizationShare;
+
+    private final ReentrantLock      lock    = new ReentrantLock();
+    private final Condition          freed   = lock.newCondition();
+    private final Map<Long, Integer> perOrg  = new HashMap<>();   // guarded by lock
+    private int                      inFlight;                    // guarded by lock
+    private double                   limit;                       // guarded by lock
+    private long                     lastDecrease;                // guarded by lock
+
+    private final LongAdder admitted   = new LongAdder();
+    private final LongAdder rejected   = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private volatile double latencyMs;                           // EWMA, α = 0.1
+    private volatile Timer  queueWait;                           // null until metrics are bound
+
+    Bulkhead(QueryClass queryClass, AdmissionProperties.Limits cfg, double organizationShare) {
+        this.queryClass        = queryClass;
+        this.cfg               = cfg;
+        this.organizationShare = organizationShare;
+        this.limit             = cfg.getInitialLimit();
+    }
+
+    /** Takes a slot for {@code organizationId}; returns the nanoTime it was granted. */
+    long acquire(long organizationId) {
+        long start    = System.nanoTime();
+        long deadline = start + cfg.getMaxQueueWait().toNanos();
+        lock.lock();
+        try {
+            while (true) {
+                int orgCap = Math.max(1, (int) Math.ceil(limit * organizationShare));
+                if (perOrg.getOrDefault(organizationId, 0) >= orgCap) {
+                    throw reject("Organization " + organizationId + " is at its " + queryClass + " query limit");
+                }
+                if (inFlight < Math.max(cfg.getMinLimit(), (int) limit)) {
+                    inFlight++;
+                    perOrg.merge(organizationId, 1, Integer::sum);
+                    long granted = System.nanoTime();
+                    admitted.increment();
+                    queueNanos.add(granted - start);
+                    recordQueueWait(granted - start);
+                    return granted;
+                }
+                long now       = System.nanoTime();
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    recordQueueWait(now - start);
+                    throw reject("Too many concurrent " + queryClass + " queries");
+                }
+                try {
+                    freed.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw reject("Interrupted while waiting for a " + queryClass + " slot");
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release(long organizationId, long grantedAt) {
+        long   now = System.nanoTime();
+        double ms  = (now - grantedAt) / 1e6;
+        latencyMs  = latencyMs == 0 ? ms : latencyMs * 0.9 + ms * 0.1;
+
+        lock.lock();
+        try {
+            inFlight--;
+            perOrg.computeIfPresent(organizationId, (k, n) -> n > 1 ? n - 1 : null);
+
+            long target = cfg.getTargetLatency().toNanos();
+            if (now - grantedAt > target) {
+                if (now - lastDecrease > target) {
+                    limit        = Math.max(cfg.getMinLimit(), limit * cfg.getBackoff());
+                    lastDecrease = now;
+                }
+            } else {
+                limit = Math.min(cfg.getMaxLimit(), limit + 1.0 / limit);
+            }
+            freed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void queueWait(Timer timer) {
+        this.queueWait = timer;
+    }
+
+    BulkheadStats stats() {
+        double currentLimit;
+        int    current;
+        lock.lock();
+        try {
+            currentLimit = limit;
+            current      = inFlight;
+        } finally {
+            lock.unlock();
+        }
+        long n = admitted.sum();
+        return BulkheadStats.builder()
+                .queryClass(queryClass)
+                .limit(currentLimit)
+                .inFlight(current)
+                .admitted(n)
+                .rejected(rejected.sum())
+                .avgQueueMs(n == 0 ? 0 : queueNanos.sum() / 1e6 / n)
+                .latencyMs(latencyMs)
+                .build();
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private void recordQueueWait(long nanos) {
+        Timer timer = queueWait;
+        if (timer != null) timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private AdmissionRejectedException reject(String reason) {
+        rejected.increment();
+        // A slot frees up roughly every latency / limit; ask to come back after a couple of those
+        long retryAfter = Math.max(1, (long) Math.ceil(2 * latencyMs / Math.max(1, limit) / 1000));
+        return new AdmissionRejectedException(queryClass, reason, Math.min(retryAfter, TimeUnit.MINUTES.toSeconds(1)));
+    }
+}
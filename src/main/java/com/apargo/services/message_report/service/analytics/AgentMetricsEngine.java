@@ -0,0 +1,330 @@
+package com.apargo.services.message_report.service.analytics;
+
+import com.apargo.services.message_report.config.AgentMetricsProperties;
+import com.apargo.services.message_report.service.scheduler.BackgroundWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Per-agent, per-day productivity metrics (agent_daily_stats, db/analytics.sql).
+ *
+ * A day of a project is computed by walking every conversation active since
+ * the day started, plus every conversation with an assignment that ended during
+ * the day (idx_unassigned) even when no message was sent in it, in chunks of {@code chunk-size} conversation ids run
+ * {@code parallelism} at a time. Each chunk streams its messages in
+ * (conversation_id, created_at) order through idx_conversation_time, starting
+ * {@code lookback} before the day, alongside the chunk's
+ * conversation_assignments (idx_conversation). Per conversation:
+ *
+ *  - the first INBOUND after an agent reply starts a wait; the next USER
+ *    OUTBOUND answers it → a response-time sample for that agent
+ *    (created_by_id), SYSTEM / AUTOMATION / CAMPAIGN sends don't;
+ *  - an agent's first reply after being assigned → first-response sample;
+ *  - an assignment ending inside the day → handle-time sample.
+ *
+ * Samples and counts are attributed to the day of the reply / unassignment.
+ * Chunk results are merged and REPLACE the project's rows for that day, so
+ * recomputing a day is always safe. Past days are final once computed after
+ * midnight; today is recomputed in full every {@code interval}. That is
+ * deliberate: response-time and first-response samples depend on state
+ * (pending inbound, answered assignments) that spans the lookback window, so an
+ * incremental fold would have to persist it per conversation between passes;
+ * the recompute is bounded to one day of the project's active conversations and
+ * is idempotent. Runs on the node holding the "agent-metrics" lease.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "message-report.agent-metrics", name = "enabled", havingValue = "true")
+public class AgentMetricsEngine extends BackgroundWorker {
+
+    private static final String WATERMARK = "agent-metrics";
+
+    private static final String CONVERSATIONS_SQL = """
+            SELECT id FROM conversations
+            WHERE project_id = ? AND last_message_at >= ?
+            UNION
+            SELECT a.conversation_id
+            FROM conversation_assignments a
+            JOIN conversations c ON c.id = a.conversation_id
+            WHERE c.project_id = ?
+              AND a.unassigned_at >= ? AND a.unassigned_at < ?
+            ORDER BY 1
+            """;
+
+    private static final String MESSAGES_SQL = """
+            SELECT conversation_id, direction, created_by_type, created_by_id, created_at
+            FROM messages
+            WHERE conversation_id IN (:ids)
+              AND created_at >= :from AND created_at < :to
+            ORDER BY conversation_id, created_at, id
+            """;
+
+    private static final String ASSIGNMENTS_SQL = """
+            SELECT conversation_id, assigned_to, assigned_at, unassigned_at
+            FROM conversation_assignments
+            WHERE conversation_id IN (:ids)
+              AND assigned_at < :to
+              AND (unassigned_at IS NULL OR unassigned_at >= :from)
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO agent_daily_stats
+              (project_id, day, agent_id, conversations, messages_sent, assignments_closed,
+               response_hist, first_response_hist, handle_hist)
+            VALUES (?,?,?,?,?,?,?,?,?)
+            """;
+
+    /** Accumulated metrics of one agent for one day. */
+    static final class AgentDay {
+        int       conversations;
+        int       messagesSent;
+        int       assignmentsClosed;
+        Histogram response;
+        Histogram firstResponse;
+        Histogram handle;
+
+        void merge(AgentDay o) {
+            conversations     += o.conversations;
+            messagesSent      += o.messagesSent;
+            assignmentsClosed += o.assignmentsClosed;
+            response      = add(response, o.response);
+            firstResponse = add(firstResponse, o.firstResponse);
+            handle        = add(handle, o.handle);
+        }
+
+        static Histogram record(Histogram h, long millis) {
+            if (h == null) h = LatencyHistograms.empty();
+            h.recordValue(Math.max(0, millis));
+            return h;
+        }
+
+        private static Histogram add(Histogram into, Histogram from) {
+            if (from == null) return into;
+            if (into == null) return from;
+            into.add(from);
+            return into;
+        }
+    }
+
+    private static final class Assignment {
+        final long agentId;
+        final long assignedAt;
+        final long unassignedAt;   // Long.MAX_VALUE while still assigned
+        boolean    answered;
+
+        Assignment(long agentId, long assignedAt, long unassignedAt) {
+            this.agentId      = agentId;
+            this.assignedAt   = assignedAt;
+            this.unassignedAt = unassignedAt;
+        }
+    }
+
+    private final AgentMetricsProperties     props;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final AnalyticsWatermarks        watermarks;
+    private final TransactionTemplate        tx;
+
+    private ExecutorService walkers;
+
+    public AgentMetricsEngine(AgentMetricsProperties props,
+                              JdbcTemplate jdbc,
+                              NamedParameterJdbcTemplate namedJdbc,
+                              AnalyticsWatermarks watermarks,
+                              PlatformTransactionManager txManager) {
+        super(jdbc, "agent-metrics", true);
+        this.props      = props;
+        this.namedJdbc  = namedJdbc;
+        this.watermarks = watermarks;
+        this.tx         = new TransactionTemplate(txManager);
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  PASS — unfinished past days, then today
+    // ══════════════════════════════════════════════════════════════════════
+
+    private void pass() {
+        try {
+            if (!holdLease(props.getInterval().multipliedBy(3))) return;
+
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            LocalDate day   = Optional.ofNullable(watermarks.get(WATERMARK))
+                    .map(i -> LocalDate.ofInstant(i, ZoneOffset.UTC))
+                    .orElse(today.minusDays(props.getInitialDays()));
+
+            List<Long> projects = projectIds();
+            for (; isRunning() && !day.isAfter(today); day = day.plusDays(1)) {
+                long t0 = System.currentTimeMillis();
+                for (Long projectId : projects) computeDay(projectId, day);
+                if (day.isBefore(today)) watermarks.set(WATERMARK, startOf(day.plusDays(1)));
+                log.debug("Agent metrics for {} computed in {} ms", day, System.currentTimeMillis() - t0);
+            }
+        } catch (Exception e) {
+            log.warn("Agent metrics pass failed: {}", e.getMessage());
+        }
+    }
+
+    void computeDay(long projectId, LocalDate day) throws InterruptedException, ExecutionException {
+        Instant dayStart = startOf(day);
+        Instant dayEnd   = startOf(day.plusDays(1));
+
+        List<Long> convIds = jdbc.queryForList(CONVERSATIONS_SQL, Long.class,
+                projectId, Timestamp.from(dayStart), projectId, Timestamp.from(dayStart), Timestamp.from(dayEnd));
+
+        List<Future<Map<Long, AgentDay>>> parts = new ArrayList<>();
+        int chunk = Math.max(1, props.getChunkSize());
+        for (int from = 0; from < convIds.size(); from += chunk) {
+            List<Long> ids = convIds.subList(from, Math.min(from + chunk, convIds.size()));
+            parts.add(walkers.submit(() -> walkChunk(ids, dayStart, dayEnd)));
+        }
+
+        Map<Long, AgentDay> agents = new HashMap<>();
+        for (Future<Map<Long, AgentDay>> part : parts) {
+            part.get().forEach((agent, d) -> agents.merge(agent, d, (a, b) -> { a.merge(b); return a; }));
+        }
+        store(projectId, day, agents);
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  WALK — one chunk of conversations, in (conversation_id, created_at) order
+    // ══════════════════════════════════════════════════════════════════════
+
+    private Map<Long, AgentDay> walkChunk(List<Long> ids, Instant dayStart, Instant dayEnd) {
+        long walkFrom = dayStart.minus(props.getLookback()).toEpochMilli();
+        long start    = dayStart.toEpochMilli();
+        long end      = dayEnd.toEpochMilli();
+
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", ids)
+                .addValue("from", new Timestamp(walkFrom))
+                .addValue("to",   Timestamp.from(dayEnd));
+
+        Map<Long, List<Assignment>> assignments = new HashMap<>();
+        namedJdbc.query(ASSIGNMENTS_SQL, params, (RowCallbackHandler) rs -> {
+            Timestamp un = rs.getTimestamp(4);
+            assignments.computeIfAbsent(rs.getLong(1), k -> new ArrayList<>()).add(new Assignment(
+                    rs.getLong(2), rs.getTimestamp(3).getTime(), un != null ? un.getTime() : Long.MAX_VALUE));
+        });
+
+        Map<Long, AgentDay> out = new HashMap<>();
+        ConversationWalk walk = new ConversationWalk(out, assignments, walkFrom, start);
+        namedJdbc.query(MESSAGES_SQL, params, (RowCallbackHandler) walk::accept);
+        walk.finish();
+
+        for (List<Assignment> list : assignments.values()) {
+            for (Assignment a : list) {
+                if (a.unassignedAt < start || a.unassignedAt >= end) continue;
+                AgentDay d = out.computeIfAbsent(a.agentId, k -> new AgentDay());
+                d.assignmentsClosed++;
+                d.handle = AgentDay.record(d.handle, a.unassignedAt - a.assignedAt);
+            }
+        }
+        return out;
+    }
+
+    /** Row-by-row state machine over one chunk's ordered messages. */
+    private static final class ConversationWalk {
+        private final Map<Long, AgentDay>         out;
+        private final Map<Long, List<Assignment>> assignments;
+        private final long                        walkFrom;
+        private final long                        dayStart;
+
+        private long      conversationId = Long.MIN_VALUE;
+        private long      pendingSince   = -1;               // first unanswered inbound, -1 = none
+        private final Set<Long> repliedToday = new HashSet<>();
+
+        ConversationWalk(Map<Long, AgentDay> out, Map<Long, List<Assignment>> assignments,
+                         long walkFrom, long dayStart) {
+            this.out         = out;
+            this.assignments = assignments;
+            this.walkFrom    = walkFrom;
+            this.dayStart    = dayStart;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long conv = rs.getLong(1);
+            if (conv != conversationId) {
+                finish();
+                conversationId = conv;
+                pendingSince   = -1;
+            }
+            long t = rs.getTimestamp(5).getTime();
+
+            if ("INBOUND".equals(rs.getString(2))) {
+                if (pendingSince < 0) pendingSince = t;
+                return;
+            }
+            if (!"USER".equals(rs.getString(3))) return;   // automated sends don't answer
+            long agent = rs.getLong(4);
+            if (rs.wasNull()) return;
+
+            boolean  today = t >= dayStart;
+            AgentDay d     = today ? out.computeIfAbsent(agent, k -> new AgentDay()) : null;
+            if (today) {
+                d.messagesSent++;
+                repliedToday.add(agent);
+                if (pendingSince >= 0) d.response = AgentDay.record(d.response, t - pendingSince);
+            }
+            for (Assignment a : assignments.getOrDefault(conv, List.of())) {
+                // Assignments older than the walk may have been answered before it started
+                if (a.answered || a.agentId != agent || a.assignedAt < walkFrom || a.assignedAt > t) continue;
+                a.answered = true;
+                if (today) d.firstResponse = AgentDay.record(d.firstResponse, t - a.assignedAt);
+            }
+            pendingSince = -1;
+        }
+
+        void finish() {
+            for (Long agent : repliedToday) out.get(agent).conversations++;
+            repliedToday.clear();
+        }
+    }
+
+    // ── Store ─────────────────────────────────────────────────────────────
+
+    private void store(long projectId, LocalDate day, Map<Long, AgentDay> agents) {
+        List<Object[]> rows = new ArrayList<>(agents.size());
+        agents.forEach((agent, d) -> rows.add(new Object[]{
+                projectId, Date.valueOf(day), agent, d.conversations, d.messagesSent, d.assignmentsClosed,
+                encode(d.response), encode(d.firstResponse), encode(d.handle)}));
+
+        tx.executeWithoutResult(status -> {
+            jdbc.update("DELETE FROM agent_daily_stats WHERE project_id = ? AND day = ?", projectId, Date.valueOf(day));
+            jdbc.batchUpdate(INSERT_SQL, rows);
+        });
+    }
+
+    private static byte[] encode(Histogram h) {
+        return h != null ? LatencyHistograms.encode(h) : null;
+    }
+
+    private static Instant startOf(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    protected void onStart() {
+        walkers = daemonPool("walk", props.getParallelism());
+        every(props.getInterval(), this::pass);
+    }
+}
@@ -0,0 +1,98 @@
+package com.apargo.services.message_report.service.analytics;
+
+import com.apargo.services.message_report.dto.response.AgentMetricsResponse;
+import com.apargo.services.message_report.dto.response.AgentMetricsResponse.AgentStats;
+import com.apargo.services.message_report.dto.response.AgentMetricsResponse.TimingStats;
+import lombok.RequiredArgsConstructor;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Agent metrics from agent_daily_stats: a PK range scan over
+ * (project_id, day), histograms merged in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.agent-metrics", name = "enabled", havingValue = "true")
+public class AgentMetricsService {
+
+    private static final int MAX_DAYS = 400;
+
+    private final JdbcTemplate jdbc;
+
+    private record GroupKey(long agentId, LocalDate day) {}
+
+    public AgentMetricsResponse report(Long projectId, LocalDate from, LocalDate to, Long agentId, boolean groupByDay) {
+        if (from.isAfter(to) || from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Invalid range: from must be on or before to, at most " + MAX_DAYS + " days");
+        }
+
+        String sql = """
+                SELECT agent_id, day, conversations, messages_sent, assignments_closed,
+                       response_hist, first_response_hist, handle_hist
+                FROM agent_daily_stats
+                WHERE project_id = ? AND day BETWEEN ? AND ?
+                """ + (agentId != null ? "  AND agent_id = ?\n" : "");
+        Object[] args = agentId != null
+                ? new Object[]{projectId, Date.valueOf(from), Date.valueOf(to), agentId}
+                : new Object[]{projectId, Date.valueOf(from), Date.valueOf(to)};
+
+        Map<GroupKey, AgentMetricsEngine.AgentDay> groups = new TreeMap<>(
+                Comparator.comparingLong(GroupKey::agentId)
+                        .thenComparing(GroupKey::day, Comparator.nullsFirst(Comparator.naturalOrder())));
+        jdbc.query(sql, (RowCallbackHandler) rs -> {
+            AgentMetricsEngine.AgentDay d = new AgentMetricsEngine.AgentDay();
+            d.conversations     = rs.getInt(3);
+            d.messagesSent      = rs.getInt(4);
+            d.assignmentsClosed = rs.getInt(5);
+            d.response          = decode(rs.getBytes(6));
+            d.firstResponse     = decode(rs.getBytes(7));
+            d.handle            = decode(rs.getBytes(8));
+
+            GroupKey key = new GroupKey(rs.getLong(1), groupByDay ? rs.getDate(2).toLocalDate() : null);
+            groups.merge(key, d, (a, b) -> { a.merge(b); return a; });
+        }, args);
+
+        List<AgentStats> agents = new ArrayList<>(groups.size());
+        groups.forEach((k, d) -> agents.add(AgentStats.builder()
+                .agentId(k.agentId())
+                .day(k.day())
+                .conversations(d.conversations)
+                .messagesSent(d.messagesSent)
+                .assignmentsClosed(d.assignmentsClosed)
+                .responseTime(timing(d.response))
+                .firstResponseTime(timing(d.firstResponse))
+                .handleTime(timing(d.handle))
+                .build()));
+
+        return AgentMetricsResponse.builder()
+                .projectId(projectId)
+                .from(from)
+                .to(to)
+                .agents(agents)
+                .build();
+    }
+
+    private static Histogram decode(byte[] blob) {
+        return blob != null ? LatencyHistograms.decode(blob) : null;
+    }
+
+    private static TimingStats timing(Histogram h) {
+        if (h == null) return null;
+        return TimingStats.builder()
+                .count(h.getTotalCount())
+                .meanMs(Math.round(h.getMean()))
+                .p50Ms(h.getValueAtPercentile(50))
+                .p90Ms(h.getValueAtPercentile(90))
+                .p95Ms(h.getValueAtPercentile(95))
+                .maxMs(h.getMaxValue())
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.apargo.services.message_report.service.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Read / advance rows of analytics_watermarks (db/analytics.sql).
+ * Time watermarks use {@code position}, id watermarks {@code last_id}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnalyticsWatermarks {
+
+    private final JdbcTemplate jdbc;
+
+    public Instant get(String name) {
+        List<Timestamp> rows = jdbc.queryForList(
+                "SELECT position FROM analytics_watermarks WHERE name = ?", Timestamp.class, name);
+        return rows.isEmpty() || rows.get(0) == null ? null : rows.get(0).toInstant();
+    }
+
+    /** Call inside the transaction that committed everything up to {@code position}. */
+    public void set(String name, Instant position) {
+        jdbc.update("""
+                INSERT INTO analytics_watermarks (name, position) VALUES (?, ?)
+                ON DUPLICATE KEY UPDATE position = VALUES(position)
+                """, name, Timestamp.from(position));
+    }
+
+    /**
+     * Time watermark locked until the surrounding transaction ends (see
+     * {@link #lockLastId} for the lock modes); null if never set.
+     */
+    public Instant lockPosition(String name, boolean exclusive) {
+        List<Timestamp> rows = jdbc.queryForList(
+                "SELECT position FROM analytics_watermarks WHERE name = ? "
+                        + (exclusive ? "FOR UPDATE" : "FOR SHARE"),
+                Timestamp.class, name);
+        return rows.isEmpty() || rows.get(0) == null ? null : rows.get(0).toInstant();
+    }
+
+    /**
+     * Last applied id, locked until the surrounding transaction ends —
+     * exclusively for the writer that will advance it, shared for readers that
+     * must not interleave with an advance. A missing row is created as 0.
+     */
+    public long lockLastId(String name, boolean exclusive) {
+        jdbc.update("INSERT IGNORE INTO analytics_watermarks (name, last_id) VALUES (?, 0)", name);
+        Long id = jdbc.queryForObject(
+                "SELECT COALESCE(last_id, 0) FROM analytics_watermarks WHERE name = ? "
+                        + (exclusive ? "FOR UPDATE" : "FOR SHARE"),
+                Long.class, name);
+        return id != null ? id : 0;
+    }
+
+    /** Call inside the transaction holding {@link #lockLastId} exclusively. */
+    public void setLastId(String name, long lastId) {
+        jdbc.update("UPDATE analytics_watermarks SET last_id = ? WHERE name = ?", lastId, name);
+    }
+}
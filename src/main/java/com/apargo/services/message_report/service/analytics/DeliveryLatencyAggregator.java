@@ -0,0 +1,195 @@
+package com.apargo.services.message_report.service.analytics;
+
+import com.apargo.services.message_report.config.DeliveryLatencyProperties;
+import com.apargo.services.message_report.enums.LatencyMetric;
+import com.apargo.services.message_report.service.scheduler.BackgroundWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Folds new message_status_events into per-hour latency histograms
+ * (delivery_latency_histograms, db/analytics.sql).
+ *
+ * Each pass reads events by idx_created_at from the stored watermark up to
+ * {@code now - lag}, in windows of at most {@code max-window}. For the first
+ * DELIVERED / READ event of each message it records
+ * {@code status provider_timestamp − send time}, where send time is the
+ * earliest SENT event's provider_timestamp (idx_message_status) or, without
+ * one, messages.created_at. Samples are added to an in-memory histogram per
+ * (project, metric, hour, template, campaign), merged into the stored blobs
+ * and written back together with the new watermark in ONE transaction — a
+ * window is either fully counted or not at all.
+ *
+ * Runs on the node holding the "delivery-latency" lease. The lease is renewed
+ * before every window and the pass stops as soon as it is lost; independently
+ * of the lease, each window re-reads its start under an exclusive lock on the
+ * watermark row, so a window can never be folded twice.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "message-report.delivery-latency", name = "enabled", havingValue = "true")
+public class DeliveryLatencyAggregator extends BackgroundWorker {
+
+    private static final String WATERMARK = "delivery-latency";
+
+    private static final String EVENTS_SQL = """
+            SELECT e.provider_status,
+                   COALESCE(e.provider_timestamp, e.created_at),
+                   m.project_id, m.template_name, m.campaign_id,
+                   COALESCE((SELECT MIN(s.provider_timestamp)
+                             FROM message_status_events s
+                             WHERE s.message_id = e.message_id AND s.provider_status = 'SENT'),
+                            m.created_at)
+            FROM message_status_events e
+            JOIN messages m ON m.id = e.message_id
+            WHERE e.created_at >= ? AND e.created_at < ?
+              AND e.provider_status IN ('DELIVERED', 'READ')
+              AND NOT EXISTS (SELECT 1
+                              FROM message_status_events d
+                              WHERE d.message_id = e.message_id
+                                AND d.provider_status = e.provider_status
+                                AND d.id < e.id)
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO delivery_latency_histograms
+              (project_id, metric, hour_start, template_name, campaign_id, sample_count, histogram)
+            VALUES (?,?,?,?,?,?,?)
+            ON DUPLICATE KEY UPDATE sample_count = VALUES(sample_count), histogram = VALUES(histogram)
+            """;
+
+    record BucketKey(long projectId, LatencyMetric metric, Instant hour, String templateName, long campaignId) {}
+
+    private record HourKey(long projectId, LatencyMetric metric, Instant hour) {}
+
+    private final DeliveryLatencyProperties props;
+    private final AnalyticsWatermarks       watermarks;
+    private final TransactionTemplate       tx;
+
+    public DeliveryLatencyAggregator(DeliveryLatencyProperties props,
+                                     JdbcTemplate jdbc,
+                                     AnalyticsWatermarks watermarks,
+                                     PlatformTransactionManager txManager) {
+        super(jdbc, "delivery-latency", true);
+        this.props      = props;
+        this.watermarks = watermarks;
+        this.tx         = new TransactionTemplate(txManager);
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  PASS — consume [watermark, now - lag) window by window
+    // ══════════════════════════════════════════════════════════════════════
+
+    private void pass() {
+        try {
+            Duration ttl  = props.getInterval().multipliedBy(3);
+            Instant  end  = Instant.now().minus(props.getLag());
+            boolean  more = true;
+            while (isRunning() && more) {
+                if (!holdLease(ttl)) return;   // lost (or never had) the lease: another node continues
+
+                more = Boolean.TRUE.equals(tx.execute(status -> {
+                    Instant from = Optional.ofNullable(watermarks.lockPosition(WATERMARK, true))
+                            .orElse(end.minus(props.getInitialLookback()));
+                    if (!from.isBefore(end)) return false;
+
+                    Instant to      = min(from.plus(props.getMaxWindow()), end);
+                    int     samples = fold(from, to);
+                    watermarks.set(WATERMARK, to);
+                    if (samples > 0) log.debug("Delivery latency: {} samples in [{}, {})", samples, from, to);
+                    return to.isBefore(end);
+                }));
+            }
+        } catch (Exception e) {
+            log.warn("Delivery latency pass failed: {}", e.getMessage());
+        }
+    }
+
+    /** @return number of samples recorded */
+    private int fold(Instant from, Instant to) {
+        Map<BucketKey, Histogram> fresh = new HashMap<>();
+        int[] samples = {0};
+
+        jdbc.query(EVENTS_SQL,
+                ps -> {
+                    ps.setTimestamp(1, Timestamp.from(from));
+                    ps.setTimestamp(2, Timestamp.from(to));
+                },
+                (RowCallbackHandler) rs -> {
+                    Instant at     = rs.getTimestamp(2).toInstant();
+                    Timestamp sent = rs.getTimestamp(6);
+                    if (sent == null) return;
+
+                    BucketKey key = new BucketKey(
+                            rs.getLong(3),
+                            LatencyMetric.valueOf(rs.getString(1)),
+                            at.truncatedTo(ChronoUnit.HOURS),
+                            Objects.requireNonNullElse(rs.getString(4), ""),
+                            rs.getLong(5));   // NULL campaign_id → 0
+                    long millis = Math.max(0, at.toEpochMilli() - sent.getTime());
+                    fresh.computeIfAbsent(key, k -> LatencyHistograms.empty()).recordValue(millis);
+                    samples[0]++;
+                });
+        if (fresh.isEmpty()) return 0;
+
+        mergeStored(fresh);
+
+        List<Object[]> rows = new ArrayList<>(fresh.size());
+        for (Map.Entry<BucketKey, Histogram> e : fresh.entrySet()) {
+            BucketKey k = e.getKey();
+            rows.add(new Object[]{
+                    k.projectId(), k.metric().name(), Timestamp.from(k.hour()), k.templateName(), k.campaignId(),
+                    e.getValue().getTotalCount(), LatencyHistograms.encode(e.getValue())});
+        }
+        jdbc.batchUpdate(UPSERT_SQL, rows);
+        return samples[0];
+    }
+
+    /** Add the stored histograms of every touched (project, metric, hour) into {@code fresh}. */
+    private void mergeStored(Map<BucketKey, Histogram> fresh) {
+        Set<HourKey> hours = new HashSet<>();
+        for (BucketKey k : fresh.keySet()) hours.add(new HourKey(k.projectId(), k.metric(), k.hour()));
+
+        for (HourKey h : hours) {
+            jdbc.query("""
+                    SELECT template_name, campaign_id, histogram
+                    FROM delivery_latency_histograms
+                    WHERE project_id = ? AND metric = ? AND hour_start = ?
+                    FOR UPDATE
+                    """,
+                    ps -> {
+                        ps.setLong(1, h.projectId());
+                        ps.setString(2, h.metric().name());
+                        ps.setTimestamp(3, Timestamp.from(h.hour()));
+                    },
+                    (RowCallbackHandler) rs -> {
+                        Histogram current = fresh.get(new BucketKey(
+                                h.projectId(), h.metric(), h.hour(), rs.getString(1), rs.getLong(2)));
+                        if (current != null) current.add(LatencyHistograms.decode(rs.getBytes(3)));
+                    });
+        }
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    protected void onStart() {
+        every(props.getInterval(), this::pass);
+    }
+}
@@ -0,0 +1,106 @@
+package com.apargo.services.message_report.service.analytics;
+
+import com.apargo.services.message_report.config.DeliveryLatencyProperties;
+import com.apargo.services.message_report.dto.response.LatencyDistributionResponse;
+import com.apargo.services.message_report.dto.response.LatencyDistributionResponse.LatencyStats;
+import com.apargo.services.message_report.enums.LatencyGroupBy;
+import com.apargo.services.message_report.enums.LatencyMetric;
+import lombok.RequiredArgsConstructor;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Answers latency-percentile questions by merging hourly histogram blobs —
+ * a day for one project is at most 24 × (templates × campaigns) small rows
+ * read through the primary key, never a scan of message_status_events.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.delivery-latency", name = "enabled", havingValue = "true")
+public class DeliveryLatencyService {
+
+    private static final Duration MAX_RANGE = Duration.ofDays(92);
+
+    private final DeliveryLatencyProperties  props;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    public LatencyDistributionResponse query(Long projectId, LatencyMetric metric,
+                                             Instant from, Instant to,
+                                             String templateName, Long campaignId,
+                                             LatencyGroupBy groupBy) {
+        Instant end   = to   != null ? to   : Instant.now();
+        Instant start = (from != null ? from : end.minus(Duration.ofDays(1))).truncatedTo(ChronoUnit.HOURS);
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(MAX_RANGE) > 0) {
+            throw new IllegalArgumentException("Invalid range: from must be before to, at most " + MAX_RANGE.toDays() + " days");
+        }
+
+        StringBuilder sql = new StringBuilder("""
+                SELECT hour_start, template_name, campaign_id, histogram
+                FROM delivery_latency_histograms
+                WHERE project_id = :projectId
+                  AND metric = :metric
+                  AND hour_start >= :from
+                  AND hour_start < :to
+                """);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("projectId", projectId)
+                .addValue("metric",    metric.name())
+                .addValue("from",      Timestamp.from(start))
+                .addValue("to",        Timestamp.from(end));
+        if (templateName != null) {
+            sql.append("  AND template_name = :templateName\n");
+            params.addValue("templateName", templateName);
+        }
+        if (campaignId != null) {
+            sql.append("  AND campaign_id = :campaignId\n");
+            params.addValue("campaignId", campaignId);
+        }
+
+        Map<String, Histogram> groups = new TreeMap<>();
+        namedJdbc.query(sql.toString(), params, (RowCallbackHandler) rs -> {
+            String key = switch (groupBy) {
+                case NONE     -> "all";
+                case HOUR     -> rs.getTimestamp(1).toInstant().toString();
+                case TEMPLATE -> rs.getString(2);
+                case CAMPAIGN -> Long.toString(rs.getLong(3));
+            };
+            Histogram h = LatencyHistograms.decode(rs.getBytes(4));
+            groups.merge(key, h, (a, b) -> { a.add(b); return a; });
+        });
+
+        List<LatencyStats> stats = new ArrayList<>(groups.size());
+        groups.forEach((key, h) -> stats.add(LatencyStats.builder()
+                .key(key)
+                .count(h.getTotalCount())
+                .meanMs(Math.round(h.getMean()))
+                .p50Ms(h.getValueAtPercentile(50))
+                .p90Ms(h.getValueAtPercentile(90))
+                .p95Ms(h.getValueAtPercentile(95))
+                .p99Ms(h.getValueAtPercentile(99))
+                .maxMs(h.getMaxValue())
+                .build()));
+
+        return LatencyDistributionResponse.builder()
+                .projectId(projectId)
+                .metric(metric)
+                .from(start)
+                .to(end)
+                .groupBy(groupBy)
+                .complete(!end.isAfter(Instant.now().minus(props.getLag()).minus(props.getInterval())))
+                .groups(stats)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.apargo.services.message_report.service.analytics;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+/**
+ * HdrHistogram settings + blob codec shared by writer and reader.
+ *
+ * Values are milliseconds with 2 significant digits (≤ 1% error), auto-resizing
+ * so multi-day READ latencies need no up-front range. The compressed encoding
+ * of a typical hourly bucket is a few hundred bytes.
+ */
+final class LatencyHistograms {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private LatencyHistograms() {}
+
+    static Histogram empty() {
+        Histogram h = new Histogram(SIGNIFICANT_DIGITS);
+        h.setAutoResize(true);
+        return h;
+    }
+
+    static byte[] encode(Histogram h) {
+        ByteBuffer buf = ByteBuffer.allocate(h.getNeededByteBufferCapacity());
+        int len = h.encodeIntoCompressedByteBuffer(buf, Deflater.BEST_SPEED);
+        byte[] out = new byte[len];
+        buf.flip();
+        buf.get(out);
+        return out;
+    }
+
+    static Histogram decode(byte[] blob) {
+        try {
+            Histogram h = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(blob), 0);
+            h.setAutoResize(true);
+            return h;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt latency histogram blob", e);
+        }
+    }
+}
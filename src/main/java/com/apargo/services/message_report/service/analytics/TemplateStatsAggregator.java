@@ -0,0 +1,235 @@
+package com.apargo.services.message_report.service.analytics;
+
+import com.apargo.services.message_report.config.TemplateStatsProperties;
+import com.apargo.services.message_report.service.scheduler.BackgroundWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Maintains template_daily_stats / template_failure_daily (db/analytics.sql).
+ *
+ * The rollup flags in message_status_rollup carry no per-flag time, so the
+ * transitions are read where they originate: message_status_events, through
+ * idx_created_at, from the "template-stats" time watermark. The first event
+ * of each status per template message is grouped in SQL and ADDED to the
+ * (project, day of the message, template, language) counters; the watermark
+ * advances in the same transaction, holding its row exclusively.
+ *
+ * {@link #rebuildDay} recomputes one (project, day) exactly from
+ * messages ⋈ message_status_events, counting only events before the
+ * watermark (row held in share mode), and REPLACES its rows — so backfill and
+ * the incremental pass never double-count. Every statement is a GROUP BY
+ * whose result is one row per template × status, so memory stays bounded
+ * however much history is rebuilt.
+ *
+ * Without a watermark, counting starts at the first pass; history comes from
+ * a backfill.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "message-report.template-stats", name = "enabled", havingValue = "true")
+public class TemplateStatsAggregator extends BackgroundWorker {
+
+    private static final String WATERMARK = "template-stats";
+
+    private static final String EVENTS_SQL = """
+            SELECT m.project_id, DATE(m.created_at), m.template_name, COALESCE(m.template_language, ''),
+                   e.provider_status, COALESCE(m.error_code, ''), COUNT(*)
+            FROM message_status_events e
+            JOIN messages m ON m.id = e.message_id
+            WHERE e.created_at >= ? AND e.created_at < ?
+              AND m.template_name IS NOT NULL
+              AND NOT EXISTS (SELECT 1
+                              FROM message_status_events d
+                              WHERE d.message_id = e.message_id
+                                AND d.provider_status = e.provider_status
+                                AND d.id < e.id)
+            GROUP BY 1, 2, 3, 4, 5, 6
+            """;
+
+    private static final String DAY_SQL = """
+            SELECT m.project_id, DATE(m.created_at), m.template_name, COALESCE(m.template_language, ''),
+                   e.provider_status, COALESCE(m.error_code, ''), COUNT(DISTINCT e.message_id)
+            FROM messages m
+            JOIN message_status_events e ON e.message_id = m.id
+            WHERE m.project_id = ?
+              AND m.created_at >= ? AND m.created_at < ?
+              AND m.template_name IS NOT NULL
+              AND e.created_at < ?
+            GROUP BY 1, 2, 3, 4, 5, 6
+            """;
+
+    private static final String ADD_COUNTS_SQL = """
+            INSERT INTO template_daily_stats
+              (project_id, day, template_name, template_language,
+               sent_count, delivered_count, read_count, failed_count)
+            VALUES (?,?,?,?,?,?,?,?)
+            ON DUPLICATE KEY UPDATE
+              sent_count      = sent_count      + VALUES(sent_count),
+              delivered_count = delivered_count + VALUES(delivered_count),
+              read_count      = read_count      + VALUES(read_count),
+              failed_count    = failed_count    + VALUES(failed_count)
+            """;
+
+    private static final String ADD_FAILURES_SQL = """
+            INSERT INTO template_failure_daily
+              (project_id, day, template_name, template_language, error_code, failure_count)
+            VALUES (?,?,?,?,?,?)
+            ON DUPLICATE KEY UPDATE failure_count = failure_count + VALUES(failure_count)
+            """;
+
+    private record TemplateDay(long projectId, Date day, String templateName, String language) {}
+
+    /** sent, delivered, read, failed */
+    private static final class Counts {
+        final long[] byStatus = new long[4];
+        final Map<String, Long> failures = new HashMap<>();
+    }
+
+    private final TemplateStatsProperties props;
+    private final AnalyticsWatermarks     watermarks;
+    private final TransactionTemplate     tx;
+
+    public TemplateStatsAggregator(TemplateStatsProperties props,
+                                   JdbcTemplate jdbc,
+                                   AnalyticsWatermarks watermarks,
+                                   PlatformTransactionManager txManager) {
+        super(jdbc, "template-stats", true);
+        this.props      = props;
+        this.watermarks = watermarks;
+        this.tx         = new TransactionTemplate(txManager);
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  INCREMENTAL — status events since the watermark
+    // ══════════════════════════════════════════════════════════════════════
+
+    private void pass() {
+        try {
+            if (!holdLease(props.getInterval().multipliedBy(3))) return;
+
+            Instant end = Instant.now().minus(props.getLag());
+            boolean more = true;
+            while (isRunning() && more) {
+                more = Boolean.TRUE.equals(tx.execute(status -> {
+                    Instant from = watermarks.lockPosition(WATERMARK, true);
+                    if (from == null) {                      // first run: start counting from here
+                        watermarks.set(WATERMARK, end);
+                        return false;
+                    }
+                    if (!from.isBefore(end)) return false;
+                    Instant to = min(from.plus(props.getMaxWindow()), end);
+                    apply(from, to);
+                    watermarks.set(WATERMARK, to);
+                    return to.isBefore(end);
+                }));
+            }
+        } catch (Exception e) {
+            log.warn("Template stats pass failed: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Instant from, Instant to) {
+        Map<TemplateDay, Counts> counts = new HashMap<>();
+        jdbc.query(EVENTS_SQL,
+                ps -> {
+                    ps.setTimestamp(1, Timestamp.from(from));
+                    ps.setTimestamp(2, Timestamp.from(to));
+                },
+                (RowCallbackHandler) rs -> accumulate(rs, counts));
+        write(counts);
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  REBUILD — one (project, day), for backfill
+    // ══════════════════════════════════════════════════════════════════════
+
+    /** Start the watermark (if it isn't yet) so rebuilds have a fixed upper bound. */
+    public void ensureWatermark() {
+        tx.executeWithoutResult(status -> {
+            if (watermarks.lockPosition(WATERMARK, true) == null) {
+                watermarks.set(WATERMARK, Instant.now().minus(props.getLag()));
+            }
+        });
+    }
+
+    /** @return template messages that reached SENT on that day */
+    public long rebuildDay(long projectId, LocalDate day) {
+        return Objects.requireNonNullElse(tx.execute(status -> {
+            Instant upTo = watermarks.lockPosition(WATERMARK, false);
+            if (upTo == null) throw new IllegalStateException("template-stats watermark not initialised");
+
+            Map<TemplateDay, Counts> counts = new HashMap<>();
+            jdbc.query(DAY_SQL,
+                    ps -> {
+                        ps.setLong(1, projectId);
+                        ps.setTimestamp(2, Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant()));
+                        ps.setTimestamp(3, Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+                        ps.setTimestamp(4, Timestamp.from(upTo));
+                    },
+                    (RowCallbackHandler) rs -> accumulate(rs, counts));
+
+            Date sqlDay = Date.valueOf(day);
+            jdbc.update("DELETE FROM template_daily_stats WHERE project_id = ? AND day = ?", projectId, sqlDay);
+            jdbc.update("DELETE FROM template_failure_daily WHERE project_id = ? AND day = ?", projectId, sqlDay);
+            write(counts);
+            return counts.values().stream().mapToLong(c -> c.byStatus[0]).sum();
+        }), 0L);
+    }
+
+    // ── Shared ────────────────────────────────────────────────────────────
+
+    private static void accumulate(ResultSet rs, Map<TemplateDay, Counts> counts) throws SQLException {
+        TemplateDay key = new TemplateDay(rs.getLong(1), rs.getDate(2), rs.getString(3), rs.getString(4));
+        Counts c = counts.computeIfAbsent(key, k -> new Counts());
+        long   n = rs.getLong(7);
+        switch (rs.getString(5)) {
+            case "SENT"      -> c.byStatus[0] += n;
+            case "DELIVERED" -> c.byStatus[1] += n;
+            case "READ"      -> c.byStatus[2] += n;
+            case "FAILED"    -> {
+                c.byStatus[3] += n;
+                c.failures.merge(rs.getString(6), n, Long::sum);
+            }
+            default -> { }
+        }
+    }
+
+    private void write(Map<TemplateDay, Counts> counts) {
+        List<Object[]> rows     = new ArrayList<>(counts.size());
+        List<Object[]> failures = new ArrayList<>();
+        counts.forEach((k, c) -> {
+            rows.add(new Object[]{k.projectId(), k.day(), k.templateName(), k.language(),
+                    c.byStatus[0], c.byStatus[1], c.byStatus[2], c.byStatus[3]});
+            c.failures.forEach((code, n) -> failures.add(new Object[]{
+                    k.projectId(), k.day(), k.templateName(), k.language(), code, n}));
+        });
+        jdbc.batchUpdate(ADD_COUNTS_SQL, rows);
+        jdbc.batchUpdate(ADD_FAILURES_SQL, failures);
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    protected void onStart() {
+        every(props.getInterval(), this::pass);
+    }
+}
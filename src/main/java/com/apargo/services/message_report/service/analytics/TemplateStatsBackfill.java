@@ -0,0 +1,39 @@
+package com.apargo.services.message_report.service.analytics;
+
+import com.apargo.services.message_report.config.TemplateStatsProperties;
+import com.apargo.services.message_report.dto.response.BackfillStatusResponse;
+import com.apargo.services.message_report.service.rollup.DayRangeBackfill;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rebuilds template_daily_stats / template_failure_daily for a day range
+ * ({@link TemplateStatsAggregator#rebuildDay}, one GROUP BY per slice).
+ */
+@Service
+@ConditionalOnProperty(prefix = "message-report.template-stats", name = "enabled", havingValue = "true")
+public class TemplateStatsBackfill {
+
+    private final TemplateStatsProperties props;
+    private final TemplateStatsAggregator aggregator;
+    private final DayRangeBackfill        backfill;
+
+    public TemplateStatsBackfill(TemplateStatsProperties props, TemplateStatsAggregator aggregator) {
+        this.props      = props;
+        this.aggregator = aggregator;
+        this.backfill   = new DayRangeBackfill("template-stats", aggregator::rebuildDay);
+    }
+
+    public BackfillStatusResponse start(LocalDate from, LocalDate to, Long projectId) {
+        aggregator.ensureWatermark();
+        List<Long> projects = projectId != null ? List.of(projectId) : aggregator.projectIds();
+        return backfill.start(from, to, projects, props.getBackfillParallelism());
+    }
+
+    public BackfillStatusResponse status() {
+        return backfill.status();
+    }
+}
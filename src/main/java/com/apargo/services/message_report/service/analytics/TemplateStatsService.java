@@ -0,0 +1,110 @@
+package com.apargo.services.message_report.service.analytics;
+
+import com.apargo.services.message_report.dto.response.TemplatePerformanceResponse;
+import com.apargo.services.message_report.dto.response.TemplatePerformanceResponse.FailureCount;
+import com.apargo.services.message_report.dto.response.TemplatePerformanceResponse.TemplateStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Template funnel report from template_daily_stats / template_failure_daily:
+ * two PK range scans over (project_id, day) — cost grows with the requested
+ * range and template count, never with total message history.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.template-stats", name = "enabled", havingValue = "true")
+public class TemplateStatsService {
+
+    private static final int MAX_DAYS     = 400;
+    private static final int TOP_FAILURES = 5;
+
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    private record Key(String templateName, String language, LocalDate day) {}
+
+    public TemplatePerformanceResponse report(Long projectId, LocalDate from, LocalDate to,
+                                              String templateName, boolean groupByDay) {
+        if (from.isAfter(to) || from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Invalid range: from must be on or before to, at most " + MAX_DAYS + " days");
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("projectId", projectId)
+                .addValue("from",      Date.valueOf(from))
+                .addValue("to",        Date.valueOf(to))
+                .addValue("template",  templateName);
+        String where = """
+                WHERE project_id = :projectId
+                  AND day BETWEEN :from AND :to
+                """ + (templateName != null ? "  AND template_name = :template\n" : "");
+        String dayCol = groupByDay ? ", day" : "";
+
+        Map<Key, long[]> counts = new LinkedHashMap<>();
+        namedJdbc.query("SELECT template_name, template_language" + dayCol
+                        + ", SUM(sent_count), SUM(delivered_count), SUM(read_count), SUM(failed_count)\n"
+                        + "FROM template_daily_stats\n" + where
+                        + "GROUP BY template_name, template_language" + dayCol + "\n"
+                        + "ORDER BY " + (groupByDay ? "day, " : "") + "SUM(sent_count) DESC",
+                params,
+                (RowCallbackHandler) rs -> {
+                    int c = groupByDay ? 4 : 3;
+                    counts.put(key(rs.getString(1), rs.getString(2), groupByDay ? rs.getDate(3) : null),
+                            new long[]{rs.getLong(c), rs.getLong(c + 1), rs.getLong(c + 2), rs.getLong(c + 3)});
+                });
+
+        Map<Key, List<FailureCount>> failures = new HashMap<>();
+        namedJdbc.query("SELECT template_name, template_language" + dayCol + ", error_code, SUM(failure_count)\n"
+                        + "FROM template_failure_daily\n" + where
+                        + "GROUP BY template_name, template_language" + dayCol + ", error_code\n"
+                        + "ORDER BY SUM(failure_count) DESC",
+                params,
+                (RowCallbackHandler) rs -> {
+                    int c = groupByDay ? 4 : 3;
+                    List<FailureCount> top = failures.computeIfAbsent(
+                            key(rs.getString(1), rs.getString(2), groupByDay ? rs.getDate(3) : null),
+                            k -> new ArrayList<>(TOP_FAILURES));
+                    if (top.size() < TOP_FAILURES) {
+                        top.add(FailureCount.builder().errorCode(rs.getString(c)).count(rs.getLong(c + 1)).build());
+                    }
+                });
+
+        List<TemplateStats> templates = new ArrayList<>(counts.size());
+        counts.forEach((k, n) -> templates.add(TemplateStats.builder()
+                .templateName(k.templateName())
+                .language(k.language())
+                .day(k.day())
+                .sent(n[0])
+                .delivered(n[1])
+                .read(n[2])
+                .failed(n[3])
+                .deliveryRate(rate(n[1], n[0]))
+                .readRate(rate(n[2], n[0]))
+                .failureRate(rate(n[3], n[0]))
+                .topFailures(failures.getOrDefault(k, List.of()))
+                .build()));
+
+        return TemplatePerformanceResponse.builder()
+                .projectId(projectId)
+                .from(from)
+                .to(to)
+                .templates(templates)
+                .build();
+    }
+
+    private static Key key(String templateName, String language, Date day) {
+        return new Key(templateName, language, day != null ? day.toLocalDate() : null);
+    }
+
+    private static double rate(long part, long whole) {
+        return whole == 0 ? 0 : Math.round(part * 10_000.0 / whole) / 10_000.0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.apargo.services.message_report.service.broadcast;
+
+/**
+ * E.164 numbers as primitive longs: the digits after '+', at most 15, never
+ * starting with 0 — so every valid number fits a long and 0 is free as a
+ * sentinel.
+ *
+ * Parsing works on a char range (Jackson's text buffer) and allocates nothing.
+ */
+final class E164 {
+
+    static final long INVALID = -1;
+
+    private static final int MIN_DIGITS = 8;
+    private static final int MAX_DIGITS = 15;
+
+    private E164() {}
+
+    /**
+     * Accepts "+9198…", "009198…", "9198…" and the usual separators (space, '-',
+     * '.', parentheses). Numbers without '+' / '00' are taken as already carrying
+     * a country code unless they start with a national trunk '0' or are shorter
+     * than {@code MIN_DIGITS + 3}; those get {@code defaultCountryCode} prefixed,
+     * with the trunk '0' dropped, and are invalid when there is no default.
+     *
+     * @return the number, or {@link #INVALID}
+     */
+    static long parse(char[] buf, int off, int len, String defaultCountryCode) {
+        int  i   = off, end = off + len;
+        while (i < end && buf[i] == ' ') i++;
+
+        boolean international = false;
+        if (i < end && buf[i] == '+') {
+            international = true;
+            i++;
+        } else if (i + 1 < end && buf[i] == '0' && buf[i + 1] == '0') {
+            international = true;
+            i += 2;
+        }
+
+        long value  = 0;
+        int  digits = 0;
+        for (; i < end; i++) {
+            char c = buf[i];
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_DIGITS) return INVALID;
+                value = value * 10 + (c - '0');
+            } else if (c != ' ' && c != '-' && c != '.' && c != '(' && c != ')') {
+                return INVALID;
+            }
+        }
+
+        if (!international) {
+            boolean trunk = digits > 0 && leadingDigit(value, digits) == 0;   // 0 98… → 98…
+            if (trunk) digits--;
+            if (trunk || digits < MIN_DIGITS + 3) {
+                if (defaultCountryCode.isEmpty()) return INVALID;            // national, no country to assume
+                long cc = Long.parseLong(defaultCountryCode);
+                digits += defaultCountryCode.length();
+                if (digits > MAX_DIGITS) return INVALID;
+                value += cc * pow10(digits - defaultCountryCode.length());
+            }
+        }
+
+        if (digits < MIN_DIGITS || leadingDigit(value, digits) == 0) return INVALID;
+        return value;
+    }
+
+    static long parse(String s, String defaultCountryCode) {
+        return parse(s.toCharArray(), 0, s.length(), defaultCountryCode);
+    }
+
+    /** "+" + digits, as stored in contacts.wa_phone_e164. */
+    static String format(long number) {
+        return "+" + number;
+    }
+
+    private static int leadingDigit(long value, int digits) {
+        return (int) (value / pow10(digits - 1));
+    }
+
+    private static long pow10(int n) {
+        long p = 1;
+        for (int k = 0; k < n; k++) p *= 10;
+        return p;
+    }
+}
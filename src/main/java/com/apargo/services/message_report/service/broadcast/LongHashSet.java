@@ -0,0 +1,56 @@
+package com.apargo.services.message_report.service.broadcast;
+
+/**
+ * Open-addressing set of positive longs (linear probing, 0 = empty slot).
+ *
+ * 8 bytes per slot at ≤ 50% load, against ~50 bytes per entry for a
+ * HashSet&lt;Long&gt; — a million numbers is ~16 MB instead of ~50 MB, with no
+ * boxing on the hot path.
+ */
+final class LongHashSet {
+
+    private long[] keys;
+    private int    mask;
+    private int    size;
+
+    LongHashSet(int expected) {
+        int cap = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[cap];
+        mask = cap - 1;
+    }
+
+    /** @return true if {@code key} was not present */
+    boolean add(long key) {
+        if (key <= 0) throw new IllegalArgumentException("key must be positive");
+        int i = slot(key, mask);
+        for (long k; (k = keys[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) return false;
+        }
+        keys[i] = key;
+        if (++size * 2 > keys.length) grow();
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] old = keys;
+        keys = new long[old.length << 1];
+        mask = keys.length - 1;
+        for (long k : old) {
+            if (k == 0) continue;
+            int i = slot(k, mask);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = k;
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+}
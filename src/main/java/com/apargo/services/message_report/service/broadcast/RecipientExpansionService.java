@@ -0,0 +1,375 @@
+package com.apargo.services.message_report.service.broadcast;
+
+import com.apargo.services.message_report.config.RecipientExpansionProperties;
+import com.apargo.services.message_report.dto.response.ExpansionProgressResponse;
+import com.apargo.services.message_report.service.scheduler.CampaignStartedEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Expands BroadcastCampaign.phone_numbers (a JSON array of strings) into
+ * broadcast_recipients without ever holding a List&lt;String&gt; or one entity
+ * per number.
+ *
+ *  - The column is read as raw bytes and walked with Jackson's streaming
+ *    parser; each element is normalised straight from the parser's text buffer
+ *    into an E.164 long ({@link E164}) and deduplicated in a {@link LongHashSet}.
+ *  - Every {@code chunk-size} new numbers are written in ONE transaction:
+ *    one contacts IN lookup, one INSERT IGNORE for missing contacts (+ one
+ *    re-select), one multi-row recipients insert (batchUpdate, rewritten by
+ *    rewriteBatchedStatements) and the checkpoint row in broadcast_expansions.
+ *  - A restart re-parses the array (rebuilding the dedupe set) but skips the
+ *    first {@code numbers_read} elements, which are already committed.
+ *
+ * Runs on CampaignStartedEvent and on demand. Ownership across nodes is a
+ * claim on the checkpoint row; a RUNNING row not checkpointed for
+ * {@code stale-after} can be taken over.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "message-report.recipient-expansion", name = "enabled", havingValue = "true")
+public class RecipientExpansionService implements SmartLifecycle {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO broadcast_expansions (campaign_id, state, owner)
+            VALUES (?, 'RUNNING', ?)
+            ON DUPLICATE KEY UPDATE
+                owner = IF(state = 'FAILED' OR (state = 'RUNNING' AND updated_at < NOW(3) - INTERVAL ? SECOND),
+                           VALUES(owner), owner),
+                state = IF(owner = VALUES(owner), 'RUNNING', state),
+                error = IF(owner = VALUES(owner), NULL, error)
+            """;
+
+    private static final String CHECKPOINT_SQL = """
+            UPDATE broadcast_expansions
+            SET numbers_read = ?, recipients_created = recipients_created + ?,
+                invalid_numbers = ?, duplicate_numbers = ?
+            WHERE campaign_id = ? AND owner = ?
+            """;
+
+    private static final String INSERT_CONTACT_SQL = """
+            INSERT IGNORE INTO contacts
+              (organization_id, wa_phone_e164, wa_id, source,
+               first_seen_at, last_seen_at, created_at, updated_at)
+            VALUES (?,?,?,'IMPORT',NOW(),NOW(),NOW(),NOW())
+            """;
+
+    private static final String INSERT_RECIPIENT_SQL = """
+            INSERT INTO broadcast_recipients
+              (campaign_id, contact_id, request_payload, state, attempts, next_run_at, created_at)
+            VALUES (?,?,?,'PENDING',0,?,NOW())
+            """;
+
+    private final RecipientExpansionProperties props;
+    private final JdbcTemplate                 jdbc;
+    private final NamedParameterJdbcTemplate   namedJdbc;
+    private final TransactionTemplate          tx;
+
+    private final Set<Long>  inFlight = ConcurrentHashMap.newKeySet();
+    private ExecutorService  worker;
+    private volatile boolean running;
+
+    public RecipientExpansionService(RecipientExpansionProperties props,
+                                     JdbcTemplate jdbc,
+                                     NamedParameterJdbcTemplate namedJdbc,
+                                     PlatformTransactionManager txManager) {
+        this.props     = props;
+        this.jdbc      = jdbc;
+        this.namedJdbc = namedJdbc;
+        this.tx        = new TransactionTemplate(txManager);
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  ENTRY POINTS
+    // ══════════════════════════════════════════════════════════════════════
+
+    @EventListener
+    public void onCampaignStarted(CampaignStartedEvent event) {
+        submit(event.campaignId());
+    }
+
+    /** Queue an expansion (no-op if already queued on this node). */
+    public ExpansionProgressResponse submit(Long campaignId) {
+        ExpansionProgressResponse current = progress(campaignId);
+        if (!"DONE".equals(current.getState()) && inFlight.add(campaignId)) {
+            worker.execute(() -> {
+                try {
+                    expand(campaignId);
+                } finally {
+                    inFlight.remove(campaignId);
+                }
+            });
+        }
+        return current;
+    }
+
+    public ExpansionProgressResponse progress(Long campaignId) {
+        List<ExpansionProgressResponse> rows = jdbc.query("""
+                SELECT state, numbers_read, recipients_created, invalid_numbers, duplicate_numbers,
+                       error, started_at, updated_at
+                FROM broadcast_expansions
+                WHERE campaign_id = ?
+                """,
+                (rs, i) -> ExpansionProgressResponse.builder()
+                        .campaignId(campaignId)
+                        .state(rs.getString(1))
+                        .numbersRead(rs.getLong(2))
+                        .recipientsCreated(rs.getLong(3))
+                        .invalidNumbers(rs.getLong(4))
+                        .duplicateNumbers(rs.getLong(5))
+                        .error(rs.getString(6))
+                        .startedAt(rs.getTimestamp(7).toInstant())
+                        .updatedAt(rs.getTimestamp(8).toInstant())
+                        .build(),
+                campaignId);
+        return rows.isEmpty()
+                ? ExpansionProgressResponse.builder().campaignId(campaignId).state("NOT_STARTED").build()
+                : rows.get(0);
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  EXPANSION
+    // ══════════════════════════════════════════════════════════════════════
+
+    private record Campaign(long organizationId, byte[] phoneNumbers) {}
+
+    /** Running state of one expansion; numbers are committed chunk by chunk. */
+    private static final class Run {
+        final long   campaignId;
+        final long   organizationId;
+        final String owner;
+        final long   resumeAfter;
+        final long[] chunk;
+        int  chunkLen;
+        long position;
+        long invalid;
+        long duplicates;
+        long created;
+
+        Run(long campaignId, long organizationId, String owner, long resumeAfter, int chunkSize) {
+            this.campaignId     = campaignId;
+            this.organizationId = organizationId;
+            this.owner          = owner;
+            this.resumeAfter    = resumeAfter;
+            this.chunk          = new long[chunkSize];
+        }
+    }
+
+    private void expand(long campaignId) {
+        String owner = UUID.randomUUID().toString();
+        try {
+            Long resumeAfter = claim(campaignId, owner);
+            if (resumeAfter == null) {
+                log.debug("Expansion of campaign {} is owned elsewhere or done", campaignId);
+                return;
+            }
+            Campaign c = loadCampaign(campaignId);
+            if (c == null) throw new IllegalArgumentException("Campaign not found: " + campaignId);
+
+            long t0  = System.currentTimeMillis();
+            Run  run = new Run(campaignId, c.organizationId(), owner, resumeAfter,
+                               Math.max(1, props.getChunkSize()));
+            stream(c.phoneNumbers(), run);
+            if (run.chunkLen > 0) flush(run);
+            finish(run);
+
+            log.info("Campaign {} expanded: {} numbers, {} recipients created this run, {} invalid, {} duplicate ({} ms{})",
+                    campaignId, run.position, run.created, run.invalid, run.duplicates,
+                    System.currentTimeMillis() - t0,
+                    resumeAfter > 0 ? ", resumed after " + resumeAfter : "");
+        } catch (Exception e) {
+            log.error("Expansion of campaign {} failed: {}", campaignId, e.getMessage(), e);
+            fail(campaignId, owner, e);
+        }
+    }
+
+    private void stream(byte[] json, Run run) throws IOException {
+        try (JsonParser p = JSON.createParser(json)) {
+            if (p.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("phone_numbers is not a JSON array");
+            }
+            LongHashSet seen = new LongHashSet(Math.max(1024, json.length / 16));   // ~16 bytes per quoted number
+            String      cc   = props.getDefaultCountryCode();
+
+            for (JsonToken t; (t = p.nextToken()) != JsonToken.END_ARRAY; ) {
+                if (t == JsonToken.START_ARRAY || t == JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    run.position++;
+                    run.invalid++;
+                    continue;
+                }
+                run.position++;
+                long number = t == JsonToken.VALUE_STRING || t == JsonToken.VALUE_NUMBER_INT
+                        ? E164.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength(), cc)
+                        : E164.INVALID;
+                if (number == E164.INVALID) {
+                    run.invalid++;
+                    continue;
+                }
+                if (!seen.add(number)) {
+                    run.duplicates++;
+                    continue;
+                }
+                if (run.position <= run.resumeAfter) continue;   // committed by an earlier run
+
+                run.chunk[run.chunkLen++] = number;
+                if (run.chunkLen == run.chunk.length) {
+                    if (!running) throw new IllegalStateException("shutting down at position " + run.position);
+                    flush(run);
+                }
+            }
+        }
+    }
+
+    /** One transaction: contacts, recipients, checkpoint. */
+    private void flush(Run run) {
+        long[] numbers = Arrays.copyOf(run.chunk, run.chunkLen);
+        tx.executeWithoutResult(status -> {
+            Map<Long, Long> contacts = resolveContacts(run.organizationId, numbers);
+
+            Timestamp      now  = Timestamp.from(Instant.now());
+            List<Object[]> rows = new ArrayList<>(numbers.length);
+            for (long n : numbers) {
+                Long contactId = contacts.get(n);
+                if (contactId == null) continue;   // contact row rejected by a unique key other than the phone
+                rows.add(new Object[]{run.campaignId, contactId, "{\"to\":\"" + E164.format(n) + "\"}", now});
+            }
+            jdbc.batchUpdate(INSERT_RECIPIENT_SQL, rows);
+
+            int updated = jdbc.update(CHECKPOINT_SQL,
+                    run.position, rows.size(), run.invalid, run.duplicates, run.campaignId, run.owner);
+            if (updated == 0) throw new IllegalStateException("expansion claim was taken over");
+            run.created += rows.size();
+        });
+        run.chunkLen = 0;
+    }
+
+    /** phone → contacts.id, creating missing contacts. */
+    private Map<Long, Long> resolveContacts(long organizationId, long[] numbers) {
+        List<String> phones = new ArrayList<>(numbers.length);
+        for (long n : numbers) phones.add(E164.format(n));
+
+        Map<Long, Long> ids = selectContacts(organizationId, phones);
+        if (ids.size() == numbers.length) return ids;
+
+        List<Object[]> missing = new ArrayList<>();
+        for (long n : numbers) {
+            if (!ids.containsKey(n)) missing.add(new Object[]{organizationId, E164.format(n), Long.toString(n)});
+        }
+        jdbc.batchUpdate(INSERT_CONTACT_SQL, missing);
+
+        List<String> created = new ArrayList<>(missing.size());
+        for (Object[] m : missing) created.add((String) m[1]);
+        ids.putAll(selectContacts(organizationId, created));
+        return ids;
+    }
+
+    private Map<Long, Long> selectContacts(long organizationId, List<String> phones) {
+        Map<Long, Long> ids = new HashMap<>(phones.size() * 2);
+        namedJdbc.query("""
+                SELECT id, wa_phone_e164
+                FROM contacts
+                WHERE organization_id = :org
+                  AND wa_phone_e164 IN (:phones)
+                """,
+                new MapSqlParameterSource("org", organizationId).addValue("phones", phones),
+                (RowCallbackHandler) rs -> {
+                    long n = E164.parse(rs.getString(2), "");
+                    if (n != E164.INVALID) ids.put(n, rs.getLong(1));
+                });
+        return ids;
+    }
+
+    // ── Claim / campaign / completion ─────────────────────────────────────
+
+    /** @return numbers_read to resume after, or null if someone else owns it / it is done */
+    private Long claim(long campaignId, String owner) {
+        jdbc.update(CLAIM_SQL, campaignId, owner, props.getStaleAfter().toSeconds());
+        List<Long> resume = jdbc.queryForList("""
+                SELECT numbers_read FROM broadcast_expansions
+                WHERE campaign_id = ? AND owner = ? AND state = 'RUNNING'
+                """, Long.class, campaignId, owner);
+        return resume.isEmpty() ? null : resume.get(0);
+    }
+
+    private Campaign loadCampaign(long campaignId) {
+        List<Campaign> rows = jdbc.query(
+                "SELECT organization_id, phone_numbers FROM broadcast_campaigns WHERE id = ?",
+                (rs, i) -> new Campaign(rs.getLong(1), rs.getBytes(2)),
+                campaignId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void finish(Run run) {
+        tx.executeWithoutResult(status -> {
+            jdbc.update("""
+                    UPDATE broadcast_expansions
+                    SET state = 'DONE', numbers_read = ?, invalid_numbers = ?, duplicate_numbers = ?
+                    WHERE campaign_id = ? AND owner = ?
+                    """, run.position, run.invalid, run.duplicates, run.campaignId, run.owner);
+            jdbc.update("""
+                    UPDATE broadcast_campaigns
+                    SET total_recipients = (SELECT recipients_created FROM broadcast_expansions WHERE campaign_id = ?),
+                        updated_at = NOW()
+                    WHERE id = ?
+                    """, run.campaignId, run.campaignId);
+        });
+    }
+
+    private void fail(long campaignId, String owner, Exception e) {
+        try {
+            String msg = String.valueOf(e.getMessage());
+            jdbc.update("""
+                    UPDATE broadcast_expansions SET state = 'FAILED', error = ?
+                    WHERE campaign_id = ? AND owner = ?
+                    """, msg.length() > 255 ? msg.substring(0, 255) : msg, campaignId, owner);
+        } catch (Exception ignored) {
+            // Row stays RUNNING and becomes claimable after stale-after
+        }
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        worker  = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "recipient-expansion");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;   // the current expansion stops at its next chunk boundary
+        worker.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,160 @@
+package com.apargo.services.message_report.service.inbox;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable column snapshot of one project's conversations, ordered like the
+ * inbox: lastMessageAt DESC, id DESC (NULL lastMessageAt last, as in MySQL).
+ *
+ * One primitive array per column — no per-row objects — so ~100k
+ * conversations take ~4 MB and a filtered scan touches only the columns the
+ * filter needs. Enums are stored as ordinals, NULLs as {@link #NULL}.
+ *
+ * Updates never modify a snapshot: {@link #apply} merges changed rows into a
+ * new one, readers keep whichever snapshot they started with.
+ */
+final class ColumnarInbox {
+
+    static final long NULL = Long.MIN_VALUE;
+
+    /** One conversation as read from the change feed. */
+    record Meta(long id, long organizationId, byte status, byte assignedType, long assignedId,
+                long lastMessageAt, int unreadCount, long openUntil) {}
+
+    private static final Comparator<Meta> INBOX_ORDER = Comparator
+            .comparingLong(Meta::lastMessageAt).thenComparingLong(Meta::id).reversed();
+
+    final int     size;
+    final long    organizationId;        // NULL when rows of several organizations share the project
+    final long[]  ids;
+    final long[]  lastMessageAt;
+    final long[]  assignedId;
+    final long[]  openUntil;
+    final int[]   unreadCount;
+    final byte[]  status;
+    final byte[]  assignedType;
+
+    private ColumnarInbox(int size, long organizationId) {
+        this.size           = size;
+        this.organizationId = organizationId;
+        this.ids            = new long[size];
+        this.lastMessageAt  = new long[size];
+        this.assignedId     = new long[size];
+        this.openUntil      = new long[size];
+        this.unreadCount    = new int[size];
+        this.status         = new byte[size];
+        this.assignedType   = new byte[size];
+    }
+
+    static ColumnarInbox build(List<Meta> rows) {
+        Meta[] sorted = rows.toArray(Meta[]::new);
+        Arrays.sort(sorted, INBOX_ORDER);
+
+        ColumnarInbox inbox = new ColumnarInbox(sorted.length, organizationOf(sorted, NULL, true));
+        for (int i = 0; i < sorted.length; i++) inbox.set(i, sorted[i]);
+        return inbox;
+    }
+
+    /**
+     * New snapshot with {@code changes} applied: old rows whose id changed are
+     * dropped, changed rows are merged in at their new position. O(size + k log k).
+     */
+    ColumnarInbox apply(List<Meta> changes) {
+        if (changes.isEmpty()) return this;
+
+        Meta[] changed = changes.toArray(Meta[]::new);
+        Arrays.sort(changed, INBOX_ORDER);
+        long[] changedIds = new long[changed.length];
+        for (int i = 0; i < changed.length; i++) changedIds[i] = changed[i].id();
+        Arrays.sort(changedIds);
+
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (Arrays.binarySearch(changedIds, ids[i]) < 0) kept++;
+        }
+
+        ColumnarInbox next = new ColumnarInbox(kept + changed.length,
+                organizationOf(changed, organizationId, size == 0));
+        int i = 0, c = 0, o = 0;
+        while (i < size || c < changed.length) {
+            if (i < size && Arrays.binarySearch(changedIds, ids[i]) >= 0) { i++; continue; }
+            if (c < changed.length && (i == size || before(changed[c], lastMessageAt[i], ids[i]))) {
+                next.set(o++, changed[c++]);
+            } else {
+                next.copy(o++, this, i++);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * First position strictly after the keyset (cursorTime, cursorId) in inbox
+     * order, i.e. the first row of the next page. Binary search.
+     */
+    int after(long cursorTime, long cursorId) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            boolean newerOrEqual = lastMessageAt[mid] > cursorTime
+                    || (lastMessageAt[mid] == cursorTime && ids[mid] >= cursorId);
+            if (newerOrEqual) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First position with lastMessageAt ≤ {@code time}. */
+    int atOrBefore(long time) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lastMessageAt[mid] > time) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First position with lastMessageAt &lt; {@code time} (NULLs included). */
+    int before(long time) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lastMessageAt[mid] >= time) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private static boolean before(Meta m, long lastAt, long id) {
+        return m.lastMessageAt() > lastAt || (m.lastMessageAt() == lastAt && m.id() > id);
+    }
+
+    private static long organizationOf(Meta[] rows, long current, boolean fresh) {
+        long org = fresh ? (rows.length > 0 ? rows[0].organizationId() : NULL) : current;
+        for (Meta m : rows) {
+            if (m.organizationId() != org) return NULL;
+        }
+        return org;
+    }
+
+    private void set(int i, Meta m) {
+        ids[i]           = m.id();
+        lastMessageAt[i] = m.lastMessageAt();
+        assignedId[i]    = m.assignedId();
+        openUntil[i]     = m.openUntil();
+        unreadCount[i]   = m.unreadCount();
+        status[i]        = m.status();
+        assignedType[i]  = m.assignedType();
+    }
+
+    private void copy(int i, ColumnarInbox from, int j) {
+        ids[i]           = from.ids[j];
+        lastMessageAt[i] = from.lastMessageAt[j];
+        assignedId[i]    = from.assignedId[j];
+        openUntil[i]     = from.openUntil[j];
+        unreadCount[i]   = from.unreadCount[j];
+        status[i]        = from.status[j];
+        assignedType[i]  = from.assignedType[j];
+    }
+}
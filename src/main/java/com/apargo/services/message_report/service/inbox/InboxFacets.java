@@ -0,0 +1,176 @@
+package com.apargo.services.message_report.service.inbox;
+
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.service.inbox.ColumnarInbox.Meta;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.apargo.services.message_report.service.inbox.ColumnarInbox.NULL;
+
+/**
+ * Roaring bitmaps of conversation ids per low-cardinality inbox facet of one
+ * project: status, assigned type, assignee id and unread > 0.
+ *
+ * A filtered count is an AND of the few bitmaps the filter names plus a
+ * cardinality — no row is visited. Date range and activeSession are not
+ * facets (time-dependent), so filters using them are counted by the
+ * column scan instead.
+ *
+ * Immutable like {@link ColumnarInbox}: {@link #apply} copies only the
+ * bitmaps a change touches and shares the rest.
+ *
+ * Conversation ids are stored as unsigned 32-bit ints; a project with an id
+ * beyond that range gets no facets.
+ */
+final class InboxFacets {
+
+    private static final int  STATUSES  = ConversationStatus.values().length;
+    private static final int  TYPES     = AssignedType.values().length;
+    private static final byte USER      = (byte) AssignedType.USER.ordinal();
+    private static final long MAX_ID    = 0xFFFF_FFFFL;
+
+    private final RoaringBitmap              all;
+    private final RoaringBitmap[]            byStatus;
+    private final RoaringBitmap[]            byAssignedType;
+    private final Map<Long, RoaringBitmap>   byAssignee;
+    private final RoaringBitmap              unread;
+
+    private InboxFacets(RoaringBitmap all, RoaringBitmap[] byStatus, RoaringBitmap[] byAssignedType,
+                        Map<Long, RoaringBitmap> byAssignee, RoaringBitmap unread) {
+        this.all            = all;
+        this.byStatus       = byStatus;
+        this.byAssignedType = byAssignedType;
+        this.byAssignee     = byAssignee;
+        this.unread         = unread;
+    }
+
+    /** Facets of a freshly built snapshot, or null when an id does not fit. */
+    static InboxFacets build(ColumnarInbox inbox) {
+        InboxFacets f = new InboxFacets(new RoaringBitmap(), fresh(STATUSES), fresh(TYPES),
+                new HashMap<>(), new RoaringBitmap());
+        for (int i = 0; i < inbox.size; i++) {
+            if (inbox.ids[i] < 0 || inbox.ids[i] > MAX_ID) return null;
+            f.add((int) inbox.ids[i], inbox.status[i], inbox.assignedType[i],
+                    inbox.assignedId[i], inbox.unreadCount[i]);
+        }
+        f.runOptimize();
+        return f;
+    }
+
+    /** New facets with {@code changes} applied (each id moved to its new buckets). Null when an id does not fit. */
+    InboxFacets apply(List<Meta> changes) {
+        if (changes.isEmpty()) return this;
+        for (Meta m : changes) {
+            if (m.id() < 0 || m.id() > MAX_ID) return null;
+        }
+
+        // Copy on write: status / type / unread / all are few, assignees only where touched
+        Map<Long, RoaringBitmap> assignees = new HashMap<>(byAssignee);
+        InboxFacets next = new InboxFacets(all.clone(), copy(byStatus), copy(byAssignedType), assignees, unread.clone());
+
+        for (Meta m : changes) {
+            int id = (int) m.id();
+            for (RoaringBitmap b : next.byStatus)       b.remove(id);
+            for (RoaringBitmap b : next.byAssignedType) b.remove(id);
+            next.unread.remove(id);
+            for (Map.Entry<Long, RoaringBitmap> e : assignees.entrySet()) {
+                if (e.getValue().contains(id)) {
+                    RoaringBitmap moved = e.getValue() == byAssignee.get(e.getKey()) ? e.getValue().clone() : e.getValue();
+                    moved.remove(id);
+                    e.setValue(moved);
+                }
+            }
+            if (m.assignedId() != NULL) {
+                RoaringBitmap shared = byAssignee.get(m.assignedId());
+                assignees.compute(m.assignedId(), (k, b) ->
+                        b == null ? new RoaringBitmap() : b == shared ? b.clone() : b);
+            }
+            next.add(id, m.status(), m.assignedType(), m.assignedId(), m.unreadCount());
+        }
+        assignees.values().removeIf(RoaringBitmap::isEmpty);
+        return next;
+    }
+
+    /** Whether {@link #count} can answer this filter. */
+    static boolean covers(InboxFilter f) {
+        return !f.hasDateRange() && !f.activeSession();
+    }
+
+    /** Number of conversations matching {@code f}; only for filters {@link #covers} accepts. */
+    long count(InboxFilter f) {
+        List<RoaringBitmap> terms = terms(f);
+        if (terms == null)     return 0;
+        return switch (terms.size()) {
+            case 0  -> all.getLongCardinality();
+            case 1  -> terms.get(0).getLongCardinality();
+            case 2  -> RoaringBitmap.andCardinality(terms.get(0), terms.get(1));
+            default -> FastAggregation.and(terms.iterator()).getLongCardinality();
+        };
+    }
+
+    /**
+     * Ids of the conversations matching {@code f}'s facets (a new bitmap the
+     * caller may modify). Date range and activeSession are ignored; the page
+     * scan applies the range itself.
+     */
+    RoaringBitmap matching(InboxFilter f) {
+        List<RoaringBitmap> terms = terms(f);
+        if (terms == null)     return new RoaringBitmap();
+        if (terms.isEmpty())   return all.clone();
+        if (terms.size() == 1) return terms.get(0).clone();
+        return FastAggregation.and(terms.iterator());
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    /** The bitmaps to AND for {@code f}; null when one of them is empty (nothing matches). */
+    private List<RoaringBitmap> terms(InboxFilter f) {
+        List<RoaringBitmap> terms = new ArrayList<>(5);
+        if (f.status() >= 0)          terms.add(byStatus[f.status()]);
+        if (f.userId() != NULL) {
+            terms.add(byAssignedType[USER]);
+            terms.add(byAssignee.get(f.userId()));
+        }
+        if (f.assignedType() >= 0)    terms.add(byAssignedType[f.assignedType()]);
+        if (f.assignedId() != NULL)   terms.add(byAssignee.get(f.assignedId()));
+        if (f.unreadOnly())           terms.add(unread);
+        for (RoaringBitmap t : terms) {
+            if (t == null || t.isEmpty()) return null;
+        }
+        return terms;
+    }
+
+    private void add(int id, byte status, byte assignedType, long assignedId, int unreadCount) {
+        all.add(id);
+        byStatus[status].add(id);
+        byAssignedType[assignedType].add(id);
+        if (assignedId != NULL) byAssignee.computeIfAbsent(assignedId, k -> new RoaringBitmap()).add(id);
+        if (unreadCount > 0)    unread.add(id);
+    }
+
+    private void runOptimize() {
+        all.runOptimize();
+        unread.runOptimize();
+        for (RoaringBitmap b : byStatus)            b.runOptimize();
+        for (RoaringBitmap b : byAssignedType)      b.runOptimize();
+        for (RoaringBitmap b : byAssignee.values()) b.runOptimize();
+    }
+
+    private static RoaringBitmap[] fresh(int n) {
+        RoaringBitmap[] b = new RoaringBitmap[n];
+        for (int i = 0; i < n; i++) b[i] = new RoaringBitmap();
+        return b;
+    }
+
+    private static RoaringBitmap[] copy(RoaringBitmap[] from) {
+        RoaringBitmap[] b = new RoaringBitmap[from.length];
+        for (int i = 0; i < from.length; i++) b[i] = from[i].clone();
+        return b;
+    }
+}
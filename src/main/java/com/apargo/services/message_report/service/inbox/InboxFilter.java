@@ -0,0 +1,53 @@
+package com.apargo.services.message_report.service.inbox;
+
+import com.apargo.services.message_report.dto.request.InboxFilterRequest;
+import com.apargo.services.message_report.enums.AssignedType;
+
+import static com.apargo.services.message_report.service.inbox.ColumnarInbox.NULL;
+
+/**
+ * The inbox filters as primitives, evaluated against one position of a
+ * {@link ColumnarInbox}. Semantics match ConversationJdbcRepository.appendFilters;
+ * {@code search} is not here — it needs contact names, so those requests go to MySQL.
+ */
+record InboxFilter(
+        int     status,          // ordinal, -1 = any
+        long    userId,          // NULL = any
+        int     assignedType,    // ordinal, -1 = any
+        long    assignedId,      // NULL = any
+        boolean unreadOnly,
+        boolean activeSession,
+        long    fromMillis,      // NULL = open
+        long    toMillis         // NULL = open
+) {
+
+    private static final byte USER = (byte) AssignedType.USER.ordinal();
+
+    static InboxFilter of(InboxFilterRequest req) {
+        return new InboxFilter(
+                req.getStatus()       != null ? req.getStatus().ordinal()       : -1,
+                req.getUserId()       != null ? req.getUserId()                 : NULL,
+                req.getAssignedType() != null ? req.getAssignedType().ordinal() : -1,
+                req.getAssignedId()   != null ? req.getAssignedId()             : NULL,
+                Boolean.TRUE.equals(req.getUnreadOnly()),
+                Boolean.TRUE.equals(req.getActiveSession()),
+                req.getFromDate()     != null ? req.getFromDate().toEpochMilli() : NULL,
+                req.getToDate()       != null ? req.getToDate().toEpochMilli()   : NULL
+        );
+    }
+
+    boolean hasDateRange() {
+        return fromMillis != NULL || toMillis != NULL;
+    }
+
+    /** Row filters only; the date range is applied as a position range by the caller. */
+    boolean matches(ColumnarInbox c, int i, long nowMillis) {
+        if (status       >= 0    && c.status[i]       != status)       return false;
+        if (userId       != NULL && (c.assignedType[i] != USER || c.assignedId[i] != userId)) return false;
+        if (assignedType >= 0    && c.assignedType[i] != assignedType) return false;
+        if (assignedId   != NULL && c.assignedId[i]   != assignedId)   return false;
+        if (unreadOnly           && c.unreadCount[i]  <= 0)            return false;
+        if (activeSession        && (c.openUntil[i] == NULL || c.openUntil[i] <= nowMillis)) return false;
+        return true;
+    }
+}
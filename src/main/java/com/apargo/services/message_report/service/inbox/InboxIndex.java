@@ -0,0 +1,360 @@
+package com.apargo.services.message_report.service.inbox;
+
+import com.apargo.services.message_report.config.InboxIndexProperties;
+import com.apargo.services.message_report.dto.request.InboxFilterRequest;
+import com.apargo.services.message_report.dto.response.CursorUtil;
+import com.apargo.services.message_report.dto.response.InboxFacetsResponse;
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.service.inbox.ColumnarInbox.Meta;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.apargo.services.message_report.service.inbox.ColumnarInbox.NULL;
+
+/**
+ * In-memory inbox engine: one {@link ColumnarInbox} (plus its {@link InboxFacets})
+ * per recently queried project.
+ *
+ * Pages are a binary search to the cursor (and date range) plus a filtered
+ * scan over the columns; without activeSession the scan tests membership in
+ * the facets' matching bitmap and stops once it has passed every matching
+ * conversation, so a selective filter does not walk the whole project.
+ * Counts are bitmap intersections when the filter is made of facets only,
+ * otherwise the same scan without a limit. Only the
+ * page's conversation ids come from here — InboxService still reads contact
+ * names, preview and ticks for those ids from MySQL by primary key.
+ *
+ * A project is loaded in the background the first time it is asked for;
+ * until then, and for anything the index cannot answer (search, mixed
+ * organizations), callers get null and fall back to the SQL path. Loaded
+ * projects follow conversations.updated_at (db/inbox_index.sql) every
+ * refresh-interval and are fully reloaded every rebuild-interval, so answers
+ * can lag MySQL by about one refresh.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "message-report.inbox-index", name = "enabled", havingValue = "true")
+public class InboxIndex implements SmartLifecycle {
+
+    private static final String SELECT_META = """
+            SELECT id, organization_id, status, assigned_type, assigned_id,
+                   last_message_at, unread_count, conversation_open_until, updated_at
+            FROM conversations
+            WHERE project_id = ?
+            """;
+
+    private static final String CHANGED_SINCE = SELECT_META + "  AND updated_at >= ?\n";
+
+    /** Page of conversation ids in inbox order, with each row's keyset position. */
+    public record Page(long[] ids, long[] lastMessageAt) {
+
+        public int size() {
+            return ids.length;
+        }
+
+        public String cursorAt(int i) {
+            return CursorUtil.encode(Instant.ofEpochMilli(lastMessageAt[i]), ids[i]);
+        }
+    }
+
+    /** Columns and facets of one project, swapped together. facets null = disabled / ids too large. */
+    private record State(ColumnarInbox inbox, InboxFacets facets) {}
+
+    private static final class Project {
+        volatile State         state;            // null until the first load finishes
+        volatile long          watermark = NULL; // max updated_at seen (millis)
+        volatile long          loadedAt;
+        volatile long          lastAccess = System.currentTimeMillis();
+    }
+
+    private final InboxIndexProperties props;
+    private final JdbcTemplate         jdbc;
+    private final Map<Long, Project>   projects = new ConcurrentHashMap<>();
+
+    private volatile boolean                  running;
+    private          ScheduledExecutorService timer;
+
+    public InboxIndex(InboxIndexProperties props, JdbcTemplate jdbc) {
+        this.props = props;
+        this.jdbc  = jdbc;
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  QUERIES — null = not answerable here, use MySQL
+    // ══════════════════════════════════════════════════════════════════════
+
+    /** Up to {@code limit} conversation ids after the request's cursor. */
+    public Page page(InboxFilterRequest req, int limit) {
+        State state = snapshot(req);
+        if (state == null) return null;
+        return page(state.inbox(), state.facets(), InboxFilter.of(req), req.getCursor(), limit, System.currentTimeMillis());
+    }
+
+    /**
+     * The page ConversationJdbcRepository's keyset query returns: NULL
+     * lastMessageAt rows come last on the first page, and never after a cursor
+     * (the keyset predicate is never true for NULL).
+     */
+    static Page page(ColumnarInbox inbox, InboxFacets facets, InboxFilter f, String cursor, int limit, long now) {
+        int start = rangeStart(inbox, f);
+        int end   = rangeEnd(inbox, f);
+        if (cursor != null) {
+            long[] parts = CursorUtil.decode(cursor);
+            start = Math.max(start, inbox.after(parts[0], parts[1]));
+            end   = Math.min(end, inbox.before(NULL + 1));
+        }
+
+        // The date range is the scan range, so only activeSession is beyond the facets here
+        RoaringBitmap matching = facets != null && !f.activeSession() ? facets.matching(f) : null;
+        long          left     = matching != null ? matching.getLongCardinality() : Long.MAX_VALUE;
+
+        long[] ids = new long[limit];
+        long[] at  = new long[limit];
+        int    n   = 0;
+        for (int i = start; i < end && n < limit && left > 0; i++) {
+            if (matching != null ? !matching.contains((int) inbox.ids[i]) : !f.matches(inbox, i, now)) continue;
+            left--;
+            ids[n] = inbox.ids[i];
+            at[n]  = inbox.lastMessageAt[i];
+            n++;
+        }
+        return new Page(Arrays.copyOf(ids, n), Arrays.copyOf(at, n));
+    }
+
+    /** Same count as ConversationRepository.countFiltered for the request. */
+    public Long count(InboxFilterRequest req) {
+        State state = snapshot(req);
+        if (state == null) return null;
+
+        InboxFilter f = InboxFilter.of(req);
+        if (state.facets() != null && InboxFacets.covers(f)) {
+            return state.facets().count(f);
+        }
+
+        ColumnarInbox inbox = state.inbox();
+        long        now = System.currentTimeMillis();
+        long        n   = 0;
+        for (int i = rangeStart(inbox, f), end = rangeEnd(inbox, f); i < end; i++) {
+            if (f.matches(inbox, i, now)) n++;
+        }
+        return n;
+    }
+
+    /**
+     * Every inbox header bucket in one pass over the columns (the request's
+     * date range applies; status is forced to OPEN like the inbox).
+     */
+    public InboxFacetsResponse facetCounts(InboxFilterRequest req) {
+        State state = snapshot(req);
+        if (state == null) return null;
+        ColumnarInbox inbox = state.inbox();
+
+        InboxFilter f          = InboxFilter.of(req);
+        long        me         = req.getUserId() != null ? req.getUserId() : NULL;
+        long        now        = System.currentTimeMillis();
+        byte        open       = (byte) ConversationStatus.OPEN.ordinal();
+        byte        user       = (byte) AssignedType.USER.ordinal();
+        byte        unassigned = (byte) AssignedType.UNASSIGNED.ordinal();
+        byte        team       = (byte) AssignedType.TEAM.ordinal();
+
+        long nOpen = 0, nMine = 0, nUnassigned = 0, nTeam = 0, nUnread = 0, nActive = 0, unreadTotal = 0;
+        for (int i = rangeStart(inbox, f), end = rangeEnd(inbox, f); i < end; i++) {
+            if (inbox.status[i] != open) continue;
+            nOpen++;
+            byte type = inbox.assignedType[i];
+            if (type == user && inbox.assignedId[i] == me) nMine++;
+            else if (type == unassigned)                   nUnassigned++;
+            else if (type == team)                         nTeam++;
+            if (inbox.unreadCount[i] > 0) nUnread++;
+            if (inbox.openUntil[i] != NULL && inbox.openUntil[i] > now) nActive++;
+            unreadTotal += inbox.unreadCount[i];
+        }
+        return InboxFacetsResponse.builder()
+                .open(nOpen)
+                .mine(me != NULL ? nMine : null)
+                .unassigned(nUnassigned)
+                .team(nTeam)
+                .unread(nUnread)
+                .activeSession(nActive)
+                .unreadTotal(unreadTotal)
+                .build();
+    }
+
+    /** SUM(unread_count) over the project's OPEN conversations (the inbox badge). */
+    public Long sumOpenUnread(InboxFilterRequest req) {
+        State state = snapshot(req);
+        if (state == null) return null;
+        ColumnarInbox inbox = state.inbox();
+
+        byte open = (byte) ConversationStatus.OPEN.ordinal();
+        long sum  = 0;
+        for (int i = 0; i < inbox.size; i++) {
+            if (inbox.status[i] == open) sum += inbox.unreadCount[i];
+        }
+        return sum;
+    }
+
+    /** Loaded snapshot for the request's project, or null (and a background load if it's new). */
+    private State snapshot(InboxFilterRequest req) {
+        if (!running || req.getProjectId() == null || req.getSearch() != null && !req.getSearch().isBlank()) {
+            return null;
+        }
+        Project p = projects.get(req.getProjectId());
+        if (p == null) {
+            if (projects.size() < props.getMaxProjects()) {
+                Project fresh = new Project();
+                if (projects.putIfAbsent(req.getProjectId(), fresh) == null) {
+                    long projectId = req.getProjectId();
+                    timer.execute(() -> load(projectId, fresh));
+                }
+            }
+            return null;
+        }
+        p.lastAccess = System.currentTimeMillis();
+
+        State state = p.state;
+        if (state == null
+                || state.inbox().organizationId == NULL
+                || state.inbox().organizationId != req.getOrganizationId()) {
+            return null;
+        }
+        return state;
+    }
+
+    // ── Ranges ────────────────────────────────────────────────────────────
+
+    private static int rangeStart(ColumnarInbox inbox, InboxFilter f) {
+        return f.toMillis() != NULL ? inbox.atOrBefore(f.toMillis()) : 0;
+    }
+
+    private static int rangeEnd(ColumnarInbox inbox, InboxFilter f) {
+        if (f.fromMillis() != NULL) return inbox.before(f.fromMillis());
+        if (f.hasDateRange())       return inbox.before(NULL + 1);   // NULL lastMessageAt never matches a date
+        return inbox.size;
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  LOADING / CHANGE FEED
+    // ══════════════════════════════════════════════════════════════════════
+
+    private void refresh() {
+        long now = System.currentTimeMillis();
+        projects.forEach((projectId, p) -> {
+            try {
+                if (now - p.lastAccess > props.getIdleEvict().toMillis()) {
+                    projects.remove(projectId);
+                    log.debug("Inbox index: evicted idle project {}", projectId);
+                } else if (p.state != null && now - p.loadedAt > props.getRebuildInterval().toMillis()) {
+                    load(projectId, p);
+                } else if (p.state != null) {
+                    applyChanges(projectId, p);
+                }
+            } catch (Exception e) {
+                log.warn("Inbox index refresh of project {} failed: {}", projectId, e.getMessage());
+            }
+        });
+    }
+
+    private void load(long projectId, Project p) {
+        try {
+            long          started = System.currentTimeMillis();
+            List<Meta>    rows    = new ArrayList<>();
+            long[]        maxSeen = {NULL};
+            jdbc.query(SELECT_META, (RowCallbackHandler) rs -> rows.add(read(rs, maxSeen)), projectId);
+
+            ColumnarInbox inbox = ColumnarInbox.build(rows);
+            p.state     = new State(inbox, props.isFacets() ? InboxFacets.build(inbox) : null);
+            p.watermark = maxSeen[0];
+            p.loadedAt  = System.currentTimeMillis();
+            log.info("Inbox index: loaded project {} ({} conversations, {} ms)",
+                    projectId, rows.size(), p.loadedAt - started);
+        } catch (Exception e) {
+            projects.remove(projectId, p);   // retried on the next request
+            log.warn("Inbox index load of project {} failed: {}", projectId, e.getMessage());
+        }
+    }
+
+    private void applyChanges(long projectId, Project p) {
+        long       since   = p.watermark == NULL ? 0 : p.watermark - props.getOverlap().toMillis();
+        long[]     maxSeen = {p.watermark};
+        List<Meta> changes = new ArrayList<>();
+        jdbc.query(CHANGED_SINCE, (RowCallbackHandler) rs -> changes.add(read(rs, maxSeen)),
+                projectId, new Timestamp(since));
+
+        if (!changes.isEmpty()) {
+            State s = p.state;
+            p.state = new State(s.inbox().apply(changes), s.facets() != null ? s.facets().apply(changes) : null);
+        }
+        p.watermark = maxSeen[0];
+    }
+
+    private static Meta read(ResultSet rs, long[] maxSeen) throws SQLException {
+        Timestamp updated = rs.getTimestamp(9);
+        if (updated != null) maxSeen[0] = Math.max(maxSeen[0], updated.getTime());
+
+        String assigned = rs.getString(4);
+        return new Meta(
+                rs.getLong(1),
+                rs.getLong(2),
+                (byte) ConversationStatus.valueOf(rs.getString(3)).ordinal(),
+                (byte) (assigned != null ? AssignedType.valueOf(assigned) : AssignedType.UNASSIGNED).ordinal(),
+                millisOrNull(rs, 5),
+                timeOrNull(rs.getTimestamp(6)),
+                rs.getInt(7),
+                timeOrNull(rs.getTimestamp(8)));
+    }
+
+    private static long millisOrNull(ResultSet rs, int column) throws SQLException {
+        long v = rs.getLong(column);
+        return rs.wasNull() ? NULL : v;
+    }
+
+    private static long timeOrNull(Timestamp ts) {
+        return ts != null ? ts.getTime() : NULL;
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "inbox-index");
+            t.setDaemon(true);
+            return t;
+        });
+        running = true;
+        long interval = props.getRefreshInterval().toMillis();
+        timer.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        timer.shutdownNow();
+        projects.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
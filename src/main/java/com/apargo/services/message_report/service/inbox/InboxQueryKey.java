@@ -0,0 +1,60 @@
+package com.apargo.services.message_report.service.inbox;
+
+import com.apargo.services.message_report.dto.request.InboxFilterRequest;
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Normalized identity of an inbox query, for {@link QueryCoalescer}. Two
+ * requests with equal keys return the same result, so they may share one
+ * DB call: search is trimmed and lower-cased (the SQL compares it
+ * case-insensitively), blank / FALSE filters equal absent ones, and
+ * queries that don't depend on the caller ({@link #ofProject}) leave the
+ * per-user fields out.
+ */
+public record InboxQueryKey(
+        String             query,
+        Long               organizationId,
+        Long               projectId,
+        ConversationStatus status,
+        Long               userId,
+        AssignedType       assignedType,
+        Long               assignedId,
+        boolean            unreadOnly,
+        boolean            activeSession,
+        Instant            fromDate,
+        Instant            toDate,
+        String             search,
+        String             cursor,
+        int                size
+) {
+
+    /** Every filter of the request; {@code size} / cursor only matter for pages (pass 0 / null otherwise). */
+    public static InboxQueryKey of(String query, InboxFilterRequest req, String cursor, int size) {
+        String search = req.getSearch();
+        return new InboxQueryKey(
+                query,
+                req.getOrganizationId(),
+                req.getProjectId(),
+                req.getStatus(),
+                req.getUserId(),
+                req.getAssignedType(),
+                req.getAssignedId(),
+                Boolean.TRUE.equals(req.getUnreadOnly()),
+                Boolean.TRUE.equals(req.getActiveSession()),
+                req.getFromDate(),
+                req.getToDate(),
+                search == null || search.isBlank() ? null : search.trim().toLowerCase(Locale.ROOT),
+                cursor,
+                size);
+    }
+
+    /** Only organization + project: for per-project figures such as the unread badge. */
+    public static InboxQueryKey ofProject(String query, InboxFilterRequest req) {
+        return new InboxQueryKey(query, req.getOrganizationId(), req.getProjectId(),
+                null, null, null, null, false, false, null, null, null, null, 0);
+    }
+}
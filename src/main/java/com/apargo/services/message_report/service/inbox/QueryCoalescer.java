@@ -0,0 +1,127 @@
+package com.apargo.services.message_report.service.inbox;
+
+import com.apargo.services.message_report.config.QueryCoalescingProperties;
+import com.apargo.services.message_report.service.query.QueryCancellation;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight: while a query for a key is running, identical requests wait
+ * for it and get the same result instead of issuing their own. After it
+ * finishes the result stays shareable for {@code reuse-window}, so a burst of
+ * refreshes from one team costs one DB call.
+ *
+ * The first caller (the leader) runs the query on its own thread; only the
+ * leader opens a (read-only) transaction, so followers wait without holding a
+ * pooled connection. Callers must therefore not be inside a transaction
+ * themselves — InboxService's coalesced entry points are not transactional.
+ *
+ * A failure is rethrown to every waiter and is never reused — except when the
+ * leader's own request was cancelled (deadline, client abort) or its thread
+ * interrupted: that says nothing about the query, so followers go back and
+ * elect a new leader among themselves.
+ *
+ * Results are shared objects — callers must not modify them.
+ */
+@Component
+public class QueryCoalescer {
+
+    private static final int SWEEP_EVERY = 256;
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile long                   doneAt = Long.MAX_VALUE;   // nanoTime; MAX = still running
+
+        boolean expired(long now, long windowNanos) {
+            long done = doneAt;
+            return done != Long.MAX_VALUE && now - done >= windowNanos;
+        }
+    }
+
+    /** Completes a flight whose leader was cancelled; followers retry instead of failing. */
+    private static final class LeaderCancelled extends RuntimeException {
+        LeaderCancelled(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+
+    private final QueryCoalescingProperties           props;
+    private final TransactionTemplate                 readOnlyTx;
+    private final ConcurrentHashMap<Object, Flight>   flights = new ConcurrentHashMap<>();
+    private final AtomicInteger                       calls   = new AtomicInteger();
+
+    public QueryCoalescer(QueryCoalescingProperties props, PlatformTransactionManager txManager) {
+        this.props      = props;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T run(Object key, Supplier<T> query) {
+        if (!props.isEnabled()) return inTransaction(query);
+
+        long window = props.getReuseWindow().toNanos();
+        while (true) {
+            long   now    = System.nanoTime();
+            Flight mine   = new Flight();
+            Flight flight = flights.compute(key, (k, cur) -> cur == null || cur.expired(now, window) ? mine : cur);
+
+            if ((calls.incrementAndGet() & (SWEEP_EVERY - 1)) == 0) sweep(now, window);
+
+            if (flight != mine) {
+                try {
+                    return (T) await(flight);
+                } catch (LeaderCancelled retry) {
+                    continue;   // the leader's request went away, not the query — elect a new one
+                }
+            }
+
+            try {
+                T value = inTransaction(query);
+                mine.doneAt = System.nanoTime();
+                mine.result.complete(value);
+                if (window == 0) flights.remove(key, mine);
+                return value;
+            } catch (RuntimeException | Error e) {
+                flights.remove(key, mine);
+                mine.result.completeExceptionally(leaderCancelled() ? new LeaderCancelled(e) : e);
+                throw e;
+            }
+        }
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private <T> T inTransaction(Supplier<T> query) {
+        return readOnlyTx.execute(status -> query.get());
+    }
+
+    /** True when the current (leader) request was cancelled or its thread interrupted. */
+    private static boolean leaderCancelled() {
+        if (Thread.currentThread().isInterrupted()) return true;
+        QueryCancellation scope = QueryCancellation.current();
+        return scope != null && scope.isCancelled();
+    }
+
+    private static Object await(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err)           throw err;
+            throw e;
+        }
+    }
+
+    /** Drops finished flights nobody asked for again within the window. */
+    private void sweep(long now, long window) {
+        flights.values().removeIf(f -> f.expired(now, window));
+    }
+}
@@ -0,0 +1,136 @@
+package com.apargo.services.message_report.service.ingest;
+
+import com.apargo.services.message_report.dto.request.InboundMessageRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One queue + one worker thread. The worker blocks for the first message,
+ * then keeps collecting for up to {@code windowNanos} (or {@code maxBatch}
+ * messages) and hands the whole batch to {@link MessageIngestWriter}.
+ *
+ * A batch that fails twice is split: each conversation's messages are
+ * written on their own, and a conversation that still fails message by
+ * message. Only messages that fail alone go to the dead-letter table — one
+ * bad row never takes the rest of its batch down with it.
+ */
+@Slf4j
+final class IngestShard implements Runnable {
+
+    private final int                                  index;
+    private final BlockingQueue<InboundMessageRequest> queue;
+    private final MessageIngestWriter                  writer;
+    private final int                                  maxBatch;
+    private final long                                 windowNanos;
+
+    private volatile boolean running = true;
+
+    IngestShard(int index, int capacity, MessageIngestWriter writer, int maxBatch, long windowNanos) {
+        this.index       = index;
+        this.queue       = new ArrayBlockingQueue<>(capacity);
+        this.writer      = writer;
+        this.maxBatch    = maxBatch;
+        this.windowNanos = windowNanos;
+    }
+
+    boolean offer(InboundMessageRequest m) {
+        return running && queue.offer(m);
+    }
+
+    int backlog() {
+        return queue.size();
+    }
+
+    /** Stop accepting; the worker drains what is already queued, then exits. */
+    void shutdown() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        List<InboundMessageRequest> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                InboundMessageRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    InboundMessageRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * One retry of the whole batch, then isolation. Every write is a single
+     * transaction, so a failed attempt leaves nothing behind and its rows can
+     * be written again in smaller pieces.
+     */
+    private void flush(List<InboundMessageRequest> batch) {
+        if (batch.isEmpty()) return;
+
+        Exception failure = tryWrite(batch);
+        if (failure == null) return;
+        log.warn("ingest shard {} write failed, retrying: {}", index, failure.getMessage());
+        if (tryWrite(batch) == null) return;
+
+        Map<Long, List<InboundMessageRequest>> byConversation = new LinkedHashMap<>();
+        for (InboundMessageRequest m : batch) {
+            byConversation.computeIfAbsent(m.getConversationId(), k -> new ArrayList<>()).add(m);
+        }
+        log.warn("ingest shard {} batch of {} failed after retry, writing {} conversations separately",
+                index, batch.size(), byConversation.size());
+
+        for (List<InboundMessageRequest> group : byConversation.values()) {
+            if (group.size() > 1 && tryWrite(group) == null) continue;
+            for (InboundMessageRequest m : group) {
+                Exception e = tryWrite(List.of(m));
+                if (e != null) deadLetter(m, e);
+            }
+        }
+    }
+
+    /** @return the failure, or null when the messages were written */
+    private Exception tryWrite(List<InboundMessageRequest> messages) {
+        try {
+            int written = writer.write(messages);
+            log.debug("ingest shard {} wrote {} of {} messages", index, written, messages.size());
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    private void deadLetter(InboundMessageRequest m, Exception cause) {
+        try {
+            writer.deadLetter(m, cause);
+            log.warn("ingest shard {} dead-lettered message {} (conversation {}): {}",
+                    index, m.getProviderMessageId(), m.getConversationId(), cause.getMessage());
+        } catch (Exception e) {
+            log.error("ingest shard {} dropped message {} (conversation {}): {}; dead letter failed: {}",
+                    index, m.getProviderMessageId(), m.getConversationId(), cause.getMessage(), e.getMessage(), e);
+        }
+    }
+}
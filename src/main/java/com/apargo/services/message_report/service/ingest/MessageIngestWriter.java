@@ -0,0 +1,282 @@
+package com.apargo.services.message_report.service.ingest;
+
+import com.apargo.services.message_report.dto.request.InboundMessageRequest;
+import com.apargo.services.message_report.service.resolver.ProviderMessageResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Writes one shard batch in ONE transaction:
+ *
+ *  1. Resolve organization / project / WABA / contact for every conversation in
+ *     the batch with one IN query.
+ *  2. Insert all messages with one executeBatch() — with
+ *     rewriteBatchedStatements=true this is a single multi-row INSERT.
+ *     Rows are sorted by (conversation_id, created_at) first, so the FK share
+ *     locks on conversations are also taken in ascending id order.
+ *  3. Coalesce per conversation (max lastMessageAt, summed unread, latest
+ *     preview / id) and issue ONE UPDATE per conversation, in ascending id
+ *     order — every writer that follows the same order cannot deadlock.
+ *
+ * A conversation always hashes to the same shard, so two shards never touch
+ * the same conversation row; the ordering guards against external writers.
+ *
+ * Messages that fail even when written on their own are parked in
+ * ingest_dead_letters (db/ingest_dead_letters.sql) by {@link #deadLetter}.
+ *
+ * With message-report.provider-resolver.enabled, webhook redeliveries are
+ * dropped before the insert: provider_message_ids the resolver already knows
+ * (or that repeat within the batch) are skipped, and the ids written here are
+ * registered with the resolver once the transaction commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MessageIngestWriter {
+
+    /** WhatsApp customer-service window opened by every inbound message. */
+    private static final Duration SESSION_WINDOW = Duration.ofHours(24);
+    private static final int      PREVIEW_LENGTH = 300;   // conversations.last_message_preview
+
+    private static final String INSERT_SQL = """
+            INSERT INTO messages
+              (uuid, organization_id, project_id, conversation_id,
+               waba_account_id, contact_id,
+               direction, message_type, body_text, media_asset_id, payload,
+               provider_message_id, status, created_at)
+            VALUES (?,?,?,?,?,?,'INBOUND',?,?,?,?,?,'DELIVERED',?)
+            """;
+
+    /*
+     * MySQL evaluates SET assignments left to right using already-updated values,
+     * so every IF(...) comparing against last_message_at must come BEFORE
+     * last_message_at itself is assigned. The comparisons keep late / out-of-order
+     * batches from moving the "last message" backwards.
+     */
+    private static final String UPDATE_SQL = """
+            UPDATE conversations SET
+              unread_count           = unread_count + ?,
+              last_message_id        = IF(last_message_at IS NULL OR ? >= last_message_at, ?, last_message_id),
+              last_message_preview   = IF(last_message_at IS NULL OR ? >= last_message_at, ?, last_message_preview),
+              last_message_direction = IF(last_message_at IS NULL OR ? >= last_message_at, 'INBOUND', last_message_direction),
+              last_message_at        = GREATEST(COALESCE(last_message_at, ?), ?),
+              last_inbound_at        = GREATEST(COALESCE(last_inbound_at, ?), ?),
+              conversation_open_until = GREATEST(COALESCE(conversation_open_until, ?), ?),
+              updated_at             = NOW()
+            WHERE id = ?
+            """;
+
+    private static final int      ERROR_LENGTH   = 1024;  // ingest_dead_letters.error
+
+    private static final String DEAD_LETTER_SQL = """
+            INSERT INTO ingest_dead_letters
+              (uuid, conversation_id, message_type, body_text, media_asset_id, payload,
+               provider_message_id, message_created_at, error)
+            VALUES (?,?,?,?,?,?,?,?,?)
+            """;
+
+    private final JdbcTemplate                            jdbc;
+    private final NamedParameterJdbcTemplate              namedJdbc;
+    private final ObjectProvider<ProviderMessageResolver> resolver;   // present when message-report.provider-resolver.enabled
+
+    /** @return number of messages written (unknown conversations and redeliveries are dropped) */
+    @Transactional
+    public int write(List<InboundMessageRequest> batch) {
+        Map<Long, ConversationMeta> meta     = loadConversationMeta(batch);
+        Set<String>                 existing = existingProviderIds(batch);
+        Set<String>                 seen     = new HashSet<>();
+
+        List<InboundMessageRequest> rows = new ArrayList<>(batch.size());
+        for (InboundMessageRequest m : batch) {
+            String providerId = m.getProviderMessageId();
+            if (!meta.containsKey(m.getConversationId())) {
+                log.warn("Dropping inbound message {}: conversation {} not found",
+                        providerId, m.getConversationId());
+            } else if (providerId != null && (existing.contains(providerId) || !seen.add(providerId))) {
+                log.debug("Dropping redelivered inbound message {}", providerId);
+            } else {
+                rows.add(m);
+            }
+        }
+        if (rows.isEmpty()) return 0;
+
+        rows.sort(Comparator.comparing(InboundMessageRequest::getConversationId)
+                .thenComparing(InboundMessageRequest::getCreatedAt));
+
+        long[] ids = insertMessages(rows, meta);
+        updateConversations(coalesce(rows, ids));
+        registerAfterCommit(rows, ids);
+        return rows.size();
+    }
+
+    /** Park a message that cannot be written; outside any batch transaction. */
+    public void deadLetter(InboundMessageRequest m, Exception cause) {
+        String error = String.valueOf(cause.getMessage());
+        jdbc.update(DEAD_LETTER_SQL,
+                m.getUuid(),
+                m.getConversationId(),
+                m.getMessageType() != null ? m.getMessageType().name() : null,
+                m.getBodyText(),
+                m.getMediaAssetId(),
+                m.getPayload(),
+                m.getProviderMessageId(),
+                m.getCreatedAt() != null ? Timestamp.from(m.getCreatedAt()) : null,
+                error.length() <= ERROR_LENGTH ? error : error.substring(0, ERROR_LENGTH));
+    }
+
+    // ── 1. Conversation metadata ──────────────────────────────────────────
+
+    private record ConversationMeta(long organizationId, long projectId, long wabaAccountId, long contactId) {}
+
+    private Map<Long, ConversationMeta> loadConversationMeta(List<InboundMessageRequest> batch) {
+        Set<Long> convIds = new HashSet<>();
+        for (InboundMessageRequest m : batch) convIds.add(m.getConversationId());
+
+        Map<Long, ConversationMeta> meta = new HashMap<>(convIds.size() * 2);
+        namedJdbc.query("""
+                SELECT id, organization_id, project_id, waba_account_id, contact_id
+                FROM conversations
+                WHERE id IN (:ids)
+                """,
+                new MapSqlParameterSource("ids", convIds),
+                (RowCallbackHandler) rs -> meta.put(rs.getLong(1), new ConversationMeta(
+                        rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5))));
+        return meta;
+    }
+
+    // ── Redeliveries (provider resolver) ──────────────────────────────────
+
+    /** provider_message_ids in the batch that are already stored; empty without the resolver. */
+    private Set<String> existingProviderIds(List<InboundMessageRequest> batch) {
+        ProviderMessageResolver r = resolver.getIfAvailable();
+        if (r == null) return Set.of();
+
+        List<String> providerIds = new ArrayList<>(batch.size());
+        for (InboundMessageRequest m : batch) {
+            if (m.getProviderMessageId() != null) providerIds.add(m.getProviderMessageId());
+        }
+        return providerIds.isEmpty() ? Set.of() : r.resolve(providerIds).keySet();
+    }
+
+    /** Index the written ids only once they are visible; a rolled-back batch is retried and must not look redelivered. */
+    private void registerAfterCommit(List<InboundMessageRequest> rows, long[] ids) {
+        ProviderMessageResolver r = resolver.getIfAvailable();
+        if (r == null) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (int i = 0; i < rows.size(); i++) {
+                    InboundMessageRequest m = rows.get(i);
+                    if (m.getProviderMessageId() == null || ids[i] == 0) continue;
+                    r.register(m.getProviderMessageId(), ids[i], m.getConversationId(), m.getCreatedAt());
+                }
+            }
+        });
+    }
+
+    // ── 2. Multi-row INSERT ───────────────────────────────────────────────
+
+    private long[] insertMessages(List<InboundMessageRequest> rows, Map<Long, ConversationMeta> meta) {
+        return jdbc.execute((ConnectionCallback<long[]>) conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (InboundMessageRequest m : rows) {
+                    ConversationMeta c = meta.get(m.getConversationId());
+                    ps.setString(1,     m.getUuid());
+                    ps.setLong(2,       c.organizationId());
+                    ps.setLong(3,       c.projectId());
+                    ps.setLong(4,       m.getConversationId());
+                    ps.setLong(5,       c.wabaAccountId());
+                    ps.setLong(6,       c.contactId());
+                    ps.setString(7,     m.getMessageType().name());
+                    ps.setString(8,     m.getBodyText());
+                    ps.setObject(9,     m.getMediaAssetId());
+                    ps.setString(10,    m.getPayload());
+                    ps.setString(11,    m.getProviderMessageId());
+                    ps.setTimestamp(12, Timestamp.from(m.getCreatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                // Generated keys come back in insert order for a multi-row INSERT
+                long[] ids = new long[rows.size()];
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < ids.length) ids[i++] = keys.getLong(1);
+                }
+                return ids;
+            }
+        });
+    }
+
+    // ── 3. Coalesced, ordered conversation UPDATEs ────────────────────────
+
+    private static final class ConversationDelta {
+        final long conversationId;
+        int        unread;
+        long       lastMessageId;
+        Instant    lastMessageAt;
+        String     preview;
+
+        ConversationDelta(long conversationId) {
+            this.conversationId = conversationId;
+        }
+    }
+
+    /** Rows are sorted by (conversationId, createdAt), so the last row per conversation is the latest. */
+    private Collection<ConversationDelta> coalesce(List<InboundMessageRequest> rows, long[] ids) {
+        Map<Long, ConversationDelta> deltas = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            InboundMessageRequest m = rows.get(i);
+            ConversationDelta d = deltas.computeIfAbsent(m.getConversationId(), ConversationDelta::new);
+            d.unread++;
+            d.lastMessageId = ids[i];
+            d.lastMessageAt = m.getCreatedAt();
+            d.preview       = preview(m);
+        }
+        return deltas.values();   // insertion order == ascending conversation id
+    }
+
+    private void updateConversations(Collection<ConversationDelta> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (ConversationDelta d : deltas) {
+            Timestamp at        = Timestamp.from(d.lastMessageAt);
+            Timestamp openUntil = Timestamp.from(d.lastMessageAt.plus(SESSION_WINDOW));
+            args.add(new Object[]{
+                    d.unread,
+                    at, d.lastMessageId,
+                    at, d.preview,
+                    at,
+                    at, at,
+                    at, at,
+                    openUntil, openUntil,
+                    d.conversationId
+            });
+        }
+        jdbc.batchUpdate(UPDATE_SQL, args);
+    }
+
+    private static String preview(InboundMessageRequest m) {
+        String text = m.getBodyText();
+        if (text == null || text.isBlank()) return "[" + m.getMessageType().name() + "]";
+        return text.length() <= PREVIEW_LENGTH ? text : text.substring(0, PREVIEW_LENGTH);
+    }
+}
@@ -0,0 +1,54 @@
+package com.apargo.services.message_report.service.metrics;
+
+import com.apargo.services.message_report.dto.request.InboxFilterRequest;
+import com.apargo.services.message_report.enums.ConversationStatus;
+
+/**
+ * Which optional predicates an inbox / history query actually uses, as a
+ * small bit set. MySQL plans the generic "(:x IS NULL OR …)" queries very
+ * differently per shape, so timings are only comparable within one.
+ *
+ * Names are built once for every shape ("inbox", "inbox+unread",
+ * "history+dates+search", …) — tagging a measurement is an array read.
+ */
+public final class FilterShape {
+
+    public static final int HISTORY        = 1;        // status other than OPEN
+    public static final int ASSIGNED       = 1 << 1;   // assignedType / assignedId
+    public static final int UNREAD         = 1 << 2;
+    public static final int ACTIVE_SESSION = 1 << 3;
+    public static final int DATES          = 1 << 4;   // fromDate / toDate
+    public static final int SEARCH         = 1 << 5;
+
+    /** Number of distinct shapes; shapes are 0 … COUNT-1. */
+    public static final int COUNT = 1 << 6;
+
+    private static final String[] NAMES = new String[COUNT];
+    static {
+        String[] parts = {null, "assigned", "unread", "session", "dates", "search"};
+        for (int shape = 0; shape < COUNT; shape++) {
+            StringBuilder name = new StringBuilder((shape & HISTORY) != 0 ? "history" : "inbox");
+            for (int bit = 1; bit < parts.length; bit++) {
+                if ((shape & (1 << bit)) != 0) name.append('+').append(parts[bit]);
+            }
+            NAMES[shape] = name.toString();
+        }
+    }
+
+    private FilterShape() {}
+
+    public static int of(InboxFilterRequest req) {
+        int shape = 0;
+        if (req.getStatus() != ConversationStatus.OPEN)                  shape |= HISTORY;
+        if (req.getAssignedType() != null || req.getAssignedId() != null) shape |= ASSIGNED;
+        if (Boolean.TRUE.equals(req.getUnreadOnly()))                     shape |= UNREAD;
+        if (Boolean.TRUE.equals(req.getActiveSession()))                  shape |= ACTIVE_SESSION;
+        if (req.getFromDate() != null || req.getToDate() != null)        shape |= DATES;
+        if (req.getSearch() != null && !req.getSearch().isBlank())        shape |= SEARCH;
+        return shape;
+    }
+
+    public static String name(int shape) {
+        return NAMES[shape];
+    }
+}
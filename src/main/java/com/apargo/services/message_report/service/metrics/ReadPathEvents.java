@@ -0,0 +1,84 @@
+package com.apargo.services.message_report.service.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events, one type per read-path stage, so a slow
+ * ChatService.getMessages or InboxService page can be broken down by
+ * stage in JMC: conversation lookup, contact lookup, page query, count,
+ * template batch load and render (DTO mapping + template rendering).
+ *
+ * Events are begun and committed by {@link ReadPathMetrics}. With the
+ * event type disabled, begin() / shouldCommit() are JIT intrinsics and no
+ * field is written — the cost is the (usually scalar-replaced) allocation.
+ */
+public final class ReadPathEvents {
+
+    private ReadPathEvents() {}
+
+    @Category({"Message Report", "Read Path"})
+    @StackTrace(false)
+    public abstract static class StageEvent extends Event {
+
+        @Label("Query")
+        String query;
+
+        @Label("Project Id")
+        long projectId;
+
+        @Label("Filter Shape")
+        String filterShape;
+
+        @Label("Rows Returned")
+        long rowsReturned;
+
+        // Not recorded: Micrometer side of the same measurement
+        transient long   startNanos;
+        transient Object meterKey;
+        transient int    shape;
+
+        StageEvent() {}
+
+        /** The Query or Dto constant, lower case ("inbox_first_page", "message_count", …). */
+        public String stageName() {
+            return ((Enum<?>) meterKey).name().toLowerCase();
+        }
+
+        /** FilterShape name, or null for unshaped stages. */
+        public String shapeName() {
+            return shape >= 0 ? FilterShape.name(shape) : null;
+        }
+    }
+
+    @Name("message_report.ConversationLookup")
+    @Label("Conversation Lookup")
+    public static final class ConversationLookup extends StageEvent {}
+
+    @Name("message_report.ContactLookup")
+    @Label("Contact Lookup")
+    public static final class ContactLookup extends StageEvent {}
+
+    @Name("message_report.PageQuery")
+    @Label("Page Query")
+    @Description("Inbox, history or message page read, from MySQL or the in-memory index")
+    public static final class PageQuery extends StageEvent {}
+
+    @Name("message_report.Count")
+    @Label("Count")
+    @Description("Total, unread or facet count")
+    public static final class Count extends StageEvent {}
+
+    @Name("message_report.TemplateBatchLoad")
+    @Label("Template Batch Load")
+    public static final class TemplateBatchLoad extends StageEvent {}
+
+    @Name("message_report.Render")
+    @Label("Render")
+    @Description("Mapping page rows to response DTOs, including template rendering")
+    public static final class Render extends StageEvent {}
+}
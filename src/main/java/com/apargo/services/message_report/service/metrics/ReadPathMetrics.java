@@ -0,0 +1,213 @@
+package com.apargo.services.message_report.service.metrics;
+
+import com.apargo.services.message_report.service.metrics.ReadPathEvents.StageEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Micrometer meters for the read path, scraped at /actuator/prometheus:
+ *
+ *   message_report_query_seconds{repository, query, shape}   repository call latency
+ *   message_report_query_rows_total{repository, query}       rows those calls returned
+ *   message_report_mapping_seconds{dto}                       projection → DTO mapping
+ *   message_report_template_lookups_total{result}             loaded-template hits / misses on a page
+ *   message_report_serialization_seconds{encoding}            response body writes (json / smile / cbor)
+ *
+ * Every meter is registered once and kept in a field or array slot; a
+ * measurement is a System.nanoTime() pair plus one record() — no tag
+ * strings are built per call. Shaped timers are created the first time
+ * their shape is seen.
+ *
+ * Call sites bracket a stage with begin / end, which also emits the
+ * matching JFR event ({@link ReadPathEvents}) when that type is enabled:
+ *
+ *   StageEvent stage = metrics.begin(Query.INBOX_COUNT, projectId, shape);
+ *   …
+ *   metrics.end(stage, rows);
+ *
+ * The stage running on a thread is visible through {@link #current()}, so
+ * statement-level tooling (SlowQuerySampler) can say which stage and filter
+ * shape a statement belongs to.
+ *
+ * Hikari pool gauges (hikaricp_connections_*) come from Spring Boot's
+ * data-source metrics.
+ */
+@Component
+public class ReadPathMetrics {
+
+    public enum Stage { CONVERSATION_LOOKUP, CONTACT_LOOKUP, PAGE_QUERY, COUNT, TEMPLATE_BATCH_LOAD, RENDER }
+
+    public enum Query {
+        CONVERSATION_BY_ID ("conversation", "find_by_id",  false, Stage.CONVERSATION_LOOKUP),
+        CONTACT_BY_ID      ("contact",      "find_by_id",  false, Stage.CONTACT_LOOKUP),
+        INBOX_FIRST_PAGE   ("conversation", "first_page",  true,  Stage.PAGE_QUERY),
+        INBOX_NEXT_PAGE    ("conversation", "next_page",   true,  Stage.PAGE_QUERY),
+        INBOX_INDEX_PAGE   ("conversation", "index_page",  true,  Stage.PAGE_QUERY),    // in-memory index + hydrate by id
+        INBOX_STREAM_PAGE  ("conversation", "stream_page", true,  Stage.PAGE_QUERY),
+        INBOX_COUNT        ("conversation", "count",       true,  Stage.COUNT),
+        INBOX_UNREAD_SUM   ("conversation", "unread_sum",  false, Stage.COUNT),
+        INBOX_FACETS       ("conversation", "facets",      false, Stage.COUNT),
+        MESSAGE_FIRST_PAGE ("message",      "first_page",  false, Stage.PAGE_QUERY),
+        MESSAGE_NEXT_PAGE  ("message",      "next_page",   false, Stage.PAGE_QUERY),
+        MESSAGE_COUNT      ("message",      "count",       false, Stage.COUNT),
+        TEMPLATE_BATCH     ("template",     "load_batch",  false, Stage.TEMPLATE_BATCH_LOAD);
+
+        final String  repository;
+        final String  name;
+        final boolean shaped;
+        final Stage   stage;
+
+        Query(String repository, String name, boolean shaped, Stage stage) {
+            this.repository = repository;
+            this.name       = name;
+            this.shaped     = shaped;
+            this.stage      = stage;
+        }
+    }
+
+    public enum Dto {
+        INBOX_ITEM, CHAT_MESSAGE;
+
+        final String tag = name().toLowerCase();
+    }
+
+    /** Shape argument for stages that have none. */
+    public static final int NO_SHAPE = -1;
+
+    private static final ThreadLocal<StageEvent> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+
+    private final Map<Query, AtomicReferenceArray<Timer>> queryTimers = new EnumMap<>(Query.class);
+    private final Map<Query, Counter>                     rowCounters = new EnumMap<>(Query.class);
+    private final Map<Dto, Timer>                         mapping     = new EnumMap<>(Dto.class);
+    private final Counter                                 templateHits;
+    private final Counter                                 templateMisses;
+
+    public ReadPathMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Query q : Query.values()) {
+            queryTimers.put(q, new AtomicReferenceArray<>(q.shaped ? FilterShape.COUNT : 1));
+            rowCounters.put(q, Counter.builder("message_report.query.rows")
+                    .description("Rows returned by read-path repository calls")
+                    .tags("repository", q.repository, "query", q.name)
+                    .register(registry));
+        }
+        for (Dto d : Dto.values()) {
+            mapping.put(d, Timer.builder("message_report.mapping")
+                    .description("Projection to response DTO mapping, per page")
+                    .tag("dto", d.tag)
+                    .register(registry));
+        }
+        this.templateHits   = templateLookups("hit");
+        this.templateMisses = templateLookups("miss");
+    }
+
+    /** Starts timing one repository call; {@code shape} is a {@link FilterShape} or NO_SHAPE. */
+    public StageEvent begin(Query q, Long projectId, int shape) {
+        return begin(newEvent(q.stage), q, projectId, q.shaped ? shape : NO_SHAPE);
+    }
+
+    public StageEvent begin(Query q, Long projectId) {
+        return begin(q, projectId, NO_SHAPE);
+    }
+
+    /** Starts timing one page's projection → DTO mapping. */
+    public StageEvent begin(Dto dto, Long projectId, int shape) {
+        return begin(new ReadPathEvents.Render(), dto, projectId, shape);
+    }
+
+    public void end(StageEvent event, long rows) {
+        long elapsed = System.nanoTime() - event.startNanos;
+        event.end();
+        if (CURRENT.get() == event) CURRENT.remove();
+
+        if (event.meterKey instanceof Query q) {
+            queryTimer(q, event.shape >= 0 ? event.shape : 0).record(elapsed, TimeUnit.NANOSECONDS);
+            if (rows > 0) rowCounters.get(q).increment(rows);
+        } else {
+            mapping.get((Dto) event.meterKey).record(elapsed, TimeUnit.NANOSECONDS);
+        }
+
+        if (event.shouldCommit()) {
+            event.query        = event.meterKey instanceof Query q ? q.name : ((Dto) event.meterKey).tag;
+            event.filterShape  = event.shape >= 0 ? FilterShape.name(event.shape) : null;
+            event.rowsReturned = rows;
+            event.commit();
+        }
+    }
+
+    /** For stages whose query is only known once they are done (index hit vs. database page). */
+    public void end(StageEvent event, Query actual, long rows) {
+        event.meterKey = actual;
+        end(event, rows);
+    }
+
+    /** The stage running on this thread, or null. */
+    public static StageEvent current() {
+        return CURRENT.get();
+    }
+
+    public void templateLookup(boolean hit) {
+        (hit ? templateHits : templateMisses).increment();
+    }
+
+    /** Timer for one response encoding — fetched once by the message converter that writes it. */
+    public Timer serialization(String encoding) {
+        return Timer.builder("message_report.serialization")
+                .description("Response body serialization")
+                .tag("encoding", encoding)
+                .register(registry);
+    }
+
+    private Timer queryTimer(Query q, int shape) {
+        AtomicReferenceArray<Timer> timers = queryTimers.get(q);
+        Timer timer = timers.get(shape);
+        if (timer == null) {
+            // Registration is idempotent, so a lost race only repeats the lookup
+            timer = Timer.builder("message_report.query")
+                    .description("Read-path repository call latency")
+                    .tags("repository", q.repository, "query", q.name,
+                          "shape", q.shaped ? FilterShape.name(shape) : "none")
+                    .publishPercentileHistogram()
+                    .register(registry);
+            timers.set(shape, timer);
+        }
+        return timer;
+    }
+
+    private static StageEvent begin(StageEvent event, Object meterKey, Long projectId, int shape) {
+        event.meterKey  = meterKey;
+        event.projectId = projectId != null ? projectId : 0L;
+        event.shape     = shape;
+        CURRENT.set(event);   // stages don't nest; one that throws is replaced by the next begin
+        event.begin();
+        event.startNanos = System.nanoTime();
+        return event;
+    }
+
+    private static StageEvent newEvent(Stage stage) {
+        return switch (stage) {
+            case CONVERSATION_LOOKUP -> new ReadPathEvents.ConversationLookup();
+            case CONTACT_LOOKUP      -> new ReadPathEvents.ContactLookup();
+            case PAGE_QUERY          -> new ReadPathEvents.PageQuery();
+            case COUNT               -> new ReadPathEvents.Count();
+            case TEMPLATE_BATCH_LOAD -> new ReadPathEvents.TemplateBatchLoad();
+            case RENDER              -> new ReadPathEvents.Render();
+        };
+    }
+
+    private Counter templateLookups(String result) {
+        return Counter.builder("message_report.template.lookups")
+                .description("Template lookups against the page's loaded batch")
+                .tag("result", result)
+                .register(registry);
+    }
+}
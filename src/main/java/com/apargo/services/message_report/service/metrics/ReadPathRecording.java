@@ -0,0 +1,88 @@
+package com.apargo.services.message_report.service.metrics;
+
+import com.apargo.services.message_report.config.FlightRecorderProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The always-on recording: JDK "default" settings plus the read-path stage
+ * events above stage-threshold, kept in an on-disk ring buffer of
+ * max-age / max-size. When p99 spikes, dump it and open it in JMC.
+ *
+ * The JDK settings also record every environment variable, system property
+ * and the JVM command line once per chunk — datasource passwords and API
+ * keys included — so those events are always switched off here.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.jfr", name = "enabled", havingValue = "true")
+public class ReadPathRecording {
+
+    public static final String NAME = "message-report";
+
+    private static final List<Class<? extends ReadPathEvents.StageEvent>> STAGE_EVENTS = List.of(
+            ReadPathEvents.ConversationLookup.class,
+            ReadPathEvents.ContactLookup.class,
+            ReadPathEvents.PageQuery.class,
+            ReadPathEvents.Count.class,
+            ReadPathEvents.TemplateBatchLoad.class,
+            ReadPathEvents.Render.class);
+
+    /** Events whose payload carries secrets from the process environment. */
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation");
+
+    private final FlightRecorderProperties props;
+
+    private Recording recording;
+
+    @PostConstruct
+    void start() throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration(props.getSettings()).getSettings());
+        String threshold = props.getStageThreshold().toMillis() + " ms";
+        for (Class<?> type : STAGE_EVENTS) {
+            String name = type.getAnnotation(Name.class).value();
+            settings.put(name + "#enabled", "true");
+            settings.put(name + "#threshold", threshold);
+        }
+        for (String name : SENSITIVE_EVENTS) settings.put(name + "#enabled", "false");
+
+        recording = new Recording(settings);
+        recording.setName(NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(props.getMaxAge());
+        recording.setMaxSize(props.getMaxSize().toBytes());
+        recording.start();
+        log.info("JFR recording '{}' started ({} settings, stage threshold {})", NAME, props.getSettings(), threshold);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recording != null) recording.close();
+    }
+
+    /** Writes what the recording holds now to a temp file; the caller deletes it. */
+    public Path dump() throws IOException {
+        Path file = Files.createTempFile(NAME + "-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+}
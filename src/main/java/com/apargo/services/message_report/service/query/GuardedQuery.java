@@ -0,0 +1,22 @@
+package com.apargo.services.message_report.service.query;
+
+import com.apargo.services.message_report.enums.QueryClass;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Statement class of a Spring Data repository method. Statements the method
+ * creates get that class's timeout from message-report.query-guard
+ * (cheap-timeout / expensive-timeout) — see {@link QueryGuard#repositoryAdvice}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface GuardedQuery {
+
+    QueryClass value();
+}
@@ -0,0 +1,115 @@
+package com.apargo.services.message_report.service.query;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Cancellation scope of one HTTP request: every JDBC statement the request
+ * creates — JPA or JdbcTemplate — registers here ({@link QueryGuard#guard}), and {@link #cancel} calls
+ * {@link Statement#cancel()} on whichever is still running (Connector/J
+ * sends KILL QUERY on a side connection).
+ *
+ * The scope is bound to the request thread; streamed responses re-bind it on
+ * the thread that writes the body ({@link #runBound}).
+ */
+@Slf4j
+public final class QueryCancellation {
+
+    private static final ThreadLocal<QueryCancellation> CURRENT = new ThreadLocal<>();
+
+    private final List<Statement>   statements = new ArrayList<>(4);   // guarded by this
+    private final Consumer<String>  onCancel;
+    private boolean                 cancelled;                        // guarded by this
+
+    QueryCancellation(Consumer<String> onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    public static QueryCancellation current() {
+        return CURRENT.get();
+    }
+
+    void bind()   { CURRENT.set(this); }
+    void unbind() { if (CURRENT.get() == this) CURRENT.remove(); }
+
+    /** Runs {@code body} with this scope bound to the current thread (streamed response bodies). */
+    public <E extends Exception> void runBound(ThrowingRunnable<E> body) throws E {
+        QueryCancellation previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            body.run();
+        } finally {
+            if (previous != null) CURRENT.set(previous); else CURRENT.remove();
+        }
+    }
+
+    /** Wraps {@code task} so it runs in the caller's scope — for fan-out onto executor threads. */
+    public static <T> Callable<T> inheriting(Callable<T> task) {
+        QueryCancellation scope = CURRENT.get();
+        if (scope == null) return task;
+        return () -> {
+            QueryCancellation previous = CURRENT.get();
+            CURRENT.set(scope);
+            try {
+                return task.call();
+            } finally {
+                if (previous != null) CURRENT.set(previous); else CURRENT.remove();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    public interface ThrowingRunnable<E extends Exception> {
+        void run() throws E;
+    }
+
+    /** Called for every statement created inside the scope; a scope cancelled already refuses it. */
+    synchronized void register(Statement statement) throws SQLException {
+        if (cancelled) throw new SQLTimeoutException("Request cancelled before the statement ran");
+        statements.removeIf(QueryCancellation::isClosed);
+        statements.add(statement);
+    }
+
+    /** Cancels every running statement of the scope. {@code reason} is "deadline" or "client-abort". */
+    public void cancel(String reason) {
+        List<Statement> running;
+        synchronized (this) {
+            if (cancelled) return;
+            cancelled = true;
+            running   = new ArrayList<>(statements);
+            statements.clear();
+        }
+        for (Statement s : running) {
+            if (isClosed(s)) continue;
+            try {
+                s.cancel();
+                onCancel.accept(reason);
+            } catch (SQLException e) {
+                log.debug("Statement cancel failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized void clear() {
+        statements.clear();
+    }
+
+    private static boolean isClosed(Statement s) {
+        try {
+            return s.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
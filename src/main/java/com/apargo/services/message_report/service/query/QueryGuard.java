@@ -0,0 +1,195 @@
+package com.apargo.services.message_report.service.query;
+
+import com.apargo.services.message_report.config.QueryGuardProperties;
+import com.apargo.services.message_report.dto.response.QueryGuardStatusResponse;
+import com.apargo.services.message_report.enums.QueryClass;
+import jakarta.annotation.PreDestroy;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timeouts and cancellation for read-path SQL.
+ *
+ *  - {@link #jdbc(QueryClass)} / {@link #countJdbc()}: JdbcTemplates with the
+ *    class's statement timeout.
+ *  - {@link GuardedQuery} on a Spring Data method: the same per-class timeout
+ *    for the statements JPA creates inside it ({@link #repositoryAdvice}).
+ *  - {@link #guard}: called for every statement the application DataSource
+ *    creates (QueryGuardConfig wraps it), JPA and JdbcTemplate alike; applies
+ *    the {@link GuardedQuery} timeout and joins the current request's
+ *    {@link QueryCancellation}.
+ *  - {@link #open}: a request's cancellation scope, cancelled automatically
+ *    at request-deadline.
+ *
+ * Timeouts surface as Spring's QueryTimeoutException (503 in
+ * GlobalExceptionHandler, or a capped count where the caller degrades).
+ */
+@Component
+public class QueryGuard {
+
+    private static final ThreadLocal<QueryClass> STATEMENT_CLASS = new ThreadLocal<>();   // inside a @GuardedQuery call
+
+    private final QueryGuardProperties       props;
+    private final NamedParameterJdbcTemplate cheap;
+    private final NamedParameterJdbcTemplate expensive;
+    private final NamedParameterJdbcTemplate count;
+    private final ScheduledExecutorService   deadlines;
+
+    private final LongAdder deadlineCancels = new LongAdder();
+    private final LongAdder abortCancels    = new LongAdder();
+    private final LongAdder timeouts        = new LongAdder();
+    private final LongAdder cappedCounts    = new LongAdder();
+
+    public QueryGuard(DataSource dataSource, QueryGuardProperties props) {
+        this.props     = props;
+        this.cheap     = template(dataSource, props.getCheapTimeout());
+        this.expensive = template(dataSource, props.getExpensiveTimeout());
+        this.count     = template(dataSource, props.getCountTimeout());
+        this.deadlines = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "query-deadlines");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deadlines.shutdownNow();
+    }
+
+    public NamedParameterJdbcTemplate jdbc(QueryClass queryClass) {
+        return queryClass == QueryClass.CHEAP ? cheap : expensive;
+    }
+
+    /** Exact counts: count-timeout, after which callers fall back to a capped count. */
+    public NamedParameterJdbcTemplate countJdbc() {
+        return count;
+    }
+
+    public int countCap() {
+        return props.getCountCap();
+    }
+
+    // ── Statements ────────────────────────────────────────────────────────
+
+    /** True when {@link #guard} has anything to do on this thread. */
+    public static boolean applies() {
+        return STATEMENT_CLASS.get() != null || QueryCancellation.current() != null;
+    }
+
+    /**
+     * Called for every statement the application DataSource creates: inside a
+     * {@link GuardedQuery} method it gets that class's timeout (unless one is
+     * set already), and inside a request it joins the cancellation scope.
+     * Throws SQLTimeoutException when the scope is cancelled already.
+     */
+    public void guard(Statement stmt) throws SQLException {
+        QueryClass queryClass = STATEMENT_CLASS.get();
+        if (queryClass != null && stmt.getQueryTimeout() == 0) {
+            stmt.setQueryTimeout(seconds(queryClass == QueryClass.CHEAP
+                    ? props.getCheapTimeout()
+                    : props.getExpensiveTimeout()));
+        }
+        QueryCancellation token = QueryCancellation.current();
+        if (token != null) token.register(stmt);
+    }
+
+    /** Spring Data repository advice: marks the statements a {@link GuardedQuery} method creates with its class. */
+    public static MethodInterceptor repositoryAdvice() {
+        return invocation -> {
+            GuardedQuery guarded = invocation.getMethod().getAnnotation(GuardedQuery.class);
+            if (guarded == null) return invocation.proceed();
+
+            QueryClass previous = STATEMENT_CLASS.get();
+            STATEMENT_CLASS.set(guarded.value());
+            try {
+                return invocation.proceed();
+            } finally {
+                if (previous != null) STATEMENT_CLASS.set(previous); else STATEMENT_CLASS.remove();
+            }
+        };
+    }
+
+    // ── Request scopes ────────────────────────────────────────────────────
+
+    /** A request's cancellation scope, bound to the current thread until {@link Scope#close}. */
+    public Scope open() {
+        QueryCancellation token = new QueryCancellation(reason -> {
+            if ("deadline".equals(reason)) deadlineCancels.increment(); else abortCancels.increment();
+        });
+        ScheduledFuture<?> deadline = deadlines.schedule(() -> token.cancel("deadline"),
+                props.getRequestDeadline().toMillis(), TimeUnit.MILLISECONDS);
+        token.bind();
+        return new Scope(token, deadline);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final QueryCancellation  token;
+        private final ScheduledFuture<?> deadline;
+
+        private Scope(QueryCancellation token, ScheduledFuture<?> deadline) {
+            this.token    = token;
+            this.deadline = deadline;
+        }
+
+        public QueryCancellation token() {
+            return token;
+        }
+
+        /** Request thread is done with it (a streamed body may still use the token). */
+        public void detach() {
+            token.unbind();
+        }
+
+        @Override
+        public void close() {
+            deadline.cancel(false);
+            token.clear();
+            token.unbind();
+        }
+    }
+
+    // ── Metrics ───────────────────────────────────────────────────────────
+
+    public void recordTimeout()     { timeouts.increment(); }
+    public void recordCappedCount() { cappedCounts.increment(); }
+
+    public long timeouts()          { return timeouts.sum(); }
+    public long cappedCounts()      { return cappedCounts.sum(); }
+    public long deadlineCancels()   { return deadlineCancels.sum(); }
+    public long abortCancels()      { return abortCancels.sum(); }
+
+    public QueryGuardStatusResponse status() {
+        return QueryGuardStatusResponse.builder()
+                .statementTimeouts(timeouts())
+                .cappedCounts(cappedCounts())
+                .deadlineCancels(deadlineCancels())
+                .clientAbortCancels(abortCancels())
+                .build();
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    /** Statements join the cancellation scope in {@link #guard}, like every other statement. */
+    private static NamedParameterJdbcTemplate template(DataSource dataSource, Duration timeout) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.setQueryTimeout(seconds(timeout));
+        return new NamedParameterJdbcTemplate(jdbc);
+    }
+
+    private static int seconds(Duration timeout) {
+        return (int) Math.max(1, timeout.toSeconds());
+    }
+}
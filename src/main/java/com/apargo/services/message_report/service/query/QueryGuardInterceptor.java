@@ -0,0 +1,55 @@
+package com.apargo.services.message_report.service.query;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Opens a {@link QueryCancellation} scope per request and closes it when the
+ * response is complete. For streamed (async) responses the scope outlives the
+ * request thread: an async error or timeout — typically the client going
+ * away mid-stream — cancels whatever statement is still running.
+ *
+ * Synchronous responses cannot observe a disconnect before they write, so
+ * for those the statement timeouts and the request deadline do the work.
+ */
+@RequiredArgsConstructor
+public class QueryGuardInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SCOPE = QueryGuardInterceptor.class.getName() + ".scope";
+
+    private final QueryGuard guard;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.REQUEST) {
+            request.setAttribute(SCOPE, guard.open());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryGuard.Scope scope = (QueryGuard.Scope) request.getAttribute(SCOPE);
+        if (scope == null) return;
+
+        scope.detach();   // the request thread goes back to the pool
+        if (!request.isAsyncStarted()) return;
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override public void onComplete(AsyncEvent event)   { scope.close(); }
+            @Override public void onError(AsyncEvent event)      { scope.token().cancel("client-abort"); scope.close(); }
+            @Override public void onTimeout(AsyncEvent event)    { scope.token().cancel("deadline"); scope.close(); }
+            @Override public void onStartAsync(AsyncEvent event) { }
+        });
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryGuard.Scope scope = (QueryGuard.Scope) request.getAttribute(SCOPE);
+        if (scope != null && !request.isAsyncStarted()) scope.close();
+    }
+}
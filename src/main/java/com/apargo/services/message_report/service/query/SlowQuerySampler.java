@@ -0,0 +1,233 @@
+package com.apargo.services.message_report.service.query;
+
+import com.apargo.services.message_report.config.SlowQueryProperties;
+import com.apargo.services.message_report.dto.response.SlowQueryReportResponse;
+import com.apargo.services.message_report.service.metrics.ReadPathEvents.StageEvent;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records statements slower than the threshold, grouped by the read-path
+ * stage and filter shape they ran under (ReadPathMetrics.current()) and
+ * their SQL text. The generic "(:x IS NULL OR …)" inbox queries share one
+ * SQL text across filter shapes, and MySQL plans each shape differently —
+ * grouping by shape is what makes a regressed plan stand out.
+ *
+ * For each group the slowest executions are kept with their bound
+ * parameters, and the slowest one is EXPLAINed (FORMAT=JSON) on a pooled
+ * side connection by a single background thread, replaying the exact
+ * parameter setters. Plans are refreshed after re-explain-after, so a plan
+ * flip shows up as a new key / filesort in the report.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "message-report.slow-queries", name = "enabled", havingValue = "true")
+public class SlowQuerySampler {
+
+    private static final String  EXPLAIN     = "EXPLAIN FORMAT=JSON ";
+    private static final Pattern PLAN_KEY    = Pattern.compile("\"key\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern FILESORT    = Pattern.compile("\"using_filesort\"\\s*:\\s*true");
+    private static final int     PARAM_CHARS = 120;
+
+    private record GroupKey(String stage, String shape, String sql) {}
+
+    private record Execution(long elapsedMs, Instant at, List<ParameterSetOperation> params) {}
+
+    /** Per-group aggregate; guarded by itself. */
+    private static final class Group {
+        long                  count;
+        long                  totalMs;
+        long                  maxMs;
+        final List<Execution> slowest = new ArrayList<>();
+        String                plan;
+        Instant               plannedAt;
+        boolean               explaining;
+    }
+
+    private final SlowQueryProperties                props;
+    private final DataSource                         dataSource;
+    private final ConcurrentHashMap<GroupKey, Group> groups  = new ConcurrentHashMap<>();
+    private final LongAdder                          dropped = new LongAdder();
+    private final ThreadPoolExecutor                 explainer;
+
+    public SlowQuerySampler(SlowQueryProperties props, DataSource dataSource) {
+        this.props      = props;
+        this.dataSource = dataSource;
+        this.explainer  = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(32),
+                r -> {
+                    Thread t = new Thread(r, "slow-query-explain");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        explainer.shutdownNow();
+    }
+
+    /** Called by the DataSource proxy after every statement. */
+    public void afterQuery(ExecutionInfo exec, List<QueryInfo> queries) {
+        if (exec.getElapsedTime() < props.getThreshold().toMillis()) return;
+        if (exec.isBatch() || queries.size() != 1) return;
+
+        String sql = queries.get(0).getQuery();
+        if (sql == null || !sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) return;
+
+        StageEvent stage = ReadPathMetrics.current();
+        GroupKey   key   = new GroupKey(
+                stage != null ? stage.stageName() : "unstaged",
+                stage != null ? stage.shapeName() : null,
+                sql);
+
+        Group group = groups.get(key);
+        if (group == null) {
+            if (groups.size() >= props.getMaxShapes()) {
+                dropped.increment();
+                return;
+            }
+            group = groups.computeIfAbsent(key, k -> new Group());
+        }
+
+        List<List<ParameterSetOperation>> params = queries.get(0).getParametersList();
+        Execution execution = new Execution(exec.getElapsedTime(), Instant.now(),
+                params.isEmpty() ? List.of() : sorted(params.get(0)));
+
+        boolean explain;
+        synchronized (group) {
+            group.count++;
+            group.totalMs += execution.elapsedMs();
+            group.maxMs    = Math.max(group.maxMs, execution.elapsedMs());
+
+            group.slowest.add(execution);
+            group.slowest.sort(Comparator.comparingLong(Execution::elapsedMs).reversed());
+            if (group.slowest.size() > props.getSamplesPerShape()) group.slowest.remove(group.slowest.size() - 1);
+
+            explain = props.isExplain()
+                    && !group.explaining
+                    && group.slowest.get(0) == execution
+                    && (group.plannedAt == null
+                        || group.plannedAt.plus(props.getReExplainAfter()).isBefore(execution.at()));
+            if (explain) group.explaining = true;
+        }
+
+        if (explain) {
+            Group target = group;
+            explainer.execute(() -> explain(target, sql, execution));
+        }
+    }
+
+    public SlowQueryReportResponse report(int limit) {
+        List<SlowQueryReportResponse.ShapeReport> shapes = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> {
+            synchronized (group) {
+                shapes.add(SlowQueryReportResponse.ShapeReport.builder()
+                        .stage(key.stage())
+                        .filterShape(key.shape())
+                        .sql(key.sql())
+                        .count(group.count)
+                        .totalMs(group.totalMs)
+                        .avgMs(group.count > 0 ? group.totalMs / group.count : 0)
+                        .maxMs(group.maxMs)
+                        .indexes(group.plan != null ? planKeys(group.plan) : null)
+                        .filesort(group.plan != null ? FILESORT.matcher(group.plan).find() : null)
+                        .plannedAt(group.plannedAt)
+                        .plan(group.plan)
+                        .samples(group.slowest.stream()
+                                .map(e -> SlowQueryReportResponse.Sample.builder()
+                                        .elapsedMs(e.elapsedMs())
+                                        .at(e.at())
+                                        .params(render(e.params()))
+                                        .build())
+                                .toList())
+                        .build());
+            }
+        });
+        shapes.sort(Comparator.comparingLong(SlowQueryReportResponse.ShapeReport::getTotalMs).reversed());
+
+        return SlowQueryReportResponse.builder()
+                .thresholdMs((int) props.getThreshold().toMillis())
+                .droppedShapes(dropped.sum())
+                .shapes(shapes.size() > limit ? shapes.subList(0, limit) : shapes)
+                .build();
+    }
+
+    // ── Private helpers ───────────────────────────────────────────────────
+
+    private void explain(Group group, String sql, Execution execution) {
+        String plan = null;
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement(EXPLAIN + sql)) {
+            ps.setQueryTimeout(5);
+            for (ParameterSetOperation op : execution.params()) {
+                op.getMethod().invoke(ps, op.getArgs());   // same setter, same arguments
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) plan = rs.getString(1);
+            }
+        } catch (Exception e) {
+            log.debug("EXPLAIN failed for slow query: {}", e.getMessage());
+        } finally {
+            synchronized (group) {
+                group.explaining = false;
+                if (plan != null) {
+                    group.plan      = plan;
+                    group.plannedAt = Instant.now();
+                }
+            }
+        }
+    }
+
+    private static List<ParameterSetOperation> sorted(List<ParameterSetOperation> ops) {
+        List<ParameterSetOperation> copy = new ArrayList<>(ops);
+        copy.removeIf(op -> !(op.getArgs().length >= 2 && op.getArgs()[0] instanceof Integer));
+        copy.sort(Comparator.comparingInt(op -> (Integer) op.getArgs()[0]));
+        return copy;
+    }
+
+    private static List<String> render(List<ParameterSetOperation> ops) {
+        List<String> out = new ArrayList<>(ops.size());
+        for (ParameterSetOperation op : ops) {
+            if (ParameterSetOperation.isSetNullParameterOperation(op)) {
+                out.add(null);
+                continue;
+            }
+            String v = String.valueOf(op.getArgs()[1]);
+            out.add(v.length() > PARAM_CHARS ? v.substring(0, PARAM_CHARS) + "…" : v);
+        }
+        return out;
+    }
+
+    private static List<String> planKeys(String plan) {
+        Set<String> keys = new LinkedHashSet<>();
+        Matcher m = PLAN_KEY.matcher(plan);
+        while (m.find()) keys.add(m.group(1));
+        return List.copyOf(keys);
+    }
+}
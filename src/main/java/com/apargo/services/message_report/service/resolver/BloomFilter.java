@@ -0,0 +1,43 @@
+package com.apargo.services.message_report.service.resolver;
+
+/**
+ * Fixed-size Bloom filter over 64-bit fingerprints (Kirsch–Mitzenmacher double hashing).
+ * Answers "definitely never seen" without touching the index or the database.
+ *
+ * Not thread-safe for concurrent writers; readers racing a writer can only see
+ * a bit not yet set (a false negative for an id being added at that instant).
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final long   numBits;
+    private final int    numHashes;
+
+    BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, (m + 63) & ~63L);
+        this.bits      = new long[(int) (m >>> 6)];
+        this.numBits   = m;
+        this.numHashes = Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    void add(long fingerprint) {
+        long h1 = fingerprint;
+        long h2 = Fingerprints.mix(fingerprint) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(long fingerprint) {
+        long h1 = fingerprint;
+        long h2 = Fingerprints.mix(fingerprint) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.apargo.services.message_report.service.resolver;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing (linear probing) map: fingerprint → (messageId, conversationId),
+ * held in three parallel primitive arrays — 24 bytes per slot, no per-entry objects.
+ *
+ * Not thread-safe; ProviderMessageResolver guards it with a read/write lock.
+ */
+final class FingerprintIndex {
+
+    private static final float MAX_LOAD = 0.6f;
+
+    private long[] keys;
+    private long[] messageIds;
+    private long[] conversationIds;
+    private int    size;
+
+    FingerprintIndex(int initialCapacity) {
+        int cap = Integer.highestOneBit(Math.max(16, (int) (initialCapacity / MAX_LOAD)) - 1) << 1;
+        keys            = new long[cap];
+        messageIds      = new long[cap];
+        conversationIds = new long[cap];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** @return slot index, or -1 if absent */
+    int find(long key) {
+        int mask = keys.length - 1;
+        for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) return i;
+            if (k == 0)   return -1;
+        }
+    }
+
+    long messageIdAt(int slot)      { return messageIds[slot]; }
+    long conversationIdAt(int slot) { return conversationIds[slot]; }
+
+    void put(long key, long messageId, long conversationId) {
+        if (size + 1 > keys.length * MAX_LOAD) grow();
+        int mask = keys.length - 1;
+        for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == 0) {
+                keys[i] = key;
+                size++;
+            } else if (k != key) {
+                continue;
+            }
+            messageIds[i]      = messageId;
+            conversationIds[i] = conversationId;
+            return;
+        }
+    }
+
+    /** Visits every stored fingerprint (used to rebuild the Bloom filter). */
+    void forEachKey(LongConsumer action) {
+        for (long k : keys) if (k != 0) action.accept(k);
+    }
+
+    private void grow() {
+        long[] oldKeys = keys, oldMsg = messageIds, oldConv = conversationIds;
+        int cap = oldKeys.length << 1;
+        keys            = new long[cap];
+        messageIds      = new long[cap];
+        conversationIds = new long[cap];
+        size            = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) put(oldKeys[i], oldMsg[i], oldConv[i]);
+        }
+    }
+}
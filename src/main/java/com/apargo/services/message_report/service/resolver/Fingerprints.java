@@ -0,0 +1,33 @@
+package com.apargo.services.message_report.service.resolver;
+
+/**
+ * 64-bit fingerprints of provider message ids.
+ *
+ * The resolver stores fingerprints instead of the VARCHAR(150) strings: ~8 bytes
+ * per key instead of ~100+. Two distinct wamids colliding needs ~2^32 live
+ * entries before it becomes likely, far beyond a 72h window.
+ */
+final class Fingerprints {
+
+    private Fingerprints() {}
+
+    /** FNV-1a over the chars, then a murmur3 fmix64 finaliser. Never returns 0 (0 marks an empty slot). */
+    static long of(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h = mix(h);
+        return h != 0 ? h : 1;
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,298 @@
+package com.apargo.services.message_report.service.resolver;
+
+import com.apargo.services.message_report.config.ProviderResolverProperties;
+import com.apargo.services.message_report.service.scheduler.BackgroundWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Resolves provider_message_id ("wamid.…") → messages.id / conversation_id
+ * for status callbacks and delivery reports without a VARCHAR(150) index
+ * lookup per event.
+ *
+ * Layout:
+ *  - Recent ids live in time buckets (window / buckets wide), each a
+ *    {@link FingerprintIndex} of primitive arrays keyed by a 64-bit fingerprint.
+ *    Expired buckets are dropped whole — no per-entry eviction.
+ *  - One {@link BloomFilter} over every indexed fingerprint, rebuilt when a
+ *    bucket is dropped. Once warm, a Bloom miss is final (trust-bloom, the
+ *    default): the id is reported unknown without touching the database.
+ *  - Bloom hits that are not in the index (false positives, or every id
+ *    before warm-up) are resolved with batched
+ *    {@code provider_message_id IN (…)} queries and cached.
+ *
+ * Warm-up reads the last {@code window} of messages per project through
+ * idx_project_time (project_id, created_at); each refresh re-reads from the
+ * previous one minus {@code refresh-overlap}, which also catches rows
+ * committed late. Writers that assign ids in-process call {@link #register}
+ * after commit, so their ids are known immediately.
+ *
+ * What the index cannot see: ids older than the window, and ids set on a row
+ * more than refresh-overlap after its created_at (e.g. a provider ack for an
+ * outbound message) by a writer that does not register them. A caller that
+ * must resolve those sets trust-bloom: false, which sends every Bloom miss to
+ * the database instead.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "message-report.provider-resolver", name = "enabled", havingValue = "true")
+public class ProviderMessageResolver extends BackgroundWorker {
+
+    private static final int IN_CHUNK = 500;
+
+    private static final String RECENT_SQL = """
+            SELECT id, conversation_id, provider_message_id, created_at
+            FROM messages
+            WHERE project_id = ?
+              AND created_at >= ?
+              AND provider_message_id IS NOT NULL
+            """;
+
+    private final ProviderResolverProperties props;
+    private final NamedParameterJdbcTemplate namedJdbc;
+
+    private final ReentrantReadWriteLock          lock    = new ReentrantReadWriteLock();
+    private final TreeMap<Long, FingerprintIndex> buckets = new TreeMap<>();   // bucket number → index
+    private BloomFilter bloom;
+
+    private final LongAdder indexHits    = new LongAdder();
+    private final LongAdder bloomRejects = new LongAdder();
+    private final LongAdder dbLookups    = new LongAdder();
+
+    private volatile boolean warm;
+    private Instant          lastRefresh;
+
+    /** Not leased: every node keeps its own index. */
+    public ProviderMessageResolver(ProviderResolverProperties props,
+                                   JdbcTemplate jdbc,
+                                   NamedParameterJdbcTemplate namedJdbc) {
+        super(jdbc, "provider-resolver", false);
+        this.props     = props;
+        this.namedJdbc = namedJdbc;
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  RESOLVE
+    // ══════════════════════════════════════════════════════════════════════
+
+    public Optional<ResolvedMessage> resolve(String providerMessageId) {
+        return Optional.ofNullable(resolve(List.of(providerMessageId)).get(providerMessageId));
+    }
+
+    /** @return only the ids that exist; unknown ids are absent from the map */
+    public Map<String, ResolvedMessage> resolve(Collection<String> providerMessageIds) {
+        Map<String, ResolvedMessage> result   = new HashMap<>(providerMessageIds.size() * 2);
+        List<String>                 misses   = new ArrayList<>();
+        boolean                      useBloom = warm;
+        boolean                      trusted  = useBloom && props.isTrustBloom();
+
+        lock.readLock().lock();
+        try {
+            for (String id : providerMessageIds) {
+                if (id == null || result.containsKey(id)) continue;
+                long fp = Fingerprints.of(id);
+
+                if (useBloom && !bloom.mightContain(fp)) {
+                    if (trusted) {
+                        bloomRejects.increment();
+                    } else {
+                        misses.add(id);
+                    }
+                    continue;
+                }
+                ResolvedMessage hit = lookup(fp);
+                if (hit != null) {
+                    indexHits.increment();
+                    result.put(id, hit);
+                } else {
+                    misses.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (!misses.isEmpty()) resolveFromDb(misses, result);
+        return result;
+    }
+
+    /** Index an id written by this process; call after the insert has committed. */
+    public void register(String providerMessageId, long messageId, long conversationId, Instant createdAt) {
+        lock.writeLock().lock();
+        try {
+            put(Fingerprints.of(providerMessageId), messageId, conversationId, createdAt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long indexedCount() {
+        lock.readLock().lock();
+        try {
+            long n = 0;
+            for (FingerprintIndex idx : buckets.values()) n += idx.size();
+            return n;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long indexHits()    { return indexHits.sum(); }
+    public long bloomRejects() { return bloomRejects.sum(); }
+    public long dbLookups()    { return dbLookups.sum(); }
+
+    // ── Index internals (callers hold the lock) ───────────────────────────
+
+    private ResolvedMessage lookup(long fp) {
+        for (FingerprintIndex idx : buckets.descendingMap().values()) {   // newest first
+            int slot = idx.find(fp);
+            if (slot >= 0) return new ResolvedMessage(idx.messageIdAt(slot), idx.conversationIdAt(slot));
+        }
+        return null;
+    }
+
+    private void put(long fp, long messageId, long conversationId, Instant createdAt) {
+        long bucket = Math.max(bucketOf(createdAt), oldestLiveBucket());
+        buckets.computeIfAbsent(bucket, b -> new FingerprintIndex(1024)).put(fp, messageId, conversationId);
+        bloom.add(fp);
+    }
+
+    private long bucketMillis() {
+        return Math.max(1, props.getWindow().toMillis() / Math.max(1, props.getBuckets()));
+    }
+
+    private long bucketOf(Instant t) {
+        return t.toEpochMilli() / bucketMillis();
+    }
+
+    private long oldestLiveBucket() {
+        return bucketOf(Instant.now().minus(props.getWindow()));
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  DB FALLBACK — batched IN queries
+    // ══════════════════════════════════════════════════════════════════════
+
+    private void resolveFromDb(List<String> misses, Map<String, ResolvedMessage> result) {
+        Instant now = Instant.now();
+        List<Object[]> found = new ArrayList<>();
+
+        for (int from = 0; from < misses.size(); from += IN_CHUNK) {
+            List<String> chunk = misses.subList(from, Math.min(from + IN_CHUNK, misses.size()));
+            dbLookups.increment();
+            namedJdbc.query("""
+                    SELECT id, conversation_id, provider_message_id
+                    FROM messages
+                    WHERE provider_message_id IN (:ids)
+                    """,
+                    new MapSqlParameterSource("ids", chunk),
+                    (RowCallbackHandler) rs -> found.add(new Object[]{
+                            rs.getString(3), rs.getLong(1), rs.getLong(2)}));
+        }
+        if (found.isEmpty()) return;
+
+        lock.writeLock().lock();
+        try {
+            for (Object[] f : found) {
+                String id = (String) f[0];
+                long msgId = (Long) f[1], convId = (Long) f[2];
+                result.put(id, new ResolvedMessage(msgId, convId));
+                put(Fingerprints.of(id), msgId, convId, now);   // cache as "recently needed"
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  WARM-UP + INCREMENTAL REFRESH via idx_project_time
+    // ══════════════════════════════════════════════════════════════════════
+
+    private void refresh() {
+        try {
+            Instant now   = Instant.now();
+            Instant since = lastRefresh == null
+                    ? now.minus(props.getWindow())
+                    : lastRefresh.minus(props.getRefreshOverlap());
+
+            long loaded = 0;
+            for (Long projectId : projectIds()) {
+                loaded += loadRecent(projectId, since);
+            }
+            evictExpired();
+            lastRefresh = now;
+
+            if (!warm) {
+                warm = true;
+                log.info("Provider message resolver warm: {} ids indexed", indexedCount());
+            } else if (loaded > 0) {
+                log.debug("Provider message resolver refreshed {} ids since {}", loaded, since);
+            }
+        } catch (Exception e) {
+            log.warn("Provider message resolver refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private long loadRecent(long projectId, Instant since) {
+        List<Object[]> rows = new ArrayList<>();
+        jdbc.query(RECENT_SQL,
+                ps -> {
+                    ps.setLong(1, projectId);
+                    ps.setTimestamp(2, Timestamp.from(since));
+                },
+                (RowCallbackHandler) rs -> rows.add(new Object[]{
+                        rs.getString(3), rs.getLong(1), rs.getLong(2), rs.getTimestamp(4).toInstant()}));
+
+        // Apply in slices so readers are never blocked for a whole project's worth of rows
+        for (int from = 0; from < rows.size(); from += 10_000) {
+            lock.writeLock().lock();
+            try {
+                for (Object[] r : rows.subList(from, Math.min(from + 10_000, rows.size()))) {
+                    put(Fingerprints.of((String) r[0]), (Long) r[1], (Long) r[2], (Instant) r[3]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return rows.size();
+    }
+
+    /** Drop buckets that fell out of the window; rebuild the Bloom filter without their keys. */
+    private void evictExpired() {
+        lock.writeLock().lock();
+        try {
+            Map<Long, FingerprintIndex> expired = buckets.headMap(oldestLiveBucket());
+            if (expired.isEmpty()) return;
+            expired.clear();
+
+            BloomFilter rebuilt = newBloom();
+            for (FingerprintIndex idx : buckets.values()) idx.forEachKey(rebuilt::add);
+            bloom = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private BloomFilter newBloom() {
+        return new BloomFilter(props.getExpectedEntries(), props.getBloomFpp());
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    protected void onStart() {
+        bloom = newBloom();
+        every(props.getRefreshInterval(), this::refresh);
+    }
+}
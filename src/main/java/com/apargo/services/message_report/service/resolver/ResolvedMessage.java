@@ -0,0 +1,4 @@
+package com.apargo.services.message_report.service.resolver;
+
+/** messages.id + conversation_id for one provider_message_id ("wamid.…"). */
+public record ResolvedMessage(long messageId, long conversationId) {}
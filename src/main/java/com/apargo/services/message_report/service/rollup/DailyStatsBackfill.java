@@ -0,0 +1,38 @@
+package com.apargo.services.message_report.service.rollup;
+
+import com.apargo.services.message_report.config.DailyStatsProperties;
+import com.apargo.services.message_report.dto.response.BackfillStatusResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rebuilds message_daily_stats for a day range, {@code backfill-parallelism}
+ * (project, day) slices at a time — each an independent idx_project_time range
+ * scan ({@link DailyStatsWriter#rebuildDay}).
+ */
+@Service
+@ConditionalOnProperty(prefix = "message-report.daily-stats", name = "enabled", havingValue = "true")
+public class DailyStatsBackfill {
+
+    private final DailyStatsProperties props;
+    private final DailyStatsWriter     writer;
+    private final DayRangeBackfill     backfill;
+
+    public DailyStatsBackfill(DailyStatsProperties props, DailyStatsWriter writer) {
+        this.props    = props;
+        this.writer   = writer;
+        this.backfill = new DayRangeBackfill("daily-stats", writer::rebuildDay);
+    }
+
+    public BackfillStatusResponse start(LocalDate from, LocalDate to, Long projectId) {
+        List<Long> projects = projectId != null ? List.of(projectId) : writer.projectIds();
+        return backfill.start(from, to, projects, props.getBackfillParallelism());
+    }
+
+    public BackfillStatusResponse status() {
+        return backfill.status();
+    }
+}
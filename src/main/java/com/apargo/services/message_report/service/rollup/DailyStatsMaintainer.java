@@ -0,0 +1,77 @@
+package com.apargo.services.message_report.service.rollup;
+
+import com.apargo.services.message_report.config.DailyStatsProperties;
+import com.apargo.services.message_report.service.scheduler.BackgroundWorker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps message_daily_stats current on the node holding the
+ * "message-daily-stats" lease:
+ *
+ *  - every {@code interval}: add messages inserted since the id watermark,
+ *    then rebuild the days of messages whose status changed since the status
+ *    watermark (up to {@code now - status-lag}, {@code status-max-window} per
+ *    transaction) — a READ arriving weeks after the send still lands;
+ *  - every {@code settle-interval}: rebuild today and the previous
+ *    {@code settle-days} days per project, folding in any row whose id was
+ *    allocated before, but committed after, the id watermark passed it.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "message-report.daily-stats", name = "enabled", havingValue = "true")
+public class DailyStatsMaintainer extends BackgroundWorker {
+
+    private final DailyStatsProperties props;
+    private final DailyStatsWriter     writer;
+
+    public DailyStatsMaintainer(DailyStatsProperties props, DailyStatsWriter writer, JdbcTemplate jdbc) {
+        super(jdbc, "message-daily-stats", true);
+        this.props  = props;
+        this.writer = writer;
+    }
+
+    private void applyNew() {
+        try {
+            if (!holdLease(props.getInterval().multipliedBy(3))) return;
+            long applied, total = 0;
+            while (isRunning() && (applied = writer.applyNew(props.getMaxIdsPerPass())) > 0) total += applied;
+            if (total > 0) log.debug("Daily stats: applied {} new message ids", total);
+
+            Instant end = Instant.now().minus(props.getStatusLag());
+            while (isRunning() && writer.settleStatusChanges(end, props.getStatusMaxWindow())) {
+                if (!holdLease(props.getInterval().multipliedBy(3))) return;
+            }
+        } catch (Exception e) {
+            log.warn("Daily stats incremental pass failed: {}", e.getMessage());
+        }
+    }
+
+    private void settle() {
+        try {
+            if (!holdLease(props.getInterval().multipliedBy(3))) return;
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            for (Long projectId : projectIds()) {
+                for (int d = props.getSettleDays(); d >= 0 && isRunning(); d--) {
+                    writer.rebuildDay(projectId, today.minusDays(d));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Daily stats settle pass failed: {}", e.getMessage());
+        }
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    protected void onStart() {
+        every(props.getInterval(), this::applyNew);
+        every(props.getSettleInterval(), props.getSettleInterval(), this::settle);
+    }
+}
@@ -0,0 +1,170 @@
+package com.apargo.services.message_report.service.rollup;
+
+import com.apargo.services.message_report.service.analytics.AnalyticsWatermarks;
+import com.apargo.services.message_report.service.scheduler.BackgroundWorker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ways message_daily_stats is written. All run under the
+ * "message-daily-stats" id watermark so they never double-count:
+ *
+ *  - {@link #applyNew}: messages with id in (watermark, watermark + n] are
+ *    grouped in SQL (PK range scan) and ADDED to their rows; the watermark
+ *    advances in the same transaction (exclusive lock on the watermark row).
+ *  - {@link #rebuildDay}: one (project, day) is recomputed exactly through
+ *    idx_project_time and REPLACES its rows, counting only id ≤ watermark —
+ *    ids above it are still to be added by applyNew. Holds the watermark row
+ *    in share mode, so rebuilds run in parallel with each other but never
+ *    interleave with an advance.
+ *  - {@link #settleStatusChanges}: status changes are not visible to the
+ *    id watermark, so the days of messages with new message_status_events
+ *    (by idx_created_at, under the "message-daily-stats-status" time
+ *    watermark) are rebuilt, however old the message is.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.daily-stats", name = "enabled", havingValue = "true")
+public class DailyStatsWriter {
+
+    static final String WATERMARK        = "message-daily-stats";
+    static final String STATUS_WATERMARK = "message-daily-stats-status";
+
+    private static final String NEW_SQL = """
+            SELECT project_id, DATE(created_at), direction, message_type,
+                   COALESCE(status, 'QUEUED'), COALESCE(created_by_type, 'USER'), COUNT(*)
+            FROM messages
+            WHERE id > ? AND id <= ?
+            GROUP BY 1, 2, 3, 4, 5, 6
+            """;
+
+    private static final String DAY_SQL = """
+            SELECT direction, message_type,
+                   COALESCE(status, 'QUEUED'), COALESCE(created_by_type, 'USER'), COUNT(*)
+            FROM messages
+            WHERE project_id = ?
+              AND created_at >= ? AND created_at < ?
+              AND id <= ?
+            GROUP BY 1, 2, 3, 4
+            """;
+
+    private static final String CHANGED_DAYS_SQL = """
+            SELECT DISTINCT m.project_id, DATE(m.created_at)
+            FROM message_status_events e
+            JOIN messages m ON m.id = e.message_id
+            WHERE e.created_at >= ? AND e.created_at < ?
+            """;
+
+    private static final String ADD_SQL = """
+            INSERT INTO message_daily_stats
+              (project_id, day, direction, message_type, status, created_by_type, message_count)
+            VALUES (?,?,?,?,?,?,?)
+            ON DUPLICATE KEY UPDATE message_count = message_count + VALUES(message_count)
+            """;
+
+    private static final String REPLACE_SQL = """
+            INSERT INTO message_daily_stats
+              (project_id, day, direction, message_type, status, created_by_type, message_count)
+            VALUES (?,?,?,?,?,?,?)
+            """;
+
+    private final JdbcTemplate        jdbc;
+    private final AnalyticsWatermarks watermarks;
+
+    /** @return ids consumed (0 = caught up) */
+    @Transactional
+    public long applyNew(int maxIds) {
+        long from  = watermarks.lockLastId(WATERMARK, true);
+        Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM messages", Long.class);
+        if (maxId == null || maxId <= from) return 0;
+
+        long to = Math.min(maxId, from + maxIds);
+        List<Object[]> rows = new ArrayList<>();
+        jdbc.query(NEW_SQL,
+                ps -> {
+                    ps.setLong(1, from);
+                    ps.setLong(2, to);
+                },
+                (RowCallbackHandler) rs -> rows.add(new Object[]{
+                        rs.getLong(1), rs.getDate(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getString(6), rs.getLong(7)}));
+
+        jdbc.batchUpdate(ADD_SQL, rows);
+        watermarks.setLastId(WATERMARK, to);
+        return to - from;
+    }
+
+    /** @return messages counted for the day */
+    @Transactional
+    public long rebuildDay(long projectId, LocalDate day) {
+        long upTo = watermarks.lockLastId(WATERMARK, false);
+        Date sqlDay = Date.valueOf(day);
+
+        List<Object[]> rows = new ArrayList<>();
+        long[] total = {0};
+        jdbc.query(DAY_SQL,
+                ps -> {
+                    ps.setLong(1, projectId);
+                    ps.setTimestamp(2, Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant()));
+                    ps.setTimestamp(3, Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+                    ps.setLong(4, upTo);
+                },
+                (RowCallbackHandler) rs -> {
+                    rows.add(new Object[]{
+                            projectId, sqlDay, rs.getString(1), rs.getString(2),
+                            rs.getString(3), rs.getString(4), rs.getLong(5)});
+                    total[0] += rs.getLong(5);
+                });
+
+        jdbc.update("DELETE FROM message_daily_stats WHERE project_id = ? AND day = ?", projectId, sqlDay);
+        jdbc.batchUpdate(REPLACE_SQL, rows);
+        return total[0];
+    }
+
+    /**
+     * Rebuilds every (project, day) with a status event in the next window
+     * of at most {@code maxWindow} before {@code end}, and advances the status
+     * watermark in the same transaction (exclusive lock on its row). The
+     * first call only starts the watermark at {@code end}.
+     *
+     * @return whether windows before {@code end} remain
+     */
+    @Transactional
+    public boolean settleStatusChanges(Instant end, Duration maxWindow) {
+        Instant from = watermarks.lockPosition(STATUS_WATERMARK, true);
+        if (from == null) {
+            watermarks.set(STATUS_WATERMARK, end);
+            return false;
+        }
+        if (!from.isBefore(end)) return false;
+
+        Instant to = from.plus(maxWindow).isBefore(end) ? from.plus(maxWindow) : end;
+        List<Object[]> days = jdbc.query(CHANGED_DAYS_SQL,
+                ps -> {
+                    ps.setTimestamp(1, Timestamp.from(from));
+                    ps.setTimestamp(2, Timestamp.from(to));
+                },
+                (rs, i) -> new Object[]{rs.getLong(1), rs.getDate(2).toLocalDate()});
+        for (Object[] d : days) rebuildDay((Long) d[0], (LocalDate) d[1]);
+
+        watermarks.set(STATUS_WATERMARK, to);
+        return to.isBefore(end);
+    }
+
+    public List<Long> projectIds() {
+        return BackgroundWorker.projectIds(jdbc);
+    }
+}
@@ -0,0 +1,122 @@
+package com.apargo.services.message_report.service.rollup;
+
+import com.apargo.services.message_report.dto.response.BackfillStatusResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a rollup's (project, day) rebuild over a day range, {@code parallelism}
+ * slices at a time, newest days first. Each slice is its own transaction, so a
+ * failed slice is just counted and can be retried with a narrower range. One
+ * backfill per instance at a time; progress is kept in memory.
+ */
+@Slf4j
+public final class DayRangeBackfill {
+
+    private static final int MAX_DAYS = 3660;
+
+    /** Rebuilds one (project, day); returns the number of messages it counted. */
+    @FunctionalInterface
+    public interface Slice {
+        long rebuild(long projectId, LocalDate day);
+    }
+
+    private final String name;
+    private final Slice  slice;
+
+    private volatile Job current;
+
+    private static final class Job {
+        final LocalDate     from;
+        final LocalDate     to;
+        final int           total;
+        final Instant       startedAt = Instant.now();
+        final AtomicInteger done      = new AtomicInteger();
+        final AtomicInteger failed    = new AtomicInteger();
+        final LongAdder     messages  = new LongAdder();
+        volatile Instant    finishedAt;
+
+        Job(LocalDate from, LocalDate to, int total) {
+            this.from  = from;
+            this.to    = to;
+            this.total = total;
+        }
+    }
+
+    public DayRangeBackfill(String name, Slice slice) {
+        this.name  = name;
+        this.slice = slice;
+    }
+
+    public synchronized BackfillStatusResponse start(LocalDate from, LocalDate to, List<Long> projects, int parallelism) {
+        if (from.isAfter(to) || from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Invalid backfill range " + from + " .. " + to);
+        }
+        if (current != null && current.finishedAt == null) return status();
+
+        int days = (int) (to.toEpochDay() - from.toEpochDay() + 1);
+        Job job  = new Job(from, to, days * projects.size());
+
+        // Newest days first: they're the ones reports look at
+        List<Runnable> tasks = new ArrayList<>(job.total);
+        for (LocalDate day = to; !day.isBefore(from); day = day.minusDays(1)) {
+            for (Long p : projects) {
+                LocalDate d = day;
+                tasks.add(() -> runSlice(job, p, d));
+            }
+        }
+        current = job;
+        if (tasks.isEmpty()) job.finishedAt = Instant.now();
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, parallelism), r -> {
+            Thread t = new Thread(r, name + "-backfill");
+            t.setDaemon(true);
+            return t;
+        });
+        tasks.forEach(pool::execute);
+        pool.shutdown();
+        log.info("{} backfill {} .. {}: {} slices, parallelism {}", name, from, to, tasks.size(), parallelism);
+        return status();
+    }
+
+    public BackfillStatusResponse status() {
+        Job job = current;
+        if (job == null) return BackfillStatusResponse.builder().state("IDLE").build();
+
+        String state = job.finishedAt == null ? "RUNNING" : job.failed.get() > 0 ? "FAILED" : "DONE";
+        return BackfillStatusResponse.builder()
+                .state(state)
+                .from(job.from)
+                .to(job.to)
+                .tasksTotal(job.total)
+                .tasksDone(job.done.get())
+                .tasksFailed(job.failed.get())
+                .messagesCounted(job.messages.sum())
+                .startedAt(job.startedAt)
+                .finishedAt(job.finishedAt)
+                .build();
+    }
+
+    private void runSlice(Job job, long projectId, LocalDate day) {
+        try {
+            job.messages.add(slice.rebuild(projectId, day));
+            job.done.incrementAndGet();
+        } catch (Exception e) {
+            job.failed.incrementAndGet();
+            log.warn("{} backfill of project {} day {} failed: {}", name, projectId, day, e.getMessage());
+        }
+        if (job.done.get() + job.failed.get() == job.total) {
+            job.finishedAt = Instant.now();
+            log.info("{} backfill {} .. {} finished: {} slices, {} failed, {} messages",
+                    name, job.from, job.to, job.total, job.failed.get(), job.messages.sum());
+        }
+    }
+}
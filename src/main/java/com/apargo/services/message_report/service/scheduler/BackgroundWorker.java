@@ -0,0 +1,112 @@
+package com.apargo.services.message_report.service.scheduler;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base of the background jobs that poll MySQL on a timer: the rollup and
+ * analytics aggregators and the provider-id resolver's refresh.
+ *
+ * A worker owns one daemon timer thread named after it and, when leased, a
+ * {@link DbLease} of the same name held by "name@jvm"; passes call
+ * {@link #holdLease} before doing any work so only one node runs them.
+ * Subclasses register their passes from {@link #onStart} with {@link #every};
+ * pools taken from {@link #daemonPool} are shut down together with the timer.
+ * Long passes check {@link #isRunning} between units of work so stop() takes
+ * effect at the next one.
+ */
+public abstract class BackgroundWorker implements SmartLifecycle {
+
+    private static final String PROJECT_IDS_SQL = "SELECT DISTINCT project_id FROM conversations";
+
+    protected final JdbcTemplate jdbc;
+
+    private final String                name;
+    private final boolean               leased;
+    private final List<ExecutorService> pools = new ArrayList<>();
+
+    private DbLease                  lease;
+    private ScheduledExecutorService timer;
+    private volatile boolean         running;
+
+    protected BackgroundWorker(JdbcTemplate jdbc, String name, boolean leased) {
+        this.jdbc   = jdbc;
+        this.name   = name;
+        this.leased = leased;
+    }
+
+    /** Called by start() once the timer exists: schedule the passes here. */
+    protected abstract void onStart();
+
+    /** Runs {@code pass} now and then {@code interval} after each run ends. */
+    protected final void every(Duration interval, Runnable pass) {
+        every(Duration.ZERO, interval, pass);
+    }
+
+    protected final void every(Duration initialDelay, Duration interval, Runnable pass) {
+        timer.scheduleWithFixedDelay(pass, initialDelay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Takes or renews the worker's lease; false = another node holds it. */
+    protected final boolean holdLease(Duration ttl) {
+        if (lease == null) throw new IllegalStateException(name + " is not a leased worker");
+        return lease.tryAcquire(ttl);
+    }
+
+    /** Fixed pool of daemon threads named "name-suffix", stopped with the worker. */
+    protected final ExecutorService daemonPool(String suffix, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), daemon(name + "-" + suffix));
+        pools.add(pool);
+        return pool;
+    }
+
+    /** Every project with conversations — what the per-project passes iterate. */
+    public List<Long> projectIds() {
+        return projectIds(jdbc);
+    }
+
+    public static List<Long> projectIds(JdbcTemplate jdbc) {
+        return jdbc.queryForList(PROJECT_IDS_SQL, Long.class);
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        if (leased) lease = new DbLease(jdbc, name, name + "@" + ManagementFactory.getRuntimeMXBean().getName());
+        timer   = Executors.newSingleThreadScheduledExecutor(daemon(name));
+        running = true;
+        onStart();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        timer.shutdownNow();
+        pools.forEach(ExecutorService::shutdownNow);
+        pools.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static ThreadFactory daemon(String threadName) {
+        return r -> {
+            Thread t = new Thread(r, threadName);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
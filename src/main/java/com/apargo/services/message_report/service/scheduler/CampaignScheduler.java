@@ -0,0 +1,266 @@
+package com.apargo.services.message_report.service.scheduler;
+
+import com.apargo.services.message_report.config.CampaignSchedulerProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts scheduled broadcasts when they come due.
+ *
+ * One node at a time (the holder of the "campaign-scheduler" lease) loads
+ * every SCHEDULED campaign due within {@code horizon} through
+ * idx_campaign_scheduled(status, scheduled_at) into a
+ * {@link HierarchicalTimingWheel}, and re-reads that range every
+ * {@code refresh-interval}, applying only the differences: new campaigns are
+ * added, moved ones re-slotted, cancelled / started ones removed.
+ *
+ * The wheel is advanced every {@code tick}, so a campaign fires within one
+ * tick of scheduled_at. Firing is a conditional
+ * {@code UPDATE … SET status = 'RUNNING' WHERE id = ? AND status = 'SCHEDULED'};
+ * the lease keeps the polling on one node, the conditional update guarantees
+ * that even during a lease hand-over exactly one node transitions a campaign
+ * and publishes {@link CampaignStartedEvent}.
+ *
+ * A campaign more than {@code max-lateness} past scheduled_at (scheduler
+ * disabled, no leader, a long outage) is never started: each refresh moves
+ * such campaigns SCHEDULED → FAILED and logs them, so a stale broadcast is
+ * not sent hours late and is not picked up again.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "message-report.campaign-scheduler", name = "enabled", havingValue = "true")
+public class CampaignScheduler implements SmartLifecycle {
+
+    private static final String LEASE_NAME = "campaign-scheduler";
+    private static final int    WHEEL_SIZE = 64;
+    private static final int    LEVELS     = 4;
+
+    private static final String DUE_SQL = """
+            SELECT id, scheduled_at
+            FROM broadcast_campaigns
+            WHERE status = 'SCHEDULED'
+              AND scheduled_at >= ?
+              AND scheduled_at <= ?
+            """;
+
+    private static final String OVERDUE_SQL = """
+            SELECT id, scheduled_at
+            FROM broadcast_campaigns
+            WHERE status = 'SCHEDULED'
+              AND scheduled_at < ?
+            """;
+
+    private static final String EXPIRE_SQL = """
+            UPDATE broadcast_campaigns
+            SET status = 'FAILED', updated_at = ?
+            WHERE id = ?
+              AND status = 'SCHEDULED'
+              AND scheduled_at < ?
+            """;
+
+    private static final String START_SQL = """
+            UPDATE broadcast_campaigns
+            SET status = 'RUNNING', started_at = ?, updated_at = ?
+            WHERE id = ?
+              AND status = 'SCHEDULED'
+              AND scheduled_at >= ?
+              AND scheduled_at <= ?
+            """;
+
+    private final CampaignSchedulerProperties props;
+    private final JdbcTemplate                jdbc;
+    private final ApplicationEventPublisher   events;
+
+    private HierarchicalTimingWheel  wheel;
+    private DbLease                  lease;
+    private ScheduledExecutorService timers;
+    private ExecutorService          starter;
+    private volatile boolean         leader;
+    private volatile boolean         running;
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  TICK — advance the wheel, hand due campaigns to the starter
+    // ══════════════════════════════════════════════════════════════════════
+
+    private void tick() {
+        if (!leader) return;
+        try {
+            wheel.advance(System.currentTimeMillis(), id -> starter.execute(() -> start(id)));
+        } catch (Exception e) {
+            log.warn("Campaign scheduler tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void start(long campaignId) {
+        try {
+            Instant now = Instant.now();
+            // scheduled_at <= now + one tick: a campaign moved later since the last refresh isn't started early
+            Timestamp latest   = Timestamp.from(now.plus(props.getTick()));
+            Timestamp earliest = Timestamp.from(now.minus(props.getMaxLateness()));
+            int updated = jdbc.update(START_SQL,
+                    Timestamp.from(now), Timestamp.from(now), campaignId, earliest, latest);
+            if (updated == 0) {
+                log.debug("Campaign {} not started here: no longer SCHEDULED, rescheduled or overdue", campaignId);
+                return;
+            }
+            Timestamp scheduled = jdbc.queryForObject(
+                    "SELECT scheduled_at FROM broadcast_campaigns WHERE id = ?", Timestamp.class, campaignId);
+            Instant scheduledAt = scheduled != null ? scheduled.toInstant() : null;
+            log.info("Campaign {} started ({} ms after scheduled_at)",
+                    campaignId, scheduledAt != null ? now.toEpochMilli() - scheduledAt.toEpochMilli() : -1);
+            events.publishEvent(new CampaignStartedEvent(campaignId, scheduledAt, now));
+        } catch (Exception e) {
+            // Left SCHEDULED — the next refresh sees it overdue and schedules it again
+            log.warn("Starting campaign {} failed: {}", campaignId, e.getMessage());
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  REFRESH — renew the lease, diff the horizon into the wheel
+    // ══════════════════════════════════════════════════════════════════════
+
+    private void refresh() {
+        try {
+            boolean held = lease.tryAcquire(props.getLeaseTtl());
+            if (held != leader) {
+                log.info("Campaign scheduler lease {} by {}", held ? "acquired" : "lost", lease.owner());
+                if (!held) wheel.clear();
+                leader = held;
+            }
+            if (held) reload();
+        } catch (Exception e) {
+            // Can't prove we still hold the lease — stop firing until we can
+            if (leader) {
+                leader = false;
+                wheel.clear();
+            }
+            log.warn("Campaign scheduler refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private void reload() {
+        long now        = System.currentTimeMillis();
+        long horizonEnd = Math.min(now + props.getHorizon().toMillis(), wheel.maxDeadlineMillis());
+        long earliest   = now - props.getMaxLateness().toMillis();
+
+        expireOverdue(earliest);
+
+        Map<Long, Long> due = new HashMap<>();
+        jdbc.query(DUE_SQL,
+                ps -> {
+                    ps.setTimestamp(1, new Timestamp(earliest));
+                    ps.setTimestamp(2, new Timestamp(horizonEnd));
+                },
+                (RowCallbackHandler) rs -> due.put(rs.getLong(1), rs.getTimestamp(2).getTime()));
+
+        int added = 0, moved = 0, removed = 0;
+        for (long id : wheel.ids()) {
+            if (!due.containsKey(id)) {
+                wheel.cancel(id);
+                removed++;
+            }
+        }
+        for (Map.Entry<Long, Long> e : due.entrySet()) {
+            Long current = wheel.deadlineMillis(e.getKey());
+            if (current != null && Math.abs(current - e.getValue()) < props.getTick().toMillis()) continue;
+            if (!wheel.schedule(e.getKey(), e.getValue())) continue;
+            if (current == null) added++;
+            else moved++;
+        }
+        if (added + moved + removed > 0) {
+            log.debug("Campaign scheduler refreshed: +{} ~{} -{} ({} pending)", added, moved, removed, due.size());
+        }
+    }
+
+    /** SCHEDULED campaigns that missed their start by more than max-lateness → FAILED. */
+    private void expireOverdue(long earliest) {
+        Timestamp       cutoff  = new Timestamp(earliest);
+        Map<Long, Long> overdue = new HashMap<>();
+        jdbc.query(OVERDUE_SQL,
+                ps -> ps.setTimestamp(1, cutoff),
+                (RowCallbackHandler) rs -> overdue.put(rs.getLong(1), rs.getTimestamp(2).getTime()));
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (Map.Entry<Long, Long> e : overdue.entrySet()) {
+            if (jdbc.update(EXPIRE_SQL, now, e.getKey(), cutoff) == 0) continue;
+            log.warn("Campaign {} not started: {} ms past scheduled_at exceeds max-lateness {}, marked FAILED",
+                    e.getKey(), now.getTime() - e.getValue(), props.getMaxLateness());
+        }
+    }
+
+    // ── Lifecycle ─────────────────────────────────────────────────────────
+
+    @Override
+    public void start() {
+        long tickMillis = Math.max(1, props.getTick().toMillis());
+        wheel   = new HierarchicalTimingWheel(tickMillis, WHEEL_SIZE, LEVELS, System.currentTimeMillis());
+        lease   = new DbLease(jdbc, LEASE_NAME, nodeId());
+        starter = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "campaign-scheduler-start");
+            t.setDaemon(true);
+            return t;
+        });
+        timers  = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "campaign-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        timers.scheduleWithFixedDelay(this::refresh, 0, props.getRefreshInterval().toMillis(), TimeUnit.MILLISECONDS);
+        timers.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        timers.shutdownNow();
+        starter.shutdown();
+        try {
+            starter.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (leader) {
+            leader = false;
+            try {
+                lease.release();
+            } catch (Exception e) {
+                log.debug("Lease release failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private String nodeId() {
+        if (props.getNodeId() != null && !props.getNodeId().isBlank()) return props.getNodeId();
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getPid();
+    }
+}
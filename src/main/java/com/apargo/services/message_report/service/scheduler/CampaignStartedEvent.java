@@ -0,0 +1,10 @@
+package com.apargo.services.message_report.service.scheduler;
+
+import java.time.Instant;
+
+/**
+ * Published (in-process, on the node that won the transition) after a
+ * scheduled campaign has been moved SCHEDULED → RUNNING.
+ */
+public record CampaignStartedEvent(long campaignId, Instant scheduledAt, Instant startedAt) {
+}
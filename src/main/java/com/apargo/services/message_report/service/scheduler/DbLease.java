@@ -0,0 +1,48 @@
+package com.apargo.services.message_report.service.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A named, expiring lease row in scheduler_leases (db/scheduler_leases.sql),
+ * used to keep a background job on one node at a time.
+ *
+ * {@link #tryAcquire} both takes an expired / missing lease and renews one we
+ * already hold, in a single upsert: MySQL evaluates the ON DUPLICATE KEY
+ * assignments left to right, so {@code expires_at} is only extended when the
+ * preceding {@code owner} assignment left us as the owner. All times are the
+ * database's clock, so node clock skew doesn't matter.
+ */
+@RequiredArgsConstructor
+public final class DbLease {
+
+    private final JdbcTemplate jdbc;
+    private final String       name;
+    private final String       owner;
+
+    public boolean tryAcquire(Duration ttl) {
+        jdbc.update("""
+                INSERT INTO scheduler_leases (name, owner, expires_at)
+                VALUES (?, ?, NOW(3) + INTERVAL ? MICROSECOND)
+                ON DUPLICATE KEY UPDATE
+                    owner      = IF(expires_at < NOW(3) OR owner = VALUES(owner), VALUES(owner), owner),
+                    expires_at = IF(owner = VALUES(owner), VALUES(expires_at), expires_at)
+                """, name, owner, ttl.toNanos() / 1_000);
+
+        List<String> holder = jdbc.queryForList(
+                "SELECT owner FROM scheduler_leases WHERE name = ? AND expires_at > NOW(3)", String.class, name);
+        return !holder.isEmpty() && owner.equals(holder.get(0));
+    }
+
+    /** Give the lease up early so another node can take over without waiting for expiry. */
+    public void release() {
+        jdbc.update("UPDATE scheduler_leases SET expires_at = NOW(3) WHERE name = ? AND owner = ?", name, owner);
+    }
+
+    public String owner() {
+        return owner;
+    }
+}
@@ -0,0 +1,173 @@
+package com.apargo.services.message_report.service.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel (Varghese & Lauck) for long ids.
+ *
+ * Level 0 has {@code wheelSize} slots of one tick each; every higher level's
+ * slot spans a full rotation of the level below. A timer sits in the lowest
+ * level whose range covers its remaining delay and is cascaded one level down
+ * each time the wheel reaches its slot, so schedule / cancel / fire are O(1)
+ * per timer regardless of how many timers are pending.
+ *
+ * With the defaults used by CampaignScheduler (100 ms × 64 slots × 4 levels)
+ * the range is 64⁴ ticks ≈ 19 days. Timers further out are refused; the
+ * scheduler only loads campaigns within its (shorter) horizon.
+ *
+ * Thread-safe: every method synchronizes on the wheel. {@code fire} runs
+ * while that lock is held, so it must not block.
+ */
+final class HierarchicalTimingWheel {
+
+    private static final class Timer {
+        final long id;
+        final long deadlineTick;
+
+        Timer(long id, long deadlineTick) {
+            this.id           = id;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+
+    private final long            tickMillis;
+    private final int             bits;
+    private final int             mask;
+    private final int             levels;
+    private final List<Timer>[][] slots;
+    private final List<Timer>     overdue = new ArrayList<>();
+    private final Map<Long, Timer> byId   = new HashMap<>();
+
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long nowMillis) {
+        if (Integer.bitCount(wheelSize) != 1) throw new IllegalArgumentException("wheelSize must be a power of two");
+        this.tickMillis  = tickMillis;
+        this.bits        = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask        = wheelSize - 1;
+        this.levels      = levels;
+        this.slots       = new List[levels][wheelSize];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /** Latest deadline this wheel can hold, in epoch millis. */
+    synchronized long maxDeadlineMillis() {
+        return (currentTick + (1L << (bits * levels)) - 1) * tickMillis;
+    }
+
+    /**
+     * (Re)schedule {@code id} to fire at {@code deadlineMillis}; a past deadline fires on the next advance.
+     *
+     * @return false if the deadline is beyond the wheel's range
+     */
+    synchronized boolean schedule(long id, long deadlineMillis) {
+        Timer existing = byId.get(id);
+        long  tick     = ceilDiv(deadlineMillis, tickMillis);
+        if (existing != null && existing.deadlineTick == tick) return true;
+        if (tick - currentTick >= (1L << (bits * levels))) return false;
+
+        Timer t = new Timer(id, tick);
+        byId.put(id, t);           // replaces (and thereby cancels) any earlier timer for id
+        place(t);
+        return true;
+    }
+
+    synchronized void cancel(long id) {
+        byId.remove(id);
+    }
+
+    synchronized boolean contains(long id) {
+        return byId.containsKey(id);
+    }
+
+    synchronized Long deadlineMillis(long id) {
+        Timer t = byId.get(id);
+        return t != null ? t.deadlineTick * tickMillis : null;
+    }
+
+    synchronized long[] ids() {
+        return byId.keySet().stream().mapToLong(Long::longValue).toArray();
+    }
+
+    synchronized void clear() {
+        byId.clear();
+        overdue.clear();
+        for (List<Timer>[] level : slots) Arrays.fill(level, null);
+    }
+
+    /** Move the wheel to {@code nowMillis}, handing every expired id to {@code fire}. */
+    synchronized void advance(long nowMillis, LongConsumer fire) {
+        drain(overdue, fire);
+
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+
+            // Crossing a level boundary: pull that level's current slot down one level
+            for (int level = 1; level < levels; level++) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) != 0) break;
+                int slot = (int) (currentTick >>> (bits * level)) & mask;
+                List<Timer> cascading = slots[level][slot];
+                if (cascading == null) continue;
+                slots[level][slot] = null;
+                for (Timer t : cascading) if (isLive(t)) place(t);
+            }
+
+            int slot = (int) currentTick & mask;
+            List<Timer> due = slots[0][slot];
+            if (due != null) {
+                slots[0][slot] = null;
+                drain(due, fire);
+            }
+            if (!overdue.isEmpty()) drain(overdue, fire);   // timers cascaded onto this exact tick
+        }
+    }
+
+    // ── internals ─────────────────────────────────────────────────────────
+
+    private void place(Timer t) {
+        long delta = t.deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(t);
+            return;
+        }
+        for (int level = 0; level < levels; level++) {
+            if (delta < (1L << (bits * (level + 1)))) {
+                int slot = (int) (t.deadlineTick >>> (bits * level)) & mask;
+                List<Timer> bucket = slots[level][slot];
+                if (bucket == null) slots[level][slot] = bucket = new ArrayList<>(4);
+                bucket.add(t);
+                return;
+            }
+        }
+    }
+
+    private void drain(List<Timer> timers, LongConsumer fire) {
+        List<Timer> copy = new ArrayList<>(timers);
+        timers.clear();
+        for (Timer t : copy) {
+            if (!isLive(t)) continue;
+            if (t.deadlineTick > currentTick) {   // cascaded too early (shouldn't happen) — keep waiting
+                place(t);
+                continue;
+            }
+            byId.remove(t.id);
+            fire.accept(t.id);
+        }
+    }
+
+    /** A timer is live while it is still the registered timer for its id. */
+    private boolean isLive(Timer t) {
+        return byId.get(t.id) == t;
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return -Math.floorDiv(-a, b);
+    }
+}
@@ -0,0 +1,96 @@
+-- Shared by the analytics / rollup aggregators: how far each one has consumed
+-- its source table — a time (exclusive upper bound of the last committed
+-- window) or an id (last id applied), whichever the aggregator walks.
+CREATE TABLE IF NOT EXISTS analytics_watermarks (
+    name        VARCHAR(64)  NOT NULL,
+    position    DATETIME(3)  NULL,
+    last_id     BIGINT       NULL,
+    updated_at  DATETIME(3)  NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
+
+-- Send → DELIVERED / READ latency distributions (service.analytics.DeliveryLatencyAggregator).
+-- One HdrHistogram (milliseconds, compressed V2 encoding) per
+-- (project, metric, hour of the status event, template, campaign).
+-- template_name '' = non-template message, campaign_id 0 = not a broadcast.
+CREATE TABLE IF NOT EXISTS delivery_latency_histograms (
+    project_id     BIGINT        NOT NULL,
+    metric         ENUM('DELIVERED','READ') NOT NULL,
+    hour_start     DATETIME      NOT NULL,
+    template_name  VARCHAR(200)  NOT NULL DEFAULT '',
+    campaign_id    BIGINT        NOT NULL DEFAULT 0,
+    sample_count   BIGINT        NOT NULL,
+    histogram      MEDIUMBLOB    NOT NULL,
+    updated_at     DATETIME(3)   NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (project_id, metric, hour_start, template_name, campaign_id)
+) ENGINE = InnoDB;
+
+-- Messages per (project, UTC day, direction, type, status, created-by type)
+-- (service.rollup). NULL status / created_by_type are stored as the entity
+-- defaults QUEUED / USER.
+CREATE TABLE IF NOT EXISTS message_daily_stats (
+    project_id       BIGINT  NOT NULL,
+    day              DATE    NOT NULL,
+    direction        ENUM('INBOUND','OUTBOUND') NOT NULL,
+    message_type     ENUM('TEXT','IMAGE','VIDEO','AUDIO','DOCUMENT','TEMPLATE','INTERACTIVE','REACTION','SYSTEM') NOT NULL,
+    status           ENUM('QUEUED','PROCESSING','SENT','DELIVERED','READ','FAILED','REJECTED','EXPIRED') NOT NULL,
+    created_by_type  ENUM('USER','SYSTEM','AUTOMATION','CAMPAIGN') NOT NULL,
+    message_count    BIGINT  NOT NULL,
+    updated_at       DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (project_id, day, direction, message_type, status, created_by_type)
+) ENGINE = InnoDB;
+
+-- Per-agent, per-UTC-day productivity (service.analytics.AgentMetricsEngine).
+-- Each row is the result of a full recomputation of its day; histograms are
+-- HdrHistogram compressed blobs in milliseconds, NULL when there were no samples.
+--   conversations        distinct conversations the agent replied in that day
+--   response_hist        inbound (first unanswered) → agent reply
+--   first_response_hist  assignment → the agent's first reply
+--   handle_hist          assignment → unassignment, by day of unassignment
+CREATE TABLE IF NOT EXISTS agent_daily_stats (
+    project_id           BIGINT      NOT NULL,
+    day                  DATE        NOT NULL,
+    agent_id             BIGINT      NOT NULL,
+    conversations        INT         NOT NULL,
+    messages_sent        INT         NOT NULL,
+    assignments_closed   INT         NOT NULL,
+    response_hist        MEDIUMBLOB  NULL,
+    first_response_hist  MEDIUMBLOB  NULL,
+    handle_hist          MEDIUMBLOB  NULL,
+    updated_at           DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (project_id, day, agent_id)
+) ENGINE = InnoDB;
+
+-- AgentMetricsEngine also walks conversations whose assignment ended during the
+-- day (handle time) even if no message was sent in it; without this index that
+-- lookup is a full scan of conversation_assignments.
+ALTER TABLE conversation_assignments
+    ADD INDEX idx_unassigned (unassigned_at);
+
+-- Template funnel per (project, UTC day the message was created, template,
+-- language) (service.analytics.TemplateStatsAggregator). A message counts once
+-- per status, at its first SENT / DELIVERED / READ / FAILED event.
+-- template_language '' = not recorded.
+CREATE TABLE IF NOT EXISTS template_daily_stats (
+    project_id         BIGINT        NOT NULL,
+    day                DATE          NOT NULL,
+    template_name      VARCHAR(200)  NOT NULL,
+    template_language  VARCHAR(10)   NOT NULL DEFAULT '',
+    sent_count         BIGINT        NOT NULL DEFAULT 0,
+    delivered_count    BIGINT        NOT NULL DEFAULT 0,
+    read_count         BIGINT        NOT NULL DEFAULT 0,
+    failed_count       BIGINT        NOT NULL DEFAULT 0,
+    updated_at         DATETIME(3)   NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (project_id, day, template_name, template_language)
+) ENGINE = InnoDB;
+
+-- FAILED messages of template_daily_stats by messages.error_code ('' = none).
+CREATE TABLE IF NOT EXISTS template_failure_daily (
+    project_id         BIGINT        NOT NULL,
+    day                DATE          NOT NULL,
+    template_name      VARCHAR(200)  NOT NULL,
+    template_language  VARCHAR(10)   NOT NULL DEFAULT '',
+    error_code         VARCHAR(40)   NOT NULL DEFAULT '',
+    failure_count      BIGINT        NOT NULL,
+    PRIMARY KEY (project_id, day, template_name, template_language, error_code)
+) ENGINE = InnoDB;
@@ -0,0 +1,17 @@
+-- Progress / checkpoint of BroadcastCampaign.phone_numbers → broadcast_recipients
+-- expansion (service.broadcast.RecipientExpansionService). Updated in the same
+-- transaction as every recipient chunk, so numbers_read is always exactly the
+-- prefix of the JSON array whose recipients are committed.
+CREATE TABLE IF NOT EXISTS broadcast_expansions (
+    campaign_id         BIGINT       NOT NULL,
+    state               ENUM('RUNNING','DONE','FAILED') NOT NULL,
+    owner               VARCHAR(64)  NOT NULL,
+    numbers_read        BIGINT       NOT NULL DEFAULT 0,
+    recipients_created  BIGINT       NOT NULL DEFAULT 0,
+    invalid_numbers     BIGINT       NOT NULL DEFAULT 0,
+    duplicate_numbers   BIGINT       NOT NULL DEFAULT 0,
+    error               VARCHAR(255) NULL,
+    started_at          DATETIME(3)  NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    updated_at          DATETIME(3)  NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (campaign_id)
+) ENGINE = InnoDB;
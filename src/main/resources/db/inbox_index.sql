@@ -0,0 +1,5 @@
+-- Change feed for the in-memory inbox index (message-report.inbox-index.enabled).
+-- Each refresh reads one project's conversations changed since the last seen
+-- updated_at; without this index that is a scan of the project's idx_inbox range.
+ALTER TABLE conversations
+    ADD INDEX idx_project_updated (project_id, updated_at);
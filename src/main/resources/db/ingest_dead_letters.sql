@@ -0,0 +1,20 @@
+-- Inbound messages the ingest pipeline could not write
+-- (service.ingest.MessageIngestWriter.deadLetter). A failed shard batch is
+-- retried per conversation and then per message; only the messages that
+-- still fail on their own land here, with the request as received, so they
+-- can be inspected and replayed.
+CREATE TABLE IF NOT EXISTS ingest_dead_letters (
+    id                   BIGINT        NOT NULL AUTO_INCREMENT,
+    uuid                 CHAR(36)      NOT NULL,
+    conversation_id      BIGINT        NULL,
+    message_type         VARCHAR(32)   NULL,
+    body_text            TEXT          NULL,
+    media_asset_id       BIGINT        NULL,
+    payload              LONGTEXT      NULL,     -- as received; may not be valid JSON
+    provider_message_id  VARCHAR(150)  NULL,     -- same width as messages.provider_message_id
+    message_created_at   DATETIME(3)   NULL,
+    error                VARCHAR(1024) NOT NULL,
+    failed_at            DATETIME(3)   NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (id),
+    KEY idx_failed_at (failed_at)
+) ENGINE = InnoDB;
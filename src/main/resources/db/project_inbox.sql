@@ -0,0 +1,7 @@
+-- Whole-project inbox (no WABA account, no assignee filter). idx_inbox continues
+-- with waba_account_id after project_id, so without this index the page is
+-- read through idx_inbox and sorted; with it, ORDER BY last_message_at DESC,
+-- id DESC LIMIT n is a backward range read that stops after n rows.
+-- Created by the entity (Conversation) on fresh schemas.
+ALTER TABLE conversations
+    ADD INDEX idx_project_inbox (project_id, last_message_at);
@@ -0,0 +1,10 @@
+-- Cluster-wide leases for background jobs (service.scheduler.DbLease).
+-- One row per job; the owner keeps extending expires_at, any node may take
+-- the row over once it has expired.
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name        VARCHAR(64)  NOT NULL,
+    owner       VARCHAR(128) NOT NULL,
+    expires_at  DATETIME(3)  NOT NULL,
+    updated_at  DATETIME(3)  NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (name)
+) ENGINE = InnoDB;
@@ -0,0 +1,108 @@
+package com.apargo.services.message_report.config;
+
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.service.metrics.ReadPathMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BinaryEncodingConfigTests {
+
+    static final String  SMILE = "application/x-jackson-smile";
+    static final String  CBOR  = "application/cbor";
+    static final Instant AT    = Instant.parse("2026-03-01T10:15:30.123Z");
+
+    record Sample(Instant at, ConversationStatus status) {}
+
+    @RestController
+    static class SampleController {
+        @GetMapping("/sample")
+        Sample sample() {
+            return new Sample(AT, ConversationStatus.CLOSED);
+        }
+    }
+
+    SimpleMeterRegistry             registry;
+    List<HttpMessageConverter<?>>   converters;
+    MockMvc                         mvc;
+
+    @BeforeEach
+    void setUp() {
+        registry   = new SimpleMeterRegistry();
+        converters = new ArrayList<>(new HttpMessageConverters().getConverters());
+        assertThat(converters).hasAtLeastOneElementOfType(MappingJackson2SmileHttpMessageConverter.class);
+
+        new BinaryEncodingConfig(new ReadPathMetrics(registry)).extendMessageConverters(converters);
+        mvc = MockMvcBuilders.standaloneSetup(new SampleController())
+                .setMessageConverters(converters.toArray(HttpMessageConverter[]::new))
+                .build();
+    }
+
+    @Test
+    void defaultSmileConverterIsReplacedInPlace() {
+        assertThat(converters.stream().filter(MappingJackson2SmileHttpMessageConverter.class::isInstance))
+                .singleElement()
+                .matches(c -> c.getClass() != MappingJackson2SmileHttpMessageConverter.class);
+    }
+
+    @Test
+    void smileRequestGetsBinaryEncoding() throws Exception {
+        byte[] body = mvc.perform(get("/sample").header("Accept", SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode node = new SmileMapper().readTree(body);
+        assertThat(node.get("at").isNumber()).isTrue();
+        assertThat(node.get("at").asLong()).isEqualTo(AT.toEpochMilli());
+        assertThat(node.get("status").asInt()).isEqualTo(ConversationStatus.CLOSED.ordinal());
+        assertThat(timer("smile")).isEqualTo(1);
+    }
+
+    @Test
+    void cborRequestGetsBinaryEncoding() throws Exception {
+        byte[] body = mvc.perform(get("/sample").header("Accept", CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode node = new CBORMapper().readTree(body);
+        assertThat(node.get("at").asLong()).isEqualTo(AT.toEpochMilli());
+        assertThat(node.get("status").asInt()).isEqualTo(ConversationStatus.CLOSED.ordinal());
+        assertThat(timer("cbor")).isEqualTo(1);
+    }
+
+    @Test
+    void jsonStaysTheDefault() throws Exception {
+        mvc.perform(get("/sample"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"));
+        assertThat(timer("smile")).isZero();
+        assertThat(timer("cbor")).isZero();
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private long timer(String encoding) {
+        return registry.get("message_report.serialization").tag("encoding", encoding).timer().count();
+    }
+}
@@ -0,0 +1,134 @@
+package com.apargo.services.message_report.config;
+
+import com.apargo.services.message_report.enums.QueryClass;
+import com.apargo.services.message_report.service.query.GuardedQuery;
+import com.apargo.services.message_report.service.query.QueryGuard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.QueryTimeoutException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryGuardConfigTests {
+
+    /** Stands in for a Spring Data repository: creates its statement through the proxied DataSource. */
+    interface Repository {
+        @GuardedQuery(QueryClass.EXPENSIVE)
+        void expensive() throws SQLException;
+
+        void unguarded() throws SQLException;
+    }
+
+    QueryGuardProperties props;
+    PreparedStatement    statement;
+    DataSource           dataSource;
+    QueryGuard           guard;
+    QueryGuard.Scope     scope;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        props = new QueryGuardProperties();
+        props.setCheapTimeout(Duration.ofSeconds(2));
+        props.setExpensiveTimeout(Duration.ofSeconds(7));
+
+        statement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        DataSource raw = mock(DataSource.class);
+        when(raw.getConnection()).thenReturn(connection);
+
+        guard      = new QueryGuard(raw, props);
+        dataSource = (DataSource) QueryGuardConfig.queryGuardDataSourceProxy(provider(guard))
+                .postProcessAfterInitialization(raw, "dataSource");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (scope != null) scope.close();
+    }
+
+    @Test
+    void statementOutsideAnyScopeIsLeftAlone() throws SQLException {
+        prepare();
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void requestStatementIsCancelledWithItsScope() throws SQLException {
+        scope = guard.open();
+        prepare();
+
+        scope.token().cancel("client-abort");
+        verify(statement).cancel();
+    }
+
+    @Test
+    void statementInCancelledScopeIsRefused() throws SQLException {
+        scope = guard.open();
+        scope.token().cancel("deadline");
+
+        assertThatThrownBy(this::prepare).isInstanceOf(QueryTimeoutException.class);
+        verify(statement).close();
+    }
+
+    @Test
+    void guardedRepositoryMethodGetsItsClassTimeoutFromProperties() throws SQLException {
+        repository().expensive();
+        verify(statement).setQueryTimeout(7);
+    }
+
+    @Test
+    void unguardedRepositoryMethodKeepsTheDriverDefault() throws SQLException {
+        repository().unguarded();
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    void timeoutAlreadySetIsKept() throws SQLException {
+        when(statement.getQueryTimeout()).thenReturn(1);
+        repository().expensive();
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private void prepare() throws SQLException {
+        try (Connection c = dataSource.getConnection()) {
+            assertThat(c.prepareStatement("SELECT 1")).isNotNull();
+        }
+    }
+
+    private Repository repository() {
+        Repository target = new Repository() {
+            @Override public void expensive() throws SQLException { prepare(); }
+            @Override public void unguarded() throws SQLException { prepare(); }
+        };
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addInterface(Repository.class);
+        factory.addAdvice(QueryGuard.repositoryAdvice());
+        return (Repository) factory.getProxy();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<QueryGuard> provider(QueryGuard guard) {
+        ObjectProvider<QueryGuard> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(guard);
+        return provider;
+    }
+}
@@ -0,0 +1,63 @@
+package com.apargo.services.message_report.dto.response;
+
+import com.apargo.services.message_report.dto.response.MergedCursor.Partition;
+import com.apargo.services.message_report.dto.response.MergedCursor.Position;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MergedCursorTests {
+
+    @Test
+    void roundTripsEveryPositionKindInOrder() {
+        Map<Partition, Position> positions = new LinkedHashMap<>();
+        positions.put(new Partition(20, null),  Position.START);
+        positions.put(new Partition(10, 101L),  new Position(1_767_225_600_123L, 42));
+        positions.put(new Partition(10, 100L),  Position.DONE);
+        positions.put(new Partition(30, 7L),    new Position(0, 1));
+
+        Map<Partition, Position> decoded = MergedCursor.decode(MergedCursor.encode(positions));
+
+        assertThat(decoded).containsExactlyEntriesOf(positions);
+        assertThat(decoded.get(new Partition(20, null)).isStart()).isTrue();
+        assertThat(decoded.get(new Partition(10, 100L)).isDone()).isTrue();
+    }
+
+    /** The markers decode to the shared instances, which is what isStart() / isDone() compare against. */
+    @Test
+    void markersDecodeToTheSharedInstances() {
+        Map<Partition, Position> decoded = MergedCursor.decode(MergedCursor.encode(Map.of(
+                new Partition(1, null), Position.START)));
+        assertThat(decoded.get(new Partition(1, null))).isSameAs(Position.START);
+
+        decoded = MergedCursor.decode(MergedCursor.encode(Map.of(new Partition(1, null), Position.DONE)));
+        assertThat(decoded.get(new Partition(1, null))).isSameAs(Position.DONE);
+    }
+
+    @Test
+    void isUrlSafe() {
+        Map<Partition, Position> positions = new LinkedHashMap<>();
+        for (long p = 1; p <= 32; p++) positions.put(new Partition(p, p * 1_000), new Position(p * 999_999_999L, p));
+        assertThat(MergedCursor.encode(positions)).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String raw : List.of("", "10", "10:0", "10:0:q", "10:0:1:2:3", "a:0:s", "10:0:1:b")) {
+            String cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> MergedCursor.decode(cursor))
+                    .as(raw)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("Invalid cursor");
+        }
+        assertThatThrownBy(() -> MergedCursor.decode("not base64!"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
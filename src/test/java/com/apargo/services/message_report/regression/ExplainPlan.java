@@ -0,0 +1,89 @@
+package com.apargo.services.message_report.regression;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MySQL's EXPLAIN FORMAT=JSON of a recorded statement, replayed with the same
+ * parameter setters it ran with (client-side prepared statements, so the
+ * optimizer sees the literal values — including the constant-folded
+ * "(? IS NULL OR …)" predicates of the JPQL pages).
+ *
+ * Tables are listed in join order: the first one drives the query and is the
+ * one whose index decides whether ORDER BY … LIMIT reads rows in index order.
+ */
+final class ExplainPlan {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /** One "table" node of the plan. */
+    record Table(String name, String accessType, String key) {}
+
+    private final String      json;
+    private final List<Table> tables   = new ArrayList<>();
+    private boolean           filesort;
+    private boolean           temporary;
+
+    private ExplainPlan(String json) throws Exception {
+        this.json = json;
+        walk(JSON.readTree(json));
+    }
+
+    static ExplainPlan of(DataSource dataSource, StatementRecorder.Recorded statement) throws Exception {
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("EXPLAIN FORMAT=JSON " + statement.sql())) {
+            for (ParameterSetOperation op : statement.params()) {
+                op.getMethod().invoke(ps, op.getArgs());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return new ExplainPlan(rs.getString(1));
+            }
+        }
+    }
+
+    String json()           { return json; }
+    List<Table> tables()    { return tables; }
+    Table driving()         { return tables.get(0); }
+    boolean usesFilesort()  { return filesort; }
+    boolean usesTemporary() { return temporary; }
+
+    /** Tables read without any index (access_type ALL). */
+    List<Table> fullScans() {
+        return tables.stream().filter(t -> "ALL".equals(t.accessType())).toList();
+    }
+
+    private void walk(JsonNode node) {
+        if (node.isArray()) {
+            for (JsonNode child : node) walk(child);
+            return;
+        }
+        if (!node.isObject()) return;
+
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "table" -> tables.add(new Table(
+                        value.path("table_name").asText(null),
+                        value.path("access_type").asText(null),
+                        value.path("key").asText(null)));
+                case "using_filesort"        -> filesort  |= value.asBoolean();
+                case "using_temporary_table" -> temporary |= value.asBoolean();
+                default -> { }
+            }
+            walk(value);
+        }
+    }
+}
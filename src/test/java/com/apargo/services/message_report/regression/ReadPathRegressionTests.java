@@ -0,0 +1,332 @@
+package com.apargo.services.message_report.regression;
+
+import com.apargo.services.message_report.config.ReadPathProperties;
+import com.apargo.services.message_report.dto.request.InboxFilterRequest;
+import com.apargo.services.message_report.dto.response.ChatMessageResponse;
+import com.apargo.services.message_report.dto.response.ConversationDetailResponse;
+import com.apargo.services.message_report.dto.response.CursorPageResponse;
+import com.apargo.services.message_report.dto.response.InboxItemResponse;
+import com.apargo.services.message_report.entity.WhatsappTemplate;
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.enums.TemplateEmbedMode;
+import com.apargo.services.message_report.projection.MessageProjection;
+import com.apargo.services.message_report.repository.ContactTimelineJdbcRepository;
+import com.apargo.services.message_report.repository.ConversationJdbcRepository;
+import com.apargo.services.message_report.repository.MessageJdbcRepository;
+import com.apargo.services.message_report.service.ChatService;
+import com.apargo.services.message_report.service.InboxService;
+import com.apargo.services.message_report.service.TemplateKey;
+import com.apargo.services.message_report.service.TemplateLoaderService;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement-count and query-plan regression tests for the read path, against
+ * MySQL in a container seeded by db/test-seed.sql (profile mysql-it):
+ *
+ *   StatementCounts — exact round trips per call. A mapping change that turns
+ *                     the @BatchSize template load or a projection into
+ *                     per-row selects fails here with the SQL listed.
+ *   QueryPlans      — EXPLAIN of each paginator: the expected index drives
+ *                     the query, nothing is fully scanned and
+ *                     ORDER BY … LIMIT is read in index order (no filesort).
+ *
+ * Skipped when Docker is not available. Run alone with
+ *   mvn test -Dtest=ReadPathRegressionTests
+ */
+@SpringBootTest
+@ActiveProfiles("mysql-it")
+@Testcontainers(disabledWithoutDocker = true)
+@Import(ReadPathRegressionTests.Recording.class)
+class ReadPathRegressionTests {
+
+    @Container
+    @ServiceConnection
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("apargo_report")
+            .withUsername("root")
+            .withPassword("test")
+            .withUrlParam("serverTimezone", "UTC");
+
+    // ── Seeded ids (db/test-seed.sql) ─────────────────────────────────────
+    static final long ORGANIZATION = 1L;
+    static final long PROJECT      = 10L;
+    static final long WABA         = 101L;
+    static final long CONVERSATION = 1L;    // 45 messages, templates on the newest page
+    static final long CONTACT      = 1L;
+    static final long ME           = 1L;    // USER assignee
+    static final long TEAM         = 9L;
+
+    static final int PAGE = 20;
+
+    /** Wraps the application DataSource so every statement reaches the recorder. */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Recording {
+
+        @Bean
+        static StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor recordingDataSourceProxy(StatementRecorder recorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) return bean;
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(recorder)
+                            .build();
+                }
+            };
+        }
+    }
+
+    @Autowired StatementRecorder            statements;
+    @Autowired DataSource                   dataSource;
+    @Autowired ReadPathProperties           readPath;
+    @Autowired ChatService                  chatService;
+    @Autowired InboxService                 inboxService;
+    @Autowired TemplateLoaderService        templateLoader;
+    @Autowired MessageJdbcRepository        messageJdbcRepo;
+    @Autowired ConversationJdbcRepository   conversationJdbcRepo;
+    @Autowired ContactTimelineJdbcRepository timelineRepo;
+
+    @BeforeEach
+    void resetRecorder() {
+        statements.reset();
+    }
+
+    @AfterEach
+    void restoreReadPath() {
+        readPath.setJdbc(false);
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  STATEMENT COUNTS
+    // ══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    class StatementCounts {
+
+        /**
+         * templates, components, buttons, carousel cards, card components,
+         * carousel buttons — one batched SELECT per level however many
+         * templates the page references.
+         */
+        @Test
+        void loadBatchIssuesOneStatementPerCollectionLevel() {
+            Map<TemplateKey, WhatsappTemplate> one = templateLoader.loadBatch(PROJECT, List.of("order_update"));
+            assertThat(one).hasSize(1);
+            assertThat(statements.count()).as(statements.describe()).isEqualTo(6);
+
+            statements.reset();
+            Map<TemplateKey, WhatsappTemplate> three =
+                    templateLoader.loadBatch(PROJECT, List.of("order_update", "welcome", "otp_code"));
+            assertThat(three).hasSize(3);   // deleted and other-project templates excluded
+            assertThat(statements.count()).as(statements.describe()).isEqualTo(6);
+        }
+
+        /** Without a carousel the card levels are never touched. */
+        @Test
+        void loadBatchWithoutCarouselStopsAtButtons() {
+            templateLoader.loadBatch(PROJECT, List.of("welcome", "otp_code"));
+
+            assertThat(statements.count()).as(statements.describe()).isEqualTo(4);
+        }
+
+        /** conversation, contact, page, count + the 6-statement template batch. */
+        @Test
+        void firstMessagePage() {
+            assertFirstMessagePage();
+        }
+
+        @Test
+        void firstMessagePageJdbcReadPath() {
+            readPath.setJdbc(true);
+            assertFirstMessagePage();
+        }
+
+        /** conversation, contact, page — no count after the first page, no templates on this one. */
+        @Test
+        void nextMessagePage() {
+            String cursor = chatService.getMessages(CONVERSATION, null, PAGE, TemplateEmbedMode.INLINE)
+                    .getMessages().getNextCursor();
+            statements.reset();
+
+            ConversationDetailResponse page = chatService.getMessages(CONVERSATION, cursor, PAGE, TemplateEmbedMode.INLINE);
+
+            assertThat(page.getMessages().getData()).hasSize(PAGE);
+            assertThat(statements.count()).as(statements.describe()).isEqualTo(3);
+        }
+
+        /** page + count; data-only and later pages skip the count. */
+        @Test
+        void inboxPages() {
+            assertInboxPages();
+        }
+
+        @Test
+        void inboxPagesJdbcReadPath() {
+            readPath.setJdbc(true);
+            assertInboxPages();
+        }
+
+        private void assertFirstMessagePage() {
+            ConversationDetailResponse page =
+                    chatService.getMessages(CONVERSATION, null, PAGE, TemplateEmbedMode.INLINE);
+
+            List<ChatMessageResponse> data = page.getMessages().getData();
+            assertThat(data).hasSize(PAGE);
+            assertThat(data).filteredOn(m -> m.getTemplateDetail() != null).hasSize(3);
+            assertThat(statements.count()).as(statements.describe()).isEqualTo(4 + 6);
+        }
+
+        private void assertInboxPages() {
+            CursorPageResponse<InboxItemResponse> first = inboxService.getInbox(inbox());
+            assertThat(first.getData()).hasSize(PAGE);
+            assertThat(first.getTotalCount()).isNotNull();
+            assertThat(statements.count()).as(statements.describe()).isEqualTo(2);
+
+            statements.reset();
+            inboxService.getInboxDataOnly(inbox());
+            assertThat(statements.count()).as(statements.describe()).isEqualTo(1);
+
+            statements.reset();
+            InboxFilterRequest next = inbox();
+            next.setCursor(first.getNextCursor());
+            inboxService.getInbox(next);
+            assertThat(statements.count()).as(statements.describe()).isEqualTo(1);
+        }
+    }
+
+    // ══════════════════════════════════════════════════════════════════════
+    //  QUERY PLANS
+    // ══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    class QueryPlans {
+
+        @Test
+        void messagePages() throws Exception {
+            String cursor = chatService.getMessages(CONVERSATION, null, PAGE, TemplateEmbedMode.INLINE)
+                    .getMessages().getNextCursor();
+            assertKeysetPlan(statements.last("from messages", "order by"), "idx_conversation_time");
+
+            chatService.getMessages(CONVERSATION, cursor, PAGE, TemplateEmbedMode.INLINE);
+            assertKeysetPlan(statements.last("from messages", "order by"), "idx_conversation_time");
+        }
+
+        @Test
+        void messagePagesJdbc() throws Exception {
+            List<MessageProjection> first = messageJdbcRepo.findFirstPage(CONVERSATION, PAGE + 1);
+            assertKeysetPlan(statements.last("from messages", "order by"), "idx_conversation_time");
+
+            MessageProjection last = first.get(PAGE - 1);
+            messageJdbcRepo.findNextPage(CONVERSATION, last.getCreatedAt(), last.getMessageId(), PAGE + 1);
+            assertKeysetPlan(statements.last("from messages", "order by"), "idx_conversation_time");
+        }
+
+        @Test
+        void contactTimelinePages() throws Exception {
+            timelineRepo.findPage(ORGANIZATION, CONTACT, null, null, PAGE + 1);
+            assertKeysetPlan(statements.last("from messages", "order by"), "idx_contact_time");
+
+            timelineRepo.findPage(ORGANIZATION, CONTACT, Instant.parse("2026-02-01T00:30:00Z"), 30L, PAGE + 1);
+            assertKeysetPlan(statements.last("from messages", "order by"), "idx_contact_time");
+        }
+
+        /** "Mine": equality on (project_id, assigned_type, assigned_id), then last_message_at in order. */
+        @Test
+        void myInbox() throws Exception {
+            assertInboxPlan(mine(), "idx_assigned");
+        }
+
+        @Test
+        void myInboxJdbc() throws Exception {
+            readPath.setJdbc(true);
+            assertInboxPlan(mine(), "idx_assigned");
+        }
+
+        @Test
+        void teamInbox() throws Exception {
+            InboxFilterRequest req = inbox();
+            req.setAssignedType(AssignedType.TEAM);
+            req.setAssignedId(TEAM);
+            assertInboxPlan(req, "idx_assigned");
+        }
+
+        /** One merged-inbox partition: (project_id, waba_account_id) of idx_inbox, then last_message_at. */
+        @Test
+        void mergedInboxPartition() throws Exception {
+            conversationJdbcRepo.findPartitionPage(PROJECT, WABA, ORGANIZATION, ConversationStatus.OPEN,
+                    null, null, null, false, false, null, null, null, null, null, PAGE + 1);
+
+            assertKeysetPlan(statements.last("from conversations", "order by"), "idx_inbox");
+        }
+
+        /** The whole project's inbox: project_id, then last_message_at in order (idx_project_inbox). */
+        @Test
+        void projectInbox() throws Exception {
+            assertInboxPlan(inbox(), "idx_project_inbox");
+        }
+
+        private void assertInboxPlan(InboxFilterRequest req, String index) throws Exception {
+            CursorPageResponse<InboxItemResponse> first = inboxService.getInboxDataOnly(req);
+            assertKeysetPlan(statements.last("from conversations", "order by"), index);
+
+            req.setCursor(first.getNextCursor());
+            inboxService.getInboxDataOnly(req);
+            assertKeysetPlan(statements.last("from conversations", "order by"), index);
+        }
+
+        private InboxFilterRequest mine() {
+            InboxFilterRequest req = inbox();
+            req.setUserId(ME);
+            return req;
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private void assertKeysetPlan(StatementRecorder.Recorded statement, String index) throws Exception {
+        ExplainPlan plan = ExplainPlan.of(dataSource, statement);
+
+        assertThat(plan.driving().key()).as(plan.json()).isEqualTo(index);
+        assertThat(plan.fullScans()).as(plan.json()).isEmpty();
+        assertThat(plan.usesFilesort()).as(plan.json()).isFalse();
+        assertThat(plan.usesTemporary()).as(plan.json()).isFalse();
+    }
+
+    private static InboxFilterRequest inbox() {
+        InboxFilterRequest req = new InboxFilterRequest();
+        req.setOrganizationId(ORGANIZATION);
+        req.setProjectId(PROJECT);
+        req.setSize(PAGE);
+        return req;
+    }
+}
@@ -0,0 +1,81 @@
+package com.apargo.services.message_report.regression;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Records every statement executed through the application DataSource — JPA
+ * and JdbcTemplate alike — with the parameter setters it was bound with, so a
+ * test can count round trips and replay a statement under EXPLAIN.
+ */
+public class StatementRecorder implements QueryExecutionListener {
+
+    /** One executed statement; {@code params} are the setter calls in execution order. */
+    public record Recorded(String sql, List<ParameterSetOperation> params) {}
+
+    private final List<Recorded> recorded = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo q : queryInfoList) {
+            List<List<ParameterSetOperation>> params = q.getParametersList();
+            recorded.add(new Recorded(q.getQuery(),
+                    params.isEmpty() ? List.of() : new ArrayList<>(params.get(0))));
+        }
+    }
+
+    public void reset() {
+        recorded.clear();
+    }
+
+    public int count() {
+        return recorded.size();
+    }
+
+    public List<Recorded> all() {
+        return List.copyOf(recorded);
+    }
+
+    /** The last statement whose SQL contains every fragment (case- and whitespace-insensitive). */
+    public Recorded last(String... fragments) {
+        for (int i = recorded.size() - 1; i >= 0; i--) {
+            Recorded r   = recorded.get(i);
+            String   sql = oneLine(r.sql()).toLowerCase(Locale.ROOT);
+            boolean  all = true;
+            for (String f : fragments) {
+                if (!sql.contains(f.toLowerCase(Locale.ROOT))) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) return r;
+        }
+        throw new AssertionError("No recorded statement contains " + List.of(fragments) + "\n" + describe());
+    }
+
+    /** Numbered SQL of everything recorded — the assertion message when a count is off. */
+    public String describe() {
+        List<Recorded> snapshot = all();
+        return snapshot.size() + " statement(s):\n" + IntStream.range(0, snapshot.size())
+                .mapToObj(i -> (i + 1) + ". " + oneLine(snapshot.get(i).sql()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    /** Hibernate formats its SQL over several lines (format_sql). */
+    private static String oneLine(String sql) {
+        return sql.replaceAll("\\s+", " ").trim();
+    }
+}
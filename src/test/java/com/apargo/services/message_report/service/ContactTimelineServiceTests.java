@@ -0,0 +1,154 @@
+package com.apargo.services.message_report.service;
+
+import com.apargo.services.message_report.dto.response.ChatMessageResponse;
+import com.apargo.services.message_report.dto.response.CursorPageResponse;
+import com.apargo.services.message_report.dto.response.TimelineItemResponse;
+import com.apargo.services.message_report.projection.MessageProjection;
+import com.apargo.services.message_report.projection.MessageRow;
+import com.apargo.services.message_report.projection.TimelineRow;
+import com.apargo.services.message_report.repository.ContactTimelineJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The k-way merge of per-contact timeline pages, directly and through
+ * getTimeline against an in-memory repository that answers contact pages
+ * with the same keyset (created_at DESC, id DESC) the SQL uses.
+ */
+class ContactTimelineServiceTests {
+
+    private static final Comparator<TimelineRow> NEWEST_FIRST =
+            Comparator.comparing((TimelineRow r) -> r.getMessage().getCreatedAt())
+                    .thenComparing(r -> r.getMessage().getMessageId())
+                    .reversed();
+
+    /** contactId → rows, newest first. */
+    private final Map<Long, List<TimelineRow>> data    = new TreeMap<>();
+    private final ContactTimelineService       service = new ContactTimelineService(
+            mock(ContactTimelineJdbcRepository.class, this::answer),
+            mock(ChatService.class, ContactTimelineServiceTests::mapMessages));
+
+    // ── merge ─────────────────────────────────────────────────────────────
+
+    @Test
+    void tiesOnCreatedAtAcrossContactsAreBrokenByIdDescending() {
+        List<TimelineRow> a = List.of(row(1, 10, 500), row(1, 7, 400));
+        List<TimelineRow> b = List.of(row(2, 12, 500), row(2, 8, 500), row(2, 3, 400));
+
+        assertThat(ids(ContactTimelineService.merge(List.of(a, b), 10))).containsExactly(12L, 10L, 8L, 7L, 3L);
+        assertThat(ids(ContactTimelineService.merge(List.of(b, a), 10))).containsExactly(12L, 10L, 8L, 7L, 3L);
+    }
+
+    @Test
+    void exhaustedStreamDropsOutAndTheOthersContinue() {
+        List<TimelineRow> shortStream = List.of(row(1, 50, 900));
+        List<TimelineRow> longStream  = List.of(row(2, 40, 800), row(2, 30, 700), row(2, 20, 600));
+        List<TimelineRow> empty       = List.of();
+
+        assertThat(ids(ContactTimelineService.merge(List.of(shortStream, empty, longStream), 10)))
+                .containsExactly(50L, 40L, 30L, 20L);
+    }
+
+    @Test
+    void stopsAtLimitSmallerThanTheTotal() {
+        List<TimelineRow> a = List.of(row(1, 9, 900), row(1, 5, 500), row(1, 1, 100));
+        List<TimelineRow> b = List.of(row(2, 8, 800), row(2, 4, 400));
+
+        assertThat(ids(ContactTimelineService.merge(List.of(a, b), 3))).containsExactly(9L, 8L, 5L);
+        assertThat(ids(ContactTimelineService.merge(List.of(a), 2))).containsExactly(9L, 5L);
+    }
+
+    // ── getTimeline ───────────────────────────────────────────────────────
+
+    @Test
+    void cursorResumesEveryContactStreamInOneOrder() {
+        // three contacts with the same number, interleaved, with created_at ties across contacts
+        for (int i = 0; i < 7; i++) add(1, 100 + i, 1_000 - i * 30);
+        for (int i = 0; i < 4; i++) add(2, 200 + i, 1_000 - i * 60);   // 200 ties with 100, 202 with 104
+        for (int i = 0; i < 9; i++) add(3, 300 + i, 990 - i * 25);
+
+        List<Long> expected = data.values().stream().flatMap(List::stream)
+                .sorted(NEWEST_FIRST).map(r -> r.getMessage().getMessageId()).toList();
+
+        List<Long> seen   = new ArrayList<>();
+        String     cursor = null;
+        do {
+            CursorPageResponse<TimelineItemResponse> page = service.getTimeline(1L, 1L, null, cursor, 4);
+            assertThat(page.getPageSize()).isLessThanOrEqualTo(4);
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            page.getData().forEach(item -> {
+                seen.add(item.getMessage().getMessageId());
+                assertThat(item.getContactId()).isEqualTo(item.getMessage().getMessageId() / 100);
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private static TimelineRow row(long contactId, long messageId, long epochSecond) {
+        MessageProjection message = MessageRow.builder()
+                .messageId(messageId)
+                .createdAt(Instant.ofEpochSecond(epochSecond))
+                .build();
+        return TimelineRow.builder()
+                .contactId(contactId)
+                .conversationId(contactId * 10)
+                .projectId(1L)
+                .wabaAccountId(1L)
+                .message(message)
+                .build();
+    }
+
+    private void add(long contactId, long messageId, long epochSecond) {
+        List<TimelineRow> rows = data.computeIfAbsent(contactId, k -> new ArrayList<>());
+        rows.add(row(contactId, messageId, epochSecond));
+        rows.sort(NEWEST_FIRST);
+    }
+
+    private static List<Long> ids(List<TimelineRow> rows) {
+        return rows.stream().map(r -> r.getMessage().getMessageId()).toList();
+    }
+
+    private Object answer(InvocationOnMock inv) {
+        return switch (inv.getMethod().getName()) {
+            case "findSameNumberContacts" -> List.copyOf(data.keySet());
+            case "findPage" -> {
+                Long    contactId  = inv.getArgument(1);
+                Instant cursorTime = inv.getArgument(2);
+                Long    cursorId   = inv.getArgument(3);
+                int     limit      = inv.getArgument(4);
+                yield data.getOrDefault(contactId, List.of()).stream()
+                        .filter(r -> cursorTime == null
+                                || r.getMessage().getCreatedAt().isBefore(cursorTime)
+                                || r.getMessage().getCreatedAt().equals(cursorTime)
+                                   && r.getMessage().getMessageId() < cursorId)
+                        .limit(limit)
+                        .toList();
+            }
+            default -> throw new UnsupportedOperationException(inv.getMethod().getName());
+        };
+    }
+
+    private static Object mapMessages(InvocationOnMock inv) {
+        if (!inv.getMethod().getName().equals("mapWithTemplateDetails")) {
+            throw new UnsupportedOperationException(inv.getMethod().getName());
+        }
+        List<MessageProjection> rows = inv.getArgument(0);
+        return rows.stream()
+                .map(p -> ChatMessageResponse.builder().messageId(p.getMessageId()).createdAt(p.getCreatedAt()).build())
+                .toList();
+    }
+}
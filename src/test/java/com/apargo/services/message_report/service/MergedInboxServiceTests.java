@@ -0,0 +1,167 @@
+package com.apargo.services.message_report.service;
+
+import com.apargo.services.message_report.config.MergedInboxProperties;
+import com.apargo.services.message_report.dto.request.InboxFilterRequest;
+import com.apargo.services.message_report.dto.response.CursorPageResponse;
+import com.apargo.services.message_report.dto.response.InboxItemResponse;
+import com.apargo.services.message_report.dto.response.MergedCursor;
+import com.apargo.services.message_report.dto.response.MergedCursor.Partition;
+import com.apargo.services.message_report.projection.InboxProjection;
+import com.apargo.services.message_report.projection.InboxRow;
+import com.apargo.services.message_report.repository.ConversationJdbcRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The k-way merge and per-partition positions of the merged inbox, against an
+ * in-memory repository that answers partition pages with the same keyset
+ * (lastMessageAt DESC, id DESC) the SQL uses.
+ */
+class MergedInboxServiceTests {
+
+    private static final Comparator<InboxProjection> NEWEST_FIRST =
+            Comparator.comparing(InboxProjection::getLastMessageAt)
+                    .thenComparing(InboxProjection::getConversationId)
+                    .reversed();
+
+    /** projectId → rows, newest first. */
+    private final Map<Long, List<InboxProjection>> data    = new TreeMap<>();
+    private final Map<Long, AtomicInteger>         fetches = new ConcurrentHashMap<>();
+    private final MergedInboxService               service = new MergedInboxService(
+            mock(ConversationJdbcRepository.class, this::answer), new MergedInboxProperties());
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void unevenPartitionsMergeIntoOneOrderAcrossPages() {
+        // project 2's only row is the newest; 1 and 3 interleave, with a timestamp tie across them
+        add(2, 200, 1_000);
+        for (int i = 0; i < 5;  i++) add(1, 100 + i, 900 - i * 20);
+        for (int i = 0; i < 12; i++) add(3, 300 + i, 890 - i * 10);
+        add(3, 350, 880);   // same instant as conversation 101 of project 1
+
+        List<Long> expected = data.values().stream().flatMap(List::stream)
+                .sorted(NEWEST_FIRST).map(InboxProjection::getConversationId).toList();
+
+        List<Long>   seen   = new ArrayList<>();
+        String       cursor = null;
+        int          pages  = 0;
+        do {
+            CursorPageResponse<InboxItemResponse> page = service.getMergedInbox(request(cursor, 4, 1L, 2L, 3L));
+            page.getData().forEach(item -> seen.add(item.getConversationId()));
+            assertThat(page.getPageSize()).isLessThanOrEqualTo(4);
+            if (pages == 0) {
+                assertThat(page.getTotalCount()).isEqualTo(expected.size());
+                // project 2 was read to the end on the first page: marked, never queried again
+                assertThat(MergedCursor.decode(page.getNextCursor()).get(new Partition(2, null)).isDone()).isTrue();
+            } else {
+                assertThat(page.getTotalCount()).isNull();
+            }
+            assertThat(page.isHasMore()).isEqualTo(page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo((expected.size() + 3) / 4);
+        assertThat(fetches.get(2L)).hasValue(1);
+        assertThat(fetches.get(1L).get()).isLessThan(pages);
+    }
+
+    /** A partition nothing was taken from keeps its position instead of skipping rows. */
+    @Test
+    void untouchedPartitionResumesWhereItWas() {
+        for (int i = 0; i < 6; i++) add(1, 100 + i, 1_000 - i);   // all newer than project 2
+        for (int i = 0; i < 3; i++) add(2, 200 + i, 500 - i);
+
+        CursorPageResponse<InboxItemResponse> first = service.getMergedInbox(request(null, 3, 1L, 2L));
+        assertThat(first.getData()).extracting(InboxItemResponse::getConversationId).containsExactly(100L, 101L, 102L);
+        assertThat(MergedCursor.decode(first.getNextCursor()).get(new Partition(2, null)).isStart()).isTrue();
+
+        CursorPageResponse<InboxItemResponse> second = service.getMergedInbox(request(first.getNextCursor(), 3, 1L, 2L));
+        assertThat(second.getData()).extracting(InboxItemResponse::getConversationId).containsExactly(103L, 104L, 105L);
+
+        CursorPageResponse<InboxItemResponse> third = service.getMergedInbox(request(second.getNextCursor(), 3, 1L, 2L));
+        assertThat(third.getData()).extracting(InboxItemResponse::getConversationId).containsExactly(200L, 201L, 202L);
+        assertThat(third.isHasMore()).isFalse();
+    }
+
+    @Test
+    void itemsSayWhichProjectTheyCameFrom() {
+        add(1, 100, 1_000);
+        add(2, 200, 900);
+
+        CursorPageResponse<InboxItemResponse> page = service.getMergedInbox(request(null, 10, 1L, 2L));
+        assertThat(page.getData()).extracting(InboxItemResponse::getProjectId).containsExactly(1L, 2L);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void rejectsACursorForOtherPartitions() {
+        add(1, 100, 1_000);
+        add(1, 101, 900);
+        add(2, 200, 800);
+        String cursor = service.getMergedInbox(request(null, 1, 1L, 2L)).getNextCursor();
+
+        assertThatThrownBy(() -> service.getMergedInbox(request(cursor, 1, 1L, 3L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private void add(long projectId, long conversationId, long epochSecond) {
+        List<InboxProjection> rows = data.computeIfAbsent(projectId, k -> new ArrayList<>());
+        rows.add(InboxRow.builder()
+                .conversationId(conversationId)
+                .lastMessageAt(Instant.ofEpochSecond(epochSecond))
+                .build());
+        rows.sort(NEWEST_FIRST);
+    }
+
+    private static InboxFilterRequest request(String cursor, int size, Long... projectIds) {
+        InboxFilterRequest req = new InboxFilterRequest();
+        req.setOrganizationId(1L);
+        req.setProjectIds(List.of(projectIds));
+        req.setCursor(cursor);
+        req.setSize(size);
+        return req;
+    }
+
+    private Object answer(InvocationOnMock inv) {
+        Long projectId = inv.getArgument(0);
+        List<InboxProjection> rows = data.getOrDefault(projectId, List.of());
+        return switch (inv.getMethod().getName()) {
+            case "findPartitionPage" -> {
+                fetches.computeIfAbsent(projectId, k -> new AtomicInteger()).incrementAndGet();
+                Instant cursorTime = inv.getArgument(12);
+                Long    cursorId   = inv.getArgument(13);
+                int     limit      = inv.getArgument(14);
+                yield rows.stream()
+                        .filter(r -> cursorTime == null
+                                || r.getLastMessageAt().isBefore(cursorTime)
+                                || r.getLastMessageAt().equals(cursorTime) && r.getConversationId() < cursorId)
+                        .limit(limit)
+                        .toList();
+            }
+            case "countPartition" -> (long) rows.size();
+            default -> throw new UnsupportedOperationException(inv.getMethod().getName());
+        };
+    }
+}
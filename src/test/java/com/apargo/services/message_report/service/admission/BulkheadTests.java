@@ -0,0 +1,180 @@
+package com.apargo.services.message_report.service.admission;
+
+import com.apargo.services.message_report.config.AdmissionProperties;
+import com.apargo.services.message_report.enums.QueryClass;
+import com.apargo.services.message_report.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Latencies are controlled by handing release() a grant time that lies the
+ * wanted duration in the past.
+ */
+class BulkheadTests {
+
+    private static final Duration TARGET = Duration.ofMillis(100);
+    private static final Duration FAST   = Duration.ofMillis(1);
+    private static final Duration SLOW   = Duration.ofMillis(500);
+
+    // ── AIMD ──────────────────────────────────────────────────────────────
+
+    @Test
+    void fastReleasesGrowTheLimitByOneOverLimit() {
+        Bulkhead bulkhead = bulkhead(limits(10, 2, 20, Duration.ofSeconds(1)), 1.0);
+
+        double expected = 10;
+        for (int i = 0; i < 10; i++) {
+            runFor(bulkhead, 1, FAST);
+            expected += 1.0 / expected;
+        }
+        assertThat(limit(bulkhead)).isCloseTo(expected, within(1e-9));
+        assertThat(limit(bulkhead)).isBetween(10.9, 11.0);
+    }
+
+    @Test
+    void growthStopsAtMaxLimit() {
+        Bulkhead bulkhead = bulkhead(limits(10, 2, 11, Duration.ofSeconds(1)), 1.0);
+        for (int i = 0; i < 100; i++) runFor(bulkhead, 1, FAST);
+        assertThat(limit(bulkhead)).isEqualTo(11.0);
+    }
+
+    @Test
+    void slowReleaseCutsTheLimitByBackoffAtMostOncePerTargetLatency() throws Exception {
+        Bulkhead bulkhead = bulkhead(limits(10, 2, 20, Duration.ofSeconds(1)), 1.0);
+
+        runFor(bulkhead, 1, SLOW);
+        assertThat(limit(bulkhead)).isCloseTo(9.0, within(1e-9));
+
+        runFor(bulkhead, 1, SLOW);   // same burst: no second cut
+        assertThat(limit(bulkhead)).isCloseTo(9.0, within(1e-9));
+
+        Thread.sleep(TARGET.toMillis() + 20);
+        runFor(bulkhead, 1, SLOW);
+        assertThat(limit(bulkhead)).isCloseTo(8.1, within(1e-9));
+    }
+
+    @Test
+    void cutsStopAtMinLimit() throws Exception {
+        Bulkhead bulkhead = bulkhead(limits(3, 2, 20, Duration.ofSeconds(1)), 1.0);
+        for (int i = 0; i < 5; i++) {
+            runFor(bulkhead, 1, SLOW);
+            Thread.sleep(TARGET.toMillis() + 20);
+        }
+        assertThat(limit(bulkhead)).isEqualTo(2.0);
+    }
+
+    // ── Per-organization cap ──────────────────────────────────────────────
+
+    @Test
+    void organizationAtItsShareIsRejectedWithoutQueueing() {
+        // limit 4 × share 0.5 → two slots per organization; a long queue wait that must not be used
+        Bulkhead bulkhead = bulkhead(limits(4, 1, 4, Duration.ofSeconds(5)), 0.5);
+        bulkhead.acquire(1);
+        bulkhead.acquire(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.acquire(1))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .hasMessageContaining("Organization 1");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+
+        bulkhead.acquire(2);   // other tenants still get the free slots
+        assertThat(bulkhead.stats().getInFlight()).isEqualTo(3);
+        assertThat(bulkhead.stats().getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void releasingFreesTheOrganizationsShare() {
+        Bulkhead bulkhead = bulkhead(limits(4, 1, 4, Duration.ofSeconds(5)), 0.5);
+        long first = bulkhead.acquire(1);
+        bulkhead.acquire(1);
+
+        bulkhead.release(1, first);
+        bulkhead.acquire(1);
+        assertThat(bulkhead.stats().getInFlight()).isEqualTo(2);
+    }
+
+    // ── Queue wait ────────────────────────────────────────────────────────
+
+    @Test
+    void waitsAtMostMaxQueueWaitForAFreeSlot() {
+        Duration wait     = Duration.ofMillis(150);
+        Bulkhead bulkhead = bulkhead(limits(2, 2, 2, wait), 1.0);
+        bulkhead.acquire(1);
+        bulkhead.acquire(2);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> bulkhead.acquire(3))
+                .isInstanceOf(AdmissionRejectedException.class)
+                .hasMessageContaining("Too many concurrent CHEAP queries");
+        Duration waited = Duration.ofNanos(System.nanoTime() - start);
+        assertThat(waited).isGreaterThanOrEqualTo(wait).isLessThan(wait.multipliedBy(10));
+    }
+
+    @Test
+    void queuedRequestIsAdmittedWhenASlotFrees() throws Exception {
+        Bulkhead bulkhead = bulkhead(limits(1, 1, 1, Duration.ofSeconds(5)), 1.0);
+        long granted = bulkhead.acquire(1);
+
+        CompletableFuture<Long> waiting = CompletableFuture.supplyAsync(() -> bulkhead.acquire(2));
+        Thread.sleep(50);
+        assertThat(waiting).isNotDone();
+
+        bulkhead.release(1, granted);
+        waiting.get(5, TimeUnit.SECONDS);
+        assertThat(bulkhead.stats().getInFlight()).isEqualTo(1);
+        assertThat(bulkhead.stats().getAdmitted()).isEqualTo(2);
+    }
+
+    @Test
+    void queueWaitIsRecordedForAdmittedAndTimedOutRequests() {
+        Duration wait     = Duration.ofMillis(100);
+        Bulkhead bulkhead = bulkhead(limits(1, 1, 1, wait), 1.0);
+        Timer    timer    = Timer.builder("queue_wait").register(new SimpleMeterRegistry());
+        bulkhead.queueWait(timer);
+
+        bulkhead.acquire(1);
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isLessThan(wait.toMillis());
+
+        assertThatThrownBy(() -> bulkhead.acquire(2)).isInstanceOf(AdmissionRejectedException.class);
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(wait.toMillis());
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private static AdmissionProperties.Limits limits(int initial, int min, int max, Duration maxQueueWait) {
+        AdmissionProperties.Limits limits = new AdmissionProperties.Limits();
+        limits.setInitialLimit(initial);
+        limits.setMinLimit(min);
+        limits.setMaxLimit(max);
+        limits.setTargetLatency(TARGET);
+        limits.setBackoff(0.9);
+        limits.setMaxQueueWait(maxQueueWait);
+        return limits;
+    }
+
+    private static Bulkhead bulkhead(AdmissionProperties.Limits limits, double organizationShare) {
+        return new Bulkhead(QueryClass.CHEAP, limits, organizationShare);
+    }
+
+    /** One request of {@code organizationId} that took {@code latency}. */
+    private static void runFor(Bulkhead bulkhead, long organizationId, Duration latency) {
+        long granted = bulkhead.acquire(organizationId);
+        bulkhead.release(organizationId, granted - latency.toNanos());
+    }
+
+    private static double limit(Bulkhead bulkhead) {
+        return bulkhead.stats().getLimit();
+    }
+}
@@ -0,0 +1,80 @@
+package com.apargo.services.message_report.service.broadcast;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class E164Tests {
+
+    @Test
+    void plusAndDoubleZeroPrefixesAreInternational() {
+        assertThat(E164.parse("+919876543210", "")).isEqualTo(919876543210L);
+        assertThat(E164.parse("00919876543210", "")).isEqualTo(919876543210L);
+        assertThat(E164.parse("00919876543210", "55")).isEqualTo(919876543210L);
+    }
+
+    @Test
+    void separatorsAndSurroundingSpacesAreIgnored() {
+        assertThat(E164.parse("+55 (11) 98765-4321", "")).isEqualTo(5511987654321L);
+        assertThat(E164.parse("+55.11.98765.4321", "")).isEqualTo(5511987654321L);
+        assertThat(E164.parse("  00 55 11 98765 4321  ", "")).isEqualTo(5511987654321L);
+    }
+
+    @Test
+    void otherCharactersAreInvalid() {
+        assertThat(E164.parse("+55 11 9876x4321", "")).isEqualTo(E164.INVALID);
+        assertThat(E164.parse("+55/11/987654321", "")).isEqualTo(E164.INVALID);
+        assertThat(E164.parse("", "55")).isEqualTo(E164.INVALID);
+    }
+
+    @Test
+    void trunkZeroIsReplacedByTheDefaultCountryCode() {
+        assertThat(E164.parse("098765 43210", "91")).isEqualTo(919876543210L);
+        assertThat(E164.parse("(0) 11 98765-4321", "55")).isEqualTo(5511987654321L);
+    }
+
+    @Test
+    void shortNationalNumberGetsTheDefaultCountryCode() {
+        assertThat(E164.parse("98765 43210", "91")).isEqualTo(919876543210L);
+    }
+
+    @Test
+    void longNumberWithoutPrefixAlreadyCarriesItsCountryCode() {
+        assertThat(E164.parse("919876543210", "55")).isEqualTo(919876543210L);
+        assertThat(E164.parse("919876543210", "")).isEqualTo(919876543210L);
+    }
+
+    /** Without a default country there is nothing to complete a national number with. */
+    @Test
+    void nationalNumbersAreInvalidWithoutDefaultCountryCode() {
+        assertThat(E164.parse("098765 43210", "")).isEqualTo(E164.INVALID);
+        assertThat(E164.parse("98765 43210", "")).isEqualTo(E164.INVALID);
+        assertThat(E164.parse("12345678", "")).isEqualTo(E164.INVALID);
+    }
+
+    @Test
+    void atMostFifteenDigits() {
+        assertThat(E164.parse("+123456789012345", "")).isEqualTo(123456789012345L);
+        assertThat(E164.parse("+1234567890123456", "")).isEqualTo(E164.INVALID);
+        // the default country code counts towards the limit
+        assertThat(E164.parse("0123456789012", "1234")).isEqualTo(E164.INVALID);
+    }
+
+    @Test
+    void fewerThanEightDigitsIsInvalid() {
+        assertThat(E164.parse("+1234567", "")).isEqualTo(E164.INVALID);
+        assertThat(E164.parse("+12345678", "")).isEqualTo(12345678L);
+    }
+
+    @Test
+    void parsesACharRange() {
+        char[] buf = "[\"+5511987654321\"]".toCharArray();
+        assertThat(E164.parse(buf, 2, 14, "")).isEqualTo(5511987654321L);
+    }
+
+    @Test
+    void formatRoundTrips() {
+        assertThat(E164.format(5511987654321L)).isEqualTo("+5511987654321");
+        assertThat(E164.parse(E164.format(5511987654321L), "")).isEqualTo(5511987654321L);
+    }
+}
@@ -0,0 +1,177 @@
+package com.apargo.services.message_report.service.inbox;
+
+import com.apargo.services.message_report.dto.response.CursorUtil;
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.service.inbox.ColumnarInbox.Meta;
+import com.apargo.services.message_report.service.inbox.InboxIndex.Page;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.apargo.services.message_report.service.inbox.ColumnarInbox.NULL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Snapshot updates must equal a fresh build of the same rows, and pages must
+ * equal what ConversationJdbcRepository's keyset query returns:
+ * ORDER BY last_message_at DESC, id DESC (NULLs last), next pages
+ * WHERE last_message_at < t OR (last_message_at = t AND id < id).
+ */
+class ColumnarInboxTests {
+
+    private static final byte OPEN   = (byte) ConversationStatus.OPEN.ordinal();
+    private static final byte CLOSED = (byte) ConversationStatus.CLOSED.ordinal();
+
+    /** MySQL's order for the inbox; NULL last_message_at sorts last under DESC. */
+    private static final Comparator<Meta> SQL_ORDER = Comparator
+            .comparing((Meta m) -> m.lastMessageAt() == NULL ? null : m.lastMessageAt(),
+                    Comparator.nullsLast(Comparator.<Long>reverseOrder()))
+            .thenComparing(Meta::id, Comparator.reverseOrder());
+
+    // ── apply ─────────────────────────────────────────────────────────────
+
+    @Test
+    void changedRowMovesToItsNewPosition() {
+        List<Meta>    rows  = List.of(meta(1, 100), meta(2, 200), meta(3, 300), meta(4, 400));
+        ColumnarInbox inbox = ColumnarInbox.build(rows);
+        assertThat(ids(inbox)).containsExactly(4L, 3L, 2L, 1L);
+
+        ColumnarInbox newest = inbox.apply(List.of(meta(2, 500)));
+        assertThat(ids(newest)).containsExactly(2L, 4L, 3L, 1L);
+        assertThat(newest.lastMessageAt).containsExactly(500, 400, 300, 100);
+
+        ColumnarInbox oldest = newest.apply(List.of(meta(4, 50)));
+        assertThat(ids(oldest)).containsExactly(2L, 3L, 1L, 4L);
+
+        ColumnarInbox tie = oldest.apply(List.of(meta(1, 300)));   // same instant as 3: higher id first
+        assertThat(ids(tie)).containsExactly(2L, 3L, 1L, 4L);
+
+        assertThat(ids(inbox)).as("the old snapshot is untouched").containsExactly(4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void reapplyingOverlappingChangesMatchesAFreshBuild() {
+        Random          random = new Random(11);
+        Map<Long, Meta> latest = new LinkedHashMap<>();
+        for (Meta m : rows(300, random)) latest.put(m.id(), m);
+        ColumnarInbox inbox = ColumnarInbox.build(List.copyOf(latest.values()));
+
+        // Each refresh re-reads an overlap window: the previous batch's rows come back, some changed
+        // again; like the feed's SELECT, a batch holds each id once, as its current row
+        List<Long> previous = List.of();
+        for (int round = 0; round < 20; round++) {
+            Map<Long, Meta> feed    = new LinkedHashMap<>();
+            List<Long>      changed = new ArrayList<>();
+            for (long id : previous) feed.put(id, latest.get(id));
+            for (int k = 0; k < 15; k++) {
+                long id = 1 + random.nextInt(320);   // ids past 300 are new conversations
+                feed.put(id, random(id, random));
+                changed.add(id);
+            }
+            latest.putAll(feed);
+            inbox    = inbox.apply(List.copyOf(feed.values()));
+            previous = changed;
+
+            assertSameRows(inbox, ColumnarInbox.build(List.copyOf(latest.values())));
+        }
+    }
+
+    // ── keyset ────────────────────────────────────────────────────────────
+
+    @Test
+    void pagesMatchTheSqlKeysetIncludingNullLastMessageAt() {
+        List<Meta> rows = new ArrayList<>(rows(60, new Random(5)));
+        for (long id = 61; id <= 70; id++) {
+            rows.add(new Meta(id, 1, id % 2 == 0 ? OPEN : CLOSED, (byte) 0, NULL, NULL, 0, NULL));
+        }
+        ColumnarInbox inbox  = ColumnarInbox.build(rows);
+        InboxFacets   facets = InboxFacets.build(inbox);
+
+        for (InboxFilter f : List.of(filter(-1), filter(OPEN))) {
+            for (int limit : new int[]{7, 40, 65, 100}) {
+                for (InboxFacets withFacets : new InboxFacets[]{null, facets}) {
+                    String cursor = null;
+                    int    pages  = 0;
+                    do {
+                        Page page = InboxIndex.page(inbox, withFacets, f, cursor, limit, 0);
+                        assertThat(ids(page)).as("%s limit %d page %d", f, limit, pages)
+                                .containsExactlyElementsOf(sqlPage(rows, f, cursor, limit));
+                        // a cursor on a NULL row must give an empty page, as the SQL does
+                        cursor = page.size() == limit ? page.cursorAt(limit - 1) : null;
+                        pages++;
+                    } while (cursor != null);
+                }
+            }
+        }
+
+        // The first page reaches the NULL rows when everything else fits on it
+        assertThat(ids(InboxIndex.page(inbox, null, filter(-1), null, 100, 0)))
+                .hasSize(70).endsWith(70L, 69L, 68L, 67L, 66L, 65L, 64L, 63L, 62L, 61L);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private static Meta meta(long id, long lastMessageAt) {
+        return new Meta(id, 1, OPEN, (byte) AssignedType.UNASSIGNED.ordinal(), NULL, lastMessageAt, 0, NULL);
+    }
+
+    private static Meta random(long id, Random random) {
+        long at = random.nextInt(10) == 0 ? NULL : 1_000L + random.nextInt(200);   // few distinct instants: ties
+        return new Meta(id, 1, random.nextBoolean() ? OPEN : CLOSED, (byte) random.nextInt(AssignedType.values().length),
+                NULL, at, random.nextInt(3), NULL);
+    }
+
+    private static List<Meta> rows(int n, Random random) {
+        List<Meta> rows = new ArrayList<>(n);
+        for (long id = 1; id <= n; id++) {
+            rows.add(new Meta(id, 1, random.nextBoolean() ? OPEN : CLOSED, (byte) 0, NULL,
+                    1_000L + random.nextInt(40), 0, NULL));
+        }
+        return rows;
+    }
+
+    private static InboxFilter filter(int status) {
+        return new InboxFilter(status, NULL, -1, NULL, false, false, NULL, NULL);
+    }
+
+    /** What the SQL returns for the filter's status, the cursor and the limit. */
+    private static List<Long> sqlPage(List<Meta> rows, InboxFilter f, String cursor, int limit) {
+        long[] c = cursor != null ? CursorUtil.decode(cursor) : null;
+        return rows.stream()
+                .filter(m -> f.status() < 0 || m.status() == f.status())
+                .filter(m -> c == null
+                        || m.lastMessageAt() != NULL
+                           && (m.lastMessageAt() < c[0] || m.lastMessageAt() == c[0] && m.id() < c[1]))
+                .sorted(SQL_ORDER)
+                .limit(limit)
+                .map(Meta::id)
+                .toList();
+    }
+
+    private static List<Long> ids(ColumnarInbox inbox) {
+        List<Long> ids = new ArrayList<>(inbox.size);
+        for (int i = 0; i < inbox.size; i++) ids.add(inbox.ids[i]);
+        return ids;
+    }
+
+    private static List<Long> ids(Page page) {
+        List<Long> ids = new ArrayList<>(page.size());
+        for (long id : page.ids()) ids.add(id);
+        return ids;
+    }
+
+    private static void assertSameRows(ColumnarInbox actual, ColumnarInbox expected) {
+        assertThat(actual.size).isEqualTo(expected.size);
+        assertThat(actual.ids).containsExactly(expected.ids);
+        assertThat(actual.lastMessageAt).containsExactly(expected.lastMessageAt);
+        assertThat(actual.status).containsExactly(expected.status);
+        assertThat(actual.assignedType).containsExactly(expected.assignedType);
+        assertThat(actual.unreadCount).containsExactly(expected.unreadCount);
+    }
+}
@@ -0,0 +1,99 @@
+package com.apargo.services.message_report.service.inbox;
+
+import com.apargo.services.message_report.enums.AssignedType;
+import com.apargo.services.message_report.enums.ConversationStatus;
+import com.apargo.services.message_report.service.inbox.ColumnarInbox.Meta;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.apargo.services.message_report.service.inbox.ColumnarInbox.NULL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Bitmap answers must equal the column scan (InboxFilter.matches) they replace. */
+class InboxFacetsTests {
+
+    private static final int OPEN = ConversationStatus.OPEN.ordinal();
+    private static final int USER = AssignedType.USER.ordinal();
+    private static final int TEAM = AssignedType.TEAM.ordinal();
+
+    @Test
+    void matchingAndCountAgreeWithTheColumnScan() {
+        ColumnarInbox inbox  = ColumnarInbox.build(rows(2_000, new Random(7)));
+        InboxFacets   facets = InboxFacets.build(inbox);
+
+        for (InboxFilter f : List.of(
+                filter(-1,   NULL, -1,   NULL, false),
+                filter(OPEN, NULL, -1,   NULL, false),
+                filter(OPEN, 3,    -1,   NULL, false),
+                filter(OPEN, NULL, TEAM, 9,    false),
+                filter(OPEN, NULL, -1,   NULL, true),
+                filter(OPEN, 2,    -1,   NULL, true),
+                filter(OPEN, 4,    USER, 4,    true),
+                filter(OPEN, 99,   -1,   NULL, false))) {     // unknown assignee: nothing
+            RoaringBitmap expected = scan(inbox, f);
+            assertThat(facets.matching(f)).as("%s", f).isEqualTo(expected);
+            assertThat(facets.count(f)).as("%s", f).isEqualTo(expected.getLongCardinality());
+        }
+    }
+
+    @Test
+    void matchingReturnsACopyTheCallerMayModify() {
+        ColumnarInbox inbox  = ColumnarInbox.build(rows(100, new Random(1)));
+        InboxFacets   facets = InboxFacets.build(inbox);
+        InboxFilter   open   = filter(OPEN, NULL, -1, NULL, false);
+
+        long before = facets.count(open);
+        facets.matching(open).clear();
+        assertThat(facets.count(open)).isEqualTo(before);
+    }
+
+    @Test
+    void appliedChangesMoveConversationsBetweenBuckets() {
+        List<Meta>    rows   = rows(500, new Random(3));
+        ColumnarInbox inbox  = ColumnarInbox.build(rows);
+        InboxFacets   facets = InboxFacets.build(inbox);
+
+        List<Meta> changes = new ArrayList<>();
+        for (Meta m : rows.subList(0, 50)) {
+            changes.add(new Meta(m.id(), m.organizationId(), (byte) OPEN, (byte) USER, 4,
+                    m.lastMessageAt() + 1, 1, m.openUntil()));
+        }
+        ColumnarInbox nextInbox  = inbox.apply(changes);
+        InboxFacets   nextFacets = facets.apply(changes);
+
+        InboxFilter mineUnread = filter(OPEN, 4, -1, NULL, true);
+        assertThat(nextFacets.matching(mineUnread)).isEqualTo(scan(nextInbox, mineUnread));
+        assertThat(facets.matching(mineUnread)).as("the old snapshot is untouched").isEqualTo(scan(inbox, mineUnread));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private static List<Meta> rows(int n, Random random) {
+        int        statuses = ConversationStatus.values().length;
+        int        types    = AssignedType.values().length;
+        List<Meta> rows     = new ArrayList<>(n);
+        for (int id = 1; id <= n; id++) {
+            int  type     = random.nextInt(types);
+            long assignee = type == USER ? 1 + random.nextInt(5) : type == TEAM ? 9 : NULL;
+            rows.add(new Meta(id, 1, (byte) random.nextInt(statuses), (byte) type, assignee,
+                    1_000_000L + random.nextInt(100_000), random.nextInt(3), NULL));
+        }
+        return rows;
+    }
+
+    private static InboxFilter filter(int status, long userId, int assignedType, long assignedId, boolean unreadOnly) {
+        return new InboxFilter(status, userId, assignedType, assignedId, unreadOnly, false, NULL, NULL);
+    }
+
+    private static RoaringBitmap scan(ColumnarInbox inbox, InboxFilter f) {
+        RoaringBitmap ids = new RoaringBitmap();
+        for (int i = 0; i < inbox.size; i++) {
+            if (f.matches(inbox, i, 0)) ids.add((int) inbox.ids[i]);
+        }
+        return ids;
+    }
+}
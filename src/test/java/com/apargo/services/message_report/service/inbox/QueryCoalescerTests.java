@@ -0,0 +1,202 @@
+package com.apargo.services.message_report.service.inbox;
+
+import com.apargo.services.message_report.config.QueryCoalescingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryCoalescerTests {
+
+    /** Counts transactions instead of opening them — no DataSource needed. */
+    private static final class CountingTxManager implements PlatformTransactionManager {
+        final AtomicInteger begun = new AtomicInteger();
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            begun.incrementAndGet();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override public void commit(TransactionStatus status)   { }
+        @Override public void rollback(TransactionStatus status) { }
+    }
+
+    private final ExecutorService   pool = Executors.newCachedThreadPool();
+    private final CountingTxManager tx   = new CountingTxManager();
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCallsRunTheQueryOnce() throws Exception {
+        QueryCoalescer coalescer = coalescer(Duration.ZERO);
+        AtomicInteger  runs      = new AtomicInteger();
+        CountDownLatch entered   = new CountDownLatch(1);
+        CountDownLatch release   = new CountDownLatch(1);
+
+        Future<String> leader = pool.submit(() -> coalescer.run("k", () -> {
+            runs.incrementAndGet();
+            entered.countDown();
+            await(release);
+            return "rows";
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<Thread>         followers = new ArrayList<>();
+        List<Future<String>> results   = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            CountDownLatch started = new CountDownLatch(1);
+            Thread[]       self    = new Thread[1];
+            results.add(pool.submit(() -> {
+                self[0] = Thread.currentThread();
+                started.countDown();
+                return coalescer.run("k", () -> {
+                    runs.incrementAndGet();
+                    return "own";
+                });
+            }));
+            started.await();
+            followers.add(self[0]);
+        }
+        for (Thread t : followers) awaitParked(t);
+
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("rows");
+        for (Future<String> r : results) assertThat(r.get(5, TimeUnit.SECONDS)).isEqualTo("rows");
+        assertThat(runs).hasValue(1);
+        assertThat(tx.begun).as("only the leader opens a transaction").hasValue(1);
+    }
+
+    @Test
+    void leaderFailureIsNotReusedAfterCompletion() {
+        QueryCoalescer coalescer = coalescer(Duration.ofMinutes(1));
+        AtomicInteger  runs      = new AtomicInteger();
+
+        assertThatThrownBy(() -> coalescer.run("k", () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        String value = coalescer.run("k", () -> {
+            runs.incrementAndGet();
+            return "rows";
+        });
+        assertThat(value).isEqualTo("rows");
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void resultIsReusedOnlyWithinTheWindow() throws Exception {
+        QueryCoalescer coalescer = coalescer(Duration.ofMillis(50));
+        AtomicInteger  runs      = new AtomicInteger();
+
+        assertThat(coalescer.run("k", runs::incrementAndGet)).isEqualTo(1);
+        assertThat(coalescer.run("k", runs::incrementAndGet)).as("within the window").isEqualTo(1);
+
+        Thread.sleep(80);
+        assertThat(coalescer.run("k", runs::incrementAndGet)).as("after the window").isEqualTo(2);
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        QueryCoalescer coalescer = coalescer(Duration.ofMinutes(1));
+        AtomicInteger  runs      = new AtomicInteger();
+
+        coalescer.run("a", runs::incrementAndGet);
+        coalescer.run("b", runs::incrementAndGet);
+        assertThat(runs).hasValue(2);
+    }
+
+    /** A leader whose request went away must not fail the followers — one of them reruns the query. */
+    @Test
+    void followersRerunWhenTheLeaderIsInterrupted() throws Exception {
+        QueryCoalescer coalescer = coalescer(Duration.ZERO);
+        AtomicInteger  runs      = new AtomicInteger();
+        CountDownLatch entered   = new CountDownLatch(1);
+        CountDownLatch release   = new CountDownLatch(1);
+
+        Future<String> leader = pool.submit(() -> coalescer.run("k", () -> {
+            runs.incrementAndGet();
+            entered.countDown();
+            await(release);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("request aborted");
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch started  = new CountDownLatch(1);
+        Thread[]       self     = new Thread[1];
+        Future<String> follower = pool.submit(() -> {
+            self[0] = Thread.currentThread();
+            started.countDown();
+            return coalescer.run("k", () -> {
+                runs.incrementAndGet();
+                return "rows";
+            });
+        });
+        started.await();
+        awaitParked(self[0]);
+
+        release.countDown();
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("rows");
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void disabledRunsEveryCallInItsOwnTransaction() {
+        QueryCoalescingProperties props = new QueryCoalescingProperties();
+        props.setEnabled(false);
+        QueryCoalescer coalescer = new QueryCoalescer(props, tx);
+        AtomicInteger  runs      = new AtomicInteger();
+
+        coalescer.run("k", runs::incrementAndGet);
+        coalescer.run("k", runs::incrementAndGet);
+        assertThat(runs).hasValue(2);
+        assertThat(tx.begun).hasValue(2);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────
+
+    private QueryCoalescer coalescer(Duration reuseWindow) {
+        QueryCoalescingProperties props = new QueryCoalescingProperties();
+        props.setReuseWindow(reuseWindow);
+        return new QueryCoalescer(props, tx);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Waits until the thread blocks on the shared result (a follower parked in join()). */
+    private static void awaitParked(Thread t) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (t.getState() != Thread.State.WAITING && t.getState() != Thread.State.TIMED_WAITING) {
+            if (System.nanoTime() > deadline) throw new AssertionError("thread never blocked: " + t.getState());
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.apargo.services.message_report.service.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTests {
+
+    @Test
+    void neverReportsAnAddedFingerprintAsAbsent() {
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) bloom.add(Fingerprints.of("wamid." + i));
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloom.mightContain(Fingerprints.of("wamid." + i))).isTrue();
+        }
+    }
+
+    /** Sized for n at fpp p, the observed false-positive rate at n entries stays near p. */
+    @Test
+    void falsePositiveRateMatchesSizing() {
+        assertFalsePositiveRate(10_000, 0.01);
+        assertFalsePositiveRate(10_000, 0.001);
+        assertFalsePositiveRate(200_000, 0.01);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter bloom = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(bloom.mightContain(Fingerprints.of("wamid." + i))).isFalse();
+        }
+    }
+
+    /** Degenerate sizing (no expected entries) still yields a working filter. */
+    @Test
+    void toleratesZeroExpectedEntries() {
+        BloomFilter bloom = new BloomFilter(0, 0.01);
+        bloom.add(Fingerprints.of("wamid.a"));
+
+        assertThat(bloom.mightContain(Fingerprints.of("wamid.a"))).isTrue();
+    }
+
+    private static void assertFalsePositiveRate(int n, double fpp) {
+        BloomFilter bloom = new BloomFilter(n, fpp);
+        for (int i = 0; i < n; i++) bloom.add(Fingerprints.of("in." + i));
+
+        int probes = 200_000, positives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (bloom.mightContain(Fingerprints.of("out." + i))) positives++;
+        }
+        assertThat((double) positives / probes)
+                .as("false-positive rate for n=%d, fpp=%s", n, fpp)
+                .isLessThan(fpp * 2);
+    }
+}
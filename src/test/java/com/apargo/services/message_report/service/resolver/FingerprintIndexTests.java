@@ -0,0 +1,96 @@
+package com.apargo.services.message_report.service.resolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintIndexTests {
+
+    @Test
+    void putAndFind() {
+        FingerprintIndex idx = new FingerprintIndex(16);
+        idx.put(42L, 1001L, 7L);
+
+        int slot = idx.find(42L);
+        assertThat(slot).isGreaterThanOrEqualTo(0);
+        assertThat(idx.messageIdAt(slot)).isEqualTo(1001L);
+        assertThat(idx.conversationIdAt(slot)).isEqualTo(7L);
+        assertThat(idx.find(43L)).isEqualTo(-1);
+        assertThat(idx.size()).isEqualTo(1);
+    }
+
+    /** Keys equal modulo the table size share a home slot and must all stay reachable. */
+    @Test
+    void collidingKeysProbeToDistinctSlots() {
+        FingerprintIndex idx = new FingerprintIndex(16);   // 32 slots
+        long[] keys = {5L, 5L + 32, 5L + 64, 5L + 96};
+        for (int i = 0; i < keys.length; i++) idx.put(keys[i], 100 + i, 200 + i);
+
+        Set<Integer> slots = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            int slot = idx.find(keys[i]);
+            assertThat(idx.messageIdAt(slot)).isEqualTo(100 + i);
+            assertThat(idx.conversationIdAt(slot)).isEqualTo(200 + i);
+            slots.add(slot);
+        }
+        assertThat(slots).hasSize(keys.length);
+        assertThat(idx.find(5L + 128)).isEqualTo(-1);   // same home slot, absent: probe stops at the gap
+    }
+
+    /** A run that starts in the last slot continues at slot 0. */
+    @Test
+    void probingWrapsAroundTheEnd() {
+        FingerprintIndex idx = new FingerprintIndex(16);   // 32 slots
+        idx.put(31L, 1L, 1L);
+        idx.put(31L + 32, 2L, 2L);
+        idx.put(31L + 64, 3L, 3L);
+
+        assertThat(idx.messageIdAt(idx.find(31L + 32))).isEqualTo(2L);
+        assertThat(idx.messageIdAt(idx.find(31L + 64))).isEqualTo(3L);
+    }
+
+    /**
+     * Entries are never removed one by one (the resolver drops whole buckets);
+     * re-putting a key replaces its values in place.
+     */
+    @Test
+    void putReplacesExistingKey() {
+        FingerprintIndex idx = new FingerprintIndex(16);
+        idx.put(9L, 1L, 1L);
+        idx.put(9L, 2L, 3L);
+
+        assertThat(idx.size()).isEqualTo(1);
+        assertThat(idx.messageIdAt(idx.find(9L))).isEqualTo(2L);
+        assertThat(idx.conversationIdAt(idx.find(9L))).isEqualTo(3L);
+    }
+
+    @Test
+    void growsPastInitialCapacityWithoutLosingEntries() {
+        FingerprintIndex idx = new FingerprintIndex(16);
+        int n = 50_000;
+        for (int i = 1; i <= n; i++) idx.put(Fingerprints.of("wamid." + i), i, i * 10L);
+
+        assertThat(idx.size()).isEqualTo(n);
+        for (int i = 1; i <= n; i++) {
+            int slot = idx.find(Fingerprints.of("wamid." + i));
+            assertThat(slot).isGreaterThanOrEqualTo(0);
+            assertThat(idx.messageIdAt(slot)).isEqualTo(i);
+            assertThat(idx.conversationIdAt(slot)).isEqualTo(i * 10L);
+        }
+
+        long[] visited = {0};
+        idx.forEachKey(k -> visited[0]++);
+        assertThat(visited[0]).isEqualTo(n);
+    }
+
+    @Test
+    void fingerprintsAreNeverZero() {
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(Fingerprints.of("wamid." + i)).isNotZero();
+        }
+        assertThat(Fingerprints.of("")).isNotZero();
+    }
+}
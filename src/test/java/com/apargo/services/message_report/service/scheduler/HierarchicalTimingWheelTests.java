@@ -0,0 +1,137 @@
+package com.apargo.services.message_report.service.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTests {
+
+    // 10 ms ticks, 8 slots, 3 levels: level 0 < 8 ticks, level 1 < 64, level 2 < 512
+    private static final long TICK   = 10;
+    private static final int  SLOTS  = 8;
+    private static final int  LEVELS = 3;
+
+    @Test
+    void firesOnTheDeadlineTickAndNotBefore() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, SLOTS, LEVELS, 0);
+        assertThat(wheel.schedule(1, 25)).isTrue();   // rounds up to tick 3
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(20, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.contains(1)).isTrue();
+
+        wheel.advance(30, fired::add);
+        assertThat(fired).containsExactly(1L);
+        assertThat(wheel.contains(1)).isFalse();
+    }
+
+    /** Timers placed on levels 1 and 2 are cascaded down and fire exactly on their tick. */
+    @Test
+    void cascadesAcrossLevelsToTheExactTick() {
+        long start = 5 * TICK;   // not aligned to any level boundary
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, SLOTS, LEVELS, start);
+
+        Map<Long, Long> deadlineTick = new HashMap<>();
+        Random random = new Random(42);
+        for (long id = 1; id <= 300; id++) {
+            long tick = 5 + 1 + random.nextInt(500);
+            deadlineTick.put(id, tick);
+            assertThat(wheel.schedule(id, tick * TICK)).isTrue();
+        }
+        deadlineTick.put(1_000L, 5 + 8L);   wheel.schedule(1_000, (5 + 8) * TICK);    // first level-1 timer
+        deadlineTick.put(1_001L, 5 + 64L);  wheel.schedule(1_001, (5 + 64) * TICK);   // first level-2 timer
+        deadlineTick.put(1_002L, 5 + 511L); wheel.schedule(1_002, (5 + 511) * TICK);  // edge of the range
+
+        Map<Long, Long> firedAt = new HashMap<>();
+        for (long tick = 6; tick <= 5 + 512; tick++) {
+            long now = tick;
+            wheel.advance(tick * TICK, id -> assertThat(firedAt.put(id, now)).as("id %d fired twice", id).isNull());
+        }
+        assertThat(firedAt).isEqualTo(deadlineTick);
+        assertThat(wheel.ids()).isEmpty();
+    }
+
+    /** Jumping many ticks in one advance still fires everything due, in deadline order. */
+    @Test
+    void advanceOverManyTicksFiresInDeadlineOrder() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, SLOTS, LEVELS, 0);
+        wheel.schedule(3, 300 * TICK);
+        wheel.schedule(1, 2 * TICK);
+        wheel.schedule(2, 40 * TICK);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(1_000 * TICK, fired::add);
+        assertThat(fired).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, SLOTS, LEVELS, 0);
+        wheel.schedule(1, 5 * TICK);      // level 0
+        wheel.schedule(2, 100 * TICK);    // level 2, cancelled before it cascades
+        wheel.schedule(3, 100 * TICK);
+        wheel.cancel(1);
+        wheel.cancel(2);
+        assertThat(wheel.contains(2)).isFalse();
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(200 * TICK, fired::add);
+        assertThat(fired).containsExactly(3L);
+    }
+
+    /** Rescheduling replaces the old timer: it fires once, at the new deadline. */
+    @Test
+    void rescheduleMovesTheTimer() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, SLOTS, LEVELS, 0);
+        wheel.schedule(1, 100 * TICK);
+        wheel.schedule(1, 10 * TICK);
+        assertThat(wheel.deadlineMillis(1)).isEqualTo(10 * TICK);
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(10 * TICK, fired::add);
+        assertThat(fired).containsExactly(1L);
+
+        wheel.advance(200 * TICK, fired::add);
+        assertThat(fired).containsExactly(1L);
+    }
+
+    @Test
+    void pastDueTimersFireOnTheNextAdvance() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, SLOTS, LEVELS, 100 * TICK);
+        wheel.schedule(1, 50 * TICK);
+        wheel.schedule(2, 100 * TICK);    // due right now
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(100 * TICK, fired::add);   // the clock did not move
+        assertThat(fired).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void refusesDeadlinesBeyondTheRange() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, SLOTS, LEVELS, 0);
+        assertThat(wheel.maxDeadlineMillis()).isEqualTo(511 * TICK);
+        assertThat(wheel.schedule(1, 511 * TICK)).isTrue();
+        assertThat(wheel.schedule(2, 512 * TICK)).isFalse();
+        assertThat(wheel.contains(2)).isFalse();
+    }
+
+    @Test
+    void clearDropsEverything() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, SLOTS, LEVELS, 0);
+        wheel.schedule(1, 5 * TICK);
+        wheel.schedule(2, 300 * TICK);
+        wheel.clear();
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(1_000 * TICK, fired::add);
+        assertThat(fired).isEmpty();
+        assertThat(wheel.ids()).isEmpty();
+    }
+}
@@ -0,0 +1,128 @@
+-- Seed for ReadPathRegressionTests (profile mysql-it), loaded after Hibernate
+-- has created the schema. Sized so the optimizer's choices are the ones it
+-- makes in production (indexes beat scans), small enough to load in seconds.
+--
+--   organization 1, project 10 (WABA 100/101/102) + project 20 (WABA 200) as noise
+--   contacts        1..600
+--   conversations   1..2000     1..1500 → project 10, WABA 100 + id % 3; rest → project 20
+--                               every 5th CLOSED; id % 4 = 0 → USER (id DIV 4 % 5) + 1,
+--                               id % 4 = 1 → TEAM 9, else UNASSIGNED
+--   messages        1..45       conversation 1 (contact 1, WABA 101); 41 / 43 / 45 are
+--                               TEMPLATE order_update / welcome / otp_code, the rest TEXT
+--                   46..        three TEXT messages for every other conversation
+--   templates       1 order_update (BODY + CAROUSEL of 3 cards), 2 welcome (HEADER, BODY,
+--                   FOOTER, BUTTONS), 3 otp_code (BODY, BUTTONS), 4 welcome deleted,
+--                   5 welcome in project 20
+--
+-- The template tables carry no schema prefix: Hibernate's MySQL dialect
+-- qualifies names by catalog only, so @Table(schema = "apargo_wa_template")
+-- resolves to the connection's database — that is where ddl-auto creates
+-- them and where the template queries read.
+
+SET SESSION cte_max_recursion_depth = 5000;
+
+INSERT INTO contacts (id, organization_id, wa_phone_e164, wa_id, display_name)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 600)
+SELECT n, 1, CONCAT('+9190000', LPAD(n, 5, '0')), CONCAT('9190000', LPAD(n, 5, '0')), CONCAT('Contact ', n)
+FROM seq;
+
+INSERT INTO conversations (id, organization_id, project_id, waba_account_id, contact_id, status,
+                           assigned_type, assigned_id, last_message_at, last_message_direction,
+                           last_message_preview, unread_count, conversation_open_until, last_inbound_at,
+                           is_locked, created_at, updated_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 2000)
+SELECT n, 1,
+       IF(n <= 1500, 10, 20),
+       IF(n <= 1500, 100 + n % 3, 200),
+       (n - 1) % 600 + 1,
+       IF(n % 5 = 0, 'CLOSED', 'OPEN'),
+       CASE n % 4 WHEN 0 THEN 'USER' WHEN 1 THEN 'TEAM' ELSE 'UNASSIGNED' END,
+       CASE n % 4 WHEN 0 THEN n DIV 4 % 5 + 1 WHEN 1 THEN 9 END,
+       TIMESTAMP('2026-01-01') + INTERVAL n MINUTE,
+       'INBOUND',
+       CONCAT('Message ', n),
+       n % 3,
+       TIMESTAMP('2026-01-01') + INTERVAL n MINUTE + INTERVAL 1 DAY,
+       TIMESTAMP('2026-01-01') + INTERVAL n MINUTE,
+       0,
+       TIMESTAMP('2026-01-01'),
+       TIMESTAMP('2026-01-01') + INTERVAL n MINUTE
+FROM seq;
+
+INSERT INTO messages (id, uuid, organization_id, project_id, conversation_id, waba_account_id, contact_id,
+                      direction, message_type, template_name, template_language, body_text,
+                      status, created_by_type, created_at)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 45)
+SELECT n, UUID(), 1, 10, 1, 101, 1,
+       IF(n % 2 = 1, 'OUTBOUND', 'INBOUND'),
+       IF(n IN (41, 43, 45), 'TEMPLATE', 'TEXT'),
+       CASE n WHEN 41 THEN 'order_update' WHEN 43 THEN 'welcome' WHEN 45 THEN 'otp_code' END,
+       IF(n IN (41, 43, 45), 'en', NULL),
+       IF(n IN (41, 43, 45), NULL, CONCAT('Text ', n)),
+       'READ',
+       'USER',
+       TIMESTAMP('2026-02-01') + INTERVAL n MINUTE
+FROM seq;
+
+INSERT INTO messages (uuid, organization_id, project_id, conversation_id, waba_account_id, contact_id,
+                      direction, message_type, body_text, status, created_by_type, created_at)
+SELECT UUID(), conv.organization_id, conv.project_id, conv.id, conv.waba_account_id, conv.contact_id,
+       IF(k.n = 3, 'INBOUND', 'OUTBOUND'), 'TEXT', CONCAT('Text ', conv.id, '/', k.n), 'DELIVERED', 'USER',
+       conv.last_message_at - INTERVAL (3 - k.n) MINUTE
+FROM conversations conv
+JOIN (SELECT 1 AS n UNION ALL SELECT 2 UNION ALL SELECT 3) k
+WHERE conv.id > 1;
+
+INSERT INTO message_status_rollup (message_id, is_sent, is_delivered, is_read, is_failed, last_updated_at)
+SELECT id, 1, 1, status = 'READ', 0, created_at
+FROM messages;
+
+UPDATE conversations conv
+SET conv.last_message_id = (SELECT MAX(m.id) FROM messages m WHERE m.conversation_id = conv.id);
+
+INSERT INTO whatsapp_templates (id, organization_id, project_id, name, category, language, status, deleted_at) VALUES
+    (1, 1, 10, 'order_update', 'MARKETING',      'en', 'APPROVED', NULL),
+    (2, 1, 10, 'welcome',      'MARKETING',      'en', 'APPROVED', NULL),
+    (3, 1, 10, 'otp_code',     'AUTHENTICATION', 'en', 'APPROVED', NULL),
+    (4, 1, 10, 'welcome',      'MARKETING',      'en', 'APPROVED', '2025-12-01 00:00:00'),
+    (5, 1, 20, 'welcome',      'MARKETING',      'en', 'APPROVED', NULL);
+
+INSERT INTO whatsapp_template_components (id, template_id, component_type, format, text, component_order) VALUES
+    (11, 1, 'BODY',     NULL,   'Your order {{1}} has shipped', 1),
+    (12, 1, 'CAROUSEL', NULL,   NULL,                           2),
+    (21, 2, 'HEADER',   'TEXT', 'Welcome',                      1),
+    (22, 2, 'BODY',     NULL,   'Hi {{1}}',                     2),
+    (23, 2, 'FOOTER',   NULL,   'Reply STOP to opt out',        3),
+    (24, 2, 'BUTTONS',  NULL,   NULL,                           4),
+    (31, 3, 'BODY',     NULL,   '{{1}} is your code',           1),
+    (32, 3, 'BUTTONS',  NULL,   NULL,                           2),
+    (41, 4, 'BODY',     NULL,   'Old welcome',                  1),
+    (51, 5, 'BODY',     NULL,   'Hi',                           1);
+
+INSERT INTO whatsapp_template_buttons (id, component_id, button_type, text, url, otp_type, button_index) VALUES
+    (1, 24, 'QUICK_REPLY', 'Talk to us', NULL,                  NULL,        0),
+    (2, 24, 'URL',         'Visit',      'https://example.com', NULL,        1),
+    (3, 32, 'OTP',         'Copy code',  NULL,                  'COPY_CODE', 0);
+
+INSERT INTO whatsapp_template_carousel_cards (id, component_id, card_index) VALUES
+    (1, 12, 0),
+    (2, 12, 1),
+    (3, 12, 2);
+
+INSERT INTO whatsapp_template_carousel_card_components (id, card_id, component_type, format, text, media_url) VALUES
+    (11, 1, 'HEADER',  'IMAGE', NULL,     'https://example.com/1.png'),
+    (12, 1, 'BODY',    NULL,    'Item 1', NULL),
+    (13, 1, 'BUTTONS', NULL,    NULL,     NULL),
+    (21, 2, 'HEADER',  'IMAGE', NULL,     'https://example.com/2.png'),
+    (22, 2, 'BODY',    NULL,    'Item 2', NULL),
+    (23, 2, 'BUTTONS', NULL,    NULL,     NULL),
+    (31, 3, 'HEADER',  'IMAGE', NULL,     'https://example.com/3.png'),
+    (32, 3, 'BODY',    NULL,    'Item 3', NULL),
+    (33, 3, 'BUTTONS', NULL,    NULL,     NULL);
+
+INSERT INTO whatsapp_template_carousel_buttons (id, card_component_id, button_type, text, url, button_index) VALUES
+    (1, 13, 'URL', 'Track', 'https://example.com/1', 0),
+    (2, 23, 'URL', 'Track', 'https://example.com/2', 0),
+    (3, 33, 'URL', 'Track', 'https://example.com/3', 0);
+
+ANALYZE TABLE contacts, conversations, messages, message_status_rollup;